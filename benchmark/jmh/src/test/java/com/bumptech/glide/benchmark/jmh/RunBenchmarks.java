@@ -0,0 +1,29 @@
+package com.bumptech.glide.benchmark.jmh;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+/**
+ * Runs the JMH benchmarks in this module with the JMH command line arguments passed in the {@code
+ * jmh} Gradle property, see README.md.
+ */
+@RunWith(JUnit4.class)
+public class RunBenchmarks {
+
+  @Test
+  public void runBenchmarks() throws CommandLineOptionException, RunnerException {
+    String args = System.getProperty("jmh.args", "").trim();
+    // JMH starts its forked JVMs with this JVM's classpath, which doesn't include the test classes
+    // when running in a Gradle test worker.
+    String classpath = System.getProperty("jmh.classpath");
+    if (classpath != null) {
+      System.setProperty("java.class.path", classpath);
+    }
+    new Runner(new CommandLineOptions(args.isEmpty() ? new String[0] : args.split("\\s+"))).run();
+  }
+}
@@ -0,0 +1,118 @@
+package com.bumptech.glide.gifdecoder;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing the header of a GIF and LZW decoding all of its frames with {@link
+ * StandardGifDecoder}.
+ *
+ * <p>Frames are written into a stub only Mockito mock {@link Bitmap}, so the results include the
+ * cost of the mocked calls but not the cost of copying pixels into a real {@link Bitmap}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StandardGifDecoderBenchmark {
+  private final GifDecoder.BitmapProvider bitmapProvider = new ReusingBitmapProvider();
+  private byte[] gif;
+  private StandardGifDecoder decoder;
+
+  @Setup
+  public void setUp() throws IOException {
+    gif = readResource("partial_gif_decode.gif");
+    decoder = new StandardGifDecoder(bitmapProvider);
+    decoder.read(gif);
+  }
+
+  @Benchmark
+  public int readHeader() {
+    return new StandardGifDecoder(bitmapProvider).read(gif);
+  }
+
+  @Benchmark
+  public Bitmap decodeAllFrames() {
+    decoder.resetFrameIndex();
+    Bitmap result = null;
+    for (int i = 0; i < decoder.getFrameCount(); i++) {
+      decoder.advance();
+      result = decoder.getNextFrame();
+    }
+    return result;
+  }
+
+  private static byte[] readResource(String name) throws IOException {
+    try (InputStream is = StandardGifDecoderBenchmark.class.getResourceAsStream("/" + name)) {
+      if (is == null) {
+        throw new IOException("Missing resource: " + name);
+      }
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        os.write(buffer, 0, read);
+      }
+      return os.toByteArray();
+    }
+  }
+
+  /** Hands out the same arrays and mock {@link Bitmap} for every frame, like a warm pool would. */
+  private static final class ReusingBitmapProvider implements GifDecoder.BitmapProvider {
+    private final Bitmap bitmap = mock(Bitmap.class, withSettings().stubOnly());
+    private byte[] bytes = new byte[0];
+    private int[] ints = new int[0];
+
+    @NonNull
+    @Override
+    public Bitmap obtain(int width, int height, @NonNull Bitmap.Config config) {
+      return bitmap;
+    }
+
+    @Override
+    public void release(@NonNull Bitmap bitmap) {}
+
+    @NonNull
+    @Override
+    public byte[] obtainByteArray(int size) {
+      if (bytes.length < size) {
+        bytes = new byte[size];
+      }
+      return bytes;
+    }
+
+    @Override
+    public void release(@NonNull byte[] bytes) {}
+
+    @NonNull
+    @Override
+    public int[] obtainIntArray(int size) {
+      if (ints.length < size) {
+        ints = new int[size];
+      }
+      return ints;
+    }
+
+    @Override
+    public void release(@NonNull int[] array) {}
+  }
+}
@@ -0,0 +1,73 @@
+package com.bumptech.glide.gifencoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the two expensive steps of encoding a GIF frame with {@link AnimatedGifEncoder},
+ * quantizing colors with {@link NeuQuant} and compressing the indexed pixels with {@link
+ * LZWEncoder}, for a synthetic frame with gradients and noise.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GifEncoderBenchmark {
+  private static final int WIDTH = 256;
+  private static final int HEIGHT = 256;
+  // The default sample rate used by AnimatedGifEncoder.
+  private static final int SAMPLE = 10;
+  private static final int COLOR_DEPTH = 8;
+
+  private final ByteArrayOutputStream os = new ByteArrayOutputStream();
+  private byte[] pixels;
+  private byte[] indexedPixels;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    pixels = new byte[WIDTH * HEIGHT * 3];
+    int k = 0;
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        pixels[k++] = (byte) (x + random.nextInt(16));
+        pixels[k++] = (byte) (y + random.nextInt(16));
+        pixels[k++] = (byte) (x + y);
+      }
+    }
+    NeuQuant neuQuant = new NeuQuant(pixels, pixels.length, SAMPLE);
+    neuQuant.process();
+    indexedPixels = new byte[WIDTH * HEIGHT];
+    k = 0;
+    for (int i = 0; i < indexedPixels.length; i++) {
+      indexedPixels[i] =
+          (byte) neuQuant.map(pixels[k++] & 0xff, pixels[k++] & 0xff, pixels[k++] & 0xff);
+    }
+  }
+
+  @Benchmark
+  public byte[] quantize() {
+    return new NeuQuant(pixels, pixels.length, SAMPLE).process();
+  }
+
+  @Benchmark
+  public int lzwEncode() throws IOException {
+    os.reset();
+    new LZWEncoder(WIDTH, HEIGHT, indexedPixels, COLOR_DEPTH).encode(os);
+    return os.size();
+  }
+}
@@ -0,0 +1,86 @@
+package com.bumptech.glide.load.engine;
+
+import android.graphics.Bitmap;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.resource.bitmap.CenterCrop;
+import com.bumptech.glide.signature.ObjectKey;
+import com.bumptech.glide.util.CachedHashCodeArrayMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creating and hashing {@link EngineKey}s and looking them up in a map, with a new key
+ * for every lookup and with a reused probe key, the way the {@link Engine} looks up resources.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineKeyBenchmark {
+  private static final int KEY_COUNT = 256;
+
+  private final String[] models = new String[KEY_COUNT];
+  private final Map<Key, Object> map = new HashMap<>();
+  private final EngineKey probe = new EngineKey();
+  private final Key signature = new ObjectKey("signature");
+  private final Options options = new Options();
+  private final Map<Class<?>, Transformation<?>> transformations = new CachedHashCodeArrayMap<>();
+  private int index;
+
+  @Setup
+  public void setUp() {
+    transformations.put(Bitmap.class, new CenterCrop());
+    for (int i = 0; i < KEY_COUNT; i++) {
+      models[i] = "https://www.example.com/images/" + i + ".jpg";
+      map.put(newKey(models[i]), models[i]);
+    }
+  }
+
+  @Benchmark
+  public int newKeyHashCode() {
+    return newKey(nextModel()).hashCode();
+  }
+
+  @Benchmark
+  public Object lookupWithNewKey() {
+    return map.get(newKey(nextModel()));
+  }
+
+  @Benchmark
+  public Object lookupWithProbeKey() {
+    probe.set(
+        nextModel(),
+        signature,
+        1080,
+        1920,
+        transformations,
+        Object.class,
+        Bitmap.class,
+        options);
+    return map.get(probe);
+  }
+
+  private String nextModel() {
+    return models[index++ & (KEY_COUNT - 1)];
+  }
+
+  private EngineKey newKey(String model) {
+    return new EngineKey(
+        model, signature, 1080, 1920, transformations, Object.class, Bitmap.class, options);
+  }
+}
@@ -0,0 +1,75 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures puts, gets and evictions in {@link GroupedLinkedMap} across a few groups. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupedLinkedMapBenchmark {
+  private static final int GROUP_COUNT = 64;
+  private static final int VALUES_PER_GROUP = 4;
+
+  private final IntKey[] keys = new IntKey[GROUP_COUNT];
+  private final Object value = new Object();
+  private GroupedLinkedMap<IntKey, Object> map;
+  private int index;
+
+  @Setup
+  public void setUp() {
+    map = new GroupedLinkedMap<>();
+    for (int i = 0; i < GROUP_COUNT; i++) {
+      keys[i] = new IntKey(i);
+      for (int j = 0; j < VALUES_PER_GROUP; j++) {
+        map.put(keys[i], value);
+      }
+    }
+  }
+
+  @Benchmark
+  public Object putAndGet() {
+    IntKey key = keys[index++ & (GROUP_COUNT - 1)];
+    map.put(key, value);
+    return map.get(key);
+  }
+
+  @Benchmark
+  public Object putAndRemoveLast() {
+    map.put(keys[index++ & (GROUP_COUNT - 1)], value);
+    return map.removeLast();
+  }
+
+  private static final class IntKey implements Poolable {
+    private final int value;
+
+    IntKey(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public void offer() {}
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof IntKey && ((IntKey) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return value;
+    }
+  }
+}
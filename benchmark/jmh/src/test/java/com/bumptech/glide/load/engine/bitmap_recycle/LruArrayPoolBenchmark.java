@@ -0,0 +1,52 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a get followed by a put of the same array, the way decoders use {@link ArrayPool}s, for
+ * {@link LruArrayPool} and {@link SizeClassArrayPool}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LruArrayPoolBenchmark {
+  private static final int ARRAY_SIZE = ArrayPool.STANDARD_BUFFER_SIZE_BYTES;
+
+  @Param({"LruArrayPool", "SizeClassArrayPool"})
+  public String pool;
+
+  private ArrayPool arrayPool;
+
+  @Setup
+  public void setUp() {
+    arrayPool = pool.equals("LruArrayPool") ? new LruArrayPool() : new SizeClassArrayPool();
+  }
+
+  @Benchmark
+  public byte[] getAndPut() {
+    byte[] result = arrayPool.get(ARRAY_SIZE, byte[].class);
+    arrayPool.put(result);
+    return result;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public byte[] getAndPutContended() {
+    return getAndPut();
+  }
+}
@@ -0,0 +1,71 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.graphics.Bitmap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a put followed by a get of a similar size, the way {@link LruBitmapPool} uses its
+ * strategy, for {@link SizeConfigStrategy} and {@link AttributeStrategy}.
+ *
+ * <p>Bitmaps are stub only Mockito mocks, so results include the cost of the mocked calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LruPoolStrategyBenchmark {
+  private static final int BITMAP_COUNT = 16;
+  private static final int[] SIZES = new int[] {64, 128, 256, 512};
+
+  @Param({"SizeConfigStrategy", "AttributeStrategy"})
+  public String strategy;
+
+  private final Bitmap[] bitmaps = new Bitmap[BITMAP_COUNT];
+  private LruPoolStrategy poolStrategy;
+  private int index;
+
+  @Setup
+  public void setUp() {
+    poolStrategy =
+        strategy.equals("SizeConfigStrategy") ? new SizeConfigStrategy() : new AttributeStrategy();
+    for (int i = 0; i < BITMAP_COUNT; i++) {
+      bitmaps[i] = mockBitmap(SIZES[i % SIZES.length], SIZES[(i / SIZES.length) % SIZES.length]);
+      poolStrategy.put(bitmaps[i]);
+    }
+  }
+
+  @Benchmark
+  public Bitmap putAndGet() {
+    Bitmap bitmap = bitmaps[index++ & (BITMAP_COUNT - 1)];
+    poolStrategy.put(bitmap);
+    return poolStrategy.get(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+  }
+
+  private static Bitmap mockBitmap(int width, int height) {
+    Bitmap result = mock(Bitmap.class, withSettings().stubOnly());
+    when(result.getWidth()).thenReturn(width);
+    when(result.getHeight()).thenReturn(height);
+    when(result.getConfig()).thenReturn(Bitmap.Config.ARGB_8888);
+    when(result.getRowBytes()).thenReturn(width * 4);
+    when(result.isRecycled()).thenReturn(false);
+    when(result.isMutable()).thenReturn(true);
+    return result;
+  }
+}
@@ -0,0 +1,75 @@
+package com.bumptech.glide.load.engine.cache;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.signature.ObjectKey;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SafeKeyGenerator#getSafeKey(Key)} with each {@link SafeKeyDigest}, for a set of
+ * keys that fits in its cache of recent keys and for one that doesn't, so that every key has to be
+ * digested.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeKeyGeneratorBenchmark {
+
+  @Param({"256", "4096"})
+  public int keyCount;
+
+  @Param({"SHA_256", "MURMUR3_128"})
+  public String digest;
+
+  private SafeKeyGenerator safeKeyGenerator;
+  private Key[] keys;
+
+  @Setup
+  public void setUp() {
+    safeKeyGenerator =
+        new SafeKeyGenerator(
+            digest.equals("SHA_256") ? SafeKeyDigest.SHA_256 : SafeKeyDigest.MURMUR3_128);
+    keys = new Key[keyCount];
+    for (int i = 0; i < keyCount; i++) {
+      keys[i] = new ObjectKey("https://www.example.com/images/" + i + ".jpg?w=1080&h=1920");
+    }
+  }
+
+  @Benchmark
+  public String getSafeKey(Cursor cursor) {
+    return safeKeyGenerator.getSafeKey(keys[cursor.index++ & (keyCount - 1)]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String getSafeKeyContended(Cursor cursor) {
+    return getSafeKey(cursor);
+  }
+
+  /** A thread's position in the keys. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    int index;
+
+    @Setup
+    public void setUp() {
+      // Start threads at different keys so that they don't digest the same keys in lockstep.
+      index = ThreadLocalRandom.current().nextInt();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import com.bumptech.glide.load.ImageHeaderParser.ImageType;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading the type and EXIF orientation of a JPEG with {@link DefaultImageHeaderParser}
+ * from streams and from {@link ByteBuffer}s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultImageHeaderParserBenchmark {
+  private final DefaultImageHeaderParser parser = new DefaultImageHeaderParser();
+  private final ArrayPool arrayPool = new LruArrayPool();
+  private byte[] jpeg;
+
+  @Setup
+  public void setUp() throws IOException {
+    jpeg = readResource("Landscape_6.jpg");
+  }
+
+  @Benchmark
+  public ImageType getTypeFromStream() throws IOException {
+    return parser.getType(new ByteArrayInputStream(jpeg));
+  }
+
+  @Benchmark
+  public ImageType getTypeFromByteBuffer() throws IOException {
+    return parser.getType(ByteBuffer.wrap(jpeg));
+  }
+
+  @Benchmark
+  public int getOrientationFromStream() throws IOException {
+    return parser.getOrientation(new ByteArrayInputStream(jpeg), arrayPool);
+  }
+
+  @Benchmark
+  public int getOrientationFromByteBuffer() throws IOException {
+    return parser.getOrientation(ByteBuffer.wrap(jpeg), arrayPool);
+  }
+
+  private static byte[] readResource(String name) throws IOException {
+    try (InputStream is = DefaultImageHeaderParserBenchmark.class.getResourceAsStream("/" + name)) {
+      if (is == null) {
+        throw new IOException("Missing resource: " + name);
+      }
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        os.write(buffer, 0, read);
+      }
+      return os.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.load.resource.bitmap.PixelTransformationUtils.Filter;
+import com.bumptech.glide.load.resource.bitmap.PixelTransformationUtils.Pixels;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PixelTransformationUtils#centerCrop} of a camera sized image to a thumbnail with
+ * each {@link Filter}, compared to a bilinear {@code java.awt} draw of the same crop as a baseline
+ * for what a server would otherwise use. The {@code java.awt} draw samples the source without
+ * averaging when scaling down, so it's faster but aliases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PixelTransformationUtilsBenchmark {
+  private static final int SOURCE_WIDTH = 4032;
+  private static final int SOURCE_HEIGHT = 3024;
+
+  @Param({"AREA_AVERAGE", "BILINEAR", "LANCZOS3"})
+  public Filter filter;
+
+  @Param({"256", "1024"})
+  public int size;
+
+  // Large enough to keep the intermediate arrays between invocations.
+  private final ArrayPool arrayPool = new LruArrayPool(64 * 1024 * 1024);
+  private Pixels source;
+  private BufferedImage sourceImage;
+
+  @Setup
+  public void setUp() {
+    int[] pixels = new int[SOURCE_WIDTH * SOURCE_HEIGHT];
+    for (int y = 0; y < SOURCE_HEIGHT; y++) {
+      for (int x = 0; x < SOURCE_WIDTH; x++) {
+        // A gradient with some high frequency detail, so filters can't skip any work.
+        pixels[y * SOURCE_WIDTH + x] =
+            0xFF000000 | ((x & 0xFF) << 16) | ((y & 0xFF) << 8) | ((x ^ y) & 0xFF);
+      }
+    }
+    source = new Pixels(pixels, SOURCE_WIDTH, SOURCE_HEIGHT);
+    sourceImage = new BufferedImage(SOURCE_WIDTH, SOURCE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    sourceImage.setRGB(0, 0, SOURCE_WIDTH, SOURCE_HEIGHT, pixels, 0, SOURCE_WIDTH);
+  }
+
+  @Benchmark
+  public Pixels centerCrop() {
+    Pixels result = PixelTransformationUtils.centerCrop(arrayPool, source, size, size, filter);
+    arrayPool.put(result.getPixels());
+    return result;
+  }
+
+  @Benchmark
+  public BufferedImage awtCenterCrop() {
+    BufferedImage result = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = result.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      float scale = size / (float) SOURCE_HEIGHT;
+      int srcX = Math.round((SOURCE_WIDTH - size / scale) / 2);
+      graphics.drawImage(
+          sourceImage,
+          0,
+          0,
+          size,
+          size,
+          srcX,
+          0,
+          SOURCE_WIDTH - srcX,
+          SOURCE_HEIGHT,
+          /* observer= */ null);
+    } finally {
+      graphics.dispose();
+    }
+    return result;
+  }
+}
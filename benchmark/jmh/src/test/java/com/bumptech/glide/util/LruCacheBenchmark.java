@@ -0,0 +1,57 @@
+package com.bumptech.glide.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures hits, misses and evicting puts in {@link LruCache}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LruCacheBenchmark {
+  private static final int CACHE_SIZE = 1024;
+  // Twice the cache size so that cycling through all keys misses or evicts every time.
+  private static final int KEY_COUNT = CACHE_SIZE * 2;
+
+  private final Integer[] keys = new Integer[KEY_COUNT];
+  private final Object value = new Object();
+  private LruCache<Integer, Object> cache;
+  private int index;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys[i] = i;
+    }
+    cache = new LruCache<>(CACHE_SIZE);
+    for (int i = 0; i < CACHE_SIZE; i++) {
+      cache.put(keys[i], value);
+    }
+  }
+
+  @Benchmark
+  public Object getHit() {
+    return cache.get(keys[index++ & (CACHE_SIZE - 1)]);
+  }
+
+  @Benchmark
+  public Object getMiss() {
+    return cache.get(keys[CACHE_SIZE + (index++ & (CACHE_SIZE - 1))]);
+  }
+
+  @Benchmark
+  public Object putEvict() {
+    return cache.put(keys[index++ & (KEY_COUNT - 1)], value);
+  }
+}
@@ -0,0 +1,155 @@
+package com.bumptech.glide.benchmark;
+
+import android.app.Application;
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.engine.executor.GlideExecutor;
+import com.bumptech.glide.request.FutureTarget;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.signature.ObjectKey;
+import com.bumptech.glide.testutil.ConcurrencyHelper;
+import com.bumptech.glide.testutil.TearDownGlide;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time it takes to load a grid of thumbnails from Glide's disk cache, the time until
+ * the first frame of the grid can be shown, with single and multi threaded disk cache executors.
+ *
+ * <p>See {@link GlideExecutor.Builder#setSerialPerKey(boolean)}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BenchmarkCachedGrid {
+  private static final int GRID_SIZE = 50;
+  private static final int THUMBNAIL_SIZE = 256;
+
+  private final ConcurrencyHelper concurrencyHelper = new ConcurrencyHelper();
+  @Rule public final TearDownGlide tearDownGlide = new TearDownGlide();
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Application app = ApplicationProvider.getApplicationContext();
+
+  @Test
+  public void grid_oneThread() throws Exception {
+    runBenchmark(/* threadCount= */ 1);
+  }
+
+  @Test
+  public void grid_twoThreads_serialPerKey() throws Exception {
+    runBenchmark(/* threadCount= */ 2);
+  }
+
+  @Test
+  public void grid_fourThreads_serialPerKey() throws Exception {
+    runBenchmark(/* threadCount= */ 4);
+  }
+
+  private void runBenchmark(int threadCount) throws Exception {
+    Glide.init(
+        app,
+        new GlideBuilder()
+            .setDiskCacheExecutor(
+                GlideExecutor.newDiskCacheBuilder()
+                    .setThreadCount(threadCount)
+                    .setSerialPerKey(threadCount > 1)
+                    .build()));
+
+    BenchmarkState state = benchmarkRule.getState();
+    state.pauseTiming();
+    // Each signature is a separate disk cache entry, source data is written to the disk cache
+    // before the first load of each entry completes.
+    loadGrid(state, DataSource.LOCAL, /* isAlreadyPaused= */ true);
+    state.resumeTiming();
+
+    while (state.keepRunning()) {
+      state.pauseTiming();
+      clearMemoryCache();
+      state.resumeTiming();
+
+      loadGrid(state, DataSource.DATA_DISK_CACHE, /* isAlreadyPaused= */ false);
+    }
+  }
+
+  private void loadGrid(
+      BenchmarkState state, final DataSource expectedDataSource, boolean isAlreadyPaused)
+      throws Exception {
+    final AtomicInteger unexpectedDataSourceCount = new AtomicInteger();
+    List<FutureTarget<Bitmap>> targets = new ArrayList<>(GRID_SIZE);
+    for (int i = 0; i < GRID_SIZE; i++) {
+      targets.add(
+          Glide.with(app)
+              .asBitmap()
+              .diskCacheStrategy(DiskCacheStrategy.DATA)
+              .skipMemoryCache(true)
+              .signature(new ObjectKey(i))
+              .override(THUMBNAIL_SIZE)
+              .load(R.raw.pixel3a_portrait)
+              .listener(
+                  new RequestListener<Bitmap>() {
+                    @Override
+                    public boolean onLoadFailed(
+                        @Nullable GlideException e,
+                        Object model,
+                        @NonNull Target<Bitmap> target,
+                        boolean isFirstResource) {
+                      return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(
+                        @NonNull Bitmap resource,
+                        @NonNull Object model,
+                        Target<Bitmap> target,
+                        @NonNull DataSource dataSource,
+                        boolean isFirstResource) {
+                      if (dataSource != expectedDataSource) {
+                        unexpectedDataSourceCount.incrementAndGet();
+                      }
+                      return false;
+                    }
+                  })
+              .submit());
+    }
+    for (FutureTarget<Bitmap> target : targets) {
+      target.get(15, TimeUnit.SECONDS);
+    }
+
+    if (!isAlreadyPaused) {
+      state.pauseTiming();
+    }
+    Preconditions.checkState(unexpectedDataSourceCount.get() == 0, unexpectedDataSourceCount);
+    for (FutureTarget<Bitmap> target : targets) {
+      Glide.with(app).clear(target);
+    }
+    if (!isAlreadyPaused) {
+      state.resumeTiming();
+    }
+  }
+
+  private void clearMemoryCache() {
+    concurrencyHelper.runOnMainThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            Glide.get(app).clearMemory();
+          }
+        });
+  }
+}
@@ -0,0 +1,164 @@
+package com.bumptech.glide.benchmark;
+
+import android.app.Application;
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RawRes;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.model.FileLoader;
+import com.bumptech.glide.request.FutureTarget;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.testutil.ConcurrencyHelper;
+import com.bumptech.glide.testutil.TearDownGlide;
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares reading original source data from Glide's disk cache via {@link InputStream}s with
+ * reading it via memory mapped {@link java.nio.ByteBuffer}s.
+ *
+ * <p>See {@link GlideBuilder#setMemoryMapDataCacheReads(boolean)}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BenchmarkDataCacheReads {
+  private final ConcurrencyHelper concurrencyHelper = new ConcurrencyHelper();
+  @Rule public final TearDownGlide tearDownGlide = new TearDownGlide();
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Application app = ApplicationProvider.getApplicationContext();
+
+  @Test
+  public void pixel3a_portrait_stream_medium() throws Exception {
+    runBenchmark(/* isMemoryMapped= */ false, R.raw.pixel3a_portrait, 1024);
+  }
+
+  @Test
+  public void pixel3a_portrait_mapped_medium() throws Exception {
+    runBenchmark(/* isMemoryMapped= */ true, R.raw.pixel3a_portrait, 1024);
+  }
+
+  @Test
+  public void pixel3a_portrait_stream_tiny() throws Exception {
+    runBenchmark(/* isMemoryMapped= */ false, R.raw.pixel3a_portrait, 50);
+  }
+
+  @Test
+  public void pixel3a_portrait_mapped_tiny() throws Exception {
+    runBenchmark(/* isMemoryMapped= */ true, R.raw.pixel3a_portrait, 50);
+  }
+
+  private void runBenchmark(boolean isMemoryMapped, @RawRes int resourceId, int targetSize)
+      throws Exception {
+    Glide.init(app, new GlideBuilder().setMemoryMapDataCacheReads(isMemoryMapped));
+    if (!isMemoryMapped) {
+      // The default registry already maps cache files, so make streams win unless the cache is
+      // explicitly memory mapped.
+      Glide.get(app)
+          .getRegistry()
+          .prepend(File.class, InputStream.class, new FileLoader.StreamFactory());
+    }
+
+    BenchmarkState state = benchmarkRule.getState();
+    state.pauseTiming();
+    // Writes to the disk cache happen asynchronously after a request completes, keep loading
+    // until the data is read from the cache so that only cache reads are timed.
+    try {
+      while (true) {
+        loadImageWithExpectedDataSource(
+            state, resourceId, targetSize, DataSource.LOCAL, /* isAlreadyPaused= */ true);
+      }
+    } catch (IllegalStateException e) {
+      // The data is now in the disk cache.
+    }
+    state.resumeTiming();
+
+    while (state.keepRunning()) {
+      state.pauseTiming();
+      clearMemoryCache();
+      state.resumeTiming();
+
+      loadImageWithExpectedDataSource(
+          state, resourceId, targetSize, DataSource.DATA_DISK_CACHE, /* isAlreadyPaused= */ false);
+    }
+  }
+
+  private void loadImageWithExpectedDataSource(
+      BenchmarkState state,
+      @RawRes int resourceId,
+      int targetSize,
+      DataSource expectedDataSource,
+      boolean isAlreadyPaused)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    final AtomicReference<DataSource> dataSourceRef = new AtomicReference<>();
+    FutureTarget<Bitmap> target =
+        Glide.with(app)
+            .asBitmap()
+            .diskCacheStrategy(DiskCacheStrategy.DATA)
+            .skipMemoryCache(true)
+            .override(targetSize)
+            .load(resourceId)
+            .listener(
+                new RequestListener<Bitmap>() {
+                  @Override
+                  public boolean onLoadFailed(
+                      @Nullable GlideException e,
+                      Object model,
+                      @NonNull Target<Bitmap> target,
+                      boolean isFirstResource) {
+                    return false;
+                  }
+
+                  @Override
+                  public boolean onResourceReady(
+                      @NonNull Bitmap resource,
+                      @NonNull Object model,
+                      Target<Bitmap> target,
+                      @NonNull DataSource dataSource,
+                      boolean isFirstResource) {
+                    dataSourceRef.set(dataSource);
+                    return false;
+                  }
+                })
+            .submit();
+    target.get(15, TimeUnit.SECONDS);
+
+    if (!isAlreadyPaused) {
+      state.pauseTiming();
+    }
+
+    Preconditions.checkState(dataSourceRef.get() == expectedDataSource, dataSourceRef.get());
+    Glide.with(app).clear(target);
+
+    if (!isAlreadyPaused) {
+      state.resumeTiming();
+    }
+  }
+
+  private void clearMemoryCache() {
+    concurrencyHelper.runOnMainThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            Glide.get(app).clearMemory();
+          }
+        });
+  }
+}
@@ -0,0 +1,110 @@
+package com.bumptech.glide.benchmark;
+
+import android.app.Application;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.load.model.StreamEncoder;
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares writing large local files to the disk cache with {@link StreamEncoder} using {@link
+ * java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * with copying them through a buffer.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BenchmarkStreamEncoder {
+  private static final int SMALL_FILE_SIZE = 256 * 1024;
+  private static final int LARGE_FILE_SIZE = 16 * 1024 * 1024;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Application app = ApplicationProvider.getApplicationContext();
+  private final StreamEncoder encoder = new StreamEncoder(new LruArrayPool());
+  private File source;
+  private File target;
+
+  @Before
+  public void setUp() {
+    source = new File(app.getCacheDir(), "benchmark_stream_encoder_source");
+    target = new File(app.getCacheDir(), "benchmark_stream_encoder_target");
+  }
+
+  @After
+  public void tearDown() {
+    source.delete();
+    target.delete();
+  }
+
+  @Test
+  public void transfer_small() throws IOException {
+    runBenchmark(SMALL_FILE_SIZE, /* isTransferAllowed= */ true);
+  }
+
+  @Test
+  public void copy_small() throws IOException {
+    runBenchmark(SMALL_FILE_SIZE, /* isTransferAllowed= */ false);
+  }
+
+  @Test
+  public void transfer_large() throws IOException {
+    runBenchmark(LARGE_FILE_SIZE, /* isTransferAllowed= */ true);
+  }
+
+  @Test
+  public void copy_large() throws IOException {
+    runBenchmark(LARGE_FILE_SIZE, /* isTransferAllowed= */ false);
+  }
+
+  private void runBenchmark(int fileSize, boolean isTransferAllowed) throws IOException {
+    writeSourceFile(fileSize);
+
+    BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      state.pauseTiming();
+      InputStream is = new FileInputStream(source);
+      if (!isTransferAllowed) {
+        // StreamEncoder only transfers from streams it knows read directly from a file.
+        is = new FilterInputStream(is) {};
+      }
+      state.resumeTiming();
+
+      Preconditions.checkState(encoder.encode(is, target, new Options()));
+
+      state.pauseTiming();
+      is.close();
+      Preconditions.checkState(target.length() == fileSize, target.length());
+      state.resumeTiming();
+    }
+  }
+
+  private void writeSourceFile(int fileSize) throws IOException {
+    byte[] chunk = new byte[64 * 1024];
+    for (int i = 0; i < chunk.length; i++) {
+      chunk[i] = (byte) i;
+    }
+    OutputStream os = new FileOutputStream(source);
+    try {
+      for (int written = 0; written < fileSize; written += chunk.length) {
+        os.write(chunk, 0, Math.min(chunk.length, fileSize - written));
+      }
+    } finally {
+      os.close();
+    }
+  }
+}
@@ -5,6 +5,7 @@ import android.os.Looper;
 import android.os.Message;
 import android.util.Log;
 import androidx.annotation.GuardedBy;
+import com.bumptech.glide.util.CacheStats;
 import java.io.File;
 import java.util.List;
 
@@ -73,7 +74,7 @@ final class EvictionManager {
     }
   }
 
-  private synchronized long getMaximumSizeBytes() {
+  synchronized long getMaximumSizeBytes() {
     return maximumSizeBytes;
   }
 
@@ -118,7 +119,11 @@ final class EvictionManager {
     int successfullyDeletedCount = 0;
     int triedToDeleteEntries = staleEntriesKeys.size();
     if (!staleEntriesKeys.isEmpty()) {
-      successfullyDeletedCount += diskCache.delete(staleEntriesKeys).size();
+      int staleDeletedCount = diskCache.delete(staleEntriesKeys).size();
+      diskCache
+          .getStatsRecorder()
+          .recordEvictions(CacheStats.EvictionCause.EXPIRED, staleDeletedCount);
+      successfullyDeletedCount += staleDeletedCount;
     }
 
     long targetSize = maximumSizeBytes - evictionSlopBytes;
@@ -126,7 +131,9 @@ final class EvictionManager {
       long bytesToEvict = journal.getCurrentSizeBytes() - targetSize;
       List<String> leastRecentlyUsedKeys = journal.getLeastRecentlyUsed(bytesToEvict);
       triedToDeleteEntries += leastRecentlyUsedKeys.size();
-      successfullyDeletedCount += diskCache.delete(leastRecentlyUsedKeys).size();
+      int sizeDeletedCount = diskCache.delete(leastRecentlyUsedKeys).size();
+      diskCache.getStatsRecorder().recordEvictions(CacheStats.EvictionCause.SIZE, sizeDeletedCount);
+      successfullyDeletedCount += sizeDeletedCount;
     }
 
     if (triedToDeleteEntries == 0) {
@@ -2,14 +2,16 @@ package com.bumptech.glide.integration.sqljournaldiskcache;
 
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
 import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.engine.cache.DiskCache;
 import com.bumptech.glide.load.engine.cache.SafeKeyGenerator;
+import com.bumptech.glide.util.CacheStats;
 import com.bumptech.glide.util.Util;
 import java.io.File;
 
 /** Implements {@link DiskCache} using {@link JournaledLruDiskCache}. */
-public final class GlideJournaledLruDiskCacheWrapper implements DiskCache {
+public final class GlideJournaledLruDiskCacheWrapper implements DiskCache, CacheStats.Provider {
   // 500 mb
   private static final long DEFAULT_GLIDE_CACHE_SIZE_BYTES = 1024 * 1024 * 500;
   public static final String DEFAULT_CACHE_DIR = "glide_cache";
@@ -110,4 +112,14 @@ public final class GlideJournaledLruDiskCacheWrapper implements DiskCache {
   public long getCurrentSizeBytes() {
     return diskCache.getCurrentSizeBytes();
   }
+
+  /**
+   * Returns the stats of the JournaledLruDiskCache. Entries that weren't used for longer than the
+   * stale eviction threshold are counted as {@link CacheStats.EvictionCause#EXPIRED} evictions.
+   */
+  @NonNull
+  @Override
+  public CacheStats getStats() {
+    return diskCache.getStats();
+  }
 }
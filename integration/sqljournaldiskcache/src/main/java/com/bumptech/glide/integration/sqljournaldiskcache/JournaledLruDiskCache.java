@@ -6,6 +6,8 @@ import android.os.Process;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.CacheStatsRecorder;
 import com.bumptech.glide.util.Preconditions;
 import java.io.File;
 import java.io.IOException;
@@ -50,6 +52,7 @@ final class JournaledLruDiskCache {
   private final EvictionManager evictionManager;
   private final RecoveryManager recoveryManager;
   private final EntryCache entries = new EntryCache();
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
 
   private volatile boolean isOpen;
 
@@ -170,6 +173,18 @@ final class JournaledLruDiskCache {
     return journal.getCurrentSizeBytes();
   }
 
+  /**
+   * Returns the stats of this cache. Entries removed by {@link #clear()} or {@link #delete(String)}
+   * aren't counted as evictions.
+   */
+  CacheStats getStats() {
+    return stats.snapshot(getCurrentSizeBytes(), evictionManager.getMaximumSizeBytes());
+  }
+
+  CacheStatsRecorder getStatsRecorder() {
+    return stats;
+  }
+
   /**
    * Makes a best effort attempt to delete all Files and clear the journal.
    *
@@ -247,6 +262,7 @@ final class JournaledLruDiskCache {
       if (result != null) {
         journal.get(key);
       }
+      stats.recordLookup(result != null);
 
       if (LOG_VERBOSE) {
         Log.v(TAG, "Completed get in: " + getElapsedTime(startTime) + ", key: " + key);
@@ -345,6 +361,7 @@ final class JournaledLruDiskCache {
 
     long totalBytesAdded = fileSystem.length(temp);
     journal.put(key, totalBytesAdded);
+    stats.recordPut();
 
     if (LOG_VERBOSE) {
       Log.v(TAG, "Completed insertIntoDb in: " + getElapsedTime(startTime));
@@ -33,6 +33,7 @@ import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.ImageViewTargetFactory;
 import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.util.CacheStats;
 import com.bumptech.glide.util.GlideSuppliers.GlideSupplier;
 import com.bumptech.glide.util.Preconditions;
 import com.bumptech.glide.util.Util;
@@ -479,6 +480,32 @@ public class Glide implements ComponentCallbacks2 {
     engine.clearDiskCache();
   }
 
+  /**
+   * Returns a snapshot of the hit, miss, put and eviction counts and the sizes of Glide's memory
+   * cache, pools and disk cache, and the counts of resources in use by requests.
+   *
+   * <p>Counts are kept by all of Glide's default caches and pools and are cheap to keep, so this
+   * method may be called in production, for example to periodically report hit ratios. It's safe
+   * to call on any thread.
+   */
+  // Public API.
+  @SuppressWarnings({"unused", "WeakerAccess"})
+  @NonNull
+  public GlideStats getStats() {
+    return new GlideStats(
+        getStats(memoryCache),
+        getStats(bitmapPool),
+        getStats(arrayPool),
+        engine.getDiskCacheStats(),
+        engine.getActiveResourceCount(),
+        engine.getReclaimedResourceCount());
+  }
+
+  @Nullable
+  private static CacheStats getStats(@NonNull Object cache) {
+    return cache instanceof CacheStats.Provider ? ((CacheStats.Provider) cache).getStats() : null;
+  }
+
   /** Internal method. */
   @NonNull
   public RequestManagerRetriever getRequestManagerRetriever() {
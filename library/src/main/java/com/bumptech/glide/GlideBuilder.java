@@ -11,17 +11,21 @@ import com.bumptech.glide.Glide.RequestOptionsFactory;
 import com.bumptech.glide.GlideExperiments.Experiment;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.engine.Engine;
+import com.bumptech.glide.load.engine.EngineEventListener;
 import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.engine.ResourceEncodeQueue;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
 import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPoolAdapter;
 import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
 import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.MagazineBitmapPool;
 import com.bumptech.glide.load.engine.cache.DiskCache;
 import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
 import com.bumptech.glide.load.engine.cache.LruResourceCache;
 import com.bumptech.glide.load.engine.cache.MemoryCache;
 import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.engine.cache.TinyLfuResourceCache;
 import com.bumptech.glide.load.engine.executor.GlideExecutor;
 import com.bumptech.glide.manager.ConnectivityMonitorFactory;
 import com.bumptech.glide.manager.DefaultConnectivityMonitorFactory;
@@ -64,7 +68,13 @@ public final class GlideBuilder {
       };
   @Nullable private RequestManagerFactory requestManagerFactory;
   private GlideExecutor animationExecutor;
+  @Nullable private GlideExecutor decodeExecutor;
+  @Nullable private ResourceEncodeQueue resourceEncodeQueue;
+  @Nullable private EngineEventListener engineEventListener;
   private boolean isActiveResourceRetentionAllowed;
+  private boolean isMemoryCacheAdmissionFilterEnabled;
+  private boolean isActiveResourceQueuePolledInline;
+  private boolean isBitmapPoolMagazinesEnabled;
   @Nullable private List<RequestListener<Object>> defaultRequestListeners;
 
   /**
@@ -80,10 +90,38 @@ public final class GlideBuilder {
     return this;
   }
 
+  /**
+   * If set to {@code true}, the default {@link BitmapPool} will keep a small number of recently
+   * released {@link android.graphics.Bitmap}s for each of a few groups of background threads and
+   * reuse them for requests from the same threads without locking the shared pool.
+   *
+   * <p>Defaults to {@code false}.
+   *
+   * <p>Decode threads frequently release and then request {@link android.graphics.Bitmap}s of the
+   * same size, so enabling this option reduces contention on the {@link BitmapPool} when many
+   * images are decoded in parallel. See {@link MagazineBitmapPool}.
+   *
+   * <p>Has no effect if a {@link BitmapPool} is provided via {@link #setBitmapPool(BitmapPool)}.
+   *
+   * @return This builder.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setBitmapPoolMagazinesEnabled(boolean isEnabled) {
+    this.isBitmapPoolMagazinesEnabled = isEnabled;
+    return this;
+  }
+
   /**
    * Sets the {@link ArrayPool} implementation to allow variable sized arrays to be stored and
    * retrieved as needed.
    *
+   * <p>Defaults to {@link LruArrayPool}. Apps that decode many images in parallel may see less
+   * lock contention with {@link
+   * com.bumptech.glide.load.engine.bitmap_recycle.SizeClassArrayPool}, which drops arrays when
+   * full instead of evicting the least recently used ones.
+   *
    * @param arrayPool The pool to use.
    * @return This builder.
    */
@@ -97,6 +135,10 @@ public final class GlideBuilder {
    * Sets the {@link com.bumptech.glide.load.engine.cache.MemoryCache} implementation to store
    * {@link com.bumptech.glide.load.engine.Resource}s that are not currently in use.
    *
+   * <p>Defaults to {@link LruResourceCache}. Apps that start many loads concurrently on devices
+   * with many cores may see less lock contention with {@link
+   * com.bumptech.glide.load.engine.cache.StripedLruResourceCache}.
+   *
    * @param memoryCache The cache to use.
    * @return This builder.
    */
@@ -108,6 +150,29 @@ public final class GlideBuilder {
     return this;
   }
 
+  /**
+   * If set to {@code true}, the default memory cache will only replace its least recently used
+   * {@link com.bumptech.glide.load.engine.Resource} with a new one if the new {@link
+   * com.bumptech.glide.load.engine.Resource} has been requested at least as often recently.
+   *
+   * <p>Defaults to {@code false}.
+   *
+   * <p>Enabling this option keeps frequently reused images, like avatars or icons, in memory when
+   * users quickly scroll through long lists of images that are only displayed once. See {@link
+   * TinyLfuResourceCache}.
+   *
+   * <p>Has no effect if a {@link MemoryCache} is provided via {@link #setMemoryCache(MemoryCache)}.
+   *
+   * @return This builder.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setMemoryCacheAdmissionFilterEnabled(boolean isEnabled) {
+    this.isMemoryCacheAdmissionFilterEnabled = isEnabled;
+    return this;
+  }
+
   /**
    * Sets the {@link com.bumptech.glide.load.engine.cache.DiskCache.Factory} implementation to use
    * to construct the {@link com.bumptech.glide.load.engine.cache.DiskCache} to use to store {@link
@@ -211,6 +276,86 @@ public final class GlideBuilder {
     return this;
   }
 
+  /**
+   * Sets the {@link GlideExecutor} that decodes, transforms and encodes data fetched from source,
+   * so that the source executor only fetches data.
+   *
+   * <p>Fetching is mostly I/O bound and decoding is CPU bound, so with a decode executor, the
+   * source executor can have many more threads than there are cores, see {@link
+   * GlideExecutor.Builder#setThreadCount(int)}, without running more decodes at once than the
+   * device has cores for.
+   *
+   * <p>Data from source that isn't cached on disk first may still be read from the network while
+   * it's decoded, for example with {@link com.bumptech.glide.load.engine.DiskCacheStrategy#NONE},
+   * so decode executors should allow network operations, like those built by {@link
+   * GlideExecutor#newDecodeBuilder()}. Loads from the disk cache and of animation frames decode on
+   * the executor that loads their data, as before.
+   *
+   * <p>Defaults to {@code null}, which decodes data on the executor that fetched it.
+   *
+   * <p>This is an experimental API that may be removed in the future.
+   *
+   * @param service The {@link GlideExecutor} to use, or {@code null} to decode on the source
+   *     executor.
+   * @return This builder.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setDecodeExecutor(@Nullable GlideExecutor service) {
+    this.decodeExecutor = service;
+    return this;
+  }
+
+  /**
+   * Sets the {@link ResourceEncodeQueue} that writes transformed resources to the disk cache after
+   * they're delivered, instead of on the thread that decoded them.
+   *
+   * <p>Loads using {@link com.bumptech.glide.load.engine.DiskCacheStrategy#RESOURCE} or {@link
+   * com.bumptech.glide.load.engine.DiskCacheStrategy#ALL} compress each transformed resource, for
+   * example to PNG or JPEG for {@link android.graphics.Bitmap}s, before the source thread can start
+   * its next load. With a queue, the source thread moves on as soon as the resource is delivered
+   * and the resource is written on the queue's lower priority executor.
+   *
+   * <p>Defaults to {@code null}, which writes resources on the thread that decoded them.
+   *
+   * <p>This is an experimental API that may be removed in the future.
+   *
+   * @param queue The {@link ResourceEncodeQueue} to use, or {@code null} to write resources on the
+   *     thread that decoded them.
+   * @return This builder.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setResourceEncodeQueue(@Nullable ResourceEncodeQueue queue) {
+    this.resourceEncodeQueue = queue;
+    return this;
+  }
+
+  /**
+   * Sets an {@link EngineEventListener} that receives timestamped events for each stage of each
+   * load, from the memory cache lookup through disk cache reads, fetching, decoding, transforming
+   * and encoding to delivery.
+   *
+   * <p>Unlike {@link com.bumptech.glide.util.pool.GlideTrace} sections and verbose logs, the events
+   * can be recorded in production, for example to export latency histograms per stage.
+   *
+   * <p>Defaults to {@code null}.
+   *
+   * <p>This is an experimental API that may be removed in the future.
+   *
+   * @param listener The {@link EngineEventListener} to use, or {@code null} to not send events.
+   * @return This builder.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setEngineEventListener(@Nullable EngineEventListener listener) {
+    this.engineEventListener = listener;
+    return this;
+  }
+
   /**
    * Sets the default {@link RequestOptions} to use for all loads across the app.
    *
@@ -414,6 +559,28 @@ public final class GlideBuilder {
     return this;
   }
 
+  /**
+   * If set to {@code true}, Glide will look for resources that were garbage collected without
+   * being cleared each time a resource is acquired or released, rather than waiting for them on a
+   * dedicated background thread.
+   *
+   * <p>Defaults to {@code false}.
+   *
+   * <p>Enabling this option saves a thread and avoids locking when looking up resources that are
+   * currently displayed. Because garbage collected resources are only noticed when other resources
+   * are loaded or cleared, they may be returned to the memory cache or recycled a little later than
+   * they otherwise would be.
+   *
+   * @return This builder.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setActiveResourceQueuePolledInline(boolean isEnabled) {
+    this.isActiveResourceQueuePolledInline = isEnabled;
+    return this;
+  }
+
   /**
    * Adds a global {@link RequestListener} that will be added to every request started with Glide.
    *
@@ -487,6 +654,48 @@ public final class GlideBuilder {
     return this;
   }
 
+  /**
+   * Set to {@code true} to make Glide read original source data from the disk cache by memory
+   * mapping the cache file and decoding the resulting {@link java.nio.ByteBuffer} directly.
+   *
+   * <p>By default, cache files are opened by whichever {@link java.io.File} {@link
+   * com.bumptech.glide.load.model.ModelLoader} is registered first that has a decode path. In the
+   * default {@link Registry} that loader maps the file, but it may be an {@link
+   * java.io.InputStream} based loader if other loaders have been prepended. When this flag is
+   * enabled, the cache file is always mapped first and the registered loaders are only used if
+   * mapping fails, for example because the file is empty, or if no decoder accepts {@link
+   * java.nio.ByteBuffer}s for the requested resource.
+   *
+   * <p>This is an experimental API that may be removed in the future.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setMemoryMapDataCacheReads(boolean isEnabled) {
+    glideExperimentsBuilder.update(new MemoryMapDataCacheReads(), isEnabled);
+    return this;
+  }
+
+  /**
+   * Set to {@code true} to skip the resource and data disk cache stages of loads whose keys the
+   * disk cache knows it doesn't contain, so those loads move on to the source executor without
+   * reading the disk cache.
+   *
+   * <p>Only applies to {@link com.bumptech.glide.load.engine.cache.DiskCache}s that implement
+   * {@link com.bumptech.glide.load.engine.cache.DiskCache.PresenceIndex}, like the default {@link
+   * com.bumptech.glide.load.engine.cache.DiskLruCacheWrapper}. Loads still start on the disk cache
+   * executor, which is where their cache keys are built and checked.
+   *
+   * <p>This is an experimental API that may be removed in the future.
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  @NonNull
+  public GlideBuilder setSkipUncachedDiskCacheStages(boolean isEnabled) {
+    glideExperimentsBuilder.update(new SkipUncachedDiskCacheStages(), isEnabled);
+    return this;
+  }
+
   /**
    * @deprecated This method does nothing. It will be hard coded and removed in a future release
    *     without further warning.
@@ -552,7 +761,10 @@ public final class GlideBuilder {
     if (bitmapPool == null) {
       int size = memorySizeCalculator.getBitmapPoolSize();
       if (size > 0) {
-        bitmapPool = new LruBitmapPool(size);
+        bitmapPool =
+            isBitmapPoolMagazinesEnabled
+                ? new MagazineBitmapPool(new LruBitmapPool(size))
+                : new LruBitmapPool(size);
       } else {
         bitmapPool = new BitmapPoolAdapter();
       }
@@ -563,7 +775,11 @@ public final class GlideBuilder {
     }
 
     if (memoryCache == null) {
-      memoryCache = new LruResourceCache(memorySizeCalculator.getMemoryCacheSize());
+      int size = memorySizeCalculator.getMemoryCacheSize();
+      memoryCache =
+          isMemoryCacheAdmissionFilterEnabled
+              ? new TinyLfuResourceCache(size)
+              : new LruResourceCache(size);
     }
 
     if (diskCacheFactory == null) {
@@ -579,7 +795,11 @@ public final class GlideBuilder {
               sourceExecutor,
               GlideExecutor.newUnlimitedSourceExecutor(),
               animationExecutor,
-              isActiveResourceRetentionAllowed);
+              decodeExecutor,
+              resourceEncodeQueue,
+              engineEventListener,
+              isActiveResourceRetentionAllowed,
+              isActiveResourceQueuePolledInline);
     }
 
     if (defaultRequestListeners == null) {
@@ -622,4 +842,10 @@ public final class GlideBuilder {
 
   /** See {@link #setLogRequestOrigins(boolean)}. */
   public static final class LogRequestOrigins implements Experiment {}
+
+  /** See {@link #setMemoryMapDataCacheReads(boolean)}. */
+  public static final class MemoryMapDataCacheReads implements Experiment {}
+
+  /** See {@link #setSkipUncachedDiskCacheStages(boolean)}. */
+  public static final class SkipUncachedDiskCacheStages implements Experiment {}
 }
@@ -0,0 +1,107 @@
+package com.bumptech.glide;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.util.CacheStats;
+
+/**
+ * A snapshot of the {@link CacheStats} of each of Glide's caches and pools, and of the resources
+ * that are in use by requests.
+ *
+ * <p>Each tier's stats are {@code null} if the implementation set in {@link GlideBuilder} doesn't
+ * implement {@link CacheStats.Provider}. All of Glide's default implementations do.
+ *
+ * @see Glide#getStats()
+ */
+public final class GlideStats {
+  @Nullable private final CacheStats memoryCacheStats;
+  @Nullable private final CacheStats bitmapPoolStats;
+  @Nullable private final CacheStats arrayPoolStats;
+  @Nullable private final CacheStats diskCacheStats;
+  private final int activeResourceCount;
+  private final long reclaimedResourceCount;
+
+  GlideStats(
+      @Nullable CacheStats memoryCacheStats,
+      @Nullable CacheStats bitmapPoolStats,
+      @Nullable CacheStats arrayPoolStats,
+      @Nullable CacheStats diskCacheStats,
+      int activeResourceCount,
+      long reclaimedResourceCount) {
+    this.memoryCacheStats = memoryCacheStats;
+    this.bitmapPoolStats = bitmapPoolStats;
+    this.arrayPoolStats = arrayPoolStats;
+    this.diskCacheStats = diskCacheStats;
+    this.activeResourceCount = activeResourceCount;
+    this.reclaimedResourceCount = reclaimedResourceCount;
+  }
+
+  /**
+   * Returns the stats of the {@link com.bumptech.glide.load.engine.cache.MemoryCache}. Lookups are
+   * counted for each load that isn't found in the active resources.
+   */
+  @Nullable
+  public CacheStats getMemoryCacheStats() {
+    return memoryCacheStats;
+  }
+
+  /** Returns the stats of the {@link com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool}. */
+  @Nullable
+  public CacheStats getBitmapPoolStats() {
+    return bitmapPoolStats;
+  }
+
+  /** Returns the stats of the {@link com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool}. */
+  @Nullable
+  public CacheStats getArrayPoolStats() {
+    return arrayPoolStats;
+  }
+
+  /**
+   * Returns the stats of the {@link com.bumptech.glide.load.engine.cache.DiskCache}, or {@code
+   * null} if it hasn't been opened yet.
+   */
+  @Nullable
+  public CacheStats getDiskCacheStats() {
+    return diskCacheStats;
+  }
+
+  /**
+   * Returns the number of resources that are currently in use by at least one request, and so
+   * aren't in the memory cache.
+   */
+  public int getActiveResourceCount() {
+    return activeResourceCount;
+  }
+
+  /**
+   * Returns the number of resources that were garbage collected while still in use since Glide
+   * was created.
+   *
+   * <p>Resources are only reclaimed this way if the requests that loaded them were never cleared,
+   * for example because a {@link com.bumptech.glide.request.target.Target} was dropped without
+   * being passed to {@link RequestManager#clear}. A growing count usually indicates such a leak.
+   */
+  public long getReclaimedResourceCount() {
+    return reclaimedResourceCount;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "GlideStats{"
+        + "memoryCache="
+        + memoryCacheStats
+        + ", bitmapPool="
+        + bitmapPoolStats
+        + ", arrayPool="
+        + arrayPoolStats
+        + ", diskCache="
+        + diskCacheStats
+        + ", activeResources="
+        + activeResourceCount
+        + ", reclaimedResources="
+        + reclaimedResourceCount
+        + '}';
+  }
+}
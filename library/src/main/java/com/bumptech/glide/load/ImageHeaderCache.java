@@ -0,0 +1,51 @@
+package com.bumptech.glide.load;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.ImageHeaderParser.ImageType;
+
+/**
+ * Remembers the {@link ImageType} and orientation read from the data being decoded so that the
+ * decoders that are tried for the same data don't each read its header again.
+ *
+ * <p>Glide adds a new cache to the {@link Options} passed to {@link ResourceDecoder}s for each
+ * piece of data it decodes, so a cache only ever describes one piece of data. Decoders pass it to
+ * {@link ImageHeaderParserUtils} along with the data they were given, or a stream that wraps it
+ * without moving its position, like the buffered streams {@code Downsampler} reads from. Decoders
+ * must not pass it along with any other data.
+ *
+ * <p>This class is not thread safe, decoders are only ever called for a piece of data on one thread
+ * at a time.
+ */
+public final class ImageHeaderCache {
+  public static final Option<ImageHeaderCache> OPTION =
+      Option.memory("com.bumptech.glide.load.ImageHeaderCache");
+
+  @Nullable private ImageType type;
+  private boolean hasOrientation;
+  private int orientation;
+
+  /** Returns the cached type, or {@code null} if it hasn't been read yet. */
+  @Nullable
+  ImageType getType() {
+    return type;
+  }
+
+  void putType(@NonNull ImageType type) {
+    this.type = type;
+  }
+
+  boolean hasOrientation() {
+    return hasOrientation;
+  }
+
+  /** Returns the orientation cached by {@link #putOrientation(int)}. */
+  int getOrientation() {
+    return orientation;
+  }
+
+  void putOrientation(int orientation) {
+    hasOrientation = true;
+    this.orientation = orientation;
+  }
+}
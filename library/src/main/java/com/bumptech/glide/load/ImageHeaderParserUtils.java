@@ -7,6 +7,8 @@ import androidx.annotation.RequiresApi;
 import com.bumptech.glide.load.ImageHeaderParser.ImageType;
 import com.bumptech.glide.load.data.ParcelFileDescriptorRewinder;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.resource.bitmap.DefaultImageHeaderParser;
+import com.bumptech.glide.load.resource.bitmap.DefaultImageHeaderParser.TypeAndOrientation;
 import com.bumptech.glide.load.resource.bitmap.RecyclableBufferedInputStream;
 import com.bumptech.glide.util.ByteBufferUtil;
 import java.io.FileInputStream;
@@ -77,6 +79,52 @@ public final class ImageHeaderParserUtils {
         });
   }
 
+  /**
+   * Returns the ImageType for the given InputStream, from {@code cache} if it's already read the
+   * type of the data {@code is} was opened for.
+   *
+   * <p>If {@code cache} is not null, the orientation may be read in the same pass and cached too.
+   */
+  @NonNull
+  public static ImageType getType(
+      @NonNull List<ImageHeaderParser> parsers,
+      @Nullable InputStream is,
+      @NonNull ArrayPool byteArrayPool,
+      @Nullable ImageHeaderCache cache)
+      throws IOException {
+    if (is == null || cache == null) {
+      return getType(parsers, is, byteArrayPool);
+    }
+    ImageType cached = cache.getType();
+    if (cached != null) {
+      return cached;
+    }
+    return getTypeInternal(parsers, newHeaderReader(is, byteArrayPool), cache);
+  }
+
+  /**
+   * Returns the ImageType for the given ByteBuffer, from {@code cache} if it's already read the
+   * type of {@code buffer}.
+   *
+   * <p>If {@code cache} is not null, the orientation may be read in the same pass and cached too.
+   */
+  @NonNull
+  public static ImageType getType(
+      @NonNull List<ImageHeaderParser> parsers,
+      @Nullable ByteBuffer buffer,
+      @NonNull ArrayPool byteArrayPool,
+      @Nullable ImageHeaderCache cache)
+      throws IOException {
+    if (buffer == null || cache == null) {
+      return getType(parsers, buffer);
+    }
+    ImageType cached = cache.getType();
+    if (cached != null) {
+      return cached;
+    }
+    return getTypeInternal(parsers, newHeaderReader(buffer, byteArrayPool), cache);
+  }
+
   @NonNull
   @RequiresApi(Build.VERSION_CODES.LOLLIPOP)
   public static ImageType getType(
@@ -127,6 +175,38 @@ public final class ImageHeaderParserUtils {
     return ImageType.UNKNOWN;
   }
 
+  @NonNull
+  private static ImageType getTypeInternal(
+      @NonNull List<ImageHeaderParser> parsers,
+      @NonNull HeaderReader reader,
+      @NonNull ImageHeaderCache cache)
+      throws IOException {
+    ImageType result = ImageType.UNKNOWN;
+    //noinspection ForLoopReplaceableByForEach to improve perf
+    for (int i = 0, size = parsers.size(); i < size; i++) {
+      ImageHeaderParser parser = parsers.get(i);
+      ImageType type;
+      // The first parser's orientation is the one getOrientation would return unless it's unknown.
+      if (i == 0 && parser instanceof DefaultImageHeaderParser && !cache.hasOrientation()) {
+        TypeAndOrientation header =
+            reader.getTypeAndOrientationAndRewind((DefaultImageHeaderParser) parser);
+        if (header.getOrientation() != ImageHeaderParser.UNKNOWN_ORIENTATION) {
+          cache.putOrientation(header.getOrientation());
+        }
+        type = header.getType();
+      } else {
+        type = reader.getTypeAndRewind(parser);
+      }
+      if (type != ImageType.UNKNOWN) {
+        result = type;
+        break;
+      }
+    }
+
+    cache.putType(result);
+    return result;
+  }
+
   /**
    * Returns the result from the first of {@code parsers} that returns something other than {@link
    * ImageHeaderParser#UNKNOWN_ORIENTATION}.
@@ -187,6 +267,48 @@ public final class ImageHeaderParserUtils {
         });
   }
 
+  /**
+   * Returns the orientation for the given InputStream, from {@code cache} if it's already read the
+   * orientation of {@code is}.
+   *
+   * <p>If {@code cache} is not null, the type may be read in the same pass and cached too.
+   */
+  public static int getOrientation(
+      @NonNull List<ImageHeaderParser> parsers,
+      @Nullable InputStream is,
+      @NonNull ArrayPool byteArrayPool,
+      @Nullable ImageHeaderCache cache)
+      throws IOException {
+    if (is == null || cache == null) {
+      return getOrientation(parsers, is, byteArrayPool);
+    }
+    if (cache.hasOrientation()) {
+      return cache.getOrientation();
+    }
+    return getOrientationInternal(parsers, newHeaderReader(is, byteArrayPool), cache);
+  }
+
+  /**
+   * Returns the orientation for the given ByteBuffer, from {@code cache} if it's already read the
+   * orientation of {@code buffer}.
+   *
+   * <p>If {@code cache} is not null, the type may be read in the same pass and cached too.
+   */
+  public static int getOrientation(
+      @NonNull List<ImageHeaderParser> parsers,
+      @Nullable ByteBuffer buffer,
+      @NonNull ArrayPool byteArrayPool,
+      @Nullable ImageHeaderCache cache)
+      throws IOException {
+    if (buffer == null || cache == null) {
+      return getOrientation(parsers, buffer, byteArrayPool);
+    }
+    if (cache.hasOrientation()) {
+      return cache.getOrientation();
+    }
+    return getOrientationInternal(parsers, newHeaderReader(buffer, byteArrayPool), cache);
+  }
+
   @RequiresApi(Build.VERSION_CODES.LOLLIPOP)
   public static int getOrientation(
       @NonNull List<ImageHeaderParser> parsers,
@@ -235,6 +357,111 @@ public final class ImageHeaderParserUtils {
     return ImageHeaderParser.UNKNOWN_ORIENTATION;
   }
 
+  private static int getOrientationInternal(
+      @NonNull List<ImageHeaderParser> parsers,
+      @NonNull HeaderReader reader,
+      @NonNull ImageHeaderCache cache)
+      throws IOException {
+    int result = ImageHeaderParser.UNKNOWN_ORIENTATION;
+    //noinspection ForLoopReplaceableByForEach to improve perf
+    for (int i = 0, size = parsers.size(); i < size; i++) {
+      ImageHeaderParser parser = parsers.get(i);
+      int orientation;
+      // The first parser's type is the one getType would return unless it's unknown.
+      if (i == 0 && parser instanceof DefaultImageHeaderParser && cache.getType() == null) {
+        TypeAndOrientation header =
+            reader.getTypeAndOrientationAndRewind((DefaultImageHeaderParser) parser);
+        if (header.getType() != ImageType.UNKNOWN) {
+          cache.putType(header.getType());
+        }
+        orientation = header.getOrientation();
+      } else {
+        orientation = reader.getOrientationAndRewind(parser);
+      }
+      if (orientation != ImageHeaderParser.UNKNOWN_ORIENTATION) {
+        result = orientation;
+        break;
+      }
+    }
+
+    cache.putOrientation(result);
+    return result;
+  }
+
+  @NonNull
+  private static HeaderReader newHeaderReader(
+      @NonNull InputStream is, @NonNull final ArrayPool byteArrayPool) {
+    if (!is.markSupported()) {
+      is = new RecyclableBufferedInputStream(is, byteArrayPool);
+    }
+
+    is.mark(MARK_READ_LIMIT);
+    final InputStream finalIs = is;
+    return new HeaderReader() {
+      @Override
+      public ImageType getTypeAndRewind(ImageHeaderParser parser) throws IOException {
+        try {
+          return parser.getType(finalIs);
+        } finally {
+          finalIs.reset();
+        }
+      }
+
+      @Override
+      public int getOrientationAndRewind(ImageHeaderParser parser) throws IOException {
+        try {
+          return parser.getOrientation(finalIs, byteArrayPool);
+        } finally {
+          finalIs.reset();
+        }
+      }
+
+      @Override
+      public TypeAndOrientation getTypeAndOrientationAndRewind(DefaultImageHeaderParser parser)
+          throws IOException {
+        try {
+          return parser.getTypeAndOrientation(finalIs, byteArrayPool);
+        } finally {
+          finalIs.reset();
+        }
+      }
+    };
+  }
+
+  @NonNull
+  private static HeaderReader newHeaderReader(
+      @NonNull final ByteBuffer buffer, @NonNull final ArrayPool byteArrayPool) {
+    return new HeaderReader() {
+      @Override
+      public ImageType getTypeAndRewind(ImageHeaderParser parser) throws IOException {
+        try {
+          return parser.getType(buffer);
+        } finally {
+          ByteBufferUtil.rewind(buffer);
+        }
+      }
+
+      @Override
+      public int getOrientationAndRewind(ImageHeaderParser parser) throws IOException {
+        try {
+          return parser.getOrientation(buffer, byteArrayPool);
+        } finally {
+          ByteBufferUtil.rewind(buffer);
+        }
+      }
+
+      @Override
+      public TypeAndOrientation getTypeAndOrientationAndRewind(DefaultImageHeaderParser parser)
+          throws IOException {
+        try {
+          return parser.getTypeAndOrientation(buffer, byteArrayPool);
+        } finally {
+          ByteBufferUtil.rewind(buffer);
+        }
+      }
+    };
+  }
+
   private interface TypeReader {
     ImageType getTypeAndRewind(ImageHeaderParser parser) throws IOException;
   }
@@ -242,4 +469,13 @@ public final class ImageHeaderParserUtils {
   private interface OrientationReader {
     int getOrientationAndRewind(ImageHeaderParser parser) throws IOException;
   }
+
+  /**
+   * Reads from the same data with any parser, reading {@link DefaultImageHeaderParser}'s type and
+   * orientation in one pass.
+   */
+  private interface HeaderReader extends TypeReader, OrientationReader {
+    TypeAndOrientation getTypeAndOrientationAndRewind(DefaultImageHeaderParser parser)
+        throws IOException;
+  }
 }
@@ -3,17 +3,24 @@ package com.bumptech.glide.load;
 import android.content.Context;
 import androidx.annotation.NonNull;
 import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.resource.bitmap.FusedBitmapTransformation;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * A transformation that applies one or more transformations in iteration order to a resource.
  *
+ * <p>Consecutive built in {@link android.graphics.Bitmap} transformations are applied together
+ * where possible, see {@link FusedBitmapTransformation}. Keys are always computed from the given
+ * transformations.
+ *
  * @param <T> The type of {@link com.bumptech.glide.load.engine.Resource} that will be transformed.
  */
 public class MultiTransformation<T> implements Transformation<T> {
   private final Collection<? extends Transformation<T>> transformations;
+  private final List<Transformation<T>> fusedTransformations;
 
   @SafeVarargs
   @SuppressWarnings("varargs")
@@ -23,6 +30,7 @@ public class MultiTransformation<T> implements Transformation<T> {
           "MultiTransformation must contain at least one Transformation");
     }
     this.transformations = Arrays.asList(transformations);
+    fusedTransformations = FusedBitmapTransformation.fuse(this.transformations);
   }
 
   public MultiTransformation(@NonNull Collection<? extends Transformation<T>> transformationList) {
@@ -31,6 +39,7 @@ public class MultiTransformation<T> implements Transformation<T> {
           "MultiTransformation must contain at least one Transformation");
     }
     this.transformations = transformationList;
+    fusedTransformations = FusedBitmapTransformation.fuse(transformationList);
   }
 
   @NonNull
@@ -39,7 +48,7 @@ public class MultiTransformation<T> implements Transformation<T> {
       @NonNull Context context, @NonNull Resource<T> resource, int outWidth, int outHeight) {
     Resource<T> previous = resource;
 
-    for (Transformation<T> transformation : transformations) {
+    for (Transformation<T> transformation : fusedTransformations) {
       Resource<T> transformed = transformation.transform(context, previous, outWidth, outHeight);
       if (previous != null && !previous.equals(resource) && !previous.equals(transformed)) {
         previous.recycle();
@@ -0,0 +1,29 @@
+package com.bumptech.glide.load;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+
+/**
+ * Receives low resolution previews of an image while it's still being loaded, for example from
+ * the scans of a progressive JPEG that have arrived so far.
+ *
+ * <p>Glide adds a callback to the {@link Options} passed to {@link ResourceDecoder}s when it
+ * decodes remote data from source without writing it to the disk cache first. Decoders that support
+ * previews, like {@link com.bumptech.glide.load.resource.bitmap.Downsampler} when {@link
+ * com.bumptech.glide.load.resource.bitmap.Downsampler#PROGRESSIVE_PREVIEWS} is set, call it from
+ * the decoding thread. Unless the load has transformations other than scaling, Glide then shows the
+ * previews in the load's {@link com.bumptech.glide.request.target.Target} until the full resource
+ * is ready.
+ */
+public interface PreviewCallback {
+  Option<PreviewCallback> OPTION = Option.memory("com.bumptech.glide.load.PreviewCallback");
+
+  /**
+   * Called with a preview of the resource being loaded.
+   *
+   * <p>The preview isn't transformed and may be much smaller than the requested size. Its {@link
+   * Bitmap} isn't obtained from or returned to a {@link
+   * com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool}, so it must never be recycled.
+   */
+  void onPreview(@NonNull Bitmap preview);
+}
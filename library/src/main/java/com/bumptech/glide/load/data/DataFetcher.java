@@ -41,6 +41,39 @@ public interface DataFetcher<T> {
     void onLoadFailed(@NonNull Exception e);
   }
 
+  /**
+   * Optionally implemented by {@link DataFetcher}s of {@link java.io.InputStream}s that can skip
+   * the start of the data, so that a download that was interrupted can be continued where it
+   * stopped instead of from the beginning.
+   *
+   * <p>Glide keeps the bytes of interrupted downloads in the disk cache and resumes them if the
+   * data is cacheable.
+   */
+  interface Resumable {
+
+    /**
+     * Asks the next call to {@link #loadData(Priority, DataCallback)} to skip the given number of
+     * bytes if the data hasn't changed since {@link #getValidator()} returned the given validator.
+     *
+     * <p>Fetchers may ignore the request, so callers must check {@link #getResumedPosition()}.
+     */
+    void setResumePosition(long position, @NonNull String validator);
+
+    /**
+     * Returns the number of bytes skipped at the start of the data returned by the last call to
+     * {@link #loadData(Priority, DataCallback)}, or {@code 0} if the data starts at the beginning.
+     */
+    long getResumedPosition();
+
+    /**
+     * Returns a value that changes whenever the data returned by the last call to {@link
+     * #loadData(Priority, DataCallback)} changes, for example an HTTP {@code ETag}, or {@code null}
+     * if there isn't one and the data can't be resumed.
+     */
+    @Nullable
+    String getValidator();
+  }
+
   /**
    * Fetch data from which a resource can be decoded.
    *
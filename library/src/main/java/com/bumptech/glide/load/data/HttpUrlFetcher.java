@@ -3,6 +3,7 @@ package com.bumptech.glide.load.data;
 import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.DataSource;
@@ -19,11 +20,23 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Map;
 
-/** A DataFetcher that retrieves an {@link java.io.InputStream} for a Url. */
-public class HttpUrlFetcher implements DataFetcher<InputStream> {
+/**
+ * A DataFetcher that retrieves an {@link java.io.InputStream} for a Url.
+ *
+ * <p>Downloads are resumed with {@code Range} requests validated by {@code If-Range}, so servers
+ * send the whole response again if it changed.
+ */
+public class HttpUrlFetcher implements DataFetcher<InputStream>, DataFetcher.Resumable {
   private static final String TAG = "HttpUrlFetcher";
   private static final int MAXIMUM_REDIRECTS = 5;
   @VisibleForTesting static final String REDIRECT_HEADER_FIELD = "Location";
+  @VisibleForTesting static final String RANGE_HEADER_FIELD = "Range";
+  @VisibleForTesting static final String IF_RANGE_HEADER_FIELD = "If-Range";
+  private static final String CONTENT_RANGE_HEADER_FIELD = "Content-Range";
+  private static final String ETAG_HEADER_FIELD = "ETag";
+  private static final String LAST_MODIFIED_HEADER_FIELD = "Last-Modified";
+  private static final String WEAK_ETAG_PREFIX = "W/";
+  private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
 
   @VisibleForTesting
   static final HttpUrlConnectionFactory DEFAULT_CONNECTION_FACTORY =
@@ -38,6 +51,10 @@ public class HttpUrlFetcher implements DataFetcher<InputStream> {
   private HttpURLConnection urlConnection;
   private InputStream stream;
   private volatile boolean isCancelled;
+  private long resumePosition;
+  @Nullable private String resumeValidator;
+  private long resumedPosition;
+  @Nullable private String validator;
 
   public HttpUrlFetcher(GlideUrl glideUrl, int timeout) {
     this(glideUrl, timeout, DEFAULT_CONNECTION_FACTORY);
@@ -103,7 +120,19 @@ public class HttpUrlFetcher implements DataFetcher<InputStream> {
     }
 
     final int statusCode = getHttpStatusCodeOrInvalid(urlConnection);
-    if (isHttpOk(statusCode)) {
+    if (resumeValidator != null
+        && (statusCode == HTTP_RANGE_NOT_SATISFIABLE
+            || (statusCode == HttpURLConnection.HTTP_PARTIAL && !isResumedAtRequestedPosition()))) {
+      // We can't append a range other than the one we asked for, so fetch everything again.
+      resumeValidator = null;
+      cleanup();
+      return loadDataWithRedirects(url, redirects, lastUrl, headers);
+    } else if (isHttpOk(statusCode)) {
+      resumedPosition = statusCode == HttpURLConnection.HTTP_PARTIAL ? resumePosition : 0;
+      validator = getValidator(urlConnection);
+      if (validator == null && resumedPosition > 0) {
+        validator = resumeValidator;
+      }
       return getStreamForSuccessfulRequest(urlConnection);
     } else if (isHttpRedirect(statusCode)) {
       String redirectUrlString = urlConnection.getHeaderField(REDIRECT_HEADER_FIELD);
@@ -142,6 +171,22 @@ public class HttpUrlFetcher implements DataFetcher<InputStream> {
     return INVALID_STATUS_CODE;
   }
 
+  private boolean isResumedAtRequestedPosition() {
+    String contentRange = urlConnection.getHeaderField(CONTENT_RANGE_HEADER_FIELD);
+    return contentRange != null && contentRange.startsWith("bytes " + resumePosition + "-");
+  }
+
+  @Nullable
+  private static String getValidator(HttpURLConnection urlConnection) {
+    // If-Range only accepts strong ETags.
+    String eTag = urlConnection.getHeaderField(ETAG_HEADER_FIELD);
+    if (!TextUtils.isEmpty(eTag) && !eTag.startsWith(WEAK_ETAG_PREFIX)) {
+      return eTag;
+    }
+    String lastModified = urlConnection.getHeaderField(LAST_MODIFIED_HEADER_FIELD);
+    return TextUtils.isEmpty(lastModified) ? null : lastModified;
+  }
+
   private HttpURLConnection buildAndConfigureConnection(URL url, Map<String, String> headers)
       throws HttpException {
     HttpURLConnection urlConnection;
@@ -153,6 +198,10 @@ public class HttpUrlFetcher implements DataFetcher<InputStream> {
     for (Map.Entry<String, String> headerEntry : headers.entrySet()) {
       urlConnection.addRequestProperty(headerEntry.getKey(), headerEntry.getValue());
     }
+    if (resumeValidator != null) {
+      urlConnection.setRequestProperty(RANGE_HEADER_FIELD, "bytes=" + resumePosition + "-");
+      urlConnection.setRequestProperty(IF_RANGE_HEADER_FIELD, resumeValidator);
+    }
     urlConnection.setConnectTimeout(timeout);
     urlConnection.setReadTimeout(timeout);
     urlConnection.setUseCaches(false);
@@ -214,6 +263,23 @@ public class HttpUrlFetcher implements DataFetcher<InputStream> {
     isCancelled = true;
   }
 
+  @Override
+  public void setResumePosition(long position, @NonNull String validator) {
+    resumePosition = position;
+    resumeValidator = position > 0 ? validator : null;
+  }
+
+  @Override
+  public long getResumedPosition() {
+    return resumedPosition;
+  }
+
+  @Nullable
+  @Override
+  public String getValidator() {
+    return validator;
+  }
+
   @NonNull
   @Override
   public Class<InputStream> getDataClass() {
@@ -11,19 +11,32 @@ import com.bumptech.glide.util.Preconditions;
 import com.bumptech.glide.util.Synthetic;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Tracks resources that are currently in use by at least one request.
+ *
+ * <p>Resources are held weakly so that resources that are never released can still be garbage
+ * collected. Cleared references are either removed by a dedicated background thread blocked on the
+ * reference queue or, if created with {@link #withInlineReferenceQueuePolling(boolean)}, by polling
+ * the queue whenever a resource is activated or deactivated.
+ */
 final class ActiveResources {
   private final boolean isActiveResourceRetentionAllowed;
-  private final Executor monitorClearedResourcesExecutor;
-  @VisibleForTesting final Map<Key, ResourceWeakReference> activeEngineResources = new HashMap<>();
+  @Nullable private final Executor monitorClearedResourcesExecutor;
+
+  @VisibleForTesting
+  final ConcurrentMap<Key, ResourceWeakReference> activeEngineResources = new ConcurrentHashMap<>();
+
   private final ReferenceQueue<EngineResource<?>> resourceReferenceQueue = new ReferenceQueue<>();
+  private final AtomicLong reclaimedResourceCount = new AtomicLong();
 
-  private ResourceListener listener;
+  private volatile ResourceListener listener;
 
   private volatile boolean isShutdown;
   @Nullable private volatile DequeuedResourceCallback cb;
@@ -48,30 +61,39 @@ final class ActiveResources {
             }));
   }
 
+  /**
+   * Returns an {@code ActiveResources} that doesn't start a background thread and instead removes
+   * cleared references each time a resource is activated or deactivated.
+   */
+  static ActiveResources withInlineReferenceQueuePolling(boolean isActiveResourceRetentionAllowed) {
+    return new ActiveResources(
+        isActiveResourceRetentionAllowed, /* monitorClearedResourcesExecutor= */ null);
+  }
+
   @VisibleForTesting
   ActiveResources(
-      boolean isActiveResourceRetentionAllowed, Executor monitorClearedResourcesExecutor) {
+      boolean isActiveResourceRetentionAllowed,
+      @Nullable Executor monitorClearedResourcesExecutor) {
     this.isActiveResourceRetentionAllowed = isActiveResourceRetentionAllowed;
     this.monitorClearedResourcesExecutor = monitorClearedResourcesExecutor;
 
-    monitorClearedResourcesExecutor.execute(
-        new Runnable() {
-          @Override
-          public void run() {
-            cleanReferenceQueue();
-          }
-        });
+    if (monitorClearedResourcesExecutor != null) {
+      monitorClearedResourcesExecutor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              cleanReferenceQueue();
+            }
+          });
+    }
   }
 
   void setListener(ResourceListener listener) {
-    synchronized (listener) {
-      synchronized (this) {
-        this.listener = listener;
-      }
-    }
+    this.listener = listener;
   }
 
-  synchronized void activate(Key key, EngineResource<?> resource) {
+  void activate(Key key, EngineResource<?> resource) {
+    pollReferenceQueueIfInline();
     ResourceWeakReference toPut =
         new ResourceWeakReference(
             key, resource, resourceReferenceQueue, isActiveResourceRetentionAllowed);
@@ -82,15 +104,29 @@ final class ActiveResources {
     }
   }
 
-  synchronized void deactivate(Key key) {
+  void deactivate(Key key) {
+    pollReferenceQueueIfInline();
     ResourceWeakReference removed = activeEngineResources.remove(key);
     if (removed != null) {
       removed.reset();
     }
   }
 
+  /** Returns the number of resources that are currently tracked as in use. */
+  int getActiveResourceCount() {
+    return activeEngineResources.size();
+  }
+
+  /**
+   * Returns the number of resources that were garbage collected while still in use, either because
+   * they were never released or because they were released without being cleared first.
+   */
+  long getReclaimedResourceCount() {
+    return reclaimedResourceCount.get();
+  }
+
   @Nullable
-  synchronized EngineResource<?> get(Key key) {
+  EngineResource<?> get(Key key) {
     ResourceWeakReference activeRef = activeEngineResources.get(key);
     if (activeRef == null) {
       return null;
@@ -103,20 +139,24 @@ final class ActiveResources {
     return active;
   }
 
-  @SuppressWarnings({"WeakerAccess", "SynchronizeOnNonFinalField"})
+  @SuppressWarnings("WeakerAccess")
   @Synthetic
   void cleanupActiveReference(@NonNull ResourceWeakReference ref) {
-    synchronized (this) {
-      activeEngineResources.remove(ref.key);
+    // Only the thread that removes the reference may use it, a reference that's no longer in the
+    // map has either been cleaned up already or has been reset by activate or deactivate.
+    if (!activeEngineResources.remove(ref.key, ref)) {
+      return;
+    }
+    reclaimedResourceCount.incrementAndGet();
 
-      if (!ref.isCacheable || ref.resource == null) {
-        return;
-      }
+    Resource<?> resource = ref.resource;
+    if (!ref.isCacheable || resource == null) {
+      return;
     }
 
     EngineResource<?> newResource =
         new EngineResource<>(
-            ref.resource,
+            resource,
             /* isMemoryCacheable= */ true,
             /* isRecyclable= */ false,
             ref.key,
@@ -130,20 +170,34 @@ final class ActiveResources {
     while (!isShutdown) {
       try {
         ResourceWeakReference ref = (ResourceWeakReference) resourceReferenceQueue.remove();
-        cleanupActiveReference(ref);
-
-        // This section for testing only.
-        DequeuedResourceCallback current = cb;
-        if (current != null) {
-          current.onResourceDequeued();
-        }
-        // End for testing only.
+        onReferenceDequeued(ref);
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
       }
     }
   }
 
+  private void pollReferenceQueueIfInline() {
+    if (monitorClearedResourcesExecutor != null) {
+      return;
+    }
+    ResourceWeakReference ref;
+    while ((ref = (ResourceWeakReference) resourceReferenceQueue.poll()) != null) {
+      onReferenceDequeued(ref);
+    }
+  }
+
+  private void onReferenceDequeued(@NonNull ResourceWeakReference ref) {
+    cleanupActiveReference(ref);
+
+    // This section for testing only.
+    DequeuedResourceCallback current = cb;
+    if (current != null) {
+      current.onResourceDequeued();
+    }
+    // End for testing only.
+  }
+
   @VisibleForTesting
   void setDequeuedResourceCallback(DequeuedResourceCallback cb) {
     this.cb = cb;
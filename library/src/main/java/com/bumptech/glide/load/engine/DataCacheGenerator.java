@@ -4,10 +4,13 @@ import androidx.annotation.NonNull;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ByteBufferFileLoader;
 import com.bumptech.glide.load.model.ModelLoader;
 import com.bumptech.glide.load.model.ModelLoader.LoadData;
 import com.bumptech.glide.util.pool.GlideTrace;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +19,13 @@ import java.util.List;
  */
 class DataCacheGenerator implements DataFetcherGenerator, DataFetcher.DataCallback<Object> {
 
+  /**
+   * Used in place of the registered loaders when the data cache is memory mapped, see {@link
+   * DecodeHelper#isDataCacheMemoryMapped()}.
+   */
+  private static final List<ModelLoader<File, ?>> MAPPED_FILE_LOADERS =
+      Collections.<ModelLoader<File, ?>>singletonList(new ByteBufferFileLoader());
+
   private final List<Key> cacheKeys;
   private final DecodeHelper<?> helper;
   private final FetcherReadyCallback cb;
@@ -46,43 +56,68 @@ class DataCacheGenerator implements DataFetcherGenerator, DataFetcher.DataCallba
   public boolean startNext() {
     GlideTrace.beginSection("DataCacheGenerator.startNext");
     try {
-      while (modelLoaders == null || !hasNextModelLoader()) {
-        sourceIdIndex++;
-        if (sourceIdIndex >= cacheKeys.size()) {
-          return false;
-        }
+      boolean started = false;
+      // Repeats if no load path accepts the mapped ByteBuffer, to try the registered loaders.
+      do {
+        while (modelLoaders == null || !hasNextModelLoader()) {
+          if (modelLoaders == MAPPED_FILE_LOADERS) {
+            // The file couldn't be mapped or a ByteBuffer can't be decoded, so fall back to the
+            // registered loaders before moving on to the next key.
+            modelLoaders = getRegisteredModelLoadersExceptMapped(cacheFile);
+            modelLoaderIndex = 0;
+            continue;
+          }
+          sourceIdIndex++;
+          if (sourceIdIndex >= cacheKeys.size()) {
+            return false;
+          }
 
-        Key sourceId = cacheKeys.get(sourceIdIndex);
-        // PMD.AvoidInstantiatingObjectsInLoops The loop iterates a limited number of times
-        // and the actions it performs are much more expensive than a single allocation.
-        @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-        Key originalKey = new DataCacheKey(sourceId, helper.getSignature());
-        cacheFile = helper.getDiskCache().get(originalKey);
-        if (cacheFile != null) {
-          this.sourceKey = sourceId;
-          modelLoaders = helper.getModelLoaders(cacheFile);
-          modelLoaderIndex = 0;
+          Key sourceId = cacheKeys.get(sourceIdIndex);
+          // PMD.AvoidInstantiatingObjectsInLoops The loop iterates a limited number of times
+          // and the actions it performs are much more expensive than a single allocation.
+          @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+          Key originalKey = new DataCacheKey(sourceId, helper.getSignature());
+          cacheFile = helper.getDiskCache().get(originalKey);
+          if (cacheFile != null) {
+            this.sourceKey = sourceId;
+            modelLoaders =
+                helper.isDataCacheMemoryMapped()
+                    ? MAPPED_FILE_LOADERS
+                    : helper.getModelLoaders(cacheFile);
+            modelLoaderIndex = 0;
+          }
         }
-      }
 
-      loadData = null;
-      boolean started = false;
-      while (!started && hasNextModelLoader()) {
-        ModelLoader<File, ?> modelLoader = modelLoaders.get(modelLoaderIndex++);
-        loadData =
-            modelLoader.buildLoadData(
-                cacheFile, helper.getWidth(), helper.getHeight(), helper.getOptions());
-        if (loadData != null && helper.hasLoadPath(loadData.fetcher.getDataClass())) {
-          started = true;
-          loadData.fetcher.loadData(helper.getPriority(), this);
+        loadData = null;
+        while (!started && hasNextModelLoader()) {
+          ModelLoader<File, ?> modelLoader = modelLoaders.get(modelLoaderIndex++);
+          loadData =
+              modelLoader.buildLoadData(
+                  cacheFile, helper.getWidth(), helper.getHeight(), helper.getOptions());
+          if (loadData != null && helper.hasLoadPath(loadData.fetcher.getDataClass())) {
+            started = true;
+            loadData.fetcher.loadData(helper.getPriority(), this);
+          }
         }
-      }
+      } while (!started && modelLoaders == MAPPED_FILE_LOADERS);
       return started;
     } finally {
       GlideTrace.endSection();
     }
   }
 
+  private List<ModelLoader<File, ?>> getRegisteredModelLoadersExceptMapped(File file) {
+    List<ModelLoader<File, ?>> registered = helper.getModelLoaders(file);
+    List<ModelLoader<File, ?>> result = new ArrayList<>(registered.size());
+    for (ModelLoader<File, ?> modelLoader : registered) {
+      // Mapping has already been tried, there's no point in trying it again.
+      if (!(modelLoader instanceof ByteBufferFileLoader)) {
+        result.add(modelLoader);
+      }
+    }
+    return result;
+  }
+
   private boolean hasNextModelLoader() {
     return modelLoaderIndex < modelLoaders.size();
   }
@@ -1,5 +1,8 @@
 package com.bumptech.glide.load.engine;
 
+import androidx.annotation.Nullable;
+import com.bumptech.glide.GlideBuilder.MemoryMapDataCacheReads;
+import com.bumptech.glide.GlideBuilder.SkipUncachedDiskCacheStages;
 import com.bumptech.glide.GlideContext;
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.Registry;
@@ -193,6 +196,102 @@ final class DecodeHelper<Transcode> {
     return glideContext.getRegistry().getModelLoaders(file);
   }
 
+  boolean isDataCacheMemoryMapped() {
+    return glideContext.getExperiments().isEnabled(MemoryMapDataCacheReads.class);
+  }
+
+  /**
+   * Returns {@code false} if the disk cache definitely doesn't contain a transformed resource for
+   * any of this load's cache keys, or {@code true} if it might or if that can't be determined
+   * without disk I/O.
+   */
+  boolean mightContainCachedResource() {
+    DiskCache.PresenceIndex presenceIndex = getDiskCachePresenceIndex();
+    if (presenceIndex == null) {
+      return true;
+    }
+    try {
+      List<Class<?>> resourceClasses = getRegisteredResourceClasses();
+      if (resourceClasses.isEmpty()) {
+        // Let ResourceCacheGenerator decide whether this is an error.
+        return true;
+      }
+      List<Key> sourceIds = getCacheKeys();
+      //noinspection ForLoopReplaceableByForEach to improve perf
+      for (int i = 0, size = sourceIds.size(); i < size; i++) {
+        //noinspection ForLoopReplaceableByForEach to improve perf
+        for (int j = 0, classCount = resourceClasses.size(); j < classCount; j++) {
+          Class<?> resourceClass = resourceClasses.get(j);
+          // Must match the keys ResourceCacheGenerator looks up.
+          ResourceCacheKey key =
+              new ResourceCacheKey(
+                  getArrayPool(),
+                  sourceIds.get(i),
+                  signature,
+                  width,
+                  height,
+                  getTransformation(resourceClass),
+                  resourceClass,
+                  options);
+          if (presenceIndex.mightContain(key)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    } catch (RuntimeException e) {
+      // Let the generators report the failure instead.
+      return true;
+    }
+  }
+
+  /**
+   * Returns {@code false} if the disk cache definitely doesn't contain source data for any of this
+   * load's cache keys, or {@code true} if it might or if that can't be determined without disk
+   * I/O.
+   */
+  boolean mightContainCachedData() {
+    DiskCache.PresenceIndex presenceIndex = getDiskCachePresenceIndex();
+    if (presenceIndex == null) {
+      return true;
+    }
+    try {
+      List<Key> sourceIds = getCacheKeys();
+      //noinspection ForLoopReplaceableByForEach to improve perf
+      for (int i = 0, size = sourceIds.size(); i < size; i++) {
+        // Must match the keys DataCacheGenerator looks up.
+        if (presenceIndex.mightContain(new DataCacheKey(sourceIds.get(i), signature))) {
+          return true;
+        }
+      }
+      return false;
+    } catch (RuntimeException e) {
+      // Let the generators report the failure instead.
+      return true;
+    }
+  }
+
+  /**
+   * Returns {@code false} if the disk cache definitely doesn't contain the given key, or {@code
+   * true} if it might or if that can't be determined without disk I/O.
+   */
+  boolean mightContain(Key key) {
+    DiskCache.PresenceIndex presenceIndex = getDiskCachePresenceIndex();
+    return presenceIndex == null || presenceIndex.mightContain(key);
+  }
+
+  @Nullable
+  private DiskCache.PresenceIndex getDiskCachePresenceIndex() {
+    if (!glideContext.getExperiments().isEnabled(SkipUncachedDiskCacheStages.class)) {
+      return null;
+    }
+    // Only called from DecodeJob's executors, which read the disk cache anyway.
+    DiskCache diskCache = getDiskCache();
+    return diskCache instanceof DiskCache.PresenceIndex
+        ? (DiskCache.PresenceIndex) diskCache
+        : null;
+  }
+
   boolean isSourceKey(Key key) {
     List<LoadData<?>> loadData = getLoadData();
     //noinspection ForLoopReplaceableByForEach to improve perf
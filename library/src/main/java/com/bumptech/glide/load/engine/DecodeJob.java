@@ -1,21 +1,26 @@
 package com.bumptech.glide.load.engine;
 
+import android.graphics.Bitmap;
 import android.os.Build;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.util.Pools;
 import com.bumptech.glide.GlideContext;
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.Registry;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.EncodeStrategy;
+import com.bumptech.glide.load.ImageHeaderCache;
 import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.PreviewCallback;
 import com.bumptech.glide.load.ResourceEncoder;
 import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.data.DataRewinder;
 import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.executor.GlideExecutor;
 import com.bumptech.glide.load.resource.bitmap.Downsampler;
 import com.bumptech.glide.util.LogTime;
 import com.bumptech.glide.util.Synthetic;
@@ -37,7 +42,7 @@ import java.util.Map;
  */
 class DecodeJob<R>
     implements DataFetcherGenerator.FetcherReadyCallback,
-        Runnable,
+        GlideExecutor.KeyedRunnable,
         Comparable<DecodeJob<?>>,
         Poolable {
   private static final String TAG = "DecodeJob";
@@ -46,9 +51,12 @@ class DecodeJob<R>
   private final List<Throwable> throwables = new ArrayList<>();
   private final StateVerifier stateVerifier = StateVerifier.newInstance();
   private final DiskCacheProvider diskCacheProvider;
+  @Nullable private final ResourceEncodeQueue resourceEncodeQueue;
+  @Nullable private final EngineEventListener eventListener;
   private final Pools.Pool<DecodeJob<?>> pool;
   private final DeferredEncodeManager<?> deferredEncodeManager = new DeferredEncodeManager<>();
   private final ReleaseManager releaseManager = new ReleaseManager();
+  private final PreviewCallback previewCallback = new DecodePreviewCallback();
 
   private GlideContext glideContext;
   private Key signature;
@@ -58,6 +66,8 @@ class DecodeJob<R>
   private int height;
   private DiskCacheStrategy diskCacheStrategy;
   private Options options;
+  // A copy of options that's updated for each decode, see getDecodeOptions.
+  @Nullable private Options decodeOptions;
   private Callback<R> callback;
   private int order;
   private Stage stage;
@@ -65,6 +75,7 @@ class DecodeJob<R>
   private long startFetchTime;
   private boolean onlyRetrieveFromCache;
   private Object model;
+  private ExecutionKey executionKey;
 
   private Thread currentThread;
   private Key currentSourceKey;
@@ -77,9 +88,20 @@ class DecodeJob<R>
   private volatile boolean isCallbackNotified;
   private volatile boolean isCancelled;
   private boolean isLoadingFromAlternateCacheKey;
-
-  DecodeJob(DiskCacheProvider diskCacheProvider, Pools.Pool<DecodeJob<?>> pool) {
+  // True while the job is scheduled on or running on the decode executor.
+  private boolean isOnDecodeExecutor;
+  // True between the disk cache read events of a disk cache stage.
+  private boolean isReadingDiskCache;
+  private boolean isFetchStarted;
+
+  DecodeJob(
+      DiskCacheProvider diskCacheProvider,
+      @Nullable ResourceEncodeQueue resourceEncodeQueue,
+      @Nullable EngineEventListener eventListener,
+      Pools.Pool<DecodeJob<?>> pool) {
     this.diskCacheProvider = diskCacheProvider;
+    this.resourceEncodeQueue = resourceEncodeQueue;
+    this.eventListener = eventListener;
     this.pool = pool;
   }
 
@@ -129,16 +151,29 @@ class DecodeJob<R>
     this.order = order;
     this.runReason = RunReason.INITIALIZE;
     this.model = model;
+    this.executionKey = new ExecutionKey(model, signature);
     return this;
   }
 
   /**
-   * Returns true if this job will attempt to decode a resource from the disk cache, and false if it
-   * will always decode from source.
+   * Returns true if this job's {@link DiskCacheStrategy} allows decoding a resource from the disk
+   * cache, and false if it will always decode from source.
+   *
+   * <p>Only the strategy is checked so that this is cheap on the thread starting the job. Whether
+   * the disk cache might contain the resource is checked once the job runs.
    */
   boolean willDecodeFromCache() {
-    Stage firstStage = getNextStage(Stage.INITIALIZE);
-    return firstStage == Stage.RESOURCE_CACHE || firstStage == Stage.DATA_CACHE;
+    return diskCacheStrategy.decodeCachedResource() || diskCacheStrategy.decodeCachedData();
+  }
+
+  /**
+   * Returns a key shared by jobs for the same model and signature, which are the jobs likely to
+   * read and write the same disk cache entries.
+   */
+  @NonNull
+  @Override
+  public Object getExecutionKey() {
+    return executionKey;
   }
 
   /**
@@ -178,6 +213,7 @@ class DecodeJob<R>
     glideContext = null;
     signature = null;
     options = null;
+    decodeOptions = null;
     priority = null;
     loadKey = null;
     callback = null;
@@ -190,7 +226,11 @@ class DecodeJob<R>
     currentFetcher = null;
     startFetchTime = 0L;
     isCancelled = false;
+    isOnDecodeExecutor = false;
+    isReadingDiskCache = false;
+    isFetchStarted = false;
     model = null;
+    executionKey = null;
     throwables.clear();
     pool.release(this);
   }
@@ -274,6 +314,15 @@ class DecodeJob<R>
       case INITIALIZE:
         stage = getNextStage(Stage.INITIALIZE);
         currentGenerator = getNextGenerator();
+        if (stage == Stage.SOURCE && willDecodeFromCache()) {
+          // The disk cache doesn't contain anything for this load, so go straight to the source
+          // executor rather than fetching on the disk cache executor.
+          reschedule(RunReason.SWITCH_TO_SOURCE_SERVICE);
+          break;
+        }
+        if (isDiskCacheStage(stage)) {
+          notifyDiskCacheReadStarted();
+        }
         runGenerators();
         break;
       case SWITCH_TO_SOURCE_SERVICE:
@@ -305,11 +354,19 @@ class DecodeJob<R>
   private void runGenerators() {
     currentThread = Thread.currentThread();
     startFetchTime = LogTime.getLogTime();
+    if (stage == Stage.SOURCE && !isFetchStarted) {
+      isFetchStarted = true;
+      notifyEvent(EngineEventListener.Event.FETCH_STARTED);
+    }
     boolean isStarted = false;
     while (!isCancelled
         && currentGenerator != null
         && !(isStarted = currentGenerator.startNext())) {
       stage = getNextStage(stage);
+      notifyDiskCacheReadFinished();
+      if (isDiskCacheStage(stage)) {
+        notifyDiskCacheReadStarted();
+      }
       currentGenerator = getNextGenerator();
 
       if (stage == Stage.SOURCE) {
@@ -326,6 +383,30 @@ class DecodeJob<R>
     // onDataFetcherReady.
   }
 
+  private static boolean isDiskCacheStage(Stage stage) {
+    return stage == Stage.RESOURCE_CACHE || stage == Stage.DATA_CACHE;
+  }
+
+  private void notifyDiskCacheReadStarted() {
+    isReadingDiskCache = true;
+    notifyEvent(EngineEventListener.Event.DISK_CACHE_READ_STARTED);
+  }
+
+  // Called both when a disk cache stage finds data and when the job moves on from the stage, so
+  // only notify for the first.
+  private void notifyDiskCacheReadFinished() {
+    if (isReadingDiskCache) {
+      isReadingDiskCache = false;
+      notifyEvent(EngineEventListener.Event.DISK_CACHE_READ_FINISHED);
+    }
+  }
+
+  private void notifyEvent(EngineEventListener.Event event) {
+    if (eventListener != null) {
+      eventListener.onEvent(loadKey, event, System.nanoTime());
+    }
+  }
+
   private void notifyFailed() {
     setNotifiedOrThrow();
     GlideException e = new GlideException("Failed to load resource", new ArrayList<>(throwables));
@@ -351,11 +432,11 @@ class DecodeJob<R>
   private Stage getNextStage(Stage current) {
     switch (current) {
       case INITIALIZE:
-        return diskCacheStrategy.decodeCachedResource()
+        return diskCacheStrategy.decodeCachedResource() && decodeHelper.mightContainCachedResource()
             ? Stage.RESOURCE_CACHE
             : getNextStage(Stage.RESOURCE_CACHE);
       case RESOURCE_CACHE:
-        return diskCacheStrategy.decodeCachedData()
+        return diskCacheStrategy.decodeCachedData() && decodeHelper.mightContainCachedData()
             ? Stage.DATA_CACHE
             : getNextStage(Stage.DATA_CACHE);
       case DATA_CACHE:
@@ -390,7 +471,17 @@ class DecodeJob<R>
     this.currentDataSource = dataSource;
     this.currentAttemptingKey = attemptedKey;
     this.isLoadingFromAlternateCacheKey = sourceKey != decodeHelper.getCacheKeys().get(0);
+    if (stage == Stage.SOURCE) {
+      notifyEvent(EngineEventListener.Event.FETCH_DATA_READY);
+    } else {
+      notifyDiskCacheReadFinished();
+    }
 
+    if (stage == Stage.SOURCE && rescheduleDecode()) {
+      // Source data is decoded on the decode executor so that the source executor is free to fetch
+      // more data.
+      return;
+    }
     if (Thread.currentThread() != currentThread) {
       reschedule(RunReason.DECODE_DATA);
     } else {
@@ -403,6 +494,17 @@ class DecodeJob<R>
     }
   }
 
+  private boolean rescheduleDecode() {
+    // Set before the job is handed off, it may run before rescheduleDecode returns.
+    runReason = RunReason.DECODE_DATA;
+    isOnDecodeExecutor = true;
+    if (callback.rescheduleDecode(this)) {
+      return true;
+    }
+    isOnDecodeExecutor = false;
+    return false;
+  }
+
   @Override
   public void onDataFetcherFailed(
       Key attemptedKey, Exception e, DataFetcher<?> fetcher, DataSource dataSource) {
@@ -430,14 +532,20 @@ class DecodeJob<R>
               + currentFetcher);
     }
     Resource<R> resource = null;
+    notifyEvent(EngineEventListener.Event.DECODE_STARTED);
     try {
       resource = decodeFromData(currentFetcher, currentData, currentDataSource);
     } catch (GlideException e) {
       e.setLoggingDetails(currentAttemptingKey, currentDataSource);
       throwables.add(e);
     }
+    notifyEvent(EngineEventListener.Event.DECODE_FINISHED);
     if (resource != null) {
       notifyEncodeAndRelease(resource, currentDataSource, isLoadingFromAlternateCacheKey);
+    } else if (isOnDecodeExecutor) {
+      // Starting the next fetch may block on I/O, so do it on the source executor.
+      isOnDecodeExecutor = false;
+      reschedule(RunReason.SWITCH_TO_SOURCE_SERVICE);
     } else {
       runGenerators();
     }
@@ -461,13 +569,26 @@ class DecodeJob<R>
       notifyComplete(result, dataSource, isLoadedFromAlternateCacheKey);
 
       stage = Stage.ENCODE;
-      try {
-        if (deferredEncodeManager.hasResourceToEncode()) {
-          deferredEncodeManager.encode(diskCacheProvider, options);
-        }
-      } finally {
-        if (lockedResource != null) {
-          lockedResource.unlock();
+      if (resourceEncodeQueue != null && deferredEncodeManager.hasResourceToEncode()) {
+        // The queue unlocks both resources once the encode is written or dropped.
+        deferredEncodeManager.enqueue(
+            resourceEncodeQueue,
+            diskCacheProvider,
+            options,
+            lockedResource,
+            eventListener,
+            loadKey);
+      } else {
+        try {
+          if (deferredEncodeManager.hasResourceToEncode()) {
+            notifyEvent(EngineEventListener.Event.ENCODE_STARTED);
+            deferredEncodeManager.encode(diskCacheProvider, options);
+            notifyEvent(EngineEventListener.Event.ENCODE_FINISHED);
+          }
+        } finally {
+          if (lockedResource != null) {
+            lockedResource.unlock();
+          }
         }
       }
       // Call onEncodeComplete outside the finally block so that it's not called if the encode
@@ -493,6 +614,9 @@ class DecodeJob<R>
       return result;
     } finally {
       fetcher.cleanup();
+      if (stage == Stage.SOURCE) {
+        notifyEvent(EngineEventListener.Event.FETCH_FINISHED);
+      }
     }
   }
 
@@ -503,11 +627,33 @@ class DecodeJob<R>
     return runLoadPath(data, dataSource, path);
   }
 
+  /**
+   * Returns the options for decoding one piece of data, with a new {@link ImageHeaderCache} so that
+   * the decoders tried for the data share the image header they read.
+   *
+   * <p>The requested options are copied once per job and the copy is updated for each decode.
+   */
   @NonNull
-  private Options getOptionsWithHardwareConfig(DataSource dataSource) {
-    Options options = this.options;
+  private Options getDecodeOptions(DataSource dataSource) {
+    if (decodeOptions == null) {
+      decodeOptions = new Options();
+      decodeOptions.putAll(options);
+    }
+    setHardwareConfig(decodeOptions, dataSource);
+    decodeOptions.set(ImageHeaderCache.OPTION, new ImageHeaderCache());
+    // Only data that's slow to arrive is worth previewing, and only while it's arriving. Data
+    // that's cacheable is written to the disk cache in full before it's decoded.
+    if (dataSource == DataSource.REMOTE && !diskCacheStrategy.isDataCacheable(dataSource)) {
+      decodeOptions.set(PreviewCallback.OPTION, previewCallback);
+    } else {
+      decodeOptions.remove(PreviewCallback.OPTION);
+    }
+    return decodeOptions;
+  }
+
+  private void setHardwareConfig(Options decodeOptions, DataSource dataSource) {
     if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
-      return options;
+      return;
     }
 
     boolean isHardwareConfigSafe =
@@ -517,22 +663,20 @@ class DecodeJob<R>
     // If allow hardware config is defined, we can use it if it's set to false or if it's safe to
     // use the hardware config for the request.
     if (isHardwareConfigAllowed != null && (!isHardwareConfigAllowed || isHardwareConfigSafe)) {
-      return options;
+      // An earlier decode in this job may have overridden the requested value.
+      decodeOptions.set(Downsampler.ALLOW_HARDWARE_CONFIG, isHardwareConfigAllowed);
+      return;
     }
 
     // If allow hardware config is undefined or is set to true but it's unsafe for us to use the
     // hardware config for this request, we need to override the config.
-    options = new Options();
-    options.putAll(this.options);
-    options.set(Downsampler.ALLOW_HARDWARE_CONFIG, isHardwareConfigSafe);
-
-    return options;
+    decodeOptions.set(Downsampler.ALLOW_HARDWARE_CONFIG, isHardwareConfigSafe);
   }
 
   private <Data, ResourceType> Resource<R> runLoadPath(
       Data data, DataSource dataSource, LoadPath<Data, ResourceType, R> path)
       throws GlideException {
-    Options options = getOptionsWithHardwareConfig(dataSource);
+    Options options = getDecodeOptions(dataSource);
     DataRewinder<Data> rewinder = glideContext.getRegistry().getRewinder(data);
     try {
       // ResourceType in DecodeCallback below is required for compilation to work with gradle.
@@ -575,7 +719,9 @@ class DecodeJob<R>
     Resource<Z> transformed = decoded;
     if (dataSource != DataSource.RESOURCE_DISK_CACHE) {
       appliedTransformation = decodeHelper.getTransformation(resourceSubClass);
+      notifyEvent(EngineEventListener.Event.TRANSFORM_STARTED);
       transformed = appliedTransformation.transform(glideContext, decoded, width, height);
+      notifyEvent(EngineEventListener.Event.TRANSFORM_FINISHED);
     }
     // TODO: Make this the responsibility of the Transformation.
     if (!decoded.equals(transformed)) {
@@ -627,6 +773,17 @@ class DecodeJob<R>
     return result;
   }
 
+  private final class DecodePreviewCallback implements PreviewCallback {
+
+    @Override
+    public void onPreview(@NonNull Bitmap preview) {
+      notifyEvent(EngineEventListener.Event.PREVIEW_DECODED);
+      if (!isCancelled) {
+        callback.onPreview(preview);
+      }
+    }
+  }
+
   private final class DecodeCallback<Z> implements DecodePath.DecodeCallback<Z> {
 
     private final DataSource dataSource;
@@ -712,6 +869,25 @@ class DecodeJob<R>
       }
     }
 
+    void enqueue(
+        ResourceEncodeQueue queue,
+        DiskCacheProvider diskCacheProvider,
+        Options options,
+        @Nullable LockedResource<?> lockedResult,
+        @Nullable EngineEventListener eventListener,
+        Key loadKey) {
+      queue.enqueue(
+          new QueuedEncode<>(
+              diskCacheProvider,
+              key,
+              encoder,
+              toEncode,
+              options,
+              lockedResult,
+              eventListener,
+              loadKey));
+    }
+
     boolean hasResourceToEncode() {
       return toEncode != null;
     }
@@ -723,6 +899,81 @@ class DecodeJob<R>
     }
   }
 
+  /**
+   * A transformed resource waiting in a {@link ResourceEncodeQueue} after the job that decoded it
+   * has moved on.
+   */
+  private static final class QueuedEncode<Z> implements ResourceEncodeQueue.Encode {
+    private final DiskCacheProvider diskCacheProvider;
+    private final Key key;
+    private final ResourceEncoder<Z> encoder;
+    private final LockedResource<Z> toEncode;
+    private final Options options;
+    // The resource delivered to requests, which may share the underlying data with toEncode.
+    @Nullable private final LockedResource<?> lockedResult;
+    @Nullable private final EngineEventListener eventListener;
+    private final Key loadKey;
+
+    @Synthetic
+    QueuedEncode(
+        DiskCacheProvider diskCacheProvider,
+        Key key,
+        ResourceEncoder<Z> encoder,
+        LockedResource<Z> toEncode,
+        Options options,
+        @Nullable LockedResource<?> lockedResult,
+        @Nullable EngineEventListener eventListener,
+        Key loadKey) {
+      this.diskCacheProvider = diskCacheProvider;
+      this.key = key;
+      this.encoder = encoder;
+      this.toEncode = toEncode;
+      this.options = options;
+      this.lockedResult = lockedResult;
+      this.eventListener = eventListener;
+      this.loadKey = loadKey;
+    }
+
+    @NonNull
+    @Override
+    public Key getKey() {
+      return key;
+    }
+
+    @Override
+    public void write() {
+      GlideTrace.beginSection("DecodeJob.encode");
+      try {
+        notifyEvent(EngineEventListener.Event.ENCODE_STARTED);
+        diskCacheProvider
+            .getDiskCache()
+            .put(key, new DataCacheWriter<>(encoder, toEncode, options));
+        notifyEvent(EngineEventListener.Event.ENCODE_FINISHED);
+      } finally {
+        unlock();
+        GlideTrace.endSection();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      unlock();
+    }
+
+    private void notifyEvent(EngineEventListener.Event event) {
+      if (eventListener != null) {
+        eventListener.onEvent(loadKey, event, System.nanoTime());
+      }
+    }
+
+    private void unlock() {
+      toEncode.unlock();
+      if (lockedResult != null) {
+        lockedResult.unlock();
+      }
+    }
+  }
+
   interface Callback<R> {
 
     void onResourceReady(
@@ -731,10 +982,60 @@ class DecodeJob<R>
     void onLoadFailed(GlideException e);
 
     void reschedule(DecodeJob<?> job);
+
+    /**
+     * Runs the job on the executor dedicated to decoding source data if there is one and returns
+     * {@code true}, or returns {@code false} so that the job decodes on its current thread.
+     */
+    boolean rescheduleDecode(DecodeJob<?> job);
+
+    /** Called on the decoding thread with a preview of the resource that's being decoded. */
+    void onPreview(Bitmap preview);
   }
 
   interface DiskCacheProvider {
     DiskCache getDiskCache();
+
+    /**
+     * Returns the {@link DiskCache} if {@link #getDiskCache()} has already created it, or {@code
+     * null} otherwise, without creating it.
+     */
+    @Nullable
+    DiskCache getDiskCacheIfCreated();
+  }
+
+  /**
+   * Identifies the jobs that are run one at a time by executors that order {@link
+   * GlideExecutor.KeyedRunnable}s.
+   *
+   * <p>The disk cache keys a job uses aren't known until its model has been loaded, so this only
+   * approximates them. Jobs for the same model and signature share a key and never race on their
+   * disk cache entries. Jobs for different models whose loaders resolve to the same source key, for
+   * example a {@code String} url and a {@link com.bumptech.glide.load.model.GlideUrl} for the same
+   * address, have different keys and may still run at the same time.
+   */
+  private static final class ExecutionKey {
+    private final Object model;
+    private final Key signature;
+
+    ExecutionKey(Object model, Key signature) {
+      this.model = model;
+      this.signature = signature;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o instanceof ExecutionKey) {
+        ExecutionKey other = (ExecutionKey) o;
+        return model.equals(other.model) && signature.equals(other.signature);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * model.hashCode() + signature.hashCode();
+    }
   }
 
   /** Why we're being executed again. */
@@ -17,6 +17,7 @@ import com.bumptech.glide.load.engine.cache.DiskCacheAdapter;
 import com.bumptech.glide.load.engine.cache.MemoryCache;
 import com.bumptech.glide.load.engine.executor.GlideExecutor;
 import com.bumptech.glide.request.ResourceCallback;
+import com.bumptech.glide.util.CacheStats;
 import com.bumptech.glide.util.Executors;
 import com.bumptech.glide.util.LogTime;
 import com.bumptech.glide.util.Preconditions;
@@ -24,6 +25,7 @@ import com.bumptech.glide.util.Synthetic;
 import com.bumptech.glide.util.pool.FactoryPools;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** Responsible for starting loads and managing active and cached resources. */
 public class Engine
@@ -32,6 +34,8 @@ public class Engine
         EngineResource.ResourceListener {
   private static final String TAG = "Engine";
   private static final int JOB_POOL_SIZE = 150;
+  // Must be a power of two.
+  private static final int LOCK_STRIPE_COUNT = 64;
   private static final boolean VERBOSE_IS_LOGGABLE = Log.isLoggable(TAG, Log.VERBOSE);
   private final Jobs jobs;
   private final EngineKeyFactory keyFactory;
@@ -41,6 +45,8 @@ public class Engine
   private final LazyDiskCacheProvider diskCacheProvider;
   private final DecodeJobFactory decodeJobFactory;
   private final ActiveResources activeResources;
+  @Nullable private final EngineEventListener eventListener;
+  private final Object[] lockStripes = new Object[LOCK_STRIPE_COUNT];
 
   public Engine(
       MemoryCache memoryCache,
@@ -57,9 +63,50 @@ public class Engine
         sourceExecutor,
         sourceUnlimitedExecutor,
         animationExecutor,
+        /* decodeExecutor= */ null,
+        /* resourceEncodeQueue= */ null,
+        /* eventListener= */ null,
+        isActiveResourceRetentionAllowed,
+        /* isActiveResourceQueuePolledInline= */ false);
+  }
+
+  /**
+   * @param decodeExecutor The executor that decodes, transforms and encodes data fetched from
+   *     source, or {@code null} to do so on the executor that fetched the data.
+   * @param resourceEncodeQueue The queue that writes transformed resources to the disk cache after
+   *     they're delivered, or {@code null} to write them before the decoding thread moves on.
+   * @param eventListener Receives the events of each load, or {@code null}.
+   * @param isActiveResourceQueuePolledInline {@code true} to find garbage collected active
+   *     resources when resources are acquired or released instead of on a dedicated background
+   *     thread.
+   */
+  public Engine(
+      MemoryCache memoryCache,
+      DiskCache.Factory diskCacheFactory,
+      GlideExecutor diskCacheExecutor,
+      GlideExecutor sourceExecutor,
+      GlideExecutor sourceUnlimitedExecutor,
+      GlideExecutor animationExecutor,
+      @Nullable GlideExecutor decodeExecutor,
+      @Nullable ResourceEncodeQueue resourceEncodeQueue,
+      @Nullable EngineEventListener eventListener,
+      boolean isActiveResourceRetentionAllowed,
+      boolean isActiveResourceQueuePolledInline) {
+    this(
+        memoryCache,
+        diskCacheFactory,
+        diskCacheExecutor,
+        sourceExecutor,
+        sourceUnlimitedExecutor,
+        animationExecutor,
+        decodeExecutor,
+        resourceEncodeQueue,
+        eventListener,
         /* jobs= */ null,
         /* keyFactory= */ null,
-        /* activeResources= */ null,
+        isActiveResourceQueuePolledInline
+            ? ActiveResources.withInlineReferenceQueuePolling(isActiveResourceRetentionAllowed)
+            : null,
         /* engineJobFactory= */ null,
         /* decodeJobFactory= */ null,
         /* resourceRecycler= */ null,
@@ -81,7 +128,47 @@ public class Engine
       DecodeJobFactory decodeJobFactory,
       ResourceRecycler resourceRecycler,
       boolean isActiveResourceRetentionAllowed) {
+    this(
+        cache,
+        diskCacheFactory,
+        diskCacheExecutor,
+        sourceExecutor,
+        sourceUnlimitedExecutor,
+        animationExecutor,
+        /* decodeExecutor= */ null,
+        /* resourceEncodeQueue= */ null,
+        /* eventListener= */ null,
+        jobs,
+        keyFactory,
+        activeResources,
+        engineJobFactory,
+        decodeJobFactory,
+        resourceRecycler,
+        isActiveResourceRetentionAllowed);
+  }
+
+  private Engine(
+      MemoryCache cache,
+      DiskCache.Factory diskCacheFactory,
+      GlideExecutor diskCacheExecutor,
+      GlideExecutor sourceExecutor,
+      GlideExecutor sourceUnlimitedExecutor,
+      GlideExecutor animationExecutor,
+      @Nullable GlideExecutor decodeExecutor,
+      @Nullable ResourceEncodeQueue resourceEncodeQueue,
+      @Nullable EngineEventListener eventListener,
+      Jobs jobs,
+      EngineKeyFactory keyFactory,
+      ActiveResources activeResources,
+      EngineJobFactory engineJobFactory,
+      DecodeJobFactory decodeJobFactory,
+      ResourceRecycler resourceRecycler,
+      boolean isActiveResourceRetentionAllowed) {
     this.cache = cache;
+    this.eventListener = eventListener;
+    for (int i = 0; i < LOCK_STRIPE_COUNT; i++) {
+      lockStripes[i] = new Object();
+    }
     this.diskCacheProvider = new LazyDiskCacheProvider(diskCacheFactory);
 
     if (activeResources == null) {
@@ -107,13 +194,16 @@ public class Engine
               sourceExecutor,
               sourceUnlimitedExecutor,
               animationExecutor,
+              decodeExecutor,
+              eventListener,
               /* engineJobListener= */ this,
               /* resourceListener= */ this);
     }
     this.engineJobFactory = engineJobFactory;
 
     if (decodeJobFactory == null) {
-      decodeJobFactory = new DecodeJobFactory(diskCacheProvider);
+      decodeJobFactory =
+          new DecodeJobFactory(diskCacheProvider, resourceEncodeQueue, eventListener);
     }
     this.decodeJobFactory = decodeJobFactory;
 
@@ -148,6 +238,10 @@ public class Engine
    * re-used if possible and the resource is discarded. There is no strict requirement that
    * consumers release their resources so active resources are held weakly.
    *
+   * <p>Lookups and job creation are serialized per {@link EngineKey} rather than across the entire
+   * Engine, so loads for different keys can start concurrently while loads for the same key still
+   * share a single {@link EngineJob}.
+   *
    * @param width The target width in pixels of the desired resource.
    * @param height The target height in pixels of the desired resource.
    * @param cb The callback that will be called when the load completes.
@@ -173,9 +267,11 @@ public class Engine
       ResourceCallback cb,
       Executor callbackExecutor) {
     long startTime = VERBOSE_IS_LOGGABLE ? LogTime.getLogTime() : 0;
+    long lookupStartNanos = eventListener != null ? System.nanoTime() : 0;
 
-    EngineKey key =
-        keyFactory.buildKey(
+    // Lookups use a reused probe key so that memory cache hits don't allocate.
+    EngineKey probeKey =
+        keyFactory.buildProbeKey(
             model,
             signature,
             width,
@@ -184,41 +280,56 @@ public class Engine
             resourceClass,
             transcodeClass,
             options);
-
+    EngineKey eventKey = null;
     EngineResource<?> memoryResource;
-    synchronized (this) {
-      memoryResource = loadFromMemory(key, isMemoryCacheable, startTime);
+    try {
+      // Listeners may retain keys, so they need a copy of the probe key.
+      if (eventListener != null) {
+        eventKey = keyFactory.buildKey(probeKey);
+        eventListener.onEvent(
+            eventKey, EngineEventListener.Event.MEMORY_CACHE_LOOKUP_STARTED, lookupStartNanos);
+      }
 
-      if (memoryResource == null) {
-        return waitForExistingOrStartNewJob(
-            glideContext,
-            model,
-            signature,
-            width,
-            height,
-            resourceClass,
-            transcodeClass,
-            priority,
-            diskCacheStrategy,
-            transformations,
-            isTransformationRequired,
-            isScaleOnlyOrNoTransform,
-            options,
-            isMemoryCacheable,
-            useUnlimitedSourceExecutorPool,
-            useAnimationPool,
-            onlyRetrieveFromCache,
-            cb,
-            callbackExecutor,
-            key,
-            startTime);
+      synchronized (getLock(probeKey)) {
+        memoryResource = loadFromMemory(probeKey, isMemoryCacheable, startTime, eventKey);
+
+        if (memoryResource == null) {
+          return waitForExistingOrStartNewJob(
+              glideContext,
+              model,
+              signature,
+              width,
+              height,
+              resourceClass,
+              transcodeClass,
+              priority,
+              diskCacheStrategy,
+              transformations,
+              isTransformationRequired,
+              isScaleOnlyOrNoTransform,
+              options,
+              isMemoryCacheable,
+              useUnlimitedSourceExecutorPool,
+              useAnimationPool,
+              onlyRetrieveFromCache,
+              cb,
+              callbackExecutor,
+              probeKey,
+              eventKey,
+              startTime);
+        }
       }
+    } finally {
+      // The probe key is only reused by this thread's next load, so don't let it keep this load's
+      // model, transformations and options alive until then.
+      keyFactory.releaseProbeKey(probeKey);
     }
 
     // Avoid calling back while holding the engine lock, doing so makes it easier for callers to
     // deadlock.
     cb.onResourceReady(
         memoryResource, DataSource.MEMORY_CACHE, /* isLoadedFromAlternateCacheKey= */ false);
+    notifyEvent(eventKey, EngineEventListener.Event.RESOURCE_DELIVERED);
     return null;
   }
 
@@ -242,16 +353,22 @@ public class Engine
       boolean onlyRetrieveFromCache,
       ResourceCallback cb,
       Executor callbackExecutor,
-      EngineKey key,
+      EngineKey probeKey,
+      @Nullable EngineKey eventKey,
       long startTime) {
+    // Everything from here on either retains the key or may call back into code that starts
+    // another load on this thread and overwrites the probe key, so use a copy.
+    EngineKey key = eventKey != null ? eventKey : keyFactory.buildKey(probeKey);
+    notifyEvent(eventKey, EngineEventListener.Event.MEMORY_CACHE_MISS);
 
     EngineJob<?> current = jobs.get(key, onlyRetrieveFromCache);
     if (current != null) {
+      notifyEvent(eventKey, EngineEventListener.Event.JOB_JOINED);
       current.addCallback(cb, callbackExecutor);
       if (VERBOSE_IS_LOGGABLE) {
         logWithTimeAndKey("Added to existing load", startTime, key);
       }
-      return new LoadStatus(cb, current);
+      return new LoadStatus(cb, current, key);
     }
 
     EngineJob<R> engineJob =
@@ -284,17 +401,18 @@ public class Engine
     jobs.put(key, engineJob);
 
     engineJob.addCallback(cb, callbackExecutor);
+    notifyEvent(eventKey, EngineEventListener.Event.JOB_STARTED);
     engineJob.start(decodeJob);
 
     if (VERBOSE_IS_LOGGABLE) {
       logWithTimeAndKey("Started new load", startTime, key);
     }
-    return new LoadStatus(cb, engineJob);
+    return new LoadStatus(cb, engineJob, key);
   }
 
   @Nullable
   private EngineResource<?> loadFromMemory(
-      EngineKey key, boolean isMemoryCacheable, long startTime) {
+      EngineKey key, boolean isMemoryCacheable, long startTime, @Nullable EngineKey eventKey) {
     if (!isMemoryCacheable) {
       return null;
     }
@@ -304,6 +422,7 @@ public class Engine
       if (VERBOSE_IS_LOGGABLE) {
         logWithTimeAndKey("Loaded resource from active resources", startTime, key);
       }
+      notifyEvent(eventKey, EngineEventListener.Event.ACTIVE_RESOURCE_HIT);
       return active;
     }
 
@@ -312,12 +431,20 @@ public class Engine
       if (VERBOSE_IS_LOGGABLE) {
         logWithTimeAndKey("Loaded resource from cache", startTime, key);
       }
+      notifyEvent(eventKey, EngineEventListener.Event.MEMORY_CACHE_HIT);
       return cached;
     }
 
     return null;
   }
 
+  // The event key is only null if there's no listener.
+  private void notifyEvent(@Nullable EngineKey eventKey, EngineEventListener.Event event) {
+    if (eventListener != null && eventKey != null) {
+      eventListener.onEvent(eventKey, event, System.nanoTime());
+    }
+  }
+
   private static void logWithTimeAndKey(String log, long startTime, Key key) {
     Log.v(TAG, log + " in " + LogTime.getElapsedMillis(startTime) + "ms, key: " + key);
   }
@@ -332,34 +459,30 @@ public class Engine
     return active;
   }
 
-  private EngineResource<?> loadFromCache(Key key) {
-    EngineResource<?> cached = getEngineResourceFromCache(key);
-    if (cached != null) {
-      cached.acquire();
-      activeResources.activate(key, cached);
+  private EngineResource<?> loadFromCache(EngineKey probeKey) {
+    Resource<?> cached = cache.remove(probeKey);
+    if (cached == null) {
+      return null;
     }
-    return cached;
+    // The probe key is reused by later loads, so copy it before the active resources retain it.
+    EngineKey key = keyFactory.buildKey(probeKey);
+    EngineResource<?> result = toEngineResource(cached, key);
+    result.acquire();
+    activeResources.activate(key, result);
+    return result;
   }
 
-  private EngineResource<?> getEngineResourceFromCache(Key key) {
-    Resource<?> cached = cache.remove(key);
-
-    final EngineResource<?> result;
-    if (cached == null) {
-      result = null;
-    } else if (cached instanceof EngineResource) {
+  private EngineResource<?> toEngineResource(Resource<?> cached, Key key) {
+    if (cached instanceof EngineResource) {
       // Save an object allocation if we've cached an EngineResource (the typical case).
-      result = (EngineResource<?>) cached;
-    } else {
-      result =
-          new EngineResource<>(
-              cached,
-              /* isMemoryCacheable= */ true,
-              /* isRecyclable= */ true,
-              key,
-              /* listener= */ this);
+      return (EngineResource<?>) cached;
     }
-    return result;
+    return new EngineResource<>(
+        cached,
+        /* isMemoryCacheable= */ true,
+        /* isRecyclable= */ true,
+        key,
+        /* listener= */ this);
   }
 
   public void release(Resource<?> resource) {
@@ -372,19 +495,22 @@ public class Engine
 
   @SuppressWarnings("unchecked")
   @Override
-  public synchronized void onEngineJobComplete(
-      EngineJob<?> engineJob, Key key, EngineResource<?> resource) {
-    // A null resource indicates that the load failed, usually due to an exception.
-    if (resource != null && resource.isMemoryCacheable()) {
-      activeResources.activate(key, resource);
-    }
+  public void onEngineJobComplete(EngineJob<?> engineJob, Key key, EngineResource<?> resource) {
+    synchronized (getLock(key)) {
+      // A null resource indicates that the load failed, usually due to an exception.
+      if (resource != null && resource.isMemoryCacheable()) {
+        activeResources.activate(key, resource);
+      }
 
-    jobs.removeIfCurrent(key, engineJob);
+      jobs.removeIfCurrent(key, engineJob);
+    }
   }
 
   @Override
-  public synchronized void onEngineJobCancelled(EngineJob<?> engineJob, Key key) {
-    jobs.removeIfCurrent(key, engineJob);
+  public void onEngineJobCancelled(EngineJob<?> engineJob, Key key) {
+    synchronized (getLock(key)) {
+      jobs.removeIfCurrent(key, engineJob);
+    }
   }
 
   @Override
@@ -404,13 +530,50 @@ public class Engine
     }
   }
 
+  /**
+   * Returns the lock that guards lookups and {@link Jobs} for the given key.
+   *
+   * <p>Callers must never hold more than one of these locks at a time.
+   */
+  @Synthetic
+  Object getLock(Key key) {
+    int hash = key.hashCode();
+    return lockStripes[(hash ^ (hash >>> 16)) & (LOCK_STRIPE_COUNT - 1)];
+  }
+
   public void clearDiskCache() {
     diskCacheProvider.getDiskCache().clear();
   }
 
+  /** Returns the number of resources that are currently in use by at least one request. */
+  public int getActiveResourceCount() {
+    return activeResources.getActiveResourceCount();
+  }
+
+  /**
+   * Returns the number of resources that were garbage collected while still in use, usually
+   * because the requests using them were never cleared.
+   */
+  public long getReclaimedResourceCount() {
+    return activeResources.getReclaimedResourceCount();
+  }
+
+  /**
+   * Returns the stats of the disk cache, or {@code null} if it hasn't been opened yet or doesn't
+   * keep stats.
+   */
+  @Nullable
+  public CacheStats getDiskCacheStats() {
+    DiskCache diskCache = diskCacheProvider.getDiskCacheIfCreated();
+    return diskCache instanceof CacheStats.Provider
+        ? ((CacheStats.Provider) diskCache).getStats()
+        : null;
+  }
+
   @VisibleForTesting
   public void shutdown() {
     engineJobFactory.shutdown();
+    decodeJobFactory.shutdown();
     diskCacheProvider.clearDiskCacheIfCreated();
     activeResources.shutdown();
   }
@@ -423,18 +586,20 @@ public class Engine
   public class LoadStatus {
     private final EngineJob<?> engineJob;
     private final ResourceCallback cb;
+    private final Key key;
 
-    LoadStatus(ResourceCallback cb, EngineJob<?> engineJob) {
+    LoadStatus(ResourceCallback cb, EngineJob<?> engineJob, Key key) {
       this.cb = cb;
       this.engineJob = engineJob;
+      this.key = key;
     }
 
     public void cancel() {
-      // Acquire the Engine lock so that a new request can't get access to a particular EngineJob
-      // just after the EngineJob has been cancelled. Without this lock, we'd allow new requests
-      // to find the cancelling EngineJob in our Jobs data structure. With this lock, the EngineJob
-      // is both cancelled and removed from Jobs atomically.
-      synchronized (Engine.this) {
+      // Acquire the lock for the key so that a new request can't get access to a particular
+      // EngineJob just after the EngineJob has been cancelled. Without this lock, we'd allow new
+      // requests to find the cancelling EngineJob in our Jobs data structure. With this lock, the
+      // EngineJob is both cancelled and removed from Jobs atomically.
+      synchronized (getLock(key)) {
         engineJob.removeCallback(cb);
       }
     }
@@ -471,11 +636,19 @@ public class Engine
       }
       return diskCache;
     }
+
+    @Nullable
+    @Override
+    public DiskCache getDiskCacheIfCreated() {
+      return diskCache;
+    }
   }
 
   @VisibleForTesting
   static class DecodeJobFactory {
     @Synthetic final DecodeJob.DiskCacheProvider diskCacheProvider;
+    @Synthetic @Nullable final ResourceEncodeQueue resourceEncodeQueue;
+    @Synthetic @Nullable final EngineEventListener eventListener;
 
     @Synthetic
     final Pools.Pool<DecodeJob<?>> pool =
@@ -484,14 +657,26 @@ public class Engine
             new FactoryPools.Factory<DecodeJob<?>>() {
               @Override
               public DecodeJob<?> create() {
-                return new DecodeJob<>(diskCacheProvider, pool);
+                return new DecodeJob<>(
+                    diskCacheProvider, resourceEncodeQueue, eventListener, pool);
               }
             });
 
-    private int creationOrder;
+    private final AtomicInteger creationOrder = new AtomicInteger();
 
-    DecodeJobFactory(DecodeJob.DiskCacheProvider diskCacheProvider) {
+    DecodeJobFactory(
+        DecodeJob.DiskCacheProvider diskCacheProvider,
+        @Nullable ResourceEncodeQueue resourceEncodeQueue,
+        @Nullable EngineEventListener eventListener) {
       this.diskCacheProvider = diskCacheProvider;
+      this.resourceEncodeQueue = resourceEncodeQueue;
+      this.eventListener = eventListener;
+    }
+
+    void shutdown() {
+      if (resourceEncodeQueue != null) {
+        resourceEncodeQueue.shutdown();
+      }
     }
 
     @SuppressWarnings("unchecked")
@@ -530,7 +715,7 @@ public class Engine
           onlyRetrieveFromCache,
           options,
           callback,
-          creationOrder++);
+          creationOrder.getAndIncrement());
     }
   }
 
@@ -540,6 +725,8 @@ public class Engine
     @Synthetic final GlideExecutor sourceExecutor;
     @Synthetic final GlideExecutor sourceUnlimitedExecutor;
     @Synthetic final GlideExecutor animationExecutor;
+    @Synthetic @Nullable final GlideExecutor decodeExecutor;
+    @Synthetic @Nullable final EngineEventListener eventListener;
     @Synthetic final EngineJobListener engineJobListener;
     @Synthetic final ResourceListener resourceListener;
 
@@ -555,6 +742,8 @@ public class Engine
                     sourceExecutor,
                     sourceUnlimitedExecutor,
                     animationExecutor,
+                    decodeExecutor,
+                    eventListener,
                     engineJobListener,
                     resourceListener,
                     pool);
@@ -566,12 +755,16 @@ public class Engine
         GlideExecutor sourceExecutor,
         GlideExecutor sourceUnlimitedExecutor,
         GlideExecutor animationExecutor,
+        @Nullable GlideExecutor decodeExecutor,
+        @Nullable EngineEventListener eventListener,
         EngineJobListener engineJobListener,
         ResourceListener resourceListener) {
       this.diskCacheExecutor = diskCacheExecutor;
       this.sourceExecutor = sourceExecutor;
       this.sourceUnlimitedExecutor = sourceUnlimitedExecutor;
       this.animationExecutor = animationExecutor;
+      this.decodeExecutor = decodeExecutor;
+      this.eventListener = eventListener;
       this.engineJobListener = engineJobListener;
       this.resourceListener = resourceListener;
     }
@@ -582,6 +775,9 @@ public class Engine
       Executors.shutdownAndAwaitTermination(sourceExecutor);
       Executors.shutdownAndAwaitTermination(sourceUnlimitedExecutor);
       Executors.shutdownAndAwaitTermination(animationExecutor);
+      if (decodeExecutor != null) {
+        Executors.shutdownAndAwaitTermination(decodeExecutor);
+      }
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,114 @@
+package com.bumptech.glide.load.engine;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.Key;
+
+/**
+ * Receives timestamped events as loads move through the {@link Engine}, for example to record
+ * latency histograms in production without enabling verbose logging.
+ *
+ * <p>Events are keyed by the key the {@link Engine} uses to identify loads, which is equal for
+ * loads of the same model, signature, size, transformations and options. Loads with equal keys
+ * that are started while a load for that key is already running share its job, so they only
+ * receive the events from {@link Event#MEMORY_CACHE_LOOKUP_STARTED} to {@link Event#JOB_JOINED}
+ * and their own {@link Event#PREVIEW_DELIVERED}, {@link Event#RESOURCE_DELIVERED} or {@link
+ * Event#LOAD_FAILED}. Keys may be retained.
+ *
+ * <p>Events are sent on the main thread and on Glide's executors, sometimes while Glide holds
+ * locks. Implementations must be thread safe, must return quickly and must not start or clear
+ * loads.
+ *
+ * <p>This is an experimental API that may be removed in the future.
+ *
+ * @see com.bumptech.glide.GlideBuilder#setEngineEventListener(EngineEventListener)
+ */
+public interface EngineEventListener {
+
+  /**
+   * Called when the load with the given key reaches the given event.
+   *
+   * @param key The key of the load.
+   * @param event The event.
+   * @param timeNanos The time of the event, from {@link System#nanoTime()}.
+   */
+  void onEvent(@NonNull Key key, @NonNull Event event, long timeNanos);
+
+  /**
+   * The events of a load, in the order they're usually sent.
+   *
+   * <p>Stages that aren't needed are skipped, a load that finds its resource in memory only sends
+   * the memory cache events and {@link #RESOURCE_DELIVERED}. Stages that are retried, for example
+   * when the first of several {@link com.bumptech.glide.load.model.ModelLoader}s fails to provide
+   * data that can be decoded, send their events again.
+   */
+  enum Event {
+    /** The load started looking for the resource in memory. */
+    MEMORY_CACHE_LOOKUP_STARTED,
+    /** The resource was found in the active resources, resources that are currently displayed. */
+    ACTIVE_RESOURCE_HIT,
+    /** The resource was found in the memory cache. */
+    MEMORY_CACHE_HIT,
+    /**
+     * The resource wasn't found in memory, or the load skipped the memory cache, and the load
+     * either joins or starts a job.
+     */
+    MEMORY_CACHE_MISS,
+    /** The load joined the job of a load with the same key that was already running. */
+    JOB_JOINED,
+    /** A new job was started and queued on one of Glide's executors. */
+    JOB_STARTED,
+    /**
+     * The job started looking in the disk cache, first for the transformed resource and then for
+     * its source data. Sent once for each of the two that the job looks for.
+     */
+    DISK_CACHE_READ_STARTED,
+    /**
+     * The job found data in the disk cache, or didn't and moves on to the next stage. Sent once
+     * after each {@link #DISK_CACHE_READ_STARTED}.
+     */
+    DISK_CACHE_READ_FINISHED,
+    /** The job started fetching data from source, for example from the network. */
+    FETCH_STARTED,
+    /**
+     * Data fetched from source is ready to be decoded. For streamed data, usually when the first
+     * bytes of the response arrived.
+     */
+    FETCH_DATA_READY,
+    /**
+     * Data fetched from source was decoded, or failed to decode, and released. For streamed data,
+     * when the last byte that's needed was read.
+     */
+    FETCH_FINISHED,
+    /** The job started decoding data, from the disk cache or from source. */
+    DECODE_STARTED,
+    /**
+     * A low resolution preview was decoded from the data read so far, see {@link
+     * com.bumptech.glide.load.PreviewCallback}. Sent on the decoding thread, so the time spent
+     * decoding previews is included between {@link #DECODE_STARTED} and {@link #DECODE_FINISHED}.
+     */
+    PREVIEW_DECODED,
+    /**
+     * A preview was delivered to the load's callback. The time of the first is when the load first
+     * showed something, which may be well before {@link #RESOURCE_DELIVERED}.
+     */
+    PREVIEW_DELIVERED,
+    /** The job started transforming the decoded resource. */
+    TRANSFORM_STARTED,
+    /** The job finished transforming the decoded resource. */
+    TRANSFORM_FINISHED,
+    /** The job finished decoding, transforming and transcoding the resource, or failed to. */
+    DECODE_FINISHED,
+    /**
+     * The transformed resource started being written to the disk cache. Resources are written
+     * after they're handed to the load's callbacks, so encode events may be sent after {@link
+     * #RESOURCE_DELIVERED}.
+     */
+    ENCODE_STARTED,
+    /** The transformed resource was written to the disk cache. */
+    ENCODE_FINISHED,
+    /** The resource was delivered to the load's callback. */
+    RESOURCE_DELIVERED,
+    /** The load's callback was notified that the load failed. */
+    LOAD_FAILED
+  }
+}
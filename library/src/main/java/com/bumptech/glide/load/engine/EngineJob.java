@@ -1,11 +1,14 @@
 package com.bumptech.glide.load.engine;
 
+import android.graphics.Bitmap;
 import androidx.annotation.GuardedBy;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.util.Pools;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.PreviewCallback;
 import com.bumptech.glide.load.engine.EngineResource.ResourceListener;
 import com.bumptech.glide.load.engine.executor.GlideExecutor;
 import com.bumptech.glide.request.ResourceCallback;
@@ -40,6 +43,8 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
   private final GlideExecutor sourceExecutor;
   private final GlideExecutor sourceUnlimitedExecutor;
   private final GlideExecutor animationExecutor;
+  @Nullable private final GlideExecutor decodeExecutor;
+  @Nullable private final EngineEventListener eventListener;
   private final AtomicInteger pendingCallbacks = new AtomicInteger();
 
   private Key key;
@@ -76,6 +81,8 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
       GlideExecutor sourceExecutor,
       GlideExecutor sourceUnlimitedExecutor,
       GlideExecutor animationExecutor,
+      @Nullable GlideExecutor decodeExecutor,
+      @Nullable EngineEventListener eventListener,
       EngineJobListener engineJobListener,
       ResourceListener resourceListener,
       Pools.Pool<EngineJob<?>> pool) {
@@ -84,6 +91,8 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
         sourceExecutor,
         sourceUnlimitedExecutor,
         animationExecutor,
+        decodeExecutor,
+        eventListener,
         engineJobListener,
         resourceListener,
         pool,
@@ -96,6 +105,8 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
       GlideExecutor sourceExecutor,
       GlideExecutor sourceUnlimitedExecutor,
       GlideExecutor animationExecutor,
+      @Nullable GlideExecutor decodeExecutor,
+      @Nullable EngineEventListener eventListener,
       EngineJobListener engineJobListener,
       ResourceListener resourceListener,
       Pools.Pool<EngineJob<?>> pool,
@@ -104,6 +115,8 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
     this.sourceExecutor = sourceExecutor;
     this.sourceUnlimitedExecutor = sourceUnlimitedExecutor;
     this.animationExecutor = animationExecutor;
+    this.decodeExecutor = decodeExecutor;
+    this.eventListener = eventListener;
     this.engineJobListener = engineJobListener;
     this.resourceListener = resourceListener;
     this.pool = pool;
@@ -160,6 +173,7 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
     } catch (Throwable t) {
       throw new CallbackException(t);
     }
+    notifyEvent(EngineEventListener.Event.RESOURCE_DELIVERED);
   }
 
   @SuppressWarnings("WeakerAccess")
@@ -174,6 +188,26 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
     } catch (Throwable t) {
       throw new CallbackException(t);
     }
+    notifyEvent(EngineEventListener.Event.LOAD_FAILED);
+  }
+
+  @SuppressWarnings("WeakerAccess")
+  @Synthetic
+  @GuardedBy("this")
+  void callCallbackOnPreview(ResourceCallback cb, Bitmap preview) {
+    try {
+      ((PreviewCallback) cb).onPreview(preview);
+    } catch (Throwable t) {
+      throw new CallbackException(t);
+    }
+    notifyEvent(EngineEventListener.Event.PREVIEW_DELIVERED);
+  }
+
+  @GuardedBy("this")
+  private void notifyEvent(EngineEventListener.Event event) {
+    if (eventListener != null) {
+      eventListener.onEvent(key, event, System.nanoTime());
+    }
   }
 
   synchronized void removeCallback(ResourceCallback cb) {
@@ -332,6 +366,27 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
     notifyCallbacksOfException();
   }
 
+  // We have to post Runnables in a loop. Typically there will be very few callbacks.
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  @Override
+  public void onPreview(Bitmap preview) {
+    ResourceCallbacksAndExecutors copy;
+    Key localKey;
+    synchronized (this) {
+      if (isDone()) {
+        return;
+      }
+      localKey = key;
+      copy = cbs.copy();
+    }
+
+    for (ResourceCallbackAndExecutor entry : copy) {
+      if (entry.cb instanceof PreviewCallback) {
+        entry.executor.execute(new CallPreviewReady(entry.cb, localKey, preview));
+      }
+    }
+  }
+
   @Override
   public void reschedule(DecodeJob<?> job) {
     // Even if the job is cancelled here, it still needs to be scheduled so that it can clean itself
@@ -339,6 +394,16 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
     getActiveSourceExecutor().execute(job);
   }
 
+  @Override
+  public boolean rescheduleDecode(DecodeJob<?> job) {
+    // Animations already have a dedicated executor that both fetches and decodes.
+    if (decodeExecutor == null || useAnimationPool) {
+      return false;
+    }
+    decodeExecutor.execute(job);
+    return true;
+  }
+
   // We have to post Runnables in a loop. Typically there will be very few callbacks. Acessor method
   // warning seems to be false positive.
   @SuppressWarnings({
@@ -408,6 +473,34 @@ class EngineJob<R> implements DecodeJob.Callback<R>, Poolable {
     }
   }
 
+  private class CallPreviewReady implements Runnable {
+
+    private final ResourceCallback cb;
+    private final Key expectedKey;
+    private final Bitmap preview;
+
+    CallPreviewReady(ResourceCallback cb, Key expectedKey, Bitmap preview) {
+      this.cb = cb;
+      this.expectedKey = expectedKey;
+      this.preview = preview;
+    }
+
+    @Override
+    public void run() {
+      // Make sure we always acquire the request lock, then the EngineJob lock to avoid deadlock
+      // (b/136032534).
+      synchronized (cb.getLock()) {
+        synchronized (EngineJob.this) {
+          // Previews aren't counted as pending callbacks, so this job may have finished, or been
+          // released and reused for another load, since the preview was posted.
+          if (key == expectedKey && !isDone() && cbs.contains(cb)) {
+            callCallbackOnPreview(cb, preview);
+          }
+        }
+      }
+    }
+  }
+
   private class CallResourceReady implements Runnable {
 
     private final ResourceCallback cb;
@@ -8,18 +8,28 @@ import com.bumptech.glide.util.Preconditions;
 import java.security.MessageDigest;
 import java.util.Map;
 
-/** An in memory only cache key used to multiplex loads. */
+/**
+ * An in memory only cache key used to multiplex loads.
+ *
+ * <p>Keys are immutable once created with the public constructor. Keys created with {@link
+ * #EngineKey()} are probe keys that are reused across lookups via {@link #set} and emptied with
+ * {@link #clear()} in between, they must only be used to query maps and must be copied with {@link
+ * #copy()} before being stored anywhere.
+ */
 class EngineKey implements Key {
-  private final Object model;
-  private final int width;
-  private final int height;
-  private final Class<?> resourceClass;
-  private final Class<?> transcodeClass;
-  private final Key signature;
-  private final Map<Class<?>, Transformation<?>> transformations;
-  private final Options options;
+  private Object model;
+  private int width;
+  private int height;
+  private Class<?> resourceClass;
+  private Class<?> transcodeClass;
+  private Key signature;
+  private Map<Class<?>, Transformation<?>> transformations;
+  private Options options;
   private int hashCode;
 
+  /** Creates an empty probe key that must be filled in with {@link #set} before it's used. */
+  EngineKey() {}
+
   EngineKey(
       Object model,
       Key signature,
@@ -29,6 +39,23 @@ class EngineKey implements Key {
       Class<?> resourceClass,
       Class<?> transcodeClass,
       Options options) {
+    set(model, signature, width, height, transformations, resourceClass, transcodeClass, options);
+  }
+
+  /**
+   * Replaces every field of this key and clears its cached hash code.
+   *
+   * <p>Only safe to call on probe keys that are not stored in any map.
+   */
+  void set(
+      Object model,
+      Key signature,
+      int width,
+      int height,
+      Map<Class<?>, Transformation<?>> transformations,
+      Class<?> resourceClass,
+      Class<?> transcodeClass,
+      Options options) {
     this.model = Preconditions.checkNotNull(model);
     this.signature = Preconditions.checkNotNull(signature, "Signature must not be null");
     this.width = width;
@@ -39,6 +66,40 @@ class EngineKey implements Key {
     this.transcodeClass =
         Preconditions.checkNotNull(transcodeClass, "Transcode class must not be null");
     this.options = Preconditions.checkNotNull(options);
+    hashCode = 0;
+  }
+
+  /**
+   * Drops every reference held by this probe key so that it doesn't keep them alive while it's
+   * unused. The key must be filled in with {@link #set} again before it's next used.
+   */
+  void clear() {
+    model = null;
+    signature = null;
+    transformations = null;
+    resourceClass = null;
+    transcodeClass = null;
+    options = null;
+    hashCode = 0;
+  }
+
+  /**
+   * Returns a new key equal to this one that is safe to store, reusing the hash code if it's
+   * already been computed.
+   */
+  EngineKey copy() {
+    EngineKey result =
+        new EngineKey(
+            model,
+            signature,
+            width,
+            height,
+            transformations,
+            resourceClass,
+            transcodeClass,
+            options);
+    result.hashCode = hashCode;
+    return result;
   }
 
   @Override
@@ -6,6 +6,13 @@ import com.bumptech.glide.load.Transformation;
 import java.util.Map;
 
 class EngineKeyFactory {
+  private final ThreadLocal<EngineKey> probeKeys =
+      new ThreadLocal<EngineKey>() {
+        @Override
+        protected EngineKey initialValue() {
+          return new EngineKey();
+        }
+      };
 
   @SuppressWarnings("rawtypes")
   EngineKey buildKey(
@@ -20,4 +27,41 @@ class EngineKeyFactory {
     return new EngineKey(
         model, signature, width, height, transformations, resourceClass, transcodeClass, options);
   }
+
+  /**
+   * Returns a key for the given arguments, without allocating, that may only be used to look up
+   * existing entries.
+   *
+   * <p>The returned key is owned by the calling thread and is overwritten by the next call on that
+   * thread, so it must not be stored or used after any code that might start another load. Use
+   * {@link #buildKey(EngineKey)} to obtain a key that can be stored, and pass the key to {@link
+   * #releaseProbeKey(EngineKey)} once the lookup is done.
+   */
+  EngineKey buildProbeKey(
+      Object model,
+      Key signature,
+      int width,
+      int height,
+      Map<Class<?>, Transformation<?>> transformations,
+      Class<?> resourceClass,
+      Class<?> transcodeClass,
+      Options options) {
+    EngineKey result = probeKeys.get();
+    result.set(
+        model, signature, width, height, transformations, resourceClass, transcodeClass, options);
+    return result;
+  }
+
+  /**
+   * Clears a key returned by {@link #buildProbeKey} so that the calling thread doesn't keep the
+   * arguments of its last lookup alive.
+   */
+  void releaseProbeKey(EngineKey probeKey) {
+    probeKey.clear();
+  }
+
+  /** Returns a key equal to the given probe key that is safe to store. */
+  EngineKey buildKey(EngineKey probeKey) {
+    return probeKey.copy();
+  }
 }
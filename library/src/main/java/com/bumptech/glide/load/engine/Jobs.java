@@ -3,12 +3,19 @@ package com.bumptech.glide.load.engine;
 import androidx.annotation.VisibleForTesting;
 import com.bumptech.glide.load.Key;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Tracks the in progress {@link EngineJob} for each key.
+ *
+ * <p>Safe to access concurrently, but callers are responsible for making any sequence of calls for
+ * a single key atomic, see {@link Engine#getLock(Key)}.
+ */
 final class Jobs {
-  private final Map<Key, EngineJob<?>> jobs = new HashMap<>();
-  private final Map<Key, EngineJob<?>> onlyCacheJobs = new HashMap<>();
+  private final ConcurrentMap<Key, EngineJob<?>> jobs = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Key, EngineJob<?>> onlyCacheJobs = new ConcurrentHashMap<>();
 
   @VisibleForTesting
   Map<Key, EngineJob<?>> getAll() {
@@ -24,13 +31,10 @@ final class Jobs {
   }
 
   void removeIfCurrent(Key key, EngineJob<?> expected) {
-    Map<Key, EngineJob<?>> jobMap = getJobMap(expected.onlyRetrieveFromCache());
-    if (expected.equals(jobMap.get(key))) {
-      jobMap.remove(key);
-    }
+    getJobMap(expected.onlyRetrieveFromCache()).remove(key, expected);
   }
 
-  private Map<Key, EngineJob<?>> getJobMap(boolean onlyRetrieveFromCache) {
+  private ConcurrentMap<Key, EngineJob<?>> getJobMap(boolean onlyRetrieveFromCache) {
     return onlyRetrieveFromCache ? onlyCacheJobs : jobs;
   }
 }
@@ -0,0 +1,50 @@
+package com.bumptech.glide.load.engine;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.Key;
+import java.security.MessageDigest;
+
+/**
+ * A cache key for the bytes of an interrupted download of original source data + any requested
+ * signature, kept separately from the {@link DataCacheKey} of the complete data.
+ */
+final class PartialDataCacheKey implements Key {
+  private static final byte[] ID_BYTES =
+      "com.bumptech.glide.load.engine.PartialDataCacheKey".getBytes(CHARSET);
+
+  private final Key sourceKey;
+  private final Key signature;
+
+  PartialDataCacheKey(Key sourceKey, Key signature) {
+    this.sourceKey = sourceKey;
+    this.signature = signature;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof PartialDataCacheKey) {
+      PartialDataCacheKey other = (PartialDataCacheKey) o;
+      return sourceKey.equals(other.sourceKey) && signature.equals(other.signature);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = sourceKey.hashCode();
+    result = 31 * result + signature.hashCode();
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "PartialDataCacheKey{" + "sourceKey=" + sourceKey + ", signature=" + signature + '}';
+  }
+
+  @Override
+  public void updateDiskCacheKey(@NonNull MessageDigest messageDigest) {
+    messageDigest.update(ID_BYTES);
+    sourceKey.updateDiskCacheKey(messageDigest);
+    signature.updateDiskCacheKey(messageDigest);
+  }
+}
@@ -0,0 +1,224 @@
+package com.bumptech.glide.load.engine;
+
+import android.util.Log;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.executor.GlideExecutor;
+import com.bumptech.glide.util.Executors;
+import com.bumptech.glide.util.Synthetic;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A bounded write-behind queue that writes transformed resources to the disk cache on its own
+ * {@link GlideExecutor} after they've been delivered, so the source thread that decoded them can
+ * start its next load without waiting for the resource to be compressed and written.
+ *
+ * <p>Encodes are written in the order they're queued. An encode for a resource cache key that's
+ * already waiting to be written is coalesced with the waiting encode, the second write would only
+ * replace the entry with the same data. Once {@code maxPendingEncodes} encodes are waiting, new
+ * encodes are either dropped, leaving the resource to be decoded and encoded again by a later load,
+ * or written on the source thread as if there were no queue, which slows down the source executor
+ * until the queue catches up.
+ *
+ * <p>Resources wait in the queue until they're written, so they can't be returned to Glide's pools
+ * until then. Keep {@code maxPendingEncodes} small.
+ *
+ * <p>This is an experimental API that may be removed in the future.
+ *
+ * @see com.bumptech.glide.GlideBuilder#setResourceEncodeQueue(ResourceEncodeQueue)
+ */
+public final class ResourceEncodeQueue {
+  private static final String TAG = "ResourceEncodeQueue";
+
+  private final GlideExecutor executor;
+  private final int maxPendingEncodes;
+  private final boolean isDroppedOnOverflow;
+  private final Runnable writeNextEncode =
+      new WriteNextEncode() {
+        @Override
+        public void run() {
+          writeNext();
+        }
+      };
+
+  // All fields below are guarded by this.
+  private final Map<Key, Encode> pendingEncodes = new LinkedHashMap<>();
+  private long writtenCount;
+  private long coalescedCount;
+  private long droppedCount;
+  private long writtenOnCallerCount;
+  private boolean isShutdown;
+
+  /**
+   * @param executor The executor to write resources on, usually one built by {@link
+   *     GlideExecutor#newResourceEncodeBuilder()}. It's shut down with Glide.
+   * @param maxPendingEncodes The maximum number of encodes that may wait to be written.
+   * @param isDroppedOnOverflow {@code true} to drop encodes that arrive when the queue is full,
+   *     {@code false} to write them on the source thread instead.
+   */
+  // Public API.
+  @SuppressWarnings("WeakerAccess")
+  public ResourceEncodeQueue(
+      @NonNull GlideExecutor executor,
+      @IntRange(from = 1) int maxPendingEncodes,
+      boolean isDroppedOnOverflow) {
+    if (maxPendingEncodes < 1) {
+      throw new IllegalArgumentException(
+          "maxPendingEncodes must be at least 1, but given: " + maxPendingEncodes);
+    }
+    this.executor = executor;
+    this.maxPendingEncodes = maxPendingEncodes;
+    this.isDroppedOnOverflow = isDroppedOnOverflow;
+  }
+
+  /**
+   * Queues the given encode, or writes it on the calling thread if the queue is full and encodes
+   * aren't dropped on overflow.
+   *
+   * <p>Either way the encode is written or cancelled exactly once.
+   */
+  void enqueue(@NonNull Encode encode) {
+    boolean isCancelled = false;
+    boolean isWrittenOnCaller = false;
+    synchronized (this) {
+      if (isShutdown) {
+        droppedCount++;
+        isCancelled = true;
+      } else if (pendingEncodes.containsKey(encode.getKey())) {
+        coalescedCount++;
+        isCancelled = true;
+      } else if (pendingEncodes.size() >= maxPendingEncodes) {
+        if (isDroppedOnOverflow) {
+          droppedCount++;
+          isCancelled = true;
+        } else {
+          writtenOnCallerCount++;
+          isWrittenOnCaller = true;
+        }
+      } else {
+        pendingEncodes.put(encode.getKey(), encode);
+      }
+    }
+
+    if (isCancelled) {
+      encode.cancel();
+    } else if (isWrittenOnCaller) {
+      encode.write();
+    } else {
+      try {
+        executor.execute(writeNextEncode);
+      } catch (RejectedExecutionException e) {
+        if (Log.isLoggable(TAG, Log.WARN)) {
+          Log.w(TAG, "Failed to queue encode, dropping it", e);
+        }
+        boolean isRemoved;
+        synchronized (this) {
+          isRemoved = pendingEncodes.remove(encode.getKey()) == encode;
+          if (isRemoved) {
+            droppedCount++;
+          }
+        }
+        if (isRemoved) {
+          encode.cancel();
+        }
+      }
+    }
+  }
+
+  @Synthetic
+  void writeNext() {
+    Encode encode;
+    synchronized (this) {
+      Iterator<Encode> iterator = pendingEncodes.values().iterator();
+      if (!iterator.hasNext()) {
+        return;
+      }
+      encode = iterator.next();
+      iterator.remove();
+    }
+    try {
+      encode.write();
+    } finally {
+      synchronized (this) {
+        writtenCount++;
+      }
+    }
+  }
+
+  /** Returns the number of encodes written on this queue's executor. */
+  public synchronized long getWrittenCount() {
+    return writtenCount;
+  }
+
+  /**
+   * Returns the number of encodes that weren't written because an encode for the same key was
+   * already waiting to be written.
+   */
+  public synchronized long getCoalescedCount() {
+    return coalescedCount;
+  }
+
+  /** Returns the number of encodes that weren't written because the queue was full or shut down. */
+  public synchronized long getDroppedCount() {
+    return droppedCount;
+  }
+
+  /** Returns the number of encodes written on the source thread because the queue was full. */
+  public synchronized long getWrittenOnCallerCount() {
+    return writtenOnCallerCount;
+  }
+
+  /** Returns the number of encodes currently waiting to be written. */
+  public synchronized int getPendingCount() {
+    return pendingEncodes.size();
+  }
+
+  /** Drops any encodes that are waiting to be written and shuts down the executor. */
+  void shutdown() {
+    List<Encode> toCancel;
+    synchronized (this) {
+      isShutdown = true;
+      toCancel = new ArrayList<>(pendingEncodes.values());
+      droppedCount += toCancel.size();
+      pendingEncodes.clear();
+    }
+    for (Encode encode : toCancel) {
+      encode.cancel();
+    }
+    Executors.shutdownAndAwaitTermination(executor);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return super.toString() + "[executor=" + executor + "]";
+  }
+
+  /** A resource waiting to be written to the disk cache. */
+  interface Encode {
+
+    @NonNull
+    Key getKey();
+
+    /** Writes the resource to the disk cache and releases it. */
+    void write();
+
+    /** Releases the resource without writing it. */
+    void cancel();
+  }
+
+  // GlideExecutor's thread pools queue tasks in a priority queue, which requires Comparable tasks.
+  // Encodes are always written oldest first, so the order of the tasks themselves doesn't matter.
+  private abstract static class WriteNextEncode implements Runnable, Comparable<WriteNextEncode> {
+    @Override
+    public int compareTo(@NonNull WriteNextEncode other) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,310 @@
+package com.bumptech.glide.load.engine;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * Writes original source data that's being downloaded by a {@link
+ * com.bumptech.glide.load.data.DataFetcher.Resumable} to cache, after the bytes of an earlier,
+ * interrupted download of the same data if the download was resumed.
+ *
+ * <p>If the download is interrupted again, by an error or by {@link #cancel()}, the bytes written
+ * so far are kept under a {@link PartialDataCacheKey} so that the next load can resume from them.
+ * The bytes are written unchanged, the same as {@link com.bumptech.glide.load.model.StreamEncoder}
+ * would.
+ *
+ * <p>The disk cache isn't modified while it's calling {@link #write(File)}, callers must call
+ * {@link #updatePartialData()} once the write is finished.
+ */
+final class ResumableDataCacheWriter implements DiskCache.Writer {
+  private static final String TAG = "ResumableWriter";
+
+  private final DiskCache diskCache;
+  private final ArrayPool byteArrayPool;
+  private final PartialDataCacheKey partialKey;
+  private final InputStream data;
+  @Nullable private final PartialData resumedFrom;
+  @Nullable private final String validator;
+  private volatile boolean isCancelled;
+  private boolean isComplete;
+  // The bytes of an interrupted write, moved out of the file the disk cache is about to delete.
+  @Nullable private File keptFile;
+  private long keptLength;
+
+  /**
+   * @param resumedFrom The interrupted download that {@code data} continues, or {@code null} if
+   *     {@code data} starts at the beginning.
+   * @param validator The validator of {@code data}, or {@code null} if it can't be resumed.
+   */
+  ResumableDataCacheWriter(
+      DiskCache diskCache,
+      ArrayPool byteArrayPool,
+      PartialDataCacheKey partialKey,
+      InputStream data,
+      @Nullable PartialData resumedFrom,
+      @Nullable String validator) {
+    this.diskCache = diskCache;
+    this.byteArrayPool = byteArrayPool;
+    this.partialKey = partialKey;
+    this.data = data;
+    this.resumedFrom = resumedFrom;
+    this.validator = validator;
+  }
+
+  /** Stops writing, keeping the bytes written so far for the next load. */
+  void cancel() {
+    isCancelled = true;
+  }
+
+  boolean isCancelled() {
+    return isCancelled;
+  }
+
+  @Override
+  public boolean write(@NonNull File file) {
+    byte[] buffer = byteArrayPool.get(ArrayPool.STANDARD_BUFFER_SIZE_BYTES, byte[].class);
+    long written = 0;
+    boolean isComplete = false;
+    OutputStream os = null;
+    try {
+      try {
+        os = new FileOutputStream(file);
+        if (resumedFrom != null) {
+          written = resumedFrom.copyTo(os, buffer);
+        }
+        int read;
+        while (!isCancelled && (read = data.read(buffer)) != -1) {
+          os.write(buffer, 0, read);
+          written += read;
+        }
+        os.close();
+        isComplete = !isCancelled;
+      } catch (IOException e) {
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+          Log.d(TAG, "Failed to write data, written: " + written, e);
+        }
+      } finally {
+        if (os != null) {
+          try {
+            os.close();
+          } catch (IOException e) {
+            // Do nothing.
+          }
+        }
+      }
+
+      if (!isComplete && validator != null && written > 0) {
+        File kept = new File(file.getPath() + ".partial");
+        if (file.renameTo(kept)) {
+          keptFile = kept;
+          keptLength = written;
+        }
+      }
+    } finally {
+      byteArrayPool.put(buffer);
+    }
+    this.isComplete = isComplete;
+    return isComplete;
+  }
+
+  /**
+   * Deletes the partial data if the write completed, or replaces it with the bytes written so far
+   * if the write was interrupted.
+   *
+   * <p>Must be called after {@link DiskCache#put(Key, DiskCache.Writer)} returns, even if it
+   * didn't call {@link #write(File)}.
+   */
+  void updatePartialData() {
+    if (isComplete) {
+      diskCache.delete(partialKey);
+      return;
+    }
+    final File kept = keptFile;
+    if (kept == null) {
+      return;
+    }
+    keptFile = null;
+    final byte[] buffer = byteArrayPool.get(ArrayPool.STANDARD_BUFFER_SIZE_BYTES, byte[].class);
+    try {
+      // Puts never replace existing entries.
+      diskCache.delete(partialKey);
+      diskCache.put(
+          partialKey,
+          new DiskCache.Writer() {
+            @Override
+            public boolean write(@NonNull File partialFile) {
+              return PartialData.write(kept, keptLength, validator, partialFile, buffer);
+            }
+          });
+      if (Log.isLoggable(TAG, Log.VERBOSE)) {
+        Log.v(TAG, "Kept partial data, key: " + partialKey + ", length: " + keptLength);
+      }
+    } finally {
+      // Only left behind if the disk cache didn't write the partial data.
+      if (kept.exists() && !kept.delete() && Log.isLoggable(TAG, Log.DEBUG)) {
+        Log.d(TAG, "Failed to delete kept partial data: " + kept);
+      }
+      byteArrayPool.put(buffer);
+    }
+  }
+
+  /**
+   * The bytes of an interrupted download in the disk cache, stored as the bytes, followed by the
+   * download's validator, the length of the validator and a magic number.
+   */
+  static final class PartialData {
+    private static final int MAGIC_NUMBER = 0x47504431;
+    private static final int TRAILER_LENGTH = 8;
+
+    private final File file;
+    private final long length;
+    private final String validator;
+
+    private PartialData(File file, long length, String validator) {
+      this.file = file;
+      this.length = length;
+      this.validator = validator;
+    }
+
+    /** Returns the number of bytes that were downloaded. */
+    long getLength() {
+      return length;
+    }
+
+    /** Returns the validator of the download. */
+    @NonNull
+    String getValidator() {
+      return validator;
+    }
+
+    /** Returns the partial data in the given file, or {@code null} if there isn't any. */
+    @Nullable
+    static PartialData read(@Nullable File file) {
+      if (file == null) {
+        return null;
+      }
+      RandomAccessFile randomAccessFile = null;
+      try {
+        randomAccessFile = new RandomAccessFile(file, "r");
+        long fileLength = randomAccessFile.length();
+        if (fileLength < TRAILER_LENGTH) {
+          return null;
+        }
+        randomAccessFile.seek(fileLength - TRAILER_LENGTH);
+        int validatorLength = randomAccessFile.readInt();
+        if (randomAccessFile.readInt() != MAGIC_NUMBER
+            || validatorLength <= 0
+            || validatorLength >= fileLength - TRAILER_LENGTH) {
+          return null;
+        }
+        long length = fileLength - TRAILER_LENGTH - validatorLength;
+        byte[] validatorBytes = new byte[validatorLength];
+        randomAccessFile.seek(length);
+        randomAccessFile.readFully(validatorBytes);
+        return new PartialData(file, length, new String(validatorBytes, Key.CHARSET));
+      } catch (IOException e) {
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+          Log.d(TAG, "Failed to read partial data from: " + file, e);
+        }
+        return null;
+      } finally {
+        if (randomAccessFile != null) {
+          try {
+            randomAccessFile.close();
+          } catch (IOException e) {
+            // Do nothing.
+          }
+        }
+      }
+    }
+
+    /**
+     * Writes the first {@code length} bytes of {@code source} and the given validator to {@code
+     * file} and returns {@code true}, or returns {@code false} if they couldn't be written.
+     */
+    static boolean write(File source, long length, String validator, File file, byte[] buffer) {
+      RandomAccessFile randomAccessFile = null;
+      try {
+        // Most downloads are only a few MB, but avoid copying them if we can.
+        if (!source.renameTo(file)) {
+          copy(source, length, file, buffer);
+        }
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        if (randomAccessFile.length() < length) {
+          return false;
+        }
+        byte[] validatorBytes = validator.getBytes(Key.CHARSET);
+        randomAccessFile.setLength(length);
+        randomAccessFile.seek(length);
+        randomAccessFile.write(validatorBytes);
+        randomAccessFile.writeInt(validatorBytes.length);
+        randomAccessFile.writeInt(MAGIC_NUMBER);
+        randomAccessFile.close();
+        return true;
+      } catch (IOException e) {
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+          Log.d(TAG, "Failed to write partial data", e);
+        }
+        return false;
+      } finally {
+        if (randomAccessFile != null) {
+          try {
+            randomAccessFile.close();
+          } catch (IOException e) {
+            // Do nothing.
+          }
+        }
+      }
+    }
+
+    /** Copies the downloaded bytes to the given stream and returns the number of bytes copied. */
+    long copyTo(OutputStream os, byte[] buffer) throws IOException {
+      InputStream is = new FileInputStream(file);
+      try {
+        return copy(is, length, os, buffer);
+      } finally {
+        is.close();
+      }
+    }
+
+    private static void copy(File source, long length, File file, byte[] buffer)
+        throws IOException {
+      InputStream is = new FileInputStream(source);
+      try {
+        OutputStream os = new FileOutputStream(file);
+        try {
+          copy(is, length, os, buffer);
+        } finally {
+          os.close();
+        }
+      } finally {
+        is.close();
+      }
+    }
+
+    private static long copy(InputStream is, long length, OutputStream os, byte[] buffer)
+        throws IOException {
+      long copied = 0;
+      while (copied < length) {
+        int read = is.read(buffer, 0, (int) Math.min(buffer.length, length - copied));
+        if (read == -1) {
+          throw new IOException("Expected " + length + " bytes, but only found: " + copied);
+        }
+        os.write(buffer, 0, read);
+        copied += read;
+      }
+      return copied;
+    }
+  }
+}
@@ -9,12 +9,15 @@ import com.bumptech.glide.load.Key;
 import com.bumptech.glide.load.data.DataFetcher;
 import com.bumptech.glide.load.data.DataFetcher.DataCallback;
 import com.bumptech.glide.load.data.DataRewinder;
+import com.bumptech.glide.load.engine.ResumableDataCacheWriter.PartialData;
 import com.bumptech.glide.load.engine.cache.DiskCache;
 import com.bumptech.glide.load.model.ModelLoader;
 import com.bumptech.glide.load.model.ModelLoader.LoadData;
+import com.bumptech.glide.load.model.StreamEncoder;
 import com.bumptech.glide.util.LogTime;
 import com.bumptech.glide.util.Synthetic;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 
 /**
@@ -39,6 +42,8 @@ class SourceGenerator implements DataFetcherGenerator, DataFetcherGenerator.Fetc
   private volatile Object dataToCache;
   private volatile ModelLoader.LoadData<?> loadData;
   private volatile DataCacheKey originalKey;
+  @Nullable private volatile PartialData partialData;
+  @Nullable private volatile ResumableDataCacheWriter resumableWriter;
 
   SourceGenerator(DecodeHelper<?> helper, FetcherReadyCallback cb) {
     this.helper = helper;
@@ -92,6 +97,21 @@ class SourceGenerator implements DataFetcherGenerator, DataFetcherGenerator.Fetc
   }
 
   private void startNextLoad(final LoadData<?> toStart) {
+    partialData = null;
+    if (toStart.fetcher instanceof DataFetcher.Resumable
+        && helper.getDiskCacheStrategy().isDataCacheable(toStart.fetcher.getDataSource())) {
+      PartialDataCacheKey partialKey =
+          new PartialDataCacheKey(toStart.sourceKey, helper.getSignature());
+      PartialData partial =
+          helper.mightContain(partialKey)
+              ? PartialData.read(helper.getDiskCache().get(partialKey))
+              : null;
+      if (partial != null) {
+        partialData = partial;
+        ((DataFetcher.Resumable) toStart.fetcher)
+            .setResumePosition(partial.getLength(), partial.getValidator());
+      }
+    }
     loadData.fetcher.loadData(
         helper.getPriority(),
         new DataCallback<Object>() {
@@ -135,10 +155,35 @@ class SourceGenerator implements DataFetcherGenerator, DataFetcherGenerator.Fetc
       DataRewinder<Object> rewinder = helper.getRewinder(dataToCache);
       Object data = rewinder.rewindAndGet();
       Encoder<Object> encoder = helper.getSourceEncoder(data);
-      DataCacheWriter<Object> writer = new DataCacheWriter<>(encoder, data, helper.getOptions());
       DataCacheKey newOriginalKey = new DataCacheKey(loadData.sourceKey, helper.getSignature());
       DiskCache diskCache = helper.getDiskCache();
-      diskCache.put(newOriginalKey, writer);
+      ResumableDataCacheWriter resumable = newResumableWriter(data, encoder, diskCache);
+      DiskCache.Writer writer =
+          resumable != null
+              ? resumable
+              : new DataCacheWriter<>(encoder, data, helper.getOptions());
+      resumableWriter = resumable;
+      try {
+        diskCache.put(newOriginalKey, writer);
+      } finally {
+        resumableWriter = null;
+        if (resumable != null) {
+          // Only once the put has returned, so that the disk cache isn't modified while it writes.
+          resumable.updatePartialData();
+        }
+      }
+      if (resumable != null && (resumable.isCancelled() || isResumed())) {
+        if (diskCache.get(newOriginalKey) == null) {
+          // The data we have is either incomplete or only the end of the original data, so it
+          // can't be decoded. What we wrote so far is kept so that the next load can resume.
+          cb.onDataFetcherFailed(
+              loadData.sourceKey,
+              new IOException("Failed to write resumed or cancelled data to cache"),
+              loadData.fetcher,
+              loadData.fetcher.getDataSource());
+          return false;
+        }
+      }
       if (Log.isLoggable(TAG, Log.VERBOSE)) {
         Log.v(
             TAG,
@@ -189,12 +234,50 @@ class SourceGenerator implements DataFetcherGenerator, DataFetcherGenerator.Fetc
     }
   }
 
+  /**
+   * Returns a writer that resumes or keeps partial downloads, or {@code null} if the data can't be
+   * resumed or isn't written to cache unchanged.
+   */
+  @Nullable
+  private ResumableDataCacheWriter newResumableWriter(
+      Object data, Encoder<?> encoder, DiskCache diskCache) {
+    if (!(loadData.fetcher instanceof DataFetcher.Resumable)
+        || !(data instanceof InputStream)
+        || !(encoder instanceof StreamEncoder)) {
+      return null;
+    }
+    DataFetcher.Resumable fetcher = (DataFetcher.Resumable) loadData.fetcher;
+    PartialData resumedFrom = isResumed() ? partialData : null;
+    String validator = fetcher.getValidator();
+    if (resumedFrom == null && validator == null) {
+      return null;
+    }
+    return new ResumableDataCacheWriter(
+        diskCache,
+        helper.getArrayPool(),
+        new PartialDataCacheKey(loadData.sourceKey, helper.getSignature()),
+        (InputStream) data,
+        resumedFrom,
+        validator);
+  }
+
+  private boolean isResumed() {
+    PartialData partial = partialData;
+    return partial != null
+        && loadData.fetcher instanceof DataFetcher.Resumable
+        && ((DataFetcher.Resumable) loadData.fetcher).getResumedPosition() == partial.getLength();
+  }
+
   @Override
   public void cancel() {
     LoadData<?> local = loadData;
     if (local != null) {
       local.fetcher.cancel();
     }
+    ResumableDataCacheWriter writer = resumableWriter;
+    if (writer != null) {
+      writer.cancel();
+    }
   }
 
   @SuppressWarnings("WeakerAccess")
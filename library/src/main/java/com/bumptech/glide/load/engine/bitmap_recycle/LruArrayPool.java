@@ -1,8 +1,11 @@
 package com.bumptech.glide.load.engine.bitmap_recycle;
 
 import android.util.Log;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.CacheStatsRecorder;
 import com.bumptech.glide.util.Preconditions;
 import com.bumptech.glide.util.Synthetic;
 import java.util.HashMap;
@@ -13,8 +16,10 @@ import java.util.TreeMap;
 /**
  * A fixed size Array Pool that evicts arrays using an LRU strategy to keep the pool under the
  * maximum byte size.
+ *
+ * <p>Requests, puts and evictions are counted, see {@link #getStats()}.
  */
-public final class LruArrayPool implements ArrayPool {
+public final class LruArrayPool implements ArrayPool, CacheStats.Provider {
   // 4MB.
   private static final int DEFAULT_SIZE = 4 * 1024 * 1024;
 
@@ -30,6 +35,7 @@ public final class LruArrayPool implements ArrayPool {
   private final KeyPool keyPool = new KeyPool();
   private final Map<Class<?>, NavigableMap<Integer, Integer>> sortedSizes = new HashMap<>();
   private final Map<Class<?>, ArrayAdapterInterface<?>> adapters = new HashMap<>();
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
   private final int maxSize;
   private int currentSize;
 
@@ -61,7 +67,9 @@ public final class LruArrayPool implements ArrayPool {
     ArrayAdapterInterface<T> arrayAdapter = getAdapterFromType(arrayClass);
     int size = arrayAdapter.getArrayLength(array);
     int arrayBytes = size * arrayAdapter.getElementSizeInBytes();
+    stats.recordPut();
     if (!isSmallEnoughForReuse(arrayBytes)) {
+      stats.recordEviction(CacheStats.EvictionCause.REJECTED);
       return;
     }
     Key key = keyPool.get(size, arrayClass);
@@ -95,6 +103,7 @@ public final class LruArrayPool implements ArrayPool {
   private <T> T getForKey(Key key, Class<T> arrayClass) {
     ArrayAdapterInterface<T> arrayAdapter = getAdapterFromType(arrayClass);
     T result = getArrayForKey(key);
+    stats.recordLookup(result != null);
     if (result != null) {
       currentSize -= arrayAdapter.getArrayLength(result) * arrayAdapter.getElementSizeInBytes();
       decrementArrayOfSize(arrayAdapter.getArrayLength(result), arrayClass);
@@ -131,7 +140,7 @@ public final class LruArrayPool implements ArrayPool {
 
   @Override
   public synchronized void clearMemory() {
-    evictToSize(0);
+    evictToSize(0, CacheStats.EvictionCause.TRIM);
   }
 
   @Override
@@ -140,21 +149,28 @@ public final class LruArrayPool implements ArrayPool {
       clearMemory();
     } else if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
         || level == android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
-      evictToSize(maxSize / 2);
+      evictToSize(maxSize / 2, CacheStats.EvictionCause.TRIM);
     }
   }
 
+  @NonNull
+  @Override
+  public synchronized CacheStats getStats() {
+    return stats.snapshot(currentSize, maxSize);
+  }
+
   private void evict() {
-    evictToSize(maxSize);
+    evictToSize(maxSize, CacheStats.EvictionCause.SIZE);
   }
 
-  private void evictToSize(int size) {
+  private void evictToSize(int size, CacheStats.EvictionCause cause) {
     while (currentSize > size) {
       Object evicted = groupedMap.removeLast();
       Preconditions.checkNotNull(evicted);
       ArrayAdapterInterface<Object> arrayAdapter = getAdapterFromObject(evicted);
       currentSize -= arrayAdapter.getArrayLength(evicted) * arrayAdapter.getElementSizeInBytes();
       decrementArrayOfSize(arrayAdapter.getArrayLength(evicted), evicted.getClass());
+      stats.recordEviction(cause);
       if (Log.isLoggable(arrayAdapter.getTag(), Log.VERBOSE)) {
         Log.v(arrayAdapter.getTag(), "evicted: " + arrayAdapter.getArrayLength(evicted));
       }
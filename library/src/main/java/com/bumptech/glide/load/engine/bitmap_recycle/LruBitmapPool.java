@@ -9,6 +9,8 @@ import android.os.Build;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.CacheStatsRecorder;
 import com.bumptech.glide.util.Synthetic;
 import java.util.Arrays;
 import java.util.Collections;
@@ -20,8 +22,10 @@ import java.util.Set;
  * {@link com.bumptech.glide.load.engine.bitmap_recycle.LruPoolStrategy} to bucket {@link Bitmap}s
  * and then uses an LRU eviction policy to evict {@link android.graphics.Bitmap}s from the least
  * recently used bucket in order to keep the pool below a given maximum size limit.
+ *
+ * <p>Requests, puts and evictions are counted, see {@link #getStats()}.
  */
-public class LruBitmapPool implements BitmapPool {
+public class LruBitmapPool implements BitmapPool, CacheStats.Provider {
   private static final String TAG = "LruBitmapPool";
   private static final Bitmap.Config DEFAULT_CONFIG = Bitmap.Config.ARGB_8888;
 
@@ -29,13 +33,10 @@ public class LruBitmapPool implements BitmapPool {
   private final Set<Bitmap.Config> allowedConfigs;
   private final long initialMaxSize;
   private final BitmapTracker tracker;
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
 
   private long maxSize;
   private long currentSize;
-  private int hits;
-  private int misses;
-  private int puts;
-  private int evictions;
 
   // Exposed for testing only.
   LruBitmapPool(long maxSize, LruPoolStrategy strategy, Set<Bitmap.Config> allowedConfigs) {
@@ -70,17 +71,18 @@ public class LruBitmapPool implements BitmapPool {
 
   /** Returns the number of cache hits for bitmaps in the pool. */
   public long hitCount() {
-    return hits;
+    return stats.hitCount();
   }
 
   /** Returns the number of cache misses for bitmaps in the pool. */
   public long missCount() {
-    return misses;
+    return stats.missCount();
   }
 
   /** Returns the number of bitmaps that have been evicted from the pool. */
   public long evictionCount() {
-    return evictions;
+    return stats.evictionCount(CacheStats.EvictionCause.SIZE)
+        + stats.getEvictionCount(CacheStats.EvictionCause.TRIM);
   }
 
   /** Returns the current size of the pool in bytes. */
@@ -93,6 +95,12 @@ public class LruBitmapPool implements BitmapPool {
     return maxSize;
   }
 
+  @NonNull
+  @Override
+  public synchronized CacheStats getStats() {
+    return stats.snapshot(currentSize, maxSize);
+  }
+
   @Override
   public synchronized void setSizeMultiplier(float sizeMultiplier) {
     maxSize = Math.round(initialMaxSize * sizeMultiplier);
@@ -107,6 +115,7 @@ public class LruBitmapPool implements BitmapPool {
     if (bitmap.isRecycled()) {
       throw new IllegalStateException("Cannot pool recycled bitmap");
     }
+    stats.recordPut();
     if (!bitmap.isMutable()
         || strategy.getSize(bitmap) > maxSize
         || !allowedConfigs.contains(bitmap.getConfig())) {
@@ -121,6 +130,7 @@ public class LruBitmapPool implements BitmapPool {
                 + ", is allowed config: "
                 + allowedConfigs.contains(bitmap.getConfig()));
       }
+      stats.recordEviction(CacheStats.EvictionCause.REJECTED);
       bitmap.recycle();
       return;
     }
@@ -129,7 +139,6 @@ public class LruBitmapPool implements BitmapPool {
     strategy.put(bitmap);
     tracker.add(bitmap);
 
-    puts++;
     currentSize += size;
 
     if (Log.isLoggable(TAG, Log.VERBOSE)) {
@@ -141,7 +150,7 @@ public class LruBitmapPool implements BitmapPool {
   }
 
   private void evict() {
-    trimToSize(maxSize);
+    trimToSize(maxSize, CacheStats.EvictionCause.SIZE);
   }
 
   @Override
@@ -202,9 +211,9 @@ public class LruBitmapPool implements BitmapPool {
       if (Log.isLoggable(TAG, Log.DEBUG)) {
         Log.d(TAG, "Missing bitmap=" + strategy.logBitmap(width, height, config));
       }
-      misses++;
+      stats.recordLookup(false);
     } else {
-      hits++;
+      stats.recordLookup(true);
       currentSize -= strategy.getSize(result);
       tracker.remove(result);
       normalize(result);
@@ -219,7 +228,7 @@ public class LruBitmapPool implements BitmapPool {
 
   // Setting these two values provides Bitmaps that are essentially equivalent to those returned
   // from Bitmap.createBitmap.
-  private static void normalize(Bitmap bitmap) {
+  static void normalize(Bitmap bitmap) {
     bitmap.setHasAlpha(true);
     maybeSetPreMultiplied(bitmap);
   }
@@ -236,7 +245,7 @@ public class LruBitmapPool implements BitmapPool {
     if (Log.isLoggable(TAG, Log.DEBUG)) {
       Log.d(TAG, "clearMemory");
     }
-    trimToSize(0);
+    trimToSize(0, CacheStats.EvictionCause.TRIM);
   }
 
   @SuppressWarnings("checkstyle:UnnecessaryParentheses") // Readability
@@ -252,11 +261,11 @@ public class LruBitmapPool implements BitmapPool {
       clearMemory();
     } else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
         || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
-      trimToSize(getMaxSize() / 2);
+      trimToSize(getMaxSize() / 2, CacheStats.EvictionCause.TRIM);
     }
   }
 
-  private synchronized void trimToSize(long size) {
+  private synchronized void trimToSize(long size, CacheStats.EvictionCause cause) {
     while (currentSize > size) {
       final Bitmap removed = strategy.removeLast();
       // TODO: This shouldn't ever happen, see #331.
@@ -270,7 +279,7 @@ public class LruBitmapPool implements BitmapPool {
       }
       tracker.remove(removed);
       currentSize -= strategy.getSize(removed);
-      evictions++;
+      stats.recordEviction(cause);
       if (Log.isLoggable(TAG, Log.DEBUG)) {
         Log.d(TAG, "Evicting bitmap=" + strategy.logBitmap(removed));
       }
@@ -286,22 +295,7 @@ public class LruBitmapPool implements BitmapPool {
   }
 
   private void dumpUnchecked() {
-    Log.v(
-        TAG,
-        "Hits="
-            + hits
-            + ", misses="
-            + misses
-            + ", puts="
-            + puts
-            + ", evictions="
-            + evictions
-            + ", currentSize="
-            + currentSize
-            + ", maxSize="
-            + maxSize
-            + "\nStrategy="
-            + strategy);
+    Log.v(TAG, getStats() + "\nStrategy=" + strategy);
   }
 
   private static LruPoolStrategy getDefaultStrategy() {
@@ -0,0 +1,354 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.CacheStatsRecorder;
+import com.bumptech.glide.util.Synthetic;
+import com.bumptech.glide.util.Util;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link BitmapPool} that keeps a few small "magazines" of recently released {@link Bitmap}s in
+ * front of another, shared, {@link BitmapPool}, typically {@link LruBitmapPool}.
+ *
+ * <p>Decode threads often release a {@link Bitmap}, for example the untransformed result of a
+ * decode, and then request one of the same dimensions and config for the next decode. Magazines
+ * satisfy those requests without taking the shared pool's lock. Each background thread is assigned
+ * one of a fixed number of magazines the first time it uses the pool, in turn, so threads rarely
+ * share a magazine and threads that exit don't leave their own magazines behind. Requests that the
+ * calling thread's magazine can't satisfy, and all calls on the main thread, go to the shared pool.
+ *
+ * <p>Each magazine holds at most a few {@link Bitmap}s. The bytes held by all magazines are limited
+ * to a fraction of the pool's maximum size, which is the shared pool's initial maximum size. The
+ * shared pool is shrunk by that fraction with {@link BitmapPool#setSizeMultiplier(float)}, so the
+ * magazines and shared pool together never hold more than the shared pool would on its own.
+ * Magazines are flushed back to the shared pool whenever memory is cleared or trimmed or the pool's
+ * size multiplier changes.
+ */
+public final class MagazineBitmapPool implements BitmapPool, CacheStats.Provider {
+  private static final int DEFAULT_MAGAZINE_SIZE = 2;
+  private static final int MAX_MAGAZINE_COUNT = 8;
+  /** Used to calculate the maximum % of the pool's size that all magazines together may hold. */
+  private static final int MAGAZINES_MAX_SIZE_DIVISOR = 4;
+  private static final float SHARED_POOL_SIZE_MULTIPLIER = 1 - 1f / MAGAZINES_MAX_SIZE_DIVISOR;
+  private static final Bitmap.Config DEFAULT_CONFIG = Bitmap.Config.ARGB_8888;
+
+  private final BitmapPool delegate;
+  private final long initialMaxSize;
+  @Synthetic final Magazine[] magazines;
+  @Synthetic final AtomicInteger nextMagazine = new AtomicInteger();
+  private volatile long maxSize;
+
+  private final ThreadLocal<Magazine> localMagazine =
+      new ThreadLocal<Magazine>() {
+        @Override
+        protected Magazine initialValue() {
+          int index = (nextMagazine.getAndIncrement() & Integer.MAX_VALUE) % magazines.length;
+          return magazines[index];
+        }
+      };
+
+  /**
+   * Constructor for MagazineBitmapPool.
+   *
+   * @param delegate The shared pool that {@link Bitmap}s are taken from and returned to when a
+   *     magazine is empty or full.
+   */
+  public MagazineBitmapPool(@NonNull BitmapPool delegate) {
+    this(delegate, DEFAULT_MAGAZINE_SIZE);
+  }
+
+  /**
+   * Constructor for MagazineBitmapPool.
+   *
+   * @param delegate The shared pool that {@link Bitmap}s are taken from and returned to when a
+   *     magazine is empty or full.
+   * @param magazineSize The maximum number of {@link Bitmap}s held by each magazine.
+   */
+  // Public API.
+  @SuppressWarnings("WeakerAccess")
+  public MagazineBitmapPool(@NonNull BitmapPool delegate, int magazineSize) {
+    this(
+        delegate,
+        magazineSize,
+        Math.min(MAX_MAGAZINE_COUNT, Runtime.getRuntime().availableProcessors()));
+  }
+
+  @VisibleForTesting
+  MagazineBitmapPool(@NonNull BitmapPool delegate, int magazineSize, int magazineCount) {
+    if (magazineSize <= 0) {
+      throw new IllegalArgumentException("magazineSize must be positive, but was: " + magazineSize);
+    }
+    if (magazineCount <= 0) {
+      throw new IllegalArgumentException(
+          "magazineCount must be positive, but was: " + magazineCount);
+    }
+    this.delegate = delegate;
+    initialMaxSize = delegate.getMaxSize();
+    magazines = new Magazine[magazineCount];
+    for (int i = 0; i < magazineCount; i++) {
+      magazines[i] = new Magazine(magazineSize);
+    }
+    setSizeMultiplier(1);
+  }
+
+  /** Returns the number of requests satisfied by a magazine. */
+  public long magazineHitCount() {
+    long result = 0;
+    for (Magazine magazine : magazines) {
+      synchronized (magazine) {
+        result += magazine.getHitCount();
+      }
+    }
+    return result;
+  }
+
+  /** Returns the number of requests that had to be passed on to the shared pool. */
+  public long magazineMissCount() {
+    long result = 0;
+    for (Magazine magazine : magazines) {
+      synchronized (magazine) {
+        result += magazine.getMissCount();
+      }
+    }
+    return result;
+  }
+
+  /** Returns the number of bytes held by all magazines. */
+  private long getMagazinesByteSize() {
+    long result = 0;
+    for (Magazine magazine : magazines) {
+      synchronized (magazine) {
+        result += magazine.getByteSize();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the shared pool's stats with the requests satisfied by magazines added as hits and the
+   * {@link Bitmap}s held by magazines added to the current size, or just the magazines' hits,
+   * misses and size if the shared pool doesn't keep stats.
+   */
+  @NonNull
+  @Override
+  public CacheStats getStats() {
+    long magazinesByteSize = getMagazinesByteSize();
+    if (delegate instanceof CacheStats.Provider) {
+      CacheStats delegateStats = ((CacheStats.Provider) delegate).getStats();
+      return delegateStats
+          .plusLookups(magazineHitCount(), 0)
+          .withSizes(delegateStats.getCurrentSize() + magazinesByteSize, getMaxSize());
+    }
+    return new CacheStatsRecorder()
+        .snapshot(magazinesByteSize, getMaxSize())
+        .plusLookups(magazineHitCount(), magazineMissCount());
+  }
+
+  /**
+   * Returns the maximum number of bytes held by the magazines and the shared pool together, which
+   * is the shared pool's initial maximum size multiplied by the current size multiplier.
+   */
+  @Override
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public void setSizeMultiplier(float sizeMultiplier) {
+    flushMagazines();
+    maxSize = Math.round(initialMaxSize * sizeMultiplier);
+    delegate.setSizeMultiplier(sizeMultiplier * SHARED_POOL_SIZE_MULTIPLIER);
+  }
+
+  @Override
+  public void put(Bitmap bitmap) {
+    if (bitmap == null) {
+      throw new NullPointerException("Bitmap must not be null");
+    }
+    if (!isMagazineCandidate(bitmap)) {
+      delegate.put(bitmap);
+      return;
+    }
+    Magazine magazine = localMagazine.get();
+    Bitmap overflow;
+    synchronized (magazine) {
+      overflow = magazine.push(bitmap, getMaxMagazineSize());
+    }
+    while (overflow != null) {
+      delegate.put(overflow);
+      synchronized (magazine) {
+        overflow = magazine.pollOverflow(getMaxMagazineSize());
+      }
+    }
+  }
+
+  private boolean isMagazineCandidate(Bitmap bitmap) {
+    return !Util.isOnMainThread()
+        && !bitmap.isRecycled()
+        && bitmap.isMutable()
+        && bitmap.getConfig() != null
+        && Util.getBitmapByteSize(bitmap) <= getMaxMagazineSize();
+  }
+
+  private long getMaxMagazineSize() {
+    return maxSize / MAGAZINES_MAX_SIZE_DIVISOR / magazines.length;
+  }
+
+  @NonNull
+  @Override
+  public Bitmap get(int width, int height, Bitmap.Config config) {
+    Bitmap result = getFromMagazine(width, height, config);
+    if (result == null) {
+      return delegate.get(width, height, config);
+    }
+    // Matches LruBitmapPool, see issue #131.
+    result.eraseColor(Color.TRANSPARENT);
+    return result;
+  }
+
+  @NonNull
+  @Override
+  public Bitmap getDirty(int width, int height, Bitmap.Config config) {
+    Bitmap result = getFromMagazine(width, height, config);
+    if (result == null) {
+      return delegate.getDirty(width, height, config);
+    }
+    return result;
+  }
+
+  @Nullable
+  private Bitmap getFromMagazine(int width, int height, @Nullable Bitmap.Config config) {
+    if (Util.isOnMainThread()) {
+      return null;
+    }
+    Magazine magazine = localMagazine.get();
+    Bitmap result;
+    synchronized (magazine) {
+      result = magazine.take(width, height, config != null ? config : DEFAULT_CONFIG);
+    }
+    if (result != null) {
+      LruBitmapPool.normalize(result);
+    }
+    return result;
+  }
+
+  @Override
+  public void clearMemory() {
+    flushMagazines();
+    delegate.clearMemory();
+  }
+
+  @Override
+  public void trimMemory(int level) {
+    flushMagazines();
+    delegate.trimMemory(level);
+  }
+
+  private void flushMagazines() {
+    for (Magazine magazine : magazines) {
+      Bitmap[] flushed;
+      synchronized (magazine) {
+        flushed = magazine.drain();
+      }
+      for (Bitmap bitmap : flushed) {
+        delegate.put(bitmap);
+      }
+    }
+  }
+
+  /**
+   * A small stack of {@link Bitmap}s used by one or a few threads, with the most recently added
+   * {@link Bitmap}s at the top.
+   *
+   * <p>All methods must be called while holding the magazine's monitor, which is only contended
+   * when threads share a magazine or when magazines are flushed or counted.
+   */
+  private static final class Magazine {
+    private static final Bitmap[] EMPTY = new Bitmap[0];
+    private final Bitmap[] bitmaps;
+    private int count;
+    private long byteSize;
+    private long hits;
+    private long misses;
+
+    @Synthetic
+    Magazine(int magazineSize) {
+      bitmaps = new Bitmap[magazineSize];
+    }
+
+    /**
+     * Adds the given {@link Bitmap} and returns the oldest {@link Bitmap} if the magazine is over
+     * its limits, or {@code null} otherwise.
+     */
+    @Nullable
+    Bitmap push(Bitmap bitmap, long maxByteSize) {
+      Bitmap overflow = null;
+      if (count == bitmaps.length) {
+        overflow = removeAt(0);
+      }
+      bitmaps[count++] = bitmap;
+      byteSize += Util.getBitmapByteSize(bitmap);
+      return overflow != null ? overflow : pollOverflow(maxByteSize);
+    }
+
+    /** Returns the oldest {@link Bitmap} if the magazine is too large, {@code null} otherwise. */
+    @Nullable
+    Bitmap pollOverflow(long maxByteSize) {
+      return byteSize > maxByteSize && count > 0 ? removeAt(0) : null;
+    }
+
+    @Nullable
+    Bitmap take(int width, int height, @NonNull Bitmap.Config config) {
+      for (int i = count - 1; i >= 0; i--) {
+        Bitmap candidate = bitmaps[i];
+        if (candidate.getWidth() == width
+            && candidate.getHeight() == height
+            && candidate.getConfig() == config) {
+          hits++;
+          return removeAt(i);
+        }
+      }
+      misses++;
+      return null;
+    }
+
+    Bitmap[] drain() {
+      if (count == 0) {
+        return EMPTY;
+      }
+      Bitmap[] result = new Bitmap[count];
+      System.arraycopy(bitmaps, 0, result, 0, count);
+      for (int i = 0; i < count; i++) {
+        bitmaps[i] = null;
+      }
+      count = 0;
+      byteSize = 0;
+      return result;
+    }
+
+    long getHitCount() {
+      return hits;
+    }
+
+    long getMissCount() {
+      return misses;
+    }
+
+    long getByteSize() {
+      return byteSize;
+    }
+
+    private Bitmap removeAt(int index) {
+      Bitmap result = bitmaps[index];
+      System.arraycopy(bitmaps, index + 1, bitmaps, index, count - index - 1);
+      bitmaps[--count] = null;
+      byteSize -= Util.getBitmapByteSize(result);
+      return result;
+    }
+  }
+}
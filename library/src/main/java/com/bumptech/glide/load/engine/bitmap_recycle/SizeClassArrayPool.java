@@ -0,0 +1,316 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.CacheStatsRecorder;
+import com.bumptech.glide.util.Synthetic;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed size {@link ArrayPool} that groups arrays into power of two size classes and splits each
+ * size class into independently locked stripes so that concurrent callers rarely contend.
+ *
+ * <p>Unlike {@link LruArrayPool}, there's no single lock or global ordering of arrays. Instead an
+ * array of length {@code n} is stored in size class {@code floor(log2(n))} in the stripe owned by
+ * the calling thread. Requests first look in the calling thread's stripe, then in the other stripes
+ * of the same size class, then in up to {@link #MAX_SIZE_CLASS_SKIP} larger size classes. When the
+ * pool is full, new arrays are dropped rather than evicting older ones.
+ *
+ * <p>Only {@code byte[]} and {@code int[]} are supported. Requests, puts and evictions are counted,
+ * see {@link #getStats()}.
+ */
+public final class SizeClassArrayPool implements ArrayPool, CacheStats.Provider {
+  // 4MB.
+  private static final int DEFAULT_SIZE = 4 * 1024 * 1024;
+  /** Used to calculate the maximum % of the total pool size a single array may consume. */
+  private static final int SINGLE_ARRAY_MAX_SIZE_DIVISOR = 2;
+  /** One size class for each possible bit length of a positive int array length. */
+  private static final int SIZE_CLASS_COUNT = 31;
+  /**
+   * The number of size classes larger than the requested size that may be searched, so returned
+   * arrays are always less than 8 times larger than requested.
+   */
+  @VisibleForTesting static final int MAX_SIZE_CLASS_SKIP = 2;
+
+  private static final int MAX_STRIPE_COUNT = 8;
+
+  private final AtomicInteger currentSize = new AtomicInteger();
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
+  private final SizeClasses<byte[]> byteArrays;
+  private final SizeClasses<int[]> intArrays;
+  private final int maxSize;
+
+  public SizeClassArrayPool() {
+    this(DEFAULT_SIZE);
+  }
+
+  /**
+   * Constructor for a new pool.
+   *
+   * @param maxSize The maximum size in bytes of the pool.
+   */
+  public SizeClassArrayPool(int maxSize) {
+    this(maxSize, getDefaultStripeCount());
+  }
+
+  /**
+   * Constructor for a new pool.
+   *
+   * @param maxSize The maximum size in bytes of the pool.
+   * @param stripeCount The number of independently locked stripes per size class, rounded up to a
+   *     power of two.
+   */
+  public SizeClassArrayPool(int maxSize, int stripeCount) {
+    if (stripeCount <= 0) {
+      throw new IllegalArgumentException("stripeCount must be positive, but was: " + stripeCount);
+    }
+    this.maxSize = maxSize;
+    int roundedStripeCount = Integer.highestOneBit(stripeCount);
+    if (roundedStripeCount < stripeCount) {
+      roundedStripeCount <<= 1;
+    }
+    byteArrays = new SizeClasses<>(new ByteArrayAdapter(), roundedStripeCount);
+    intArrays = new SizeClasses<>(new IntegerArrayAdapter(), roundedStripeCount);
+  }
+
+  private static int getDefaultStripeCount() {
+    return Math.min(MAX_STRIPE_COUNT, Runtime.getRuntime().availableProcessors());
+  }
+
+  @Deprecated
+  @Override
+  public <T> void put(T array, Class<T> arrayClass) {
+    put(array);
+  }
+
+  @Override
+  public <T> void put(T array) {
+    @SuppressWarnings("unchecked")
+    SizeClasses<T> sizeClasses = (SizeClasses<T>) getSizeClasses(array.getClass());
+    ArrayAdapterInterface<T> adapter = sizeClasses.adapter;
+    int length = adapter.getArrayLength(array);
+    int arrayBytes = length * adapter.getElementSizeInBytes();
+    stats.recordPut();
+    if (length == 0 || !isSmallEnoughForReuse(arrayBytes) || !reserve(arrayBytes)) {
+      stats.recordEviction(CacheStats.EvictionCause.REJECTED);
+      return;
+    }
+    sizeClasses.push(getSizeClass(length), array);
+  }
+
+  @Override
+  public <T> T get(int size, Class<T> arrayClass) {
+    SizeClasses<T> sizeClasses = getSizeClasses(arrayClass);
+    int sizeClass = getSizeClass(size);
+    // Arrays in the requested size class may be smaller than the request, those in larger size
+    // classes never are.
+    T result = sizeClasses.poll(sizeClass, size, /* exact= */ false);
+    int maxSizeClass = Math.min(SIZE_CLASS_COUNT - 1, sizeClass + MAX_SIZE_CLASS_SKIP);
+    for (int i = sizeClass + 1; result == null && i <= maxSizeClass; i++) {
+      result = sizeClasses.poll(i, size, /* exact= */ false);
+    }
+    return onPolled(sizeClasses.adapter, result, size);
+  }
+
+  @Override
+  public <T> T getExact(int size, Class<T> arrayClass) {
+    SizeClasses<T> sizeClasses = getSizeClasses(arrayClass);
+    T result = sizeClasses.poll(getSizeClass(size), size, /* exact= */ true);
+    return onPolled(sizeClasses.adapter, result, size);
+  }
+
+  private <T> T onPolled(ArrayAdapterInterface<T> adapter, @Nullable T result, int size) {
+    stats.recordLookup(result != null);
+    if (result != null) {
+      currentSize.addAndGet(-adapter.getArrayLength(result) * adapter.getElementSizeInBytes());
+      return result;
+    }
+    if (Log.isLoggable(adapter.getTag(), Log.VERBOSE)) {
+      Log.v(adapter.getTag(), "Allocated " + size + " bytes");
+    }
+    return adapter.newArray(size);
+  }
+
+  private boolean isSmallEnoughForReuse(int byteSize) {
+    return byteSize <= maxSize / SINGLE_ARRAY_MAX_SIZE_DIVISOR;
+  }
+
+  private boolean reserve(int arrayBytes) {
+    while (true) {
+      int current = currentSize.get();
+      if (current + arrayBytes > maxSize) {
+        return false;
+      }
+      if (currentSize.compareAndSet(current, current + arrayBytes)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void clearMemory() {
+    evictToSize(0, CacheStats.EvictionCause.TRIM);
+  }
+
+  @Override
+  public void trimMemory(int level) {
+    if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+      clearMemory();
+    } else if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+        || level == android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      evictToSize(maxSize / 2, CacheStats.EvictionCause.TRIM);
+    }
+  }
+
+  @NonNull
+  @Override
+  public CacheStats getStats() {
+    return stats.snapshot(currentSize.get(), maxSize);
+  }
+
+  /** Evicts the largest arrays first, since they free the most memory per eviction. */
+  private void evictToSize(int size, CacheStats.EvictionCause cause) {
+    for (int sizeClass = SIZE_CLASS_COUNT - 1;
+        sizeClass >= 0 && currentSize.get() > size;
+        sizeClass--) {
+      evictToSize(byteArrays, sizeClass, size, cause);
+      evictToSize(intArrays, sizeClass, size, cause);
+    }
+  }
+
+  private <T> void evictToSize(
+      SizeClasses<T> sizeClasses, int sizeClass, int size, CacheStats.EvictionCause cause) {
+    ArrayAdapterInterface<T> adapter = sizeClasses.adapter;
+    T evicted;
+    while (currentSize.get() > size && (evicted = sizeClasses.pollOldest(sizeClass)) != null) {
+      int length = adapter.getArrayLength(evicted);
+      currentSize.addAndGet(-length * adapter.getElementSizeInBytes());
+      stats.recordEviction(cause);
+      if (Log.isLoggable(adapter.getTag(), Log.VERBOSE)) {
+        Log.v(adapter.getTag(), "evicted: " + length);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> SizeClasses<T> getSizeClasses(Class<?> arrayClass) {
+    if (arrayClass.equals(byte[].class)) {
+      return (SizeClasses<T>) byteArrays;
+    } else if (arrayClass.equals(int[].class)) {
+      return (SizeClasses<T>) intArrays;
+    }
+    throw new IllegalArgumentException("No array pool found for: " + arrayClass.getSimpleName());
+  }
+
+  /** Returns {@code floor(log2(length))}, or 0 for empty arrays. */
+  private static int getSizeClass(int length) {
+    return length <= 1 ? 0 : 31 - Integer.numberOfLeadingZeros(length);
+  }
+
+  // VisibleForTesting
+  int getCurrentSize() {
+    return currentSize.get();
+  }
+
+  private static final class SizeClasses<T> {
+    @Synthetic final ArrayAdapterInterface<T> adapter;
+    private final Stripe[][] stripes;
+    private final int stripeMask;
+
+    @Synthetic
+    SizeClasses(ArrayAdapterInterface<T> adapter, int stripeCount) {
+      this.adapter = adapter;
+      stripeMask = stripeCount - 1;
+      stripes = new Stripe[SIZE_CLASS_COUNT][stripeCount];
+      for (Stripe[] sizeClass : stripes) {
+        for (int i = 0; i < stripeCount; i++) {
+          sizeClass[i] = new Stripe();
+        }
+      }
+    }
+
+    void push(int sizeClass, T array) {
+      stripes[sizeClass][getCurrentStripe()].push(array);
+    }
+
+    @Nullable
+    T poll(int sizeClass, int length, boolean exact) {
+      Stripe[] candidates = stripes[sizeClass];
+      int first = getCurrentStripe();
+      for (int i = 0; i < candidates.length; i++) {
+        T result = candidates[(first + i) & stripeMask].poll(adapter, length, exact);
+        if (result != null) {
+          return result;
+        }
+      }
+      return null;
+    }
+
+    @Nullable
+    T pollOldest(int sizeClass) {
+      for (Stripe stripe : stripes[sizeClass]) {
+        T result = stripe.pollOldest();
+        if (result != null) {
+          return result;
+        }
+      }
+      return null;
+    }
+
+    private int getCurrentStripe() {
+      return (int) Thread.currentThread().getId() & stripeMask;
+    }
+  }
+
+  /** A stack of arrays with the most recently added arrays at the top. */
+  private static final class Stripe {
+    private static final int INITIAL_CAPACITY = 4;
+    private Object[] arrays = new Object[INITIAL_CAPACITY];
+    private int count;
+
+    @Synthetic
+    Stripe() {}
+
+    synchronized void push(Object array) {
+      if (count == arrays.length) {
+        Object[] grown = new Object[count * 2];
+        System.arraycopy(arrays, 0, grown, 0, count);
+        arrays = grown;
+      }
+      arrays[count++] = array;
+    }
+
+    @Nullable
+    synchronized <T> T poll(ArrayAdapterInterface<T> adapter, int length, boolean exact) {
+      for (int i = count - 1; i >= 0; i--) {
+        @SuppressWarnings("unchecked")
+        T candidate = (T) arrays[i];
+        int candidateLength = adapter.getArrayLength(candidate);
+        if (candidateLength == length || (!exact && candidateLength > length)) {
+          removeAt(i);
+          return candidate;
+        }
+      }
+      return null;
+    }
+
+    @Nullable
+    synchronized <T> T pollOldest() {
+      if (count == 0) {
+        return null;
+      }
+      @SuppressWarnings("unchecked")
+      T result = (T) arrays[0];
+      removeAt(0);
+      return result;
+    }
+
+    private void removeAt(int index) {
+      System.arraycopy(arrays, index + 1, arrays, index, count - index - 1);
+      arrays[--count] = null;
+    }
+  }
+}
@@ -31,6 +31,23 @@ public interface DiskCache {
     boolean write(@NonNull File file);
   }
 
+  /**
+   * Optionally implemented by {@link DiskCache}s that can tell, without disk I/O, that they don't
+   * contain a key.
+   *
+   * <p>Used to skip disk cache lookups for keys that have never been cached.
+   */
+  interface PresenceIndex {
+    /**
+     * Returns {@code false} if the cache definitely doesn't contain the given key, or {@code true}
+     * if it might.
+     *
+     * <p>May be called on any thread, including the main thread, so must not block on I/O.
+     * Implementations that aren't ready to answer without I/O must return {@code true}.
+     */
+    boolean mightContain(@NonNull Key key);
+  }
+
   /**
    * Get the cache for the value at the given key.
    *
@@ -0,0 +1,90 @@
+package com.bumptech.glide.load.engine.cache;
+
+import androidx.annotation.NonNull;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size Bloom filter of disk cache safe keys.
+ *
+ * <p>{@link #mightContain(String)} never returns {@code false} for a key that was {@link
+ * #put(String) put}. Keys can't be removed, so callers rebuild the filter once it has seen more
+ * insertions and removals than it was sized for.
+ *
+ * <p>Reads are lock free and may run concurrently with writes. A read racing with a {@link
+ * #put(String)} of the same key may miss it, which is indistinguishable from the read happening
+ * before the put.
+ */
+final class DiskCacheBloomFilter {
+  // About 1% false positives at capacity.
+  private static final int BITS_PER_KEY = 10;
+  private static final int HASH_COUNT = 7;
+  private static final int MIN_CAPACITY = 256;
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int capacity;
+
+  DiskCacheBloomFilter(int expectedKeys) {
+    capacity = Math.max(MIN_CAPACITY, expectedKeys);
+    int longCount = (int) (((long) capacity * BITS_PER_KEY + Long.SIZE - 1) / Long.SIZE);
+    bits = new AtomicLongArray(longCount);
+    bitCount = (long) longCount * Long.SIZE;
+  }
+
+  /** Returns the number of keys this filter can hold before its false positive rate degrades. */
+  int getCapacity() {
+    return capacity;
+  }
+
+  void put(@NonNull String safeKey) {
+    long hash1 = hash1(safeKey);
+    long hash2 = hash2(safeKey);
+    for (int i = 0; i < HASH_COUNT; i++) {
+      long index = bitIndex(hash1, hash2, i);
+      int longIndex = (int) (index >>> 6);
+      long mask = 1L << index;
+      long current;
+      do {
+        current = bits.get(longIndex);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!bits.compareAndSet(longIndex, current, current | mask));
+    }
+  }
+
+  boolean mightContain(@NonNull String safeKey) {
+    long hash1 = hash1(safeKey);
+    long hash2 = hash2(safeKey);
+    for (int i = 0; i < HASH_COUNT; i++) {
+      long index = bitIndex(hash1, hash2, i);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Kirsch-Mitzenmacher double hashing, see "Less Hashing, Same Performance".
+  private long bitIndex(long hash1, long hash2, int i) {
+    return ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+  }
+
+  // Safe keys are already uniformly distributed digests, so simple hashes of the characters are
+  // enough.
+  private static long hash1(String safeKey) {
+    // 64 bit FNV-1a.
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < safeKey.length(); i++) {
+      hash ^= safeKey.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static long hash2(String safeKey) {
+    long hash = safeKey.hashCode() * 0x9e3779b97f4a7c15L;
+    // Make sure the stride is odd so that it's never 0.
+    return (hash ^ (hash >>> 29)) | 1;
+  }
+}
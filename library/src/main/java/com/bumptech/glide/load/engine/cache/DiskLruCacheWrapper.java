@@ -5,30 +5,51 @@
 package com.bumptech.glide.load.engine.cache;
 
 import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.bumptech.glide.disklrucache.DiskLruCache;
 import com.bumptech.glide.disklrucache.DiskLruCache.Value;
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.CacheStatsRecorder;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The default DiskCache implementation. There must be no more than one active instance for a given
  * directory at a time.
  *
+ * <p>Keeps an in memory Bloom filter of the keys in the cache, built when the cache is opened, so
+ * that lookups for keys that were never cached don't need to touch the disk.
+ *
+ * <p>Lookups, puts that write data and evictions are counted, see {@link #getStats()}.
+ *
  * @see #get(java.io.File, long)
  */
-public class DiskLruCacheWrapper implements DiskCache {
+public class DiskLruCacheWrapper
+    implements DiskCache, DiskCache.PresenceIndex, CacheStats.Provider {
   private static final String TAG = "DiskLruCacheWrapper";
 
-  private static final int APP_VERSION = 1;
   private static final int VALUE_COUNT = 1;
   private static DiskLruCacheWrapper wrapper;
 
+  private final SafeKeyDigest safeKeyDigest;
   private final SafeKeyGenerator safeKeyGenerator;
   private final File directory;
   private final long maxSize;
+  private final long journalFlushDelayMillis;
   private final DiskCacheWriteLocker writeLocker = new DiskCacheWriteLocker();
+  private final Object presenceFilterLock = new Object();
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
   private DiskLruCache diskLruCache;
+  // Evictions by disk caches that have since been cleared, guarded by this.
+  private long evictionCountBeforeClear;
+  // Null until the cache is opened.
+  @Nullable private volatile DiskCacheBloomFilter presenceFilter;
+  // The number of keys put into or removed from the cache since presenceFilter was built, guarded
+  // by presenceFilterLock.
+  private int presenceFilterChanges;
 
   /**
    * Get a DiskCache in the given directory and size. If a disk cache has already been created with
@@ -63,6 +84,50 @@ public class DiskLruCacheWrapper implements DiskCache {
     return new DiskLruCacheWrapper(directory, maxSize);
   }
 
+  /**
+   * Create a new DiskCache in the given directory with a specified max size that groups the
+   * journal writes of puts made within {@code journalFlushDelayMillis} of each other into a single
+   * flush.
+   *
+   * <p>Useful when many small entries are written in quick succession, for example when
+   * prefetching. Puts that haven't been flushed when the process dies are lost, but are never
+   * returned without their data.
+   *
+   * @param directory The directory for the disk cache
+   * @param maxSize The max size for the disk cache
+   * @param journalFlushDelayMillis The maximum time journal writes are buffered, or {@code 0} to
+   *     flush after every put.
+   * @return The new disk cache with the given arguments
+   * @see DiskLruCache#open(File, int, int, long, long)
+   */
+  // Public API.
+  @SuppressWarnings("unused")
+  public static DiskCache create(File directory, long maxSize, long journalFlushDelayMillis) {
+    return create(directory, maxSize, journalFlushDelayMillis, SafeKeyDigest.SHA_256);
+  }
+
+  /**
+   * Create a new DiskCache in the given directory with a specified max size that names files using
+   * the given {@link SafeKeyDigest}.
+   *
+   * <p>Existing caches in {@code directory} that were written using a different {@link
+   * SafeKeyDigest} are cleared when the cache is first opened.
+   *
+   * @param directory The directory for the disk cache
+   * @param maxSize The max size for the disk cache
+   * @param journalFlushDelayMillis The maximum time journal writes are buffered, or {@code 0} to
+   *     flush after every put.
+   * @param safeKeyDigest The digest used to turn keys into file names.
+   * @return The new disk cache with the given arguments
+   * @see #create(File, long, long)
+   */
+  // Public API.
+  @SuppressWarnings("WeakerAccess")
+  public static DiskCache create(
+      File directory, long maxSize, long journalFlushDelayMillis, SafeKeyDigest safeKeyDigest) {
+    return new DiskLruCacheWrapper(directory, maxSize, journalFlushDelayMillis, safeKeyDigest);
+  }
+
   /**
    * @deprecated Do not extend this class.
    */
@@ -70,18 +135,76 @@ public class DiskLruCacheWrapper implements DiskCache {
   // Deprecated public API.
   @SuppressWarnings({"WeakerAccess", "DeprecatedIsStillUsed"})
   protected DiskLruCacheWrapper(File directory, long maxSize) {
+    this(directory, maxSize, /* journalFlushDelayMillis= */ 0, SafeKeyDigest.SHA_256);
+  }
+
+  private DiskLruCacheWrapper(
+      File directory, long maxSize, long journalFlushDelayMillis, SafeKeyDigest safeKeyDigest) {
     this.directory = directory;
     this.maxSize = maxSize;
-    this.safeKeyGenerator = new SafeKeyGenerator();
+    this.journalFlushDelayMillis = journalFlushDelayMillis;
+    this.safeKeyDigest = safeKeyDigest;
+    this.safeKeyGenerator = new SafeKeyGenerator(safeKeyDigest);
   }
 
   private synchronized DiskLruCache getDiskCache() throws IOException {
     if (diskLruCache == null) {
-      diskLruCache = DiskLruCache.open(directory, APP_VERSION, VALUE_COUNT, maxSize);
+      diskLruCache =
+          DiskLruCache.open(
+              directory,
+              safeKeyDigest.getDiskCacheVersion(),
+              VALUE_COUNT,
+              maxSize,
+              journalFlushDelayMillis);
+      rebuildPresenceFilter(diskLruCache);
     }
     return diskLruCache;
   }
 
+  @Override
+  public boolean mightContain(@NonNull Key key) {
+    DiskCacheBloomFilter filter = presenceFilter;
+    return filter == null || filter.mightContain(safeKeyGenerator.getSafeKey(key));
+  }
+
+  private boolean mightContain(String safeKey) {
+    DiskCacheBloomFilter filter = presenceFilter;
+    return filter == null || filter.mightContain(safeKey);
+  }
+
+  private void onPresenceFilterChanged(DiskLruCache diskCache, @Nullable String addedSafeKey) {
+    synchronized (presenceFilterLock) {
+      DiskCacheBloomFilter filter = presenceFilter;
+      if (filter == null) {
+        return;
+      }
+      if (addedSafeKey != null) {
+        filter.put(addedSafeKey);
+      }
+      // Removed keys, including those evicted by DiskLruCache, stay in the filter and become false
+      // positives, so start over once the filter has seen as many changes as it was sized for.
+      if (++presenceFilterChanges > filter.getCapacity()) {
+        rebuildPresenceFilter(diskCache);
+      }
+    }
+  }
+
+  private void rebuildPresenceFilter(DiskLruCache diskCache) {
+    synchronized (presenceFilterLock) {
+      if (diskCache.isClosed()) {
+        return;
+      }
+      List<String> safeKeys = diskCache.getReadableKeys();
+      // Leave room for the cache to grow before the filter has to be rebuilt.
+      DiskCacheBloomFilter filter = new DiskCacheBloomFilter(safeKeys.size() * 2);
+      for (String safeKey : safeKeys) {
+        filter.put(safeKey);
+      }
+      presenceFilter = filter;
+      presenceFilterChanges = safeKeys.size();
+    }
+  }
+
   @Override
   public File get(Key key) {
     String safeKey = safeKeyGenerator.getSafeKey(key);
@@ -93,10 +216,17 @@ public class DiskLruCacheWrapper implements DiskCache {
       // It is possible that the there will be a put in between these two gets. If so that shouldn't
       // be a problem because we will always put the same value at the same key so our input streams
       // will still represent the same data.
-      final DiskLruCache.Value value = getDiskCache().get(safeKey);
+      DiskLruCache diskCache = getDiskCache();
+      // Avoids DiskLruCache's lock and file system checks for keys that were never cached.
+      if (!mightContain(safeKey)) {
+        stats.recordLookup(false);
+        return null;
+      }
+      final DiskLruCache.Value value = diskCache.get(safeKey);
       if (value != null) {
         result = value.getFile(0);
       }
+      stats.recordLookup(result != null);
     } catch (IOException e) {
       if (Log.isLoggable(TAG, Log.WARN)) {
         Log.w(TAG, "Unable to get from disk cache", e);
@@ -132,6 +262,8 @@ public class DiskLruCacheWrapper implements DiskCache {
           File file = editor.getFile(0);
           if (writer.write(file)) {
             editor.commit();
+            stats.recordPut();
+            onPresenceFilterChanged(diskCache, safeKey);
           }
         } finally {
           editor.abortUnlessCommitted();
@@ -150,7 +282,10 @@ public class DiskLruCacheWrapper implements DiskCache {
   public void delete(Key key) {
     String safeKey = safeKeyGenerator.getSafeKey(key);
     try {
-      getDiskCache().remove(safeKey);
+      DiskLruCache diskCache = getDiskCache();
+      if (diskCache.remove(safeKey)) {
+        onPresenceFilterChanged(diskCache, /* addedSafeKey= */ null);
+      }
     } catch (IOException e) {
       if (Log.isLoggable(TAG, Log.WARN)) {
         Log.w(TAG, "Unable to delete from disk cache", e);
@@ -161,7 +296,9 @@ public class DiskLruCacheWrapper implements DiskCache {
   @Override
   public synchronized void clear() {
     try {
-      getDiskCache().delete();
+      DiskLruCache diskCache = getDiskCache();
+      evictionCountBeforeClear += diskCache.getEvictionCount();
+      diskCache.delete();
     } catch (IOException e) {
       if (Log.isLoggable(TAG, Log.WARN)) {
         Log.w(TAG, "Unable to clear disk cache or disk cache cleared externally", e);
@@ -174,7 +311,30 @@ public class DiskLruCacheWrapper implements DiskCache {
     }
   }
 
+  /**
+   * Returns the stats of this cache. Entries removed by {@link #clear()} or {@link #delete(Key)}
+   * aren't counted as evictions.
+   */
+  @NonNull
+  @Override
+  public synchronized CacheStats getStats() {
+    long currentSize = 0;
+    long maxSize = this.maxSize;
+    long evictionCount = evictionCountBeforeClear;
+    if (diskLruCache != null) {
+      currentSize = diskLruCache.size();
+      maxSize = diskLruCache.getMaxSize();
+      evictionCount += diskLruCache.getEvictionCount();
+    }
+    return stats
+        .snapshot(currentSize, maxSize)
+        .plusEvictions(CacheStats.EvictionCause.SIZE, evictionCount);
+  }
+
   private synchronized void resetDiskCache() {
     diskLruCache = null;
+    synchronized (presenceFilterLock) {
+      presenceFilter = null;
+    }
   }
 }
@@ -25,6 +25,19 @@ public class LruResourceCache extends LruCache<Key, Resource<?>> implements Memo
     this.listener = listener;
   }
 
+  /**
+   * Removes and returns the resource for the given key, counting the removal as a lookup in {@link
+   * #getStats()} because that's how the {@link com.bumptech.glide.load.engine.Engine} looks up
+   * resources.
+   */
+  @Nullable
+  @Override
+  public Resource<?> remove(@NonNull Key key) {
+    Resource<?> result = super.remove(key);
+    getStatsRecorder().recordLookup(result != null);
+    return result;
+  }
+
   @Override
   protected void onItemEvicted(@NonNull Key key, @Nullable Resource<?> item) {
     if (listener != null && item != null) {
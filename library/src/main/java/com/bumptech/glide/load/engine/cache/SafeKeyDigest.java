@@ -0,0 +1,119 @@
+package com.bumptech.glide.load.engine.cache;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.util.Util;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Set of available digests used by {@link SafeKeyGenerator} to turn {@link
+ * com.bumptech.glide.load.Key}s into disk cache file names.
+ *
+ * @see DiskLruCacheWrapper#create(java.io.File, long, long, SafeKeyDigest)
+ */
+public abstract class SafeKeyDigest {
+
+  /**
+   * Hashes keys with SHA-256 into 64 character hex file names.
+   *
+   * <p>The default, collisions are practically impossible even for keys derived from untrusted
+   * input, like urls.
+   */
+  public static final SafeKeyDigest SHA_256 =
+      new SafeKeyDigest() {
+        @NonNull
+        @Override
+        public MessageDigest createMessageDigest() {
+          try {
+            return MessageDigest.getInstance("SHA-256");
+          } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+          }
+        }
+
+        @NonNull
+        @Override
+        public String toSafeKey(@NonNull byte[] digest) {
+          return Util.sha256BytesToHex(digest);
+        }
+
+        @Override
+        public int getDiskCacheVersion() {
+          return 1;
+        }
+      };
+
+  /**
+   * Hashes keys with the 128 bit variant of MurmurHash3 into 26 character base32 file names.
+   *
+   * <p>Faster than {@link #SHA_256}, particularly where SHA-256 isn't hardware accelerated, and
+   * collisions between ordinary keys are vanishingly unlikely. Unlike {@link #SHA_256}, it's
+   * possible to deliberately construct two models, for example two urls, that map to the same file,
+   * so only use this digest if the models loaded into the disk cache are trusted.
+   */
+  public static final SafeKeyDigest MURMUR3_128 =
+      new SafeKeyDigest() {
+        @NonNull
+        @Override
+        public MessageDigest createMessageDigest() {
+          return new Murmur3MessageDigest();
+        }
+
+        @NonNull
+        @Override
+        public String toSafeKey(@NonNull byte[] digest) {
+          return toBase32(digest);
+        }
+
+        @Override
+        public int getDiskCacheVersion() {
+          return 2;
+        }
+      };
+
+  private static final char[] BASE_32_CHARS = "abcdefghijklmnopqrstuvwxyz234567".toCharArray();
+
+  /**
+   * Returns a new {@link MessageDigest} that keys are written to.
+   *
+   * <p>Digests are pooled and reused after {@link MessageDigest#digest()} is called.
+   */
+  @NonNull
+  public abstract MessageDigest createMessageDigest();
+
+  /**
+   * Returns a file name for the given digest that's between 1 and 120 characters long and only
+   * contains the characters {@code [a-z0-9_-]}.
+   */
+  @NonNull
+  public abstract String toSafeKey(@NonNull byte[] digest);
+
+  /**
+   * Returns the version of the disk cache written with this digest.
+   *
+   * <p>Each digest must return a distinct version. Disk caches written with a different version are
+   * cleared when they're opened, otherwise entries written with the previous digest could never be
+   * read again, but would still use space until they're evicted.
+   */
+  public abstract int getDiskCacheVersion();
+
+  @NonNull
+  static String toBase32(@NonNull byte[] bytes) {
+    char[] result = new char[(bytes.length * 8 + 4) / 5];
+    int buffer = 0;
+    int bufferedBits = 0;
+    int index = 0;
+    for (byte b : bytes) {
+      buffer = (buffer << 8) | (b & 0xFF);
+      bufferedBits += 8;
+      while (bufferedBits >= 5) {
+        bufferedBits -= 5;
+        result[index++] = BASE_32_CHARS[(buffer >>> bufferedBits) & 0x1F];
+      }
+    }
+    if (bufferedBits > 0) {
+      result[index] = BASE_32_CHARS[(buffer << (5 - bufferedBits)) & 0x1F];
+    }
+    return new String(result);
+  }
+}
@@ -6,34 +6,39 @@ import com.bumptech.glide.load.Key;
 import com.bumptech.glide.util.LruCache;
 import com.bumptech.glide.util.Preconditions;
 import com.bumptech.glide.util.Synthetic;
-import com.bumptech.glide.util.Util;
 import com.bumptech.glide.util.pool.FactoryPools;
 import com.bumptech.glide.util.pool.StateVerifier;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * A class that generates and caches safe and unique string file names from {@link
  * com.bumptech.glide.load.Key}s.
+ *
+ * @see SafeKeyDigest
  */
 // Public API.
 @SuppressWarnings("WeakerAccess")
 public class SafeKeyGenerator {
   private final LruCache<Key, String> loadIdToSafeHash = new LruCache<>(1000);
+  @Synthetic final SafeKeyDigest safeKeyDigest;
   private final Pools.Pool<PoolableDigestContainer> digestPool =
       FactoryPools.threadSafe(
           10,
           new FactoryPools.Factory<PoolableDigestContainer>() {
             @Override
             public PoolableDigestContainer create() {
-              try {
-                return new PoolableDigestContainer(MessageDigest.getInstance("SHA-256"));
-              } catch (NoSuchAlgorithmException e) {
-                throw new RuntimeException(e);
-              }
+              return new PoolableDigestContainer(safeKeyDigest.createMessageDigest());
             }
           });
 
+  public SafeKeyGenerator() {
+    this(SafeKeyDigest.SHA_256);
+  }
+
+  public SafeKeyGenerator(@NonNull SafeKeyDigest safeKeyDigest) {
+    this.safeKeyDigest = Preconditions.checkNotNull(safeKeyDigest);
+  }
+
   public String getSafeKey(Key key) {
     String safeKey;
     synchronized (loadIdToSafeHash) {
@@ -53,7 +58,7 @@ public class SafeKeyGenerator {
     try {
       key.updateDiskCacheKey(container.messageDigest);
       // calling digest() will automatically reset()
-      return Util.sha256BytesToHex(container.messageDigest.digest());
+      return safeKeyDigest.toSafeKey(container.messageDigest.digest());
     } finally {
       digestPool.release(container);
     }
@@ -0,0 +1,91 @@
+package com.bumptech.glide.load.engine.cache;
+
+import android.annotation.SuppressLint;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.util.StripedLruCache;
+
+/**
+ * An LRU in memory cache for {@link com.bumptech.glide.load.engine.Resource}s that splits its
+ * contents across independently locked segments.
+ *
+ * <p>Behaves like {@link LruResourceCache}, but lookups on the main thread don't contend with puts
+ * and trims on background threads unless they happen to touch the same segment. Set via {@link
+ * com.bumptech.glide.GlideBuilder#setMemoryCache(MemoryCache)}.
+ */
+public class StripedLruResourceCache extends StripedLruCache<Key, Resource<?>>
+    implements MemoryCache {
+  private volatile ResourceRemovedListener listener;
+
+  /**
+   * Constructor for StripedLruResourceCache.
+   *
+   * @param size The maximum size in bytes the in memory cache can use.
+   */
+  public StripedLruResourceCache(long size) {
+    super(size);
+  }
+
+  /**
+   * Constructor for StripedLruResourceCache.
+   *
+   * @param size The maximum size in bytes the in memory cache can use.
+   * @param concurrencyLevel The expected number of threads accessing the cache concurrently.
+   */
+  public StripedLruResourceCache(long size, int concurrencyLevel) {
+    super(size, concurrencyLevel);
+  }
+
+  @Override
+  public void setResourceRemovedListener(@NonNull ResourceRemovedListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Removes and returns the resource for the given key, counting the removal as a lookup in {@link
+   * #getStats()} because that's how the {@link com.bumptech.glide.load.engine.Engine} looks up
+   * resources.
+   */
+  @Nullable
+  @Override
+  public Resource<?> remove(@NonNull Key key) {
+    Resource<?> result = super.remove(key);
+    getStatsRecorder().recordLookup(result != null);
+    return result;
+  }
+
+  @Override
+  protected void onItemEvicted(@NonNull Key key, @Nullable Resource<?> item) {
+    ResourceRemovedListener listener = this.listener;
+    if (listener != null && item != null) {
+      listener.onResourceRemoved(item);
+    }
+  }
+
+  @Override
+  protected int getSize(@Nullable Resource<?> item) {
+    if (item == null) {
+      return super.getSize(null);
+    } else {
+      return item.getSize();
+    }
+  }
+
+  @SuppressLint("InlinedApi")
+  @Override
+  public void trimMemory(int level) {
+    if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+      // Entering list of cached background apps
+      // Evict our entire bitmap cache
+      clearMemory();
+    } else if (level >= android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+        || level == android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      // The app's UI is no longer visible, or app is in the foreground but system is running
+      // critically low on memory
+      // Evict oldest half of our bitmap cache
+      trimToSize(getMaxSize() / 2);
+    }
+  }
+}
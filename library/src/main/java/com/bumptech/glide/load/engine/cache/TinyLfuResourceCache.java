@@ -0,0 +1,116 @@
+package com.bumptech.glide.load.engine.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.util.CacheStats;
+import com.bumptech.glide.util.FrequencySketch;
+
+/**
+ * An {@link LruResourceCache} that only admits new {@link Resource}s when the cache is full if
+ * they've been requested at least as often as the {@link Resource} they would replace.
+ *
+ * <p>Request frequencies are estimated with a {@link FrequencySketch} that records every lookup
+ * via {@link #get(Key)} or {@link #remove(Key)}. This stops a quick scroll through a long list of
+ * images that are only ever shown once from evicting images that are shown on every screen, like
+ * avatars or icons. When a {@link Resource} is rejected, it's handed to the {@link
+ * ResourceRemovedListener} exactly as if it had been evicted.
+ *
+ * <p>Hit, miss and rejection counts are kept so that the hit rate can be compared against a plain
+ * {@link LruResourceCache}.
+ */
+public class TinyLfuResourceCache extends LruResourceCache {
+  /** The number of entries the frequency sketch is sized for if none is specified. */
+  public static final int DEFAULT_EXPECTED_ENTRIES = 512;
+
+  private final FrequencySketch<Key> sketch;
+  private long hitCount;
+  private long missCount;
+  private long rejectedCount;
+
+  /**
+   * Constructor for TinyLfuResourceCache.
+   *
+   * @param size The maximum size in bytes the in memory cache can use.
+   */
+  public TinyLfuResourceCache(long size) {
+    this(size, DEFAULT_EXPECTED_ENTRIES);
+  }
+
+  /**
+   * Constructor for TinyLfuResourceCache.
+   *
+   * @param size The maximum size in bytes the in memory cache can use.
+   * @param expectedEntries The approximate maximum number of {@link Resource}s the cache will hold.
+   */
+  public TinyLfuResourceCache(long size, int expectedEntries) {
+    super(size);
+    sketch = new FrequencySketch<>(expectedEntries);
+  }
+
+  @Nullable
+  @Override
+  public synchronized Resource<?> get(@NonNull Key key) {
+    return recordLookup(key, super.get(key));
+  }
+
+  @Nullable
+  @Override
+  public synchronized Resource<?> remove(@NonNull Key key) {
+    return recordLookup(key, super.remove(key));
+  }
+
+  @Nullable
+  @Override
+  public synchronized Resource<?> put(@NonNull Key key, @Nullable Resource<?> item) {
+    if (item != null && !isAdmitted(key, item)) {
+      rejectedCount++;
+      getStatsRecorder().recordPut();
+      getStatsRecorder().recordEviction(CacheStats.EvictionCause.REJECTED);
+      onItemEvicted(key, item);
+      return null;
+    }
+    return super.put(key, item);
+  }
+
+  /** Returns the number of lookups that found a {@link Resource}. */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /** Returns the number of lookups that did not find a {@link Resource}. */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /** Returns the number of {@link Resource}s that were not admitted to the cache. */
+  public synchronized long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  /** Returns the fraction of lookups that found a {@link Resource}, or 0 if there were none. */
+  public synchronized double getHitRate() {
+    long lookupCount = hitCount + missCount;
+    return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+  }
+
+  private boolean isAdmitted(@NonNull Key key, @NonNull Resource<?> item) {
+    if (contains(key) || getCurrentSize() + getSize(item) <= getMaxSize()) {
+      return true;
+    }
+    Key victim = getLeastRecentlyUsedKey();
+    return victim == null || sketch.frequency(key) >= sketch.frequency(victim);
+  }
+
+  @Nullable
+  private Resource<?> recordLookup(@NonNull Key key, @Nullable Resource<?> result) {
+    sketch.increment(key);
+    if (result != null) {
+      hitCount++;
+    } else {
+      missCount++;
+    }
+    return result;
+  }
+}
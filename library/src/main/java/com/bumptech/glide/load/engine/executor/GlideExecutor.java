@@ -6,12 +6,15 @@ import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.bumptech.glide.util.Synthetic;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -52,6 +55,17 @@ public final class GlideExecutor implements ExecutorService {
 
   static final String DEFAULT_ANIMATION_EXECUTOR_NAME = "animation";
 
+  /**
+   * The default thread name prefix for executors used to decode/transform data fetched from source.
+   */
+  static final String DEFAULT_DECODE_EXECUTOR_NAME = "decode";
+
+  /**
+   * The default thread name prefix for executors used to write transformed resources to Glide's
+   * disk cache after they're delivered.
+   */
+  static final String DEFAULT_RESOURCE_ENCODE_EXECUTOR_NAME = "resource-encode";
+
   /** The default keep alive time for threads in our cached thread pools in milliseconds. */
   private static final long KEEP_ALIVE_TIME_MS = TimeUnit.SECONDS.toMillis(10);
 
@@ -63,6 +77,7 @@ public final class GlideExecutor implements ExecutorService {
   private static volatile int bestThreadCount;
 
   private final ExecutorService delegate;
+  @Nullable private final KeyedSerialExecutor keyedSerialExecutor;
 
   /**
    * Returns a new {@link Builder} with the {@link #DEFAULT_DISK_CACHE_EXECUTOR_THREADS} threads,
@@ -70,6 +85,10 @@ public final class GlideExecutor implements ExecutorService {
    * uncaught throwable strategy.
    *
    * <p>Disk cache executors do not allow network operations on their threads.
+   *
+   * <p>To read from the disk cache on more than one thread, combine {@link
+   * Builder#setThreadCount(int)} with {@link Builder#setSerialPerKey(boolean)} so that loads of the
+   * same data still read and write the disk cache one at a time.
    */
   public static GlideExecutor.Builder newDiskCacheBuilder() {
     return new GlideExecutor.Builder(/* preventNetworkOperations= */ true)
@@ -206,6 +225,61 @@ public final class GlideExecutor implements ExecutorService {
     return bestThreadCount >= 4 ? 2 : 1;
   }
 
+  /**
+   * Returns a new {@link Builder} with the default thread count returned from {@link
+   * #calculateBestThreadCount()}, the {@link #DEFAULT_DECODE_EXECUTOR_NAME} thread name prefix,
+   * and the {@link
+   * com.bumptech.glide.load.engine.executor.GlideExecutor.UncaughtThrowableStrategy#DEFAULT}
+   * uncaught throwable strategy.
+   *
+   * <p>Decode executors allow network operations on their threads because data that isn't cached
+   * may be streamed from the network while it's decoded.
+   *
+   * @see com.bumptech.glide.GlideBuilder#setDecodeExecutor(GlideExecutor)
+   */
+  public static GlideExecutor.Builder newDecodeBuilder() {
+    return new GlideExecutor.Builder(/* preventNetworkOperations= */ false)
+        .setThreadCount(calculateBestThreadCount())
+        .setName(DEFAULT_DECODE_EXECUTOR_NAME);
+  }
+
+  /** Shortcut for calling {@link Builder#build()} on {@link #newDecodeBuilder()}. */
+  // Public API.
+  @SuppressWarnings("unused")
+  public static GlideExecutor newDecodeExecutor() {
+    return newDecodeBuilder().build();
+  }
+
+  /**
+   * Returns a new {@link Builder} with a single thread, the {@link
+   * #DEFAULT_RESOURCE_ENCODE_EXECUTOR_NAME} thread name prefix, and the {@link
+   * com.bumptech.glide.load.engine.executor.GlideExecutor.UncaughtThrowableStrategy#DEFAULT}
+   * uncaught throwable strategy.
+   *
+   * <p>Resource encode threads run at {@link android.os.Process#THREAD_PRIORITY_BACKGROUND}, below
+   * Glide's other executors, so that writing resources that have already been delivered doesn't
+   * slow down loads that haven't. Resource encode executors do not allow network operations on
+   * their threads.
+   *
+   * @see com.bumptech.glide.load.engine.ResourceEncodeQueue
+   */
+  public static GlideExecutor.Builder newResourceEncodeBuilder() {
+    GlideExecutor.Builder builder =
+        new GlideExecutor.Builder(/* preventNetworkOperations= */ true)
+            .setThreadCount(1)
+            .setName(DEFAULT_RESOURCE_ENCODE_EXECUTOR_NAME);
+    builder.threadFactory =
+        new DefaultPriorityThreadFactory(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+    return builder;
+  }
+
+  /** Shortcut for calling {@link Builder#build()} on {@link #newResourceEncodeBuilder()}. */
+  // Public API.
+  @SuppressWarnings("unused")
+  public static GlideExecutor newResourceEncodeExecutor() {
+    return newResourceEncodeBuilder().build();
+  }
+
   /** Shortcut for calling {@link Builder#build()} on {@link #newAnimationBuilder()}. */
   public static GlideExecutor newAnimationExecutor() {
     return newAnimationBuilder().build();
@@ -227,12 +301,21 @@ public final class GlideExecutor implements ExecutorService {
 
   @VisibleForTesting
   GlideExecutor(ExecutorService delegate) {
+    this(delegate, /* isSerialPerKey= */ false);
+  }
+
+  private GlideExecutor(ExecutorService delegate, boolean isSerialPerKey) {
     this.delegate = delegate;
+    keyedSerialExecutor = isSerialPerKey ? new KeyedSerialExecutor(delegate) : null;
   }
 
   @Override
   public void execute(@NonNull Runnable command) {
-    delegate.execute(command);
+    if (keyedSerialExecutor != null) {
+      keyedSerialExecutor.execute(command);
+    } else {
+      delegate.execute(command);
+    }
   }
 
   @NonNull
@@ -289,7 +372,11 @@ public final class GlideExecutor implements ExecutorService {
   @NonNull
   @Override
   public List<Runnable> shutdownNow() {
-    return delegate.shutdownNow();
+    List<Runnable> result = delegate.shutdownNow();
+    if (keyedSerialExecutor != null) {
+      result.addAll(keyedSerialExecutor.drainWaiting());
+    }
+    return result;
   }
 
   @Override
@@ -368,18 +455,89 @@ public final class GlideExecutor implements ExecutorService {
     void handle(Throwable t);
   }
 
+  /**
+   * A {@link Runnable} that must not run at the same time as other {@code KeyedRunnable}s with an
+   * equal key on executors built with {@link Builder#setSerialPerKey(boolean)}.
+   */
+  public interface KeyedRunnable extends Runnable {
+    /**
+     * Returns a key with meaningful {@link Object#equals(Object)} and {@link Object#hashCode()}
+     * implementations.
+     *
+     * <p>Called once, when the runnable is passed to {@link GlideExecutor#execute(Runnable)}.
+     */
+    @NonNull
+    Object getExecutionKey();
+  }
+
+  /**
+   * Returns {@code true} if the runtime supports virtual threads, see {@link
+   * Builder#setVirtualThreadsEnabled(boolean)}.
+   */
+  // Public API.
+  @SuppressWarnings("WeakerAccess")
+  public static boolean isVirtualThreadSupported() {
+    return newVirtualThreadFactory() != null;
+  }
+
+  // Virtual threads were added in Java 21, so they're only available via reflection here.
+  @Nullable
+  @Synthetic
+  static ThreadFactory newVirtualThreadFactory() {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(/* obj= */ null);
+      return (ThreadFactory)
+          Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+    } catch (NoSuchMethodException e) {
+      return null;
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (IllegalAccessException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      return null;
+    }
+  }
+
+  /** Starts a new thread for each task. */
+  private static final class ThreadPerTaskExecutor implements Executor {
+    private final ThreadFactory threadFactory;
+
+    @Synthetic
+    ThreadPerTaskExecutor(ThreadFactory threadFactory) {
+      this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+      threadFactory.newThread(command).start();
+    }
+  }
+
   private static final class DefaultPriorityThreadFactory implements ThreadFactory {
     private static final int DEFAULT_PRIORITY =
         android.os.Process.THREAD_PRIORITY_BACKGROUND
             + android.os.Process.THREAD_PRIORITY_MORE_FAVORABLE;
 
+    @Synthetic final int priority;
+
+    @Synthetic
+    DefaultPriorityThreadFactory() {
+      this(DEFAULT_PRIORITY);
+    }
+
+    @Synthetic
+    DefaultPriorityThreadFactory(int priority) {
+      this.priority = priority;
+    }
+
     @Override
     public Thread newThread(@NonNull Runnable runnable) {
       return new Thread(runnable) {
         @Override
         public void run() {
           // why PMD suppression is needed: https://github.com/pmd/pmd/issues/808
-          android.os.Process.setThreadPriority(DEFAULT_PRIORITY); // NOPMD AccessorMethodGeneration
+          android.os.Process.setThreadPriority(priority); // NOPMD AccessorMethodGeneration
           super.run();
         }
       };
@@ -445,13 +603,16 @@ public final class GlideExecutor implements ExecutorService {
     private int corePoolSize;
     private int maximumPoolSize;
 
-    @NonNull private ThreadFactory threadFactory = new DefaultPriorityThreadFactory();
+    @NonNull @Synthetic ThreadFactory threadFactory = new DefaultPriorityThreadFactory();
 
     @NonNull
     private UncaughtThrowableStrategy uncaughtThrowableStrategy = UncaughtThrowableStrategy.DEFAULT;
 
     private String name;
     private long threadTimeoutMillis;
+    private boolean isSerialPerKey;
+    @Nullable private Executor executor;
+    private boolean isVirtualThreadsEnabled;
 
     @Synthetic
     Builder(boolean preventNetworkOperations) {
@@ -469,7 +630,10 @@ public final class GlideExecutor implements ExecutorService {
       return this;
     }
 
-    /** Sets the maximum number of threads to use. */
+    /**
+     * Sets the maximum number of threads to use, or with {@link #setExecutor(Executor)} or {@link
+     * #setVirtualThreadsEnabled(boolean)}, the maximum number of tasks to run at once.
+     */
     public Builder setThreadCount(@IntRange(from = 1) int threadCount) {
       corePoolSize = threadCount;
       maximumPoolSize = threadCount;
@@ -510,12 +674,93 @@ public final class GlideExecutor implements ExecutorService {
       return this;
     }
 
+    /**
+     * Set to {@code true} to run {@link KeyedRunnable}s with equal keys one at a time, in the order
+     * they're passed to {@link GlideExecutor#execute(Runnable)}, while still running those with
+     * different keys in parallel on up to {@link #setThreadCount(int)} threads.
+     *
+     * <p>Glide's loads use keys derived from the model and signature of the load, so loads that
+     * read or write the same disk cache entries don't race each other, even on a multi threaded
+     * disk cache executor. A load waiting for another load with the same key doesn't occupy a
+     * thread, so it doesn't block loads with other keys.
+     *
+     * <p>Only applies to {@link GlideExecutor#execute(Runnable)}, tasks passed to other methods
+     * run as soon as a thread is available. Defaults to {@code false}.
+     *
+     * <p>This is an experimental API that may be removed in the future.
+     */
+    public Builder setSerialPerKey(boolean isSerialPerKey) {
+      this.isSerialPerKey = isSerialPerKey;
+      return this;
+    }
+
+    /**
+     * Set to {@code true} to run each task on a new virtual thread, on runtimes that support them,
+     * instead of on a fixed pool of platform threads.
+     *
+     * <p>Virtual threads are cheap to block, so they suit source executors whose tasks mostly wait
+     * on the network, like loads using {@link com.bumptech.glide.load.data.HttpUrlFetcher}. {@link
+     * #setThreadCount(int)} still limits the number of tasks that run at once so that tasks keep
+     * running in priority order, but can usually be set much higher than the number of cores.
+     *
+     * <p>Virtual threads are currently only available on JVMs, for example in Robolectric tests or
+     * server side usage, and never on Android. Where they aren't supported, {@link #build()} falls
+     * back to platform threads, see {@link GlideExecutor#isVirtualThreadSupported()}. Ignores
+     * {@link #setThreadFactory(ThreadFactory)} and {@link #setThreadTimeoutMillis(long)}.
+     *
+     * <p>This is an experimental API that may be removed in the future.
+     */
+    public Builder setVirtualThreadsEnabled(boolean isEnabled) {
+      this.isVirtualThreadsEnabled = isEnabled;
+      return this;
+    }
+
+    /**
+     * Runs tasks on the given {@link Executor} instead of on threads owned by the {@link
+     * GlideExecutor}, for example to share an application's existing thread pool.
+     *
+     * <p>{@link #setThreadCount(int)} limits the number of tasks passed to the given executor at
+     * once. The remaining tasks wait in the {@link GlideExecutor} and are passed on in priority
+     * order, so an unbounded executor keeps Glide's priority ordering. Shutting down the {@link
+     * GlideExecutor} doesn't shut down the given executor.
+     *
+     * <p>Uses the {@link UncaughtThrowableStrategy} but ignores {@link #setName(String)}, {@link
+     * #setThreadFactory(ThreadFactory)} and {@link #setThreadTimeoutMillis(long)}. Threads of the
+     * given executor aren't prevented from making network requests. Takes precedence over {@link
+     * #setVirtualThreadsEnabled(boolean)}.
+     *
+     * <p>This is an experimental API that may be removed in the future.
+     */
+    public Builder setExecutor(@Nullable Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
     /** Builds a new {@link GlideExecutor} with any previously specified options. */
     public GlideExecutor build() {
+      if (executor != null) {
+        return new GlideExecutor(
+            new PriorityDispatchExecutor(executor, uncaughtThrowableStrategy, maximumPoolSize),
+            isSerialPerKey);
+      }
       if (TextUtils.isEmpty(name)) {
         throw new IllegalArgumentException(
             "Name must be non-null and non-empty, but given: " + name);
       }
+      ThreadFactory virtualThreadFactory =
+          isVirtualThreadsEnabled ? newVirtualThreadFactory() : null;
+      if (virtualThreadFactory != null) {
+        ThreadFactory factory =
+            new DefaultThreadFactory(
+                virtualThreadFactory, name, uncaughtThrowableStrategy, preventNetworkOperations);
+        // DefaultThreadFactory already handles uncaught throwables.
+        return new GlideExecutor(
+            new PriorityDispatchExecutor(
+                new ThreadPerTaskExecutor(factory),
+                /* uncaughtThrowableStrategy= */ null,
+                maximumPoolSize),
+            isSerialPerKey);
+      }
       ThreadPoolExecutor executor =
           new ThreadPoolExecutor(
               corePoolSize,
@@ -530,7 +775,7 @@ public final class GlideExecutor implements ExecutorService {
         executor.allowCoreThreadTimeOut(true);
       }
 
-      return new GlideExecutor(executor);
+      return new GlideExecutor(executor, isSerialPerKey);
     }
   }
 }
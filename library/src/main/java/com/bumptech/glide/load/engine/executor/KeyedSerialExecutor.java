@@ -0,0 +1,121 @@
+package com.bumptech.glide.load.engine.executor;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.engine.executor.GlideExecutor.KeyedRunnable;
+import com.bumptech.glide.util.Synthetic;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs {@link KeyedRunnable}s on a delegate {@link Executor} so that runnables with equal keys run
+ * one at a time, in the order they were submitted, while runnables with different keys run in
+ * parallel.
+ *
+ * <p>A runnable that has to wait for an earlier runnable with the same key is only handed to the
+ * delegate once the earlier runnable finishes, so it never occupies one of the delegate's threads
+ * while it waits. Runnables without a key are handed to the delegate immediately.
+ *
+ * <p>Runnables are wrapped before they're handed to the delegate. The wrappers are {@link
+ * Comparable} if the runnables are, so that prioritized delegates like those built by {@link
+ * GlideExecutor.Builder} keep their ordering.
+ */
+final class KeyedSerialExecutor implements Executor {
+  private final Executor delegate;
+
+  // Runnables waiting for a running runnable with the same key, guarded by itself. A key is present
+  // while a runnable with that key is queued in or running on the delegate.
+  private final Map<Object, ArrayDeque<Runnable>> waitingByKey = new HashMap<>();
+
+  KeyedSerialExecutor(@NonNull Executor delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void execute(@NonNull Runnable command) {
+    if (!(command instanceof KeyedRunnable)) {
+      delegate.execute(new SerialRunnable(/* key= */ null, command));
+      return;
+    }
+    // Runnables may be reused once they've run, so read the key only once, here.
+    Object key = ((KeyedRunnable) command).getExecutionKey();
+    synchronized (waitingByKey) {
+      ArrayDeque<Runnable> waiting = waitingByKey.get(key);
+      if (waiting != null) {
+        waiting.add(command);
+        return;
+      }
+      waitingByKey.put(key, new ArrayDeque<Runnable>());
+    }
+    delegate.execute(new SerialRunnable(key, command));
+  }
+
+  /** Removes and returns all runnables that are waiting for a runnable with the same key. */
+  @NonNull
+  List<Runnable> drainWaiting() {
+    List<Runnable> result = new ArrayList<>();
+    synchronized (waitingByKey) {
+      for (ArrayDeque<Runnable> waiting : waitingByKey.values()) {
+        result.addAll(waiting);
+        waiting.clear();
+      }
+    }
+    return result;
+  }
+
+  @Synthetic
+  void onFinished(@NonNull Object key) {
+    Runnable next;
+    synchronized (waitingByKey) {
+      ArrayDeque<Runnable> waiting = waitingByKey.get(key);
+      next = waiting.poll();
+      if (next == null) {
+        waitingByKey.remove(key);
+        return;
+      }
+    }
+    SerialRunnable serialRunnable = new SerialRunnable(key, next);
+    try {
+      delegate.execute(serialRunnable);
+    } catch (RejectedExecutionException e) {
+      // The delegate was shut down after next was accepted, finish it here as the delegate would
+      // have if it had been queued there.
+      serialRunnable.run();
+    }
+  }
+
+  private final class SerialRunnable implements Runnable, Comparable<SerialRunnable> {
+    private final Object key;
+    private final Runnable runnable;
+
+    @Synthetic
+    SerialRunnable(Object key, Runnable runnable) {
+      this.key = key;
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void run() {
+      try {
+        runnable.run();
+      } finally {
+        if (key != null) {
+          onFinished(key);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int compareTo(@NonNull SerialRunnable other) {
+      if (runnable instanceof Comparable && other.runnable instanceof Comparable) {
+        return ((Comparable<Object>) runnable).compareTo(other.runnable);
+      }
+      return 0;
+    }
+  }
+}
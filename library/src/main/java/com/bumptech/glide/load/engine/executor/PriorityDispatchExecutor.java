@@ -0,0 +1,220 @@
+package com.bumptech.glide.load.engine.executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.engine.executor.GlideExecutor.UncaughtThrowableStrategy;
+import com.bumptech.glide.util.Synthetic;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link ExecutorService} that runs tasks on an {@link Executor} it doesn't control the threads
+ * of, like a virtual thread per task executor or one supplied by the application, while keeping
+ * the priority ordering of {@link GlideExecutor}'s thread pools.
+ *
+ * <p>At most {@code maxRunningTasks} tasks are handed to the backing executor at a time. The rest
+ * wait here and are handed over in their natural order if they're {@link Comparable} with each
+ * other, and in submission order otherwise.
+ */
+final class PriorityDispatchExecutor extends AbstractExecutorService {
+  private final Executor backingExecutor;
+  @Nullable private final UncaughtThrowableStrategy uncaughtThrowableStrategy;
+  private final int maxRunningTasks;
+
+  // All fields below are guarded by pendingTasks.
+  private final PriorityQueue<PendingTask> pendingTasks = new PriorityQueue<>();
+  private final Set<Thread> runningThreads = new HashSet<>();
+  private long nextOrder;
+  private int runningTasks;
+  private boolean isShutdown;
+
+  /**
+   * @param backingExecutor The executor tasks are run on, it isn't shut down with this executor.
+   * @param uncaughtThrowableStrategy Handles throwables thrown by tasks, or {@code null} to let
+   *     them propagate to the backing executor.
+   */
+  PriorityDispatchExecutor(
+      @NonNull Executor backingExecutor,
+      @Nullable UncaughtThrowableStrategy uncaughtThrowableStrategy,
+      int maxRunningTasks) {
+    if (maxRunningTasks < 1) {
+      throw new IllegalArgumentException(
+          "maxRunningTasks must be at least 1, but given: " + maxRunningTasks);
+    }
+    this.backingExecutor = backingExecutor;
+    this.uncaughtThrowableStrategy = uncaughtThrowableStrategy;
+    this.maxRunningTasks = maxRunningTasks;
+  }
+
+  @Override
+  public void execute(@NonNull Runnable command) {
+    synchronized (pendingTasks) {
+      if (isShutdown) {
+        throw new RejectedExecutionException("Executor is shut down, rejected: " + command);
+      }
+      pendingTasks.add(new PendingTask(command, nextOrder++));
+    }
+    dispatch();
+  }
+
+  @Synthetic
+  void dispatch() {
+    while (true) {
+      PendingTask task;
+      synchronized (pendingTasks) {
+        if (runningTasks >= maxRunningTasks || pendingTasks.isEmpty()) {
+          return;
+        }
+        task = pendingTasks.poll();
+        runningTasks++;
+      }
+      try {
+        backingExecutor.execute(task);
+      } catch (RejectedExecutionException e) {
+        synchronized (pendingTasks) {
+          runningTasks--;
+          maybeTerminate();
+        }
+        throw e;
+      }
+    }
+  }
+
+  @Synthetic
+  void onTaskStarted() {
+    synchronized (pendingTasks) {
+      runningThreads.add(Thread.currentThread());
+    }
+  }
+
+  @Synthetic
+  void onTaskFinished() {
+    synchronized (pendingTasks) {
+      runningThreads.remove(Thread.currentThread());
+      if (isShutdown) {
+        // Don't leak an interrupt from shutdownNow into the backing executor's next task.
+        Thread.interrupted();
+      }
+      runningTasks--;
+      maybeTerminate();
+    }
+    dispatch();
+  }
+
+  // Must be called while holding pendingTasks.
+  private void maybeTerminate() {
+    if (isTerminatedLocked()) {
+      pendingTasks.notifyAll();
+    }
+  }
+
+  // Must be called while holding pendingTasks.
+  private boolean isTerminatedLocked() {
+    return isShutdown && runningTasks == 0 && pendingTasks.isEmpty();
+  }
+
+  @Override
+  public void shutdown() {
+    synchronized (pendingTasks) {
+      isShutdown = true;
+      maybeTerminate();
+    }
+  }
+
+  @NonNull
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> result = new ArrayList<>();
+    synchronized (pendingTasks) {
+      isShutdown = true;
+      PendingTask task;
+      while ((task = pendingTasks.poll()) != null) {
+        result.add(task.runnable);
+      }
+      for (Thread thread : runningThreads) {
+        thread.interrupt();
+      }
+      maybeTerminate();
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    synchronized (pendingTasks) {
+      return isShutdown;
+    }
+  }
+
+  @Override
+  public boolean isTerminated() {
+    synchronized (pendingTasks) {
+      return isTerminatedLocked();
+    }
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, @NonNull TimeUnit unit)
+      throws InterruptedException {
+    long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (pendingTasks) {
+      while (!isTerminatedLocked()) {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(pendingTasks, remainingNanos);
+      }
+      return true;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return super.toString() + "[backingExecutor=" + backingExecutor + "]";
+  }
+
+  private final class PendingTask implements Runnable, Comparable<PendingTask> {
+    @Synthetic final Runnable runnable;
+    private final long order;
+
+    @Synthetic
+    PendingTask(Runnable runnable, long order) {
+      this.runnable = runnable;
+      this.order = order;
+    }
+
+    @Override
+    public void run() {
+      onTaskStarted();
+      try {
+        runnable.run();
+      } catch (Throwable t) {
+        if (uncaughtThrowableStrategy == null) {
+          throw t;
+        }
+        uncaughtThrowableStrategy.handle(t);
+      } finally {
+        onTaskFinished();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int compareTo(@NonNull PendingTask other) {
+      int result = 0;
+      if (runnable instanceof Comparable && runnable.getClass() == other.runnable.getClass()) {
+        result = ((Comparable<Object>) runnable).compareTo(other.runnable);
+      }
+      return result != 0 ? result : Long.compare(order, other.order);
+    }
+  }
+}
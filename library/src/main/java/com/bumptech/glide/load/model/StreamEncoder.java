@@ -5,14 +5,21 @@ import androidx.annotation.NonNull;
 import com.bumptech.glide.load.Encoder;
 import com.bumptech.glide.load.Options;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.resource.bitmap.RecyclableBufferedInputStream;
+import com.bumptech.glide.util.FileChannelUtil;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
 /**
  * An {@link com.bumptech.glide.load.Encoder} that can write an {@link java.io.InputStream} to disk.
+ *
+ * <p>Streams that read from local files are written with {@link
+ * FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which avoids copying
+ * the file through a Java buffer. All other streams are copied using a buffer from the given {@link
+ * ArrayPool}.
  */
 public class StreamEncoder implements Encoder<InputStream> {
   private static final String TAG = "StreamEncoder";
@@ -24,14 +31,17 @@ public class StreamEncoder implements Encoder<InputStream> {
 
   @Override
   public boolean encode(@NonNull InputStream data, @NonNull File file, @NonNull Options options) {
-    byte[] buffer = byteArrayPool.get(ArrayPool.STANDARD_BUFFER_SIZE_BYTES, byte[].class);
+    byte[] buffer = null;
     boolean success = false;
-    OutputStream os = null;
+    FileOutputStream os = null;
     try {
       os = new FileOutputStream(file);
-      int read;
-      while ((read = data.read(buffer)) != -1) {
-        os.write(buffer, 0, read);
+      if (!transfer(data, os.getChannel())) {
+        buffer = byteArrayPool.get(ArrayPool.STANDARD_BUFFER_SIZE_BYTES, byte[].class);
+        int read;
+        while ((read = data.read(buffer)) != -1) {
+          os.write(buffer, 0, read);
+        }
       }
       os.close();
       success = true;
@@ -47,8 +57,22 @@ public class StreamEncoder implements Encoder<InputStream> {
           // Do nothing.
         }
       }
-      byteArrayPool.put(buffer);
+      if (buffer != null) {
+        byteArrayPool.put(buffer);
+      }
     }
     return success;
   }
+
+  private static boolean transfer(InputStream data, FileChannel target) throws IOException {
+    if (data instanceof RecyclableBufferedInputStream) {
+      return ((RecyclableBufferedInputStream) data).transferRemainingTo(target);
+    }
+    FileChannel source = FileChannelUtil.getReadableFileChannel(data);
+    if (source == null) {
+      return false;
+    }
+    FileChannelUtil.transferRemaining(source, target);
+    return true;
+  }
 }
@@ -36,8 +36,8 @@ public final class DefaultImageHeaderParser implements ImageHeaderParser {
   private static final String JPEG_EXIF_SEGMENT_PREAMBLE = "Exif\0\0";
   static final byte[] JPEG_EXIF_SEGMENT_PREAMBLE_BYTES =
       JPEG_EXIF_SEGMENT_PREAMBLE.getBytes(Charset.forName("UTF-8"));
-  private static final int SEGMENT_SOS = 0xDA;
-  private static final int MARKER_EOI = 0xD9;
+  static final int SEGMENT_SOS = 0xDA;
+  static final int MARKER_EOI = 0xD9;
   static final int SEGMENT_START_ID = 0xFF;
   static final int EXIF_SEGMENT_TYPE = 0xE1;
   private static final int ORIENTATION_TAG_TYPE = 0x0112;
@@ -94,10 +94,62 @@ public final class DefaultImageHeaderParser implements ImageHeaderParser {
         Preconditions.checkNotNull(byteArrayPool));
   }
 
+  /**
+   * Returns the type, like {@link #getType(InputStream)}, and the orientation, like {@link
+   * #getOrientation(InputStream, ArrayPool)}, read from a single pass over the image header.
+   */
+  @NonNull
+  public TypeAndOrientation getTypeAndOrientation(
+      @NonNull InputStream is, @NonNull ArrayPool byteArrayPool) throws IOException {
+    return getTypeAndOrientation(
+        new StreamReader(Preconditions.checkNotNull(is)),
+        Preconditions.checkNotNull(byteArrayPool));
+  }
+
+  /**
+   * Returns the type, like {@link #getType(ByteBuffer)}, and the orientation, like {@link
+   * #getOrientation(ByteBuffer, ArrayPool)}, read from a single pass over the image header.
+   */
+  @NonNull
+  public TypeAndOrientation getTypeAndOrientation(
+      @NonNull ByteBuffer byteBuffer, @NonNull ArrayPool byteArrayPool) throws IOException {
+    return getTypeAndOrientation(
+        new ByteBufferReader(Preconditions.checkNotNull(byteBuffer)),
+        Preconditions.checkNotNull(byteArrayPool));
+  }
+
+  @NonNull
+  private TypeAndOrientation getTypeAndOrientation(Reader reader, ArrayPool byteArrayPool)
+      throws IOException {
+    final int magicNumber;
+    try {
+      magicNumber = reader.getUInt16();
+    } catch (Reader.EndOfFileException e) {
+      return new TypeAndOrientation(UNKNOWN, UNKNOWN_ORIENTATION);
+    }
+    if (handles(magicNumber)) {
+      // Other than JPEG's, none of the magic numbers we read orientations for start a type that
+      // getType() recognizes.
+      ImageType type = magicNumber == EXIF_MAGIC_NUMBER ? JPEG : UNKNOWN;
+      return new TypeAndOrientation(type, getOrientation(reader, magicNumber, byteArrayPool));
+    }
+    return new TypeAndOrientation(getType(reader, magicNumber), UNKNOWN_ORIENTATION);
+  }
+
   @NonNull
   private ImageType getType(Reader reader) throws IOException {
+    final int firstTwoBytes;
+    try {
+      firstTwoBytes = reader.getUInt16();
+    } catch (Reader.EndOfFileException e) {
+      return UNKNOWN;
+    }
+    return getType(reader, firstTwoBytes);
+  }
+
+  @NonNull
+  private ImageType getType(Reader reader, int firstTwoBytes) throws IOException {
     try {
-      final int firstTwoBytes = reader.getUInt16();
       // JPEG.
       if (firstTwoBytes == EXIF_MAGIC_NUMBER) {
         return JPEG;
@@ -222,9 +274,18 @@ public final class DefaultImageHeaderParser implements ImageHeaderParser {
    *     contain an orientation
    */
   private int getOrientation(Reader reader, ArrayPool byteArrayPool) throws IOException {
+    final int magicNumber;
     try {
-      final int magicNumber = reader.getUInt16();
+      magicNumber = reader.getUInt16();
+    } catch (Reader.EndOfFileException e) {
+      return UNKNOWN_ORIENTATION;
+    }
+    return getOrientation(reader, magicNumber, byteArrayPool);
+  }
 
+  private int getOrientation(Reader reader, int magicNumber, ArrayPool byteArrayPool)
+      throws IOException {
+    try {
       if (!handles(magicNumber)) {
         if (Log.isLoggable(TAG, Log.DEBUG)) {
           Log.d(TAG, "Parser doesn't handle magic number: " + magicNumber);
@@ -271,9 +332,17 @@ public final class DefaultImageHeaderParser implements ImageHeaderParser {
       return UNKNOWN_ORIENTATION;
     }
 
-    boolean hasJpegExifPreamble = hasJpegExifPreamble(tempArray, exifSegmentLength);
+    return getOrientationFromExifSegment(tempArray, exifSegmentLength);
+  }
+
+  /**
+   * Returns the orientation from the contents of a JPEG's exif segment, or {@link
+   * #UNKNOWN_ORIENTATION} if the segment doesn't contain one.
+   */
+  static int getOrientationFromExifSegment(byte[] exifData, int exifSegmentLength) {
+    boolean hasJpegExifPreamble = hasJpegExifPreamble(exifData, exifSegmentLength);
     if (hasJpegExifPreamble) {
-      return parseExifSegment(new RandomAccessReader(tempArray, exifSegmentLength));
+      return parseExifSegment(new RandomAccessReader(exifData, exifSegmentLength));
     } else {
       if (Log.isLoggable(TAG, Log.DEBUG)) {
         Log.d(TAG, "Missing jpeg exif preamble");
@@ -282,7 +351,7 @@ public final class DefaultImageHeaderParser implements ImageHeaderParser {
     }
   }
 
-  private boolean hasJpegExifPreamble(byte[] exifData, int exifSegmentLength) {
+  private static boolean hasJpegExifPreamble(byte[] exifData, int exifSegmentLength) {
     boolean result =
         exifData != null && exifSegmentLength > JPEG_EXIF_SEGMENT_PREAMBLE_BYTES.length;
     if (result) {
@@ -448,6 +517,30 @@ public final class DefaultImageHeaderParser implements ImageHeaderParser {
         || imageMagicNumber == INTEL_TIFF_MAGIC_NUMBER;
   }
 
+  /**
+   * The type and orientation of an image, see {@link #getTypeAndOrientation(InputStream,
+   * ArrayPool)}.
+   */
+  public static final class TypeAndOrientation {
+    private final ImageType type;
+    private final int orientation;
+
+    TypeAndOrientation(@NonNull ImageType type, int orientation) {
+      this.type = type;
+      this.orientation = orientation;
+    }
+
+    @NonNull
+    public ImageType getType() {
+      return type;
+    }
+
+    /** Returns the exif orientation, or {@link #UNKNOWN_ORIENTATION} if it couldn't be read. */
+    public int getOrientation() {
+      return orientation;
+    }
+  }
+
   private static final class RandomAccessReader {
     private final ByteBuffer data;
 
@@ -13,11 +13,13 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.annotation.VisibleForTesting;
 import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.ImageHeaderCache;
 import com.bumptech.glide.load.ImageHeaderParser;
 import com.bumptech.glide.load.ImageHeaderParser.ImageType;
 import com.bumptech.glide.load.Option;
 import com.bumptech.glide.load.Options;
 import com.bumptech.glide.load.PreferredColorSpace;
+import com.bumptech.glide.load.PreviewCallback;
 import com.bumptech.glide.load.data.ParcelFileDescriptorRewinder;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
@@ -112,6 +114,31 @@ public final class Downsampler {
       Option.memory(
           "com.bumptech.glide.load.resource.bitmap.Downsampler.AllowHardwareDecode", false);
 
+  /**
+   * Indicates that progressive JPEGs decoded from source should be previewed while they're still
+   * being read, defaults to {@code false}.
+   *
+   * <p>When enabled, each time the bytes read from the source stream of a progressive JPEG have
+   * roughly doubled, the scans read so far are decoded into a low resolution preview that's passed
+   * to the {@link PreviewCallback} in the decode's {@link Options}. The previews are taken from the
+   * same stream as the full decode, so the image is still only fetched once. Glide shows previews
+   * in the {@link com.bumptech.glide.request.target.Target} of requests that are still waiting for
+   * their resource, which is most useful for large images on slow connections.
+   *
+   * <p>Previews are only decoded while the source stream itself is decoded, which only happens when
+   * the request's {@link com.bumptech.glide.load.engine.DiskCacheStrategy} doesn't cache the source
+   * data, for example {@link com.bumptech.glide.load.engine.DiskCacheStrategy#NONE} or {@link
+   * com.bumptech.glide.load.engine.DiskCacheStrategy#RESOURCE}. Otherwise, including with the
+   * default {@link com.bumptech.glide.load.engine.DiskCacheStrategy#AUTOMATIC}, the source data is
+   * written to the disk cache in full and then decoded from there, so there's nothing to preview.
+   *
+   * <p>Previews cost a few extra, much smaller, decodes and keep a copy of up to the first 5MB of
+   * the image in memory while it's decoded. Other images, including baseline JPEGs, are unaffected.
+   */
+  public static final Option<Boolean> PROGRESSIVE_PREVIEWS =
+      Option.memory(
+          "com.bumptech.glide.load.resource.bitmap.Downsampler.ProgressivePreviews", false);
+
   private static final String WBMP_MIME_TYPE = "image/vnd.wap.wbmp";
   private static final String ICO_MIME_TYPE = "image/x-ico";
   private static final Set<String> NO_DOWNSAMPLE_PRE_N_MIME_TYPES =
@@ -187,7 +214,8 @@ public final class Downsampler {
       ByteBuffer buffer, int requestedWidth, int requestedHeight, Options options)
       throws IOException {
     return decode(
-        new ImageReader.ByteBufferReader(buffer, parsers, byteArrayPool),
+        new ImageReader.ByteBufferReader(
+            buffer, parsers, byteArrayPool, options.get(ImageHeaderCache.OPTION)),
         requestedWidth,
         requestedHeight,
         options,
@@ -222,7 +250,12 @@ public final class Downsampler {
       DecodeCallbacks callbacks)
       throws IOException {
     return decode(
-        new ImageReader.InputStreamImageReader(is, parsers, byteArrayPool),
+        new ImageReader.InputStreamImageReader(
+            is,
+            parsers,
+            byteArrayPool,
+            options.get(ImageHeaderCache.OPTION),
+            options.get(PROGRESSIVE_PREVIEWS) ? options.get(PreviewCallback.OPTION) : null),
         requestedWidth,
         requestedHeight,
         options,
@@ -0,0 +1,221 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.ImageHeaderParser;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the exif orientation of a JPEG from the bytes that are read through it by someone else,
+ * usually {@link android.graphics.BitmapFactory} reading the image's bounds, so that the
+ * orientation doesn't have to be read in a separate pass over the header.
+ *
+ * <p>Finds the orientation the same way {@link DefaultImageHeaderParser} does. Gives up if the
+ * stream isn't a JPEG, doesn't have an exif segment before its image data, or if the bytes it needs
+ * aren't read, in which case {@link #getOrientation()} returns {@link
+ * ImageHeaderParser#UNKNOWN_ORIENTATION} and the orientation has to be read separately.
+ *
+ * <p>Reads are passed through unchanged, but skips of bytes that are part of the header are
+ * replaced by reads, and mark and reset aren't supported.
+ */
+final class ExifSniffingInputStream extends FilterInputStream {
+  private static final int MAGIC_NUMBER_START = DefaultImageHeaderParser.EXIF_MAGIC_NUMBER >> 8;
+  private static final int MAGIC_NUMBER_END = DefaultImageHeaderParser.EXIF_MAGIC_NUMBER & 0xFF;
+
+  private static final int STATE_MAGIC_NUMBER_START = 0;
+  private static final int STATE_MAGIC_NUMBER_END = 1;
+  private static final int STATE_SEGMENT_ID = 2;
+  private static final int STATE_SEGMENT_TYPE = 3;
+  private static final int STATE_SEGMENT_LENGTH_START = 4;
+  private static final int STATE_SEGMENT_LENGTH_END = 5;
+  private static final int STATE_SKIP_SEGMENT = 6;
+  private static final int STATE_EXIF_SEGMENT = 7;
+  private static final int STATE_DONE = 8;
+
+  private final ArrayPool byteArrayPool;
+  private final byte[] singleByte = new byte[1];
+  private int state = STATE_MAGIC_NUMBER_START;
+  private boolean isJpeg;
+  private int orientation = ImageHeaderParser.UNKNOWN_ORIENTATION;
+  private int segmentType;
+  private int segmentLength;
+  private int bytesToSkip;
+  @Nullable private byte[] exifData;
+  private int exifLength;
+  private int exifBytesRead;
+
+  ExifSniffingInputStream(@NonNull InputStream in, @NonNull ArrayPool byteArrayPool) {
+    super(in);
+    this.byteArrayPool = byteArrayPool;
+  }
+
+  /** Returns true if the bytes read so far start with the magic number of a JPEG. */
+  boolean isJpeg() {
+    return isJpeg;
+  }
+
+  /**
+   * Returns the exif orientation, or {@link ImageHeaderParser#UNKNOWN_ORIENTATION} if it wasn't
+   * found in the bytes read so far.
+   */
+  int getOrientation() {
+    return orientation;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int result = super.read();
+    if (result != -1 && state != STATE_DONE) {
+      singleByte[0] = (byte) result;
+      sniff(singleByte, 0, 1);
+    }
+    return result;
+  }
+
+  @Override
+  public int read(@NonNull byte[] buffer, int byteOffset, int byteCount) throws IOException {
+    int result = super.read(buffer, byteOffset, byteCount);
+    if (result > 0 && state != STATE_DONE) {
+      sniff(buffer, byteOffset, result);
+    }
+    return result;
+  }
+
+  @Override
+  public long skip(long byteCount) throws IOException {
+    if (byteCount <= 0) {
+      return 0;
+    }
+    switch (state) {
+      case STATE_DONE:
+        return super.skip(byteCount);
+      case STATE_SKIP_SEGMENT:
+        long skipped = super.skip(Math.min(byteCount, bytesToSkip));
+        if (skipped > 0) {
+          bytesToSkip -= (int) skipped;
+          if (bytesToSkip == 0) {
+            state = STATE_SEGMENT_ID;
+          }
+        }
+        return skipped;
+      case STATE_EXIF_SEGMENT:
+        int read =
+            in.read(exifData, exifBytesRead, (int) Math.min(byteCount, exifLength - exifBytesRead));
+        if (read > 0) {
+          exifBytesRead += read;
+          if (exifBytesRead == exifLength) {
+            parseExifSegment();
+          }
+        }
+        return Math.max(read, 0);
+      default:
+        return read() == -1 ? 0 : 1;
+    }
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    // Not supported.
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  private void sniff(byte[] buffer, int offset, int length) {
+    int end = offset + length;
+    int i = offset;
+    while (i < end && state != STATE_DONE) {
+      if (state == STATE_SKIP_SEGMENT) {
+        int skipped = Math.min(bytesToSkip, end - i);
+        bytesToSkip -= skipped;
+        i += skipped;
+        if (bytesToSkip == 0) {
+          state = STATE_SEGMENT_ID;
+        }
+      } else if (state == STATE_EXIF_SEGMENT) {
+        int copied = Math.min(exifLength - exifBytesRead, end - i);
+        System.arraycopy(buffer, i, exifData, exifBytesRead, copied);
+        exifBytesRead += copied;
+        i += copied;
+        if (exifBytesRead == exifLength) {
+          parseExifSegment();
+        }
+      } else {
+        sniff(buffer[i++] & 0xFF);
+      }
+    }
+  }
+
+  private void sniff(int value) {
+    switch (state) {
+      case STATE_MAGIC_NUMBER_START:
+        state = value == MAGIC_NUMBER_START ? STATE_MAGIC_NUMBER_END : STATE_DONE;
+        break;
+      case STATE_MAGIC_NUMBER_END:
+        isJpeg = value == MAGIC_NUMBER_END;
+        state = isJpeg ? STATE_SEGMENT_ID : STATE_DONE;
+        break;
+      case STATE_SEGMENT_ID:
+        state =
+            value == DefaultImageHeaderParser.SEGMENT_START_ID ? STATE_SEGMENT_TYPE : STATE_DONE;
+        break;
+      case STATE_SEGMENT_TYPE:
+        segmentType = value;
+        state =
+            value == DefaultImageHeaderParser.SEGMENT_SOS
+                    || value == DefaultImageHeaderParser.MARKER_EOI
+                ? STATE_DONE
+                : STATE_SEGMENT_LENGTH_START;
+        break;
+      case STATE_SEGMENT_LENGTH_START:
+        segmentLength = value << 8;
+        state = STATE_SEGMENT_LENGTH_END;
+        break;
+      case STATE_SEGMENT_LENGTH_END:
+        // A segment's length includes the bytes that specify its length.
+        int segmentContentsLength = (segmentLength | value) - 2;
+        if (segmentType == DefaultImageHeaderParser.EXIF_SEGMENT_TYPE) {
+          if (segmentContentsLength <= 0) {
+            state = STATE_DONE;
+          } else {
+            exifData = byteArrayPool.get(segmentContentsLength, byte[].class);
+            exifLength = segmentContentsLength;
+            exifBytesRead = 0;
+            state = STATE_EXIF_SEGMENT;
+          }
+        } else if (segmentContentsLength <= 0) {
+          state = segmentContentsLength == 0 ? STATE_SEGMENT_ID : STATE_DONE;
+        } else {
+          bytesToSkip = segmentContentsLength;
+          state = STATE_SKIP_SEGMENT;
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unexpected state: " + state);
+    }
+  }
+
+  private void parseExifSegment() {
+    orientation = DefaultImageHeaderParser.getOrientationFromExifSegment(exifData, exifLength);
+    release();
+  }
+
+  /** Stops looking for the orientation and returns any buffers used to the pool. */
+  void release() {
+    state = STATE_DONE;
+    if (exifData != null) {
+      byteArrayPool.put(exifData);
+      exifData = null;
+    }
+  }
+}
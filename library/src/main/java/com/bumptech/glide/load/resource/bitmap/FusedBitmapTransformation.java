@@ -0,0 +1,343 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.util.Util;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Applies a run of Glide's built in {@link BitmapTransformation}s with a single draw instead of
+ * drawing each of them into its own intermediate {@link Bitmap}.
+ *
+ * <p>{@link CenterCrop}, {@link FitCenter}, {@link CenterInside} and {@link Rotate}s by
+ * multiples of 90 degrees only scale and move pixels, so their matrices are composed into one. A
+ * run may end with a {@link RoundedCorners}, {@link GranularRoundedCorners} or {@link CircleCrop},
+ * whose shape is then drawn using the transformed {@link Bitmap} as a shader. Subclasses of these
+ * transformations are never fused because they may transform differently.
+ *
+ * <p>The result has the same size, config and alpha as applying the transformations one at a time,
+ * but its pixels may differ slightly because they're only filtered once. Like {@link
+ * BitmapTransformation}, each transformation resolves {@link Target#SIZE_ORIGINAL} against the
+ * size of the {@link Bitmap} it would be given, which changes as the run is applied.
+ *
+ * @see com.bumptech.glide.load.MultiTransformation
+ */
+public final class FusedBitmapTransformation implements Transformation<Bitmap> {
+  private static final Paint DEFAULT_PAINT = new Paint(TransformationUtils.PAINT_FLAGS);
+
+  private final List<BitmapTransformation> transformations;
+
+  FusedBitmapTransformation(@NonNull List<BitmapTransformation> transformations) {
+    this.transformations = transformations;
+  }
+
+  /**
+   * Returns the given transformations with each run of two or more that can be fused replaced by a
+   * single {@link FusedBitmapTransformation}.
+   */
+  @NonNull
+  public static <T> List<Transformation<T>> fuse(
+      @NonNull Collection<? extends Transformation<T>> transformations) {
+    List<Transformation<T>> result = new ArrayList<>(transformations.size());
+    List<BitmapTransformation> run = new ArrayList<>();
+    for (Transformation<T> transformation : transformations) {
+      if (isFusable(transformation)) {
+        run.add((BitmapTransformation) transformation);
+        if (isShape(transformation)) {
+          addRun(result, run);
+        }
+      } else {
+        addRun(result, run);
+        result.add(transformation);
+      }
+    }
+    addRun(result, run);
+    return result;
+  }
+
+  // The run only contains BitmapTransformations taken from a list of Transformation<T>s, so T must
+  // be Bitmap.
+  @SuppressWarnings("unchecked")
+  private static <T> void addRun(
+      @NonNull List<Transformation<T>> result, @NonNull List<BitmapTransformation> run) {
+    if (run.size() == 1) {
+      result.add((Transformation<T>) (Transformation<?>) run.get(0));
+    } else if (run.size() > 1) {
+      result.add(
+          (Transformation<T>)
+              (Transformation<?>) new FusedBitmapTransformation(new ArrayList<>(run)));
+    }
+    run.clear();
+  }
+
+  private static boolean isFusable(@NonNull Transformation<?> transformation) {
+    Class<?> transformationClass = transformation.getClass();
+    return transformationClass == CenterCrop.class
+        || transformationClass == FitCenter.class
+        || transformationClass == CenterInside.class
+        || (transformationClass == Rotate.class
+            && ((Rotate) transformation).getDegreesToRotate() % 90 == 0)
+        || isShape(transformation);
+  }
+
+  private static boolean isShape(@NonNull Transformation<?> transformation) {
+    Class<?> transformationClass = transformation.getClass();
+    return transformationClass == RoundedCorners.class
+        || transformationClass == GranularRoundedCorners.class
+        || transformationClass == CircleCrop.class;
+  }
+
+  @NonNull
+  @Override
+  public Resource<Bitmap> transform(
+      @NonNull Context context, @NonNull Resource<Bitmap> resource, int outWidth, int outHeight) {
+    if (!Util.isValidDimensions(outWidth, outHeight)) {
+      throw new IllegalArgumentException(
+          "Cannot apply transformation on width: "
+              + outWidth
+              + " or height: "
+              + outHeight
+              + " less than or equal to zero and not Target.SIZE_ORIGINAL");
+    }
+    BitmapPool bitmapPool = Glide.get(context).getBitmapPool();
+    Bitmap toTransform = resource.get();
+    Bitmap transformed = transform(bitmapPool, toTransform, outWidth, outHeight);
+
+    final Resource<Bitmap> result;
+    if (toTransform.equals(transformed)) {
+      result = resource;
+    } else {
+      result = BitmapResource.obtain(transformed, bitmapPool);
+    }
+    return result;
+  }
+
+  /**
+   * Applies the run to {@code toTransform}, {@code outWidth} and {@code outHeight} may be {@link
+   * Target#SIZE_ORIGINAL}.
+   */
+  @VisibleForTesting
+  @NonNull
+  Bitmap transform(
+      @NonNull BitmapPool pool, @NonNull Bitmap toTransform, int outWidth, int outHeight) {
+    Geometry geometry = new Geometry(toTransform.getWidth(), toTransform.getHeight());
+    BitmapTransformation shape = null;
+    for (BitmapTransformation transformation : transformations) {
+      // Resolved for each transformation, as BitmapTransformation does when they're applied alone.
+      int width = outWidth == Target.SIZE_ORIGINAL ? geometry.width : outWidth;
+      int height = outHeight == Target.SIZE_ORIGINAL ? geometry.height : outHeight;
+      Class<?> transformationClass = transformation.getClass();
+      if (transformationClass == CenterCrop.class) {
+        geometry.centerCrop(width, height);
+      } else if (transformationClass == FitCenter.class) {
+        geometry.fitCenter(width, height);
+      } else if (transformationClass == CenterInside.class) {
+        geometry.centerInside(width, height);
+      } else if (transformationClass == Rotate.class) {
+        geometry.rotate(((Rotate) transformation).getDegreesToRotate());
+      } else {
+        if (transformationClass == CircleCrop.class) {
+          geometry.circleCrop(width, height);
+        }
+        shape = transformation;
+      }
+    }
+    if (shape == null && !geometry.isTransformed) {
+      return toTransform;
+    }
+
+    final Bitmap result;
+    if (shape == null) {
+      result =
+          pool.get(
+              geometry.width, geometry.height, TransformationUtils.getNonNullConfig(toTransform));
+      // We don't add or remove alpha, so keep the alpha setting of the Bitmap we were given.
+      TransformationUtils.setAlpha(toTransform, result);
+    } else {
+      // Alpha is required for shapes.
+      result =
+          pool.get(
+              geometry.width, geometry.height, TransformationUtils.getAlphaSafeConfig(toTransform));
+      result.setHasAlpha(true);
+    }
+
+    Lock lock = TransformationUtils.getBitmapDrawableLock();
+    lock.lock();
+    try {
+      Canvas canvas = new Canvas(result);
+      if (shape == null) {
+        canvas.drawBitmap(toTransform, geometry.matrix, DEFAULT_PAINT);
+      } else {
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        drawShape(canvas, shape, newShaderPaint(toTransform, geometry.matrix), geometry);
+      }
+      // Avoids warnings in M+.
+      canvas.setBitmap(null);
+    } finally {
+      lock.unlock();
+    }
+    return result;
+  }
+
+  @NonNull
+  private static Paint newShaderPaint(@NonNull Bitmap toTransform, @NonNull Matrix matrix) {
+    BitmapShader shader =
+        new BitmapShader(toTransform, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+    shader.setLocalMatrix(matrix);
+    Paint paint = new Paint(TransformationUtils.PAINT_FLAGS | Paint.ANTI_ALIAS_FLAG);
+    paint.setShader(shader);
+    return paint;
+  }
+
+  private static void drawShape(
+      @NonNull Canvas canvas,
+      @NonNull BitmapTransformation shape,
+      @NonNull Paint paint,
+      @NonNull Geometry geometry) {
+    RectF rect = new RectF(0, 0, geometry.width, geometry.height);
+    if (shape instanceof RoundedCorners) {
+      float radius = ((RoundedCorners) shape).getRoundingRadius();
+      canvas.drawRoundRect(rect, radius, radius, paint);
+    } else if (shape instanceof GranularRoundedCorners) {
+      Path path = new Path();
+      path.addRoundRect(rect, ((GranularRoundedCorners) shape).getRadii(), Path.Direction.CW);
+      canvas.drawPath(path, paint);
+    } else {
+      float radius = geometry.width / 2f;
+      canvas.drawCircle(radius, radius, radius, paint);
+    }
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (o instanceof FusedBitmapTransformation) {
+      FusedBitmapTransformation other = (FusedBitmapTransformation) o;
+      return transformations.equals(other.transformations);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return transformations.hashCode();
+  }
+
+  @Override
+  public void updateDiskCacheKey(@NonNull MessageDigest messageDigest) {
+    for (BitmapTransformation transformation : transformations) {
+      transformation.updateDiskCacheKey(messageDigest);
+    }
+  }
+
+  /**
+   * The matrix that maps the original {@link Bitmap} to the result of the transformations applied
+   * so far, and the size of that result, computed the same way as {@link TransformationUtils}.
+   */
+  private static final class Geometry {
+    final Matrix matrix = new Matrix();
+    int width;
+    int height;
+    boolean isTransformed;
+
+    Geometry(int width, int height) {
+      this.width = width;
+      this.height = height;
+    }
+
+    void centerCrop(int outWidth, int outHeight) {
+      if (width == outWidth && height == outHeight) {
+        return;
+      }
+      final float scale;
+      final float dx;
+      final float dy;
+      if (width * outHeight > outWidth * height) {
+        scale = (float) outHeight / (float) height;
+        dx = (outWidth - width * scale) * 0.5f;
+        dy = 0;
+      } else {
+        scale = (float) outWidth / (float) width;
+        dx = 0;
+        dy = (outHeight - height * scale) * 0.5f;
+      }
+      matrix.postScale(scale, scale);
+      matrix.postTranslate((int) (dx + 0.5f), (int) (dy + 0.5f));
+      setSize(outWidth, outHeight);
+    }
+
+    void fitCenter(int outWidth, int outHeight) {
+      if (width == outWidth && height == outHeight) {
+        return;
+      }
+      float minPercentage = Math.min(outWidth / (float) width, outHeight / (float) height);
+      if (Math.round(minPercentage * width) == width
+          && Math.round(minPercentage * height) == height) {
+        return;
+      }
+      matrix.postScale(minPercentage, minPercentage);
+      setSize((int) (minPercentage * width), (int) (minPercentage * height));
+    }
+
+    void centerInside(int outWidth, int outHeight) {
+      if (width > outWidth || height > outHeight) {
+        fitCenter(outWidth, outHeight);
+      }
+    }
+
+    void rotate(int degreesToRotate) {
+      int degrees = ((degreesToRotate % 360) + 360) % 360;
+      if (degrees == 0) {
+        return;
+      }
+      matrix.postRotate(degrees);
+      // Move the rotated image back to the origin, as Bitmap#createBitmap does.
+      if (degrees == 90) {
+        matrix.postTranslate(height, 0);
+        setSize(height, width);
+      } else if (degrees == 180) {
+        matrix.postTranslate(width, height);
+        setSize(width, height);
+      } else {
+        matrix.postTranslate(0, width);
+        setSize(height, width);
+      }
+    }
+
+    void circleCrop(int outWidth, int outHeight) {
+      int destMinEdge = Math.min(outWidth, outHeight);
+      float maxScale = Math.max(destMinEdge / (float) width, destMinEdge / (float) height);
+      float left = (destMinEdge - maxScale * width) / 2f;
+      float top = (destMinEdge - maxScale * height) / 2f;
+      matrix.postScale(maxScale, maxScale);
+      matrix.postTranslate(left, top);
+      setSize(destMinEdge, destMinEdge);
+    }
+
+    private void setSize(int width, int height) {
+      this.width = width;
+      this.height = height;
+      isTransformed = true;
+    }
+  }
+}
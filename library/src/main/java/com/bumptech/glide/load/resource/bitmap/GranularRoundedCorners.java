@@ -26,6 +26,13 @@ public final class GranularRoundedCorners extends BitmapTransformation {
     this.bottomLeft = bottomLeft;
   }
 
+  /** Returns the x and y radii of each corner in the order {@link android.graphics.Path} uses. */
+  float[] getRadii() {
+    return new float[] {
+      topLeft, topLeft, topRight, topRight, bottomRight, bottomRight, bottomLeft, bottomLeft
+    };
+  }
+
   @Override
   protected Bitmap transform(
       @NonNull BitmapPool pool, @NonNull Bitmap toTransform, int outWidth, int outHeight) {
@@ -4,14 +4,18 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.BitmapFactory.Options;
 import android.os.ParcelFileDescriptor;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.bumptech.glide.load.ImageHeaderCache;
 import com.bumptech.glide.load.ImageHeaderParser;
 import com.bumptech.glide.load.ImageHeaderParser.ImageType;
 import com.bumptech.glide.load.ImageHeaderParserUtils;
+import com.bumptech.glide.load.PreviewCallback;
 import com.bumptech.glide.load.data.DataRewinder;
 import com.bumptech.glide.load.data.InputStreamRewinder;
 import com.bumptech.glide.load.data.ParcelFileDescriptorRewinder;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPoolAdapter;
 import com.bumptech.glide.util.ByteBufferUtil;
 import com.bumptech.glide.util.Preconditions;
 import java.io.File;
@@ -143,11 +147,17 @@ interface ImageReader {
     private final ByteBuffer buffer;
     private final List<ImageHeaderParser> parsers;
     private final ArrayPool byteArrayPool;
+    @Nullable private final ImageHeaderCache headerCache;
 
-    ByteBufferReader(ByteBuffer buffer, List<ImageHeaderParser> parsers, ArrayPool byteArrayPool) {
+    ByteBufferReader(
+        ByteBuffer buffer,
+        List<ImageHeaderParser> parsers,
+        ArrayPool byteArrayPool,
+        @Nullable ImageHeaderCache headerCache) {
       this.buffer = buffer;
       this.parsers = parsers;
       this.byteArrayPool = byteArrayPool;
+      this.headerCache = headerCache;
     }
 
     @Nullable
@@ -159,13 +169,14 @@ interface ImageReader {
 
     @Override
     public ImageType getImageType() throws IOException {
-      return ImageHeaderParserUtils.getType(parsers, ByteBufferUtil.rewind(buffer));
+      return ImageHeaderParserUtils.getType(
+          parsers, ByteBufferUtil.rewind(buffer), byteArrayPool, headerCache);
     }
 
     @Override
     public int getImageOrientation() throws IOException {
       return ImageHeaderParserUtils.getOrientation(
-          parsers, ByteBufferUtil.rewind(buffer), byteArrayPool);
+          parsers, ByteBufferUtil.rewind(buffer), byteArrayPool, headerCache);
     }
 
     @Override
@@ -180,11 +191,21 @@ interface ImageReader {
     private final InputStreamRewinder dataRewinder;
     private final ArrayPool byteArrayPool;
     private final List<ImageHeaderParser> parsers;
+    @Nullable private final ImageHeaderCache headerCache;
+    @Nullable private final PreviewCallback previewCallback;
+    @Nullable private ExifSniffingInputStream exifSniffer;
+    private boolean hasStartedPreviews;
 
     InputStreamImageReader(
-        InputStream is, List<ImageHeaderParser> parsers, ArrayPool byteArrayPool) {
+        InputStream is,
+        List<ImageHeaderParser> parsers,
+        ArrayPool byteArrayPool,
+        @Nullable ImageHeaderCache headerCache,
+        @Nullable PreviewCallback previewCallback) {
       this.byteArrayPool = Preconditions.checkNotNull(byteArrayPool);
       this.parsers = Preconditions.checkNotNull(parsers);
+      this.headerCache = headerCache;
+      this.previewCallback = previewCallback;
 
       dataRewinder = new InputStreamRewinder(is, byteArrayPool);
     }
@@ -192,25 +213,100 @@ interface ImageReader {
     @Nullable
     @Override
     public Bitmap decodeBitmap(BitmapFactory.Options options) throws IOException {
-      InputStream inputStream = dataRewinder.rewindAndGet();
-      return GlideBitmapFactory.decodeStream(inputStream, options);
+      // The orientation we'd otherwise read after the first decode, usually of the bounds, is
+      // only what the first parser returns if it's the default parser.
+      if (exifSniffer == null
+          && !parsers.isEmpty()
+          && parsers.get(0) instanceof DefaultImageHeaderParser) {
+        exifSniffer = new ExifSniffingInputStream(dataRewinder.rewindAndGet(), byteArrayPool);
+        try {
+          return GlideBitmapFactory.decodeStream(exifSniffer, options);
+        } finally {
+          exifSniffer.release();
+        }
+      }
+      // Only preview the first full decode, retries would just repeat the same previews.
+      if (previewCallback != null
+          && !hasStartedPreviews
+          && !options.inJustDecodeBounds
+          && getImageType() == ImageType.JPEG) {
+        hasStartedPreviews = true;
+        PreviewDecoder previewDecoder =
+            new PreviewDecoder(
+                previewCallback,
+                Math.max(1, options.inSampleSize) * PreviewDecoder.SAMPLE_SIZE_MULTIPLIER,
+                getImageOrientation());
+        // Reading the type or orientation may have moved the stream, so rewind after them.
+        ProgressiveJpegInputStream previewStream =
+            new ProgressiveJpegInputStream(
+                dataRewinder.rewindAndGet(), byteArrayPool, previewDecoder);
+        try {
+          return GlideBitmapFactory.decodeStream(previewStream, options);
+        } finally {
+          previewStream.release();
+        }
+      }
+      return GlideBitmapFactory.decodeStream(dataRewinder.rewindAndGet(), options);
     }
 
     @Override
     public ImageHeaderParser.ImageType getImageType() throws IOException {
-      return ImageHeaderParserUtils.getType(parsers, dataRewinder.rewindAndGet(), byteArrayPool);
+      if (exifSniffer != null && exifSniffer.isJpeg()) {
+        return ImageType.JPEG;
+      }
+      return ImageHeaderParserUtils.getType(
+          parsers, dataRewinder.rewindAndGet(), byteArrayPool, headerCache);
     }
 
     @Override
     public int getImageOrientation() throws IOException {
+      // Later parsers may still find an orientation if the default parser didn't.
+      if (exifSniffer != null
+          && exifSniffer.getOrientation() != ImageHeaderParser.UNKNOWN_ORIENTATION) {
+        return exifSniffer.getOrientation();
+      }
       return ImageHeaderParserUtils.getOrientation(
-          parsers, dataRewinder.rewindAndGet(), byteArrayPool);
+          parsers, dataRewinder.rewindAndGet(), byteArrayPool, headerCache);
     }
 
     @Override
     public void stopGrowingBuffers() {
       dataRewinder.fixMarkLimits();
     }
+
+    /**
+     * Decodes the scans of a progressive JPEG read so far into smaller, unpooled {@link Bitmap}s
+     * for a {@link PreviewCallback}.
+     */
+    private static final class PreviewDecoder implements ProgressiveJpegInputStream.ScanListener {
+      // Previews are shown briefly and scaled up by the view, a quarter of the final size is plenty
+      // and keeps the preview decodes much cheaper than the full decode.
+      static final int SAMPLE_SIZE_MULTIPLIER = 4;
+
+      private final PreviewCallback callback;
+      private final int sampleSize;
+      private final int orientation;
+
+      PreviewDecoder(PreviewCallback callback, int sampleSize, int orientation) {
+        this.callback = callback;
+        this.sampleSize = sampleSize;
+        this.orientation = orientation;
+      }
+
+      @Override
+      public void onScansRead(@NonNull byte[] data, int length) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        // JPEGs have no alpha.
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        Bitmap preview = BitmapFactory.decodeByteArray(data, /* offset= */ 0, length, options);
+        if (preview != null) {
+          // The preview is never put in a pool, so don't take one from a pool to rotate it either.
+          callback.onPreview(
+              TransformationUtils.rotateImageExif(new BitmapPoolAdapter(), preview, orientation));
+        }
+      }
+    }
   }
 
   final class ParcelFileDescriptorImageReader implements ImageReader {
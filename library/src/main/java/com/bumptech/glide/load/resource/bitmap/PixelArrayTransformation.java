@@ -0,0 +1,144 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.bitmap.PixelTransformationUtils.Filter;
+import com.bumptech.glide.load.resource.bitmap.PixelTransformationUtils.Pixels;
+import java.security.MessageDigest;
+
+/**
+ * Applies one of Glide's {@link CenterCrop}, {@link FitCenter}, {@link CenterInside}, {@link
+ * CircleCrop} or {@link RoundedCorners} transformations with {@link PixelTransformationUtils}
+ * instead of a {@link android.graphics.Canvas}.
+ *
+ * <p>Uses the same cache keys as the wrapped transformation, so resources can be shared with those
+ * produced by {@link PixelTransformationUtils} elsewhere, for example on a server. Neither the
+ * choice between this class and the wrapped transformation nor the {@link Filter} are part of the
+ * keys, so they should be applied consistently for the same model.
+ *
+ * <p>{@link Bitmap}s in configs other than {@link Bitmap.Config#ARGB_8888} are transformed by the
+ * wrapped transformation.
+ */
+public final class PixelArrayTransformation extends BitmapTransformation {
+  private final ArrayPool arrayPool;
+  private final BitmapTransformation transformation;
+  private final Filter filter;
+
+  /**
+   * Applies the given transformation with {@link Filter#BILINEAR}.
+   *
+   * @see #PixelArrayTransformation(ArrayPool, BitmapTransformation, Filter)
+   */
+  public PixelArrayTransformation(
+      @NonNull ArrayPool arrayPool, @NonNull BitmapTransformation transformation) {
+    this(arrayPool, transformation, Filter.BILINEAR);
+  }
+
+  /**
+   * @param arrayPool The pool to obtain pixel arrays from, usually {@link
+   *     com.bumptech.glide.Glide#getArrayPool()}.
+   * @param transformation One of {@link CenterCrop}, {@link FitCenter}, {@link CenterInside},
+   *     {@link CircleCrop} or {@link RoundedCorners}, but not a subclass of them.
+   * @param filter The filter to resize images with.
+   * @throws IllegalArgumentException if the transformation isn't supported.
+   */
+  public PixelArrayTransformation(
+      @NonNull ArrayPool arrayPool,
+      @NonNull BitmapTransformation transformation,
+      @NonNull Filter filter) {
+    if (!isSupported(transformation)) {
+      throw new IllegalArgumentException("Unsupported transformation: " + transformation);
+    }
+    this.arrayPool = arrayPool;
+    this.transformation = transformation;
+    this.filter = filter;
+  }
+
+  private static boolean isSupported(@NonNull BitmapTransformation transformation) {
+    // Subclasses may transform differently.
+    Class<?> transformationClass = transformation.getClass();
+    return transformationClass == CenterCrop.class
+        || transformationClass == FitCenter.class
+        || transformationClass == CenterInside.class
+        || transformationClass == CircleCrop.class
+        || transformationClass == RoundedCorners.class;
+  }
+
+  @Override
+  protected Bitmap transform(
+      @NonNull BitmapPool pool, @NonNull Bitmap toTransform, int outWidth, int outHeight) {
+    if (toTransform.getConfig() != Bitmap.Config.ARGB_8888) {
+      return transformation.transform(pool, toTransform, outWidth, outHeight);
+    }
+    int width = toTransform.getWidth();
+    int height = toTransform.getHeight();
+    int[] pixels = arrayPool.get(width * height, int[].class);
+    try {
+      toTransform.getPixels(pixels, 0 /*offset*/, width, 0 /*x*/, 0 /*y*/, width, height);
+      Pixels source = new Pixels(pixels, width, height);
+      Pixels result = transform(source, outWidth, outHeight);
+      if (result == source) {
+        return toTransform;
+      }
+      try {
+        Bitmap bitmap = pool.get(result.getWidth(), result.getHeight(), Bitmap.Config.ARGB_8888);
+        if (transformation instanceof CircleCrop || transformation instanceof RoundedCorners) {
+          bitmap.setHasAlpha(true);
+        } else {
+          // We don't add or remove alpha, so keep the alpha setting of the Bitmap we were given.
+          TransformationUtils.setAlpha(toTransform, bitmap);
+        }
+        bitmap.setPixels(
+            result.getPixels(),
+            0 /*offset*/,
+            result.getWidth(),
+            0 /*x*/,
+            0 /*y*/,
+            result.getWidth(),
+            result.getHeight());
+        return bitmap;
+      } finally {
+        arrayPool.put(result.getPixels());
+      }
+    } finally {
+      arrayPool.put(pixels);
+    }
+  }
+
+  @NonNull
+  private Pixels transform(@NonNull Pixels source, int outWidth, int outHeight) {
+    if (transformation instanceof CenterCrop) {
+      return PixelTransformationUtils.centerCrop(arrayPool, source, outWidth, outHeight, filter);
+    } else if (transformation instanceof FitCenter) {
+      return PixelTransformationUtils.fitCenter(arrayPool, source, outWidth, outHeight, filter);
+    } else if (transformation instanceof CenterInside) {
+      return PixelTransformationUtils.centerInside(arrayPool, source, outWidth, outHeight, filter);
+    } else if (transformation instanceof CircleCrop) {
+      return PixelTransformationUtils.circleCrop(arrayPool, source, outWidth, outHeight, filter);
+    } else {
+      return PixelTransformationUtils.roundedCorners(
+          arrayPool, source, ((RoundedCorners) transformation).getRoundingRadius());
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof PixelArrayTransformation) {
+      PixelArrayTransformation other = (PixelArrayTransformation) o;
+      return transformation.equals(other.transformation);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return transformation.hashCode();
+  }
+
+  @Override
+  public void updateDiskCacheKey(@NonNull MessageDigest messageDigest) {
+    transformation.updateDiskCacheKey(messageDigest);
+  }
+}
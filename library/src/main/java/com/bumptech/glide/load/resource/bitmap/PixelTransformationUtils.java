@@ -0,0 +1,564 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+
+/**
+ * Versions of the resizing and cropping methods in {@link TransformationUtils} that work on arrays
+ * of non-premultiplied ARGB pixels instead of drawing with a {@link android.graphics.Canvas}.
+ *
+ * <p>Pixels are in the format returned by {@link android.graphics.Bitmap#getPixels(int[], int, int,
+ * int, int, int, int)}, which is also the format of {@code java.awt.image.BufferedImage}'s {@code
+ * TYPE_INT_ARGB}. No Android classes are used, so these methods can run on a plain JVM, for example
+ * to produce thumbnails on a server for the same {@link com.bumptech.glide.load.Transformation}
+ * keys that Glide uses on a device. See {@link PixelArrayTransformation} to use them from Glide.
+ *
+ * <p>Images are resized with separable filters. Each dimension is resampled on its own, with
+ * fixed point weights that are computed once per output column or row. The vertical pass, which
+ * does most of the work when scaling down, runs over whole rows at a time with the same weight so
+ * that its inner loops are simple multiply-adds over contiguous arrays that the JIT can unroll and
+ * vectorize. Pixels are premultiplied while they're filtered so that the colors of transparent
+ * pixels don't bleed into their neighbors.
+ *
+ * <p>The arrays used for intermediate and returned pixels are obtained from the given {@link
+ * ArrayPool}, so the returned pixel arrays may be larger than their images. Callers should put the
+ * returned arrays back into the pool when they're done with them, unless a method returned the
+ * {@link Pixels} it was given.
+ */
+public final class PixelTransformationUtils {
+  private static final int PRECISION_BITS = 14;
+  private static final int ONE = 1 << PRECISION_BITS;
+  private static final int HALF = ONE >> 1;
+  private static final int OPAQUE = 0xFF000000;
+
+  private PixelTransformationUtils() {
+    // Utility class.
+  }
+
+  /** The filters that can be used to resample {@link Pixels}. */
+  public enum Filter {
+    /**
+     * Averages the source pixels covered by each output pixel, weighted by how much of each is
+     * covered. The fastest filter and the best suited to scaling down. Blends at most two pixels
+     * when scaling up, so upscaled images look blocky.
+     */
+    AREA_AVERAGE,
+    /**
+     * Interpolates linearly between the nearest pixels when scaling up and averages with a
+     * triangular kernel when scaling down. Closest to the filtering {@link TransformationUtils}
+     * does.
+     */
+    BILINEAR,
+    /** A windowed sinc filter that keeps the most detail, at several times the cost. */
+    LANCZOS3
+  }
+
+  /** An image made of non-premultiplied ARGB pixels stored row by row. */
+  public static final class Pixels {
+    private final int[] pixels;
+    private final int width;
+    private final int height;
+
+    /**
+     * @param pixels The pixels of the image, which may be longer than {@code width * height}.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     */
+    public Pixels(@NonNull int[] pixels, int width, int height) {
+      if (width <= 0 || height <= 0) {
+        throw new IllegalArgumentException(
+            "Width and height must be greater than 0, width: " + width + ", height: " + height);
+      }
+      if (pixels.length < width * height) {
+        throw new IllegalArgumentException(
+            "Expected at least " + width * height + " pixels, but got: " + pixels.length);
+      }
+      this.pixels = pixels;
+      this.width = width;
+      this.height = height;
+    }
+
+    @NonNull
+    public int[] getPixels() {
+      return pixels;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+  }
+
+  /**
+   * Scales the given image so that it covers the given dimensions and crops the center of the
+   * result to the given dimensions, as {@link TransformationUtils#centerCrop} does.
+   *
+   * @return The given {@link Pixels} if they already have the given dimensions, or new {@link
+   *     Pixels} otherwise.
+   */
+  @NonNull
+  public static Pixels centerCrop(
+      @NonNull ArrayPool pool, @NonNull Pixels source, int width, int height, Filter filter) {
+    if (source.width == width && source.height == height) {
+      return source;
+    }
+    final float scale;
+    final float srcX;
+    final float srcY;
+    if ((long) source.width * height > (long) width * source.height) {
+      scale = height / (float) source.height;
+      srcX = (source.width - width / scale) * 0.5f;
+      srcY = 0;
+    } else {
+      scale = width / (float) source.width;
+      srcX = 0;
+      srcY = (source.height - height / scale) * 0.5f;
+    }
+    return resample(pool, source, srcX, srcY, scale, scale, width, height, filter);
+  }
+
+  /**
+   * Scales the given image so that it fits within the given dimensions while keeping its aspect
+   * ratio, as {@link TransformationUtils#fitCenter} does.
+   *
+   * @return The given {@link Pixels} if they already fit the given dimensions exactly, or new
+   *     {@link Pixels} otherwise.
+   */
+  @NonNull
+  public static Pixels fitCenter(
+      @NonNull ArrayPool pool, @NonNull Pixels source, int width, int height, Filter filter) {
+    if (source.width == width && source.height == height) {
+      return source;
+    }
+    float scale = Math.min(width / (float) source.width, height / (float) source.height);
+    if (Math.round(scale * source.width) == source.width
+        && Math.round(scale * source.height) == source.height) {
+      return source;
+    }
+    // Take the floor, as TransformationUtils does, and never produce an empty image.
+    int targetWidth = Math.max(1, (int) (scale * source.width));
+    int targetHeight = Math.max(1, (int) (scale * source.height));
+    return resample(pool, source, 0, 0, scale, scale, targetWidth, targetHeight, filter);
+  }
+
+  /**
+   * Returns the given image if it fits within the given dimensions, or {@link #fitCenter scales it
+   * down} to fit them otherwise, as {@link TransformationUtils#centerInside} does.
+   */
+  @NonNull
+  public static Pixels centerInside(
+      @NonNull ArrayPool pool, @NonNull Pixels source, int width, int height, Filter filter) {
+    if (source.width <= width && source.height <= height) {
+      return source;
+    }
+    return fitCenter(pool, source, width, height, filter);
+  }
+
+  /**
+   * Scales the given image to exactly the given dimensions without keeping its aspect ratio.
+   *
+   * @return The given {@link Pixels} if they already have the given dimensions, or new {@link
+   *     Pixels} otherwise.
+   */
+  @NonNull
+  public static Pixels resize(
+      @NonNull ArrayPool pool, @NonNull Pixels source, int width, int height, Filter filter) {
+    if (source.width == width && source.height == height) {
+      return source;
+    }
+    float scaleX = width / (float) source.width;
+    float scaleY = height / (float) source.height;
+    return resample(pool, source, 0, 0, scaleX, scaleY, width, height, filter);
+  }
+
+  /**
+   * Center crops the given image to a square with sides equal to the smaller of the given
+   * dimensions and makes the pixels outside of the circle that fits the square transparent, as
+   * {@link TransformationUtils#circleCrop} does.
+   *
+   * @return New {@link Pixels}, never the given ones.
+   */
+  @NonNull
+  public static Pixels circleCrop(
+      @NonNull ArrayPool pool,
+      @NonNull Pixels source,
+      int destWidth,
+      int destHeight,
+      Filter filter) {
+    int destMinEdge = Math.min(destWidth, destHeight);
+    Pixels result = centerCrop(pool, source, destMinEdge, destMinEdge, filter);
+    if (result == source) {
+      result = copy(pool, source);
+    }
+    float radius = destMinEdge / 2f;
+    int[] pixels = result.pixels;
+    for (int y = 0; y < destMinEdge; y++) {
+      float dy = y + 0.5f - radius;
+      int rowStart = y * destMinEdge;
+      for (int x = 0; x < destMinEdge; x++) {
+        float dx = x + 0.5f - radius;
+        float coverage = radius + 0.5f - (float) Math.sqrt(dx * dx + dy * dy);
+        pixels[rowStart + x] = applyCoverage(pixels[rowStart + x], coverage);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Makes the pixels outside of the rounded corners of the given image transparent without
+   * resizing it, as {@link TransformationUtils#roundedCorners(
+   * com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool, android.graphics.Bitmap, int)} does.
+   *
+   * @param roundingRadius The corner radius in pixels, which is limited to half of the smaller of
+   *     the image's dimensions.
+   * @return New {@link Pixels}, never the given ones.
+   */
+  @NonNull
+  public static Pixels roundedCorners(
+      @NonNull ArrayPool pool, @NonNull Pixels source, int roundingRadius) {
+    if (roundingRadius <= 0) {
+      throw new IllegalArgumentException("roundingRadius must be greater than 0.");
+    }
+    Pixels result = copy(pool, source);
+    int width = result.width;
+    int height = result.height;
+    float radius = Math.min(roundingRadius, Math.min(width, height) / 2f);
+    int cornerSize = (int) Math.ceil(radius);
+    int[] pixels = result.pixels;
+    for (int y = 0; y < cornerSize; y++) {
+      // Distance from the center of the corner's circle towards the nearest edge.
+      float dy = radius - (y + 0.5f);
+      for (int x = 0; x < cornerSize; x++) {
+        float dx = radius - (x + 0.5f);
+        if (dx <= 0 || dy <= 0) {
+          // Along the straight part of an edge.
+          continue;
+        }
+        float coverage = radius + 0.5f - (float) Math.sqrt(dx * dx + dy * dy);
+        int top = y * width;
+        int bottom = (height - 1 - y) * width;
+        int right = width - 1 - x;
+        pixels[top + x] = applyCoverage(pixels[top + x], coverage);
+        pixels[top + right] = applyCoverage(pixels[top + right], coverage);
+        pixels[bottom + x] = applyCoverage(pixels[bottom + x], coverage);
+        pixels[bottom + right] = applyCoverage(pixels[bottom + right], coverage);
+      }
+    }
+    return result;
+  }
+
+  private static int applyCoverage(int pixel, float coverage) {
+    if (coverage >= 1) {
+      return pixel;
+    } else if (coverage <= 0) {
+      return 0;
+    }
+    int alpha = Math.round((pixel >>> 24) * coverage);
+    return alpha == 0 ? 0 : (alpha << 24) | (pixel & 0xFFFFFF);
+  }
+
+  @NonNull
+  private static Pixels copy(@NonNull ArrayPool pool, @NonNull Pixels source) {
+    int size = source.width * source.height;
+    int[] pixels = pool.get(size, int[].class);
+    System.arraycopy(source.pixels, 0, pixels, 0, size);
+    return new Pixels(pixels, source.width, source.height);
+  }
+
+  /**
+   * Maps the region of {@code source} starting at ({@code srcX}, {@code srcY}) to an image of
+   * {@code dstWidth} by {@code dstHeight} pixels, scaling each dimension by the given amount.
+   */
+  @NonNull
+  private static Pixels resample(
+      @NonNull ArrayPool pool,
+      @NonNull Pixels source,
+      float srcX,
+      float srcY,
+      float scaleX,
+      float scaleY,
+      int dstWidth,
+      int dstHeight,
+      Filter filter) {
+    Weights columns = Weights.compute(filter, source.width, srcX, scaleX, dstWidth);
+    Weights rows = Weights.compute(filter, source.height, srcY, scaleY, dstHeight);
+    boolean hasAlpha = hasAlpha(source);
+
+    int firstRow = rows.starts[0];
+    int lastRow = rows.starts[dstHeight - 1] + rows.counts[dstHeight - 1];
+    int firstColumn = columns.starts[0];
+    int lastColumn = columns.starts[dstWidth - 1] + columns.counts[dstWidth - 1];
+
+    int[] horizontal = pool.get((lastRow - firstRow) * dstWidth, int[].class);
+    int[] row = hasAlpha ? pool.get(source.width, int[].class) : null;
+    int[] sums = pool.get(dstWidth * 4, int[].class);
+    int[] result = pool.get(dstWidth * dstHeight, int[].class);
+    try {
+      for (int y = firstRow; y < lastRow; y++) {
+        int[] srcRow;
+        int srcOffset;
+        if (row != null) {
+          premultiply(source.pixels, y * source.width, row, firstColumn, lastColumn);
+          srcRow = row;
+          srcOffset = 0;
+        } else {
+          srcRow = source.pixels;
+          srcOffset = y * source.width;
+        }
+        resampleRow(srcRow, srcOffset, columns, horizontal, (y - firstRow) * dstWidth, dstWidth);
+      }
+      for (int y = 0; y < dstHeight; y++) {
+        resampleColumns(
+            horizontal,
+            (rows.starts[y] - firstRow) * dstWidth,
+            rows,
+            y,
+            sums,
+            result,
+            y * dstWidth,
+            dstWidth,
+            hasAlpha);
+      }
+    } finally {
+      pool.put(horizontal);
+      if (row != null) {
+        pool.put(row);
+      }
+      pool.put(sums);
+    }
+    return new Pixels(result, dstWidth, dstHeight);
+  }
+
+  private static boolean hasAlpha(@NonNull Pixels source) {
+    int[] pixels = source.pixels;
+    int and = OPAQUE;
+    for (int i = 0, size = source.width * source.height; i < size; i++) {
+      and &= pixels[i];
+    }
+    return and != OPAQUE;
+  }
+
+  private static void premultiply(int[] src, int srcOffset, int[] dst, int start, int end) {
+    for (int x = start; x < end; x++) {
+      int pixel = src[srcOffset + x];
+      int a = pixel >>> 24;
+      int r = multiplyAndDivideBy255((pixel >> 16) & 0xFF, a);
+      int g = multiplyAndDivideBy255((pixel >> 8) & 0xFF, a);
+      int b = multiplyAndDivideBy255(pixel & 0xFF, a);
+      dst[x] = (a << 24) | (r << 16) | (g << 8) | b;
+    }
+  }
+
+  /** Returns {@code round(value * multiplier / 255)} for values and multipliers in [0, 255]. */
+  private static int multiplyAndDivideBy255(int value, int multiplier) {
+    int product = value * multiplier + 128;
+    return (product + (product >> 8)) >> 8;
+  }
+
+  /** Resamples one row horizontally, writing packed premultiplied pixels to {@code dst}. */
+  private static void resampleRow(
+      int[] src, int srcOffset, Weights columns, int[] dst, int dstOffset, int dstWidth) {
+    int[] weights = columns.weights;
+    int kernelSize = columns.kernelSize;
+    for (int x = 0; x < dstWidth; x++) {
+      int start = srcOffset + columns.starts[x];
+      int count = columns.counts[x];
+      int weightOffset = x * kernelSize;
+      int a = HALF;
+      int r = HALF;
+      int g = HALF;
+      int b = HALF;
+      for (int i = 0; i < count; i++) {
+        int pixel = src[start + i];
+        int weight = weights[weightOffset + i];
+        a += weight * (pixel >>> 24);
+        r += weight * ((pixel >> 16) & 0xFF);
+        g += weight * ((pixel >> 8) & 0xFF);
+        b += weight * (pixel & 0xFF);
+      }
+      dst[dstOffset + x] =
+          (clamp(a >> PRECISION_BITS) << 24)
+              | (clamp(r >> PRECISION_BITS) << 16)
+              | (clamp(g >> PRECISION_BITS) << 8)
+              | clamp(b >> PRECISION_BITS);
+    }
+  }
+
+  /**
+   * Resamples one output row vertically from the horizontally resampled rows in {@code src},
+   * accumulating whole rows at a time into {@code sums}, and writes non-premultiplied pixels to
+   * {@code dst}.
+   */
+  private static void resampleColumns(
+      int[] src,
+      int srcOffset,
+      Weights rows,
+      int y,
+      int[] sums,
+      int[] dst,
+      int dstOffset,
+      int width,
+      boolean hasAlpha) {
+    int aOffset = 0;
+    int rOffset = width;
+    int gOffset = width * 2;
+    int bOffset = width * 3;
+    for (int x = 0; x < width * 4; x++) {
+      sums[x] = HALF;
+    }
+    int count = rows.counts[y];
+    int weightOffset = y * rows.kernelSize;
+    for (int i = 0; i < count; i++) {
+      int weight = rows.weights[weightOffset + i];
+      int rowOffset = srcOffset + i * width;
+      for (int x = 0; x < width; x++) {
+        int pixel = src[rowOffset + x];
+        sums[aOffset + x] += weight * (pixel >>> 24);
+        sums[rOffset + x] += weight * ((pixel >> 16) & 0xFF);
+        sums[gOffset + x] += weight * ((pixel >> 8) & 0xFF);
+        sums[bOffset + x] += weight * (pixel & 0xFF);
+      }
+    }
+    for (int x = 0; x < width; x++) {
+      int a = clamp(sums[aOffset + x] >> PRECISION_BITS);
+      int r = clamp(sums[rOffset + x] >> PRECISION_BITS);
+      int g = clamp(sums[gOffset + x] >> PRECISION_BITS);
+      int b = clamp(sums[bOffset + x] >> PRECISION_BITS);
+      if (hasAlpha) {
+        if (a == 0) {
+          dst[dstOffset + x] = 0;
+          continue;
+        }
+        // Filters with negative lobes can leave premultiplied colors larger than alpha.
+        r = unpremultiply(Math.min(r, a), a);
+        g = unpremultiply(Math.min(g, a), a);
+        b = unpremultiply(Math.min(b, a), a);
+      }
+      dst[dstOffset + x] = (a << 24) | (r << 16) | (g << 8) | b;
+    }
+  }
+
+  private static int unpremultiply(int value, int alpha) {
+    return (value * 255 + (alpha >> 1)) / alpha;
+  }
+
+  private static int clamp(int value) {
+    return value < 0 ? 0 : (value > 255 ? 255 : value);
+  }
+
+  /**
+   * The fixed point weights of the source pixels that contribute to each output pixel in one
+   * dimension, stored in flat arrays with {@link #kernelSize} weights per output pixel.
+   */
+  private static final class Weights {
+    final int[] starts;
+    final int[] counts;
+    final int[] weights;
+    final int kernelSize;
+
+    private Weights(int[] starts, int[] counts, int[] weights, int kernelSize) {
+      this.starts = starts;
+      this.counts = counts;
+      this.weights = weights;
+      this.kernelSize = kernelSize;
+    }
+
+    static Weights compute(Filter filter, int srcSize, float srcStart, float scale, int dstSize) {
+      // When scaling down, stretch the kernel so that it covers every source pixel.
+      float filterScale = Math.max(1f, 1f / scale);
+      float support = getSupport(filter) * filterScale;
+      int kernelSize = (int) Math.ceil(support * 2) + 2;
+
+      int[] starts = new int[dstSize];
+      int[] counts = new int[dstSize];
+      int[] weights = new int[dstSize * kernelSize];
+      float[] floatWeights = new float[kernelSize];
+      for (int i = 0; i < dstSize; i++) {
+        float center = srcStart + (i + 0.5f) / scale;
+        int start = Math.max(0, (int) Math.floor(center - support));
+        int end = Math.min(srcSize, (int) Math.ceil(center + support));
+        if (end <= start) {
+          // The center is outside of the source, use the nearest edge pixel.
+          start = Math.min(Math.max(0, (int) center), srcSize - 1);
+          end = start + 1;
+        }
+        float total = 0;
+        for (int j = start; j < end; j++) {
+          float weight = getWeight(filter, j + 0.5f - center, filterScale);
+          floatWeights[j - start] = weight;
+          total += weight;
+        }
+        if (total == 0) {
+          start = Math.min(Math.max(0, (int) center), srcSize - 1);
+          end = start + 1;
+          floatWeights[0] = 1;
+          total = 1;
+        }
+        starts[i] = start;
+        counts[i] = end - start;
+        int offset = i * kernelSize;
+        int fixedTotal = 0;
+        for (int j = 0; j < end - start; j++) {
+          int weight = Math.round(floatWeights[j] / total * ONE);
+          weights[offset + j] = weight;
+          fixedTotal += weight;
+        }
+        // Give any rounding error to the largest weight so that each set sums to exactly one.
+        int largest = offset;
+        for (int j = offset + 1; j < offset + end - start; j++) {
+          if (weights[j] > weights[largest]) {
+            largest = j;
+          }
+        }
+        weights[largest] += ONE - fixedTotal;
+      }
+      return new Weights(starts, counts, weights, kernelSize);
+    }
+
+    private static float getSupport(Filter filter) {
+      switch (filter) {
+        case AREA_AVERAGE:
+          return 0.5f;
+        case BILINEAR:
+          return 1f;
+        case LANCZOS3:
+          return 3f;
+        default:
+          throw new IllegalArgumentException("Unrecognized filter: " + filter);
+      }
+    }
+
+    /**
+     * Returns the weight of a source pixel whose center is {@code distance} source pixels from
+     * the center of the output pixel.
+     */
+    private static float getWeight(Filter filter, float distance, float filterScale) {
+      switch (filter) {
+        case AREA_AVERAGE:
+          // The overlap of the source pixel with the output pixel's footprint.
+          float halfFootprint = 0.5f * filterScale;
+          float overlap =
+              Math.min(distance + 0.5f, halfFootprint) - Math.max(distance - 0.5f, -halfFootprint);
+          return Math.max(0f, overlap);
+        case BILINEAR:
+          return Math.max(0f, 1f - Math.abs(distance / filterScale));
+        case LANCZOS3:
+          float x = Math.abs(distance / filterScale);
+          return x < 3f ? sinc(x) * sinc(x / 3f) : 0f;
+        default:
+          throw new IllegalArgumentException("Unrecognized filter: " + filter);
+      }
+    }
+
+    private static float sinc(float x) {
+      if (x == 0) {
+        return 1f;
+      }
+      double piX = Math.PI * x;
+      return (float) (Math.sin(piX) / piX);
+    }
+  }
+}
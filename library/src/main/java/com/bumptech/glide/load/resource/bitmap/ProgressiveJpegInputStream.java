@@ -0,0 +1,291 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Keeps a copy of the bytes of a progressive JPEG that are read through it by someone else, usually
+ * {@link android.graphics.BitmapFactory} decoding the full image, and tells a {@link ScanListener}
+ * each time another scan of the image has been read so that a preview can be decoded from the
+ * copy.
+ *
+ * <p>Scans are only reported if the image is progressive, and only once the bytes read have at
+ * least doubled since the last scan that was reported, so that decoding previews takes at most
+ * about as long as decoding the full image once. Gives up and stops copying bytes if the stream
+ * isn't a progressive JPEG, can't be parsed, or if more than {@link #MAX_BUFFERED_BYTES} have been
+ * read.
+ *
+ * <p>Reads are passed through unchanged, but skips are replaced by reads until it gives up, and
+ * mark and reset aren't supported.
+ */
+final class ProgressiveJpegInputStream extends FilterInputStream {
+  // Matches the limit we use to rewind streams after reading their headers.
+  static final int MAX_BUFFERED_BYTES = 5 * 1024 * 1024;
+
+  private static final int MAGIC_NUMBER_START = DefaultImageHeaderParser.EXIF_MAGIC_NUMBER >> 8;
+  private static final int MAGIC_NUMBER_END = DefaultImageHeaderParser.EXIF_MAGIC_NUMBER & 0xFF;
+  private static final int SEGMENT_SOF0 = 0xC0;
+  private static final int SEGMENT_SOF2 = 0xC2;
+  private static final int SEGMENT_DHT = 0xC4;
+  private static final int SEGMENT_JPG = 0xC8;
+  private static final int SEGMENT_DAC = 0xCC;
+  private static final int SEGMENT_SOF15 = 0xCF;
+  private static final int MARKER_RST0 = 0xD0;
+  private static final int MARKER_RST7 = 0xD7;
+  private static final int MARKER_TEM = 0x01;
+  private static final int STUFFED_ZERO = 0x00;
+
+  private static final int STATE_MAGIC_NUMBER_START = 0;
+  private static final int STATE_MAGIC_NUMBER_END = 1;
+  private static final int STATE_SEGMENT_ID = 2;
+  private static final int STATE_SEGMENT_TYPE = 3;
+  private static final int STATE_SEGMENT_LENGTH_START = 4;
+  private static final int STATE_SEGMENT_LENGTH_END = 5;
+  private static final int STATE_SKIP_SEGMENT = 6;
+  private static final int STATE_SCAN = 7;
+  private static final int STATE_SCAN_MARKER = 8;
+  private static final int STATE_DONE = 9;
+
+  /** Called when the bytes read so far contain one or more complete scans of the image. */
+  interface ScanListener {
+
+    /**
+     * Called with the bytes of the image up to the end of the last complete scan.
+     *
+     * <p>The bytes must not be modified or kept after this method returns.
+     */
+    void onScansRead(@NonNull byte[] data, int length);
+  }
+
+  private final ArrayPool byteArrayPool;
+  private final ScanListener listener;
+  private final byte[] singleByte = new byte[1];
+  @Nullable private byte[] data;
+  private int length;
+  private int state = STATE_MAGIC_NUMBER_START;
+  private boolean isProgressive;
+  private boolean isScanHeader;
+  private int segmentLength;
+  private int bytesToSkip;
+  private int markerPosition;
+  private int lastReportedLength;
+
+  ProgressiveJpegInputStream(
+      @NonNull InputStream in,
+      @NonNull ArrayPool byteArrayPool,
+      @NonNull ScanListener listener) {
+    super(in);
+    this.byteArrayPool = byteArrayPool;
+    this.listener = listener;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int result = super.read();
+    if (result != -1 && state != STATE_DONE) {
+      singleByte[0] = (byte) result;
+      copyAndParse(singleByte, 0, 1);
+    }
+    return result;
+  }
+
+  @Override
+  public int read(@NonNull byte[] buffer, int byteOffset, int byteCount) throws IOException {
+    int result = super.read(buffer, byteOffset, byteCount);
+    if (result > 0 && state != STATE_DONE) {
+      copyAndParse(buffer, byteOffset, result);
+    }
+    return result;
+  }
+
+  @Override
+  public long skip(long byteCount) throws IOException {
+    if (byteCount <= 0) {
+      return 0;
+    }
+    int toRead = (int) Math.min(byteCount, ArrayPool.STANDARD_BUFFER_SIZE_BYTES);
+    if (state == STATE_DONE || !ensureCapacity(toRead)) {
+      return super.skip(byteCount);
+    }
+    int read = in.read(data, length, toRead);
+    if (read > 0) {
+      int start = length;
+      length += read;
+      parse(start);
+    }
+    return Math.max(read, 0);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    // Not supported.
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  private void copyAndParse(byte[] buffer, int offset, int count) {
+    if (ensureCapacity(count)) {
+      System.arraycopy(buffer, offset, data, length, count);
+      int start = length;
+      length += count;
+      parse(start);
+    }
+  }
+
+  private boolean ensureCapacity(int count) {
+    if (length + count > MAX_BUFFERED_BYTES) {
+      release();
+      return false;
+    }
+    if (data == null) {
+      data = byteArrayPool.get(Math.max(count, ArrayPool.STANDARD_BUFFER_SIZE_BYTES), byte[].class);
+    } else if (length + count > data.length) {
+      byte[] grown =
+          byteArrayPool.get(
+              Math.min(MAX_BUFFERED_BYTES, Math.max(length + count, data.length * 2)),
+              byte[].class);
+      System.arraycopy(data, 0, grown, 0, length);
+      byteArrayPool.put(data);
+      data = grown;
+    }
+    return true;
+  }
+
+  private void parse(int start) {
+    int i = start;
+    while (i < length && state != STATE_DONE) {
+      if (state == STATE_SKIP_SEGMENT) {
+        int skipped = Math.min(bytesToSkip, length - i);
+        bytesToSkip -= skipped;
+        i += skipped;
+        if (bytesToSkip == 0) {
+          state = isScanHeader ? STATE_SCAN : STATE_SEGMENT_ID;
+        }
+      } else if (state == STATE_SCAN) {
+        // Scans are most of the image, so look for the next marker without a state per byte.
+        while (i < length && data[i] != (byte) DefaultImageHeaderParser.SEGMENT_START_ID) {
+          i++;
+        }
+        if (i < length) {
+          markerPosition = i++;
+          state = STATE_SCAN_MARKER;
+        }
+      } else {
+        parseByte(data[i++] & 0xFF);
+      }
+    }
+  }
+
+  private void parseByte(int value) {
+    switch (state) {
+      case STATE_MAGIC_NUMBER_START:
+        state = value == MAGIC_NUMBER_START ? STATE_MAGIC_NUMBER_END : STATE_DONE;
+        break;
+      case STATE_MAGIC_NUMBER_END:
+        state = value == MAGIC_NUMBER_END ? STATE_SEGMENT_ID : STATE_DONE;
+        break;
+      case STATE_SEGMENT_ID:
+        state =
+            value == DefaultImageHeaderParser.SEGMENT_START_ID ? STATE_SEGMENT_TYPE : STATE_DONE;
+        break;
+      case STATE_SEGMENT_TYPE:
+        parseSegmentType(value);
+        break;
+      case STATE_SEGMENT_LENGTH_START:
+        segmentLength = value << 8;
+        state = STATE_SEGMENT_LENGTH_END;
+        break;
+      case STATE_SEGMENT_LENGTH_END:
+        // A segment's length includes the bytes that specify its length.
+        int segmentContentsLength = (segmentLength | value) - 2;
+        if (segmentContentsLength < 0) {
+          state = STATE_DONE;
+        } else if (segmentContentsLength == 0) {
+          state = isScanHeader ? STATE_SCAN : STATE_SEGMENT_ID;
+        } else {
+          bytesToSkip = segmentContentsLength;
+          state = STATE_SKIP_SEGMENT;
+        }
+        break;
+      case STATE_SCAN_MARKER:
+        if (value == STUFFED_ZERO || (value >= MARKER_RST0 && value <= MARKER_RST7)) {
+          // Part of the scan.
+          state = STATE_SCAN;
+        } else if (value != DefaultImageHeaderParser.SEGMENT_START_ID) {
+          // Any other marker ends the scan. Fill bytes before the marker are ignored.
+          if (value != DefaultImageHeaderParser.MARKER_EOI) {
+            onScanRead(markerPosition);
+          }
+          parseSegmentType(value);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unexpected state: " + state);
+    }
+  }
+
+  private void parseSegmentType(int value) {
+    isScanHeader = false;
+    if (value == DefaultImageHeaderParser.SEGMENT_START_ID) {
+      // A fill byte, the segment type follows.
+      state = STATE_SEGMENT_TYPE;
+    } else if (value == DefaultImageHeaderParser.MARKER_EOI) {
+      release();
+    } else if (value == SEGMENT_SOF2) {
+      isProgressive = true;
+      state = STATE_SEGMENT_LENGTH_START;
+    } else if (isOtherStartOfFrame(value)) {
+      // Sequential and lossless images are decoded top to bottom, there's nothing to preview.
+      release();
+    } else if (value == DefaultImageHeaderParser.SEGMENT_SOS) {
+      if (isProgressive) {
+        isScanHeader = true;
+        state = STATE_SEGMENT_LENGTH_START;
+      } else {
+        release();
+      }
+    } else if (value == MARKER_TEM || (value >= MARKER_RST0 && value <= MARKER_RST7)) {
+      // Markers without a length.
+      state = STATE_SEGMENT_ID;
+    } else {
+      state = STATE_SEGMENT_LENGTH_START;
+    }
+  }
+
+  private static boolean isOtherStartOfFrame(int value) {
+    return value >= SEGMENT_SOF0
+        && value <= SEGMENT_SOF15
+        && value != SEGMENT_SOF2
+        && value != SEGMENT_DHT
+        && value != SEGMENT_JPG
+        && value != SEGMENT_DAC;
+  }
+
+  private void onScanRead(int scansLength) {
+    if (scansLength >= 2 * lastReportedLength) {
+      lastReportedLength = scansLength;
+      listener.onScansRead(data, scansLength);
+    }
+  }
+
+  /** Stops copying bytes and returns any buffers used to the pool. */
+  void release() {
+    state = STATE_DONE;
+    if (data != null) {
+      byteArrayPool.put(data);
+      data = null;
+    }
+  }
+}
@@ -20,9 +20,12 @@ package com.bumptech.glide.load.resource.bitmap;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.util.FileChannelUtil;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * Wraps an existing {@link InputStream} and <em>buffers</em> the input. Expensive interaction with
@@ -112,6 +115,37 @@ public class RecyclableBufferedInputStream extends FilterInputStream {
     }
   }
 
+  /**
+   * Writes the unread contents of this stream to {@code target} without copying data that has not
+   * been buffered yet through Java, if the wrapped stream reads from a file.
+   *
+   * <p>Unlike reading, this does not change the position of this stream, so a subsequent {@link
+   * #reset()} behaves as if this method was never called.
+   *
+   * @return {@code true} if the remaining data was written, or {@code false} if the wrapped stream
+   *     doesn't read from a file and the caller must copy the data by reading this stream instead.
+   * @throws IOException if this stream is closed or the data could not be written.
+   * @see FileChannelUtil#getReadableFileChannel(InputStream)
+   */
+  public synchronized boolean transferRemainingTo(@NonNull FileChannel target) throws IOException {
+    // Use local refs since buf and in may be invalidated by an unsynchronized close()
+    byte[] localBuf = buf;
+    InputStream localIn = in;
+    if (localBuf == null || localIn == null) {
+      throw streamClosed();
+    }
+    FileChannel source = FileChannelUtil.getReadableFileChannel(localIn);
+    if (source == null) {
+      return false;
+    }
+    ByteBuffer buffered = ByteBuffer.wrap(localBuf, pos, count - pos);
+    while (buffered.hasRemaining()) {
+      target.write(buffered);
+    }
+    FileChannelUtil.transferRemaining(source, target);
+    return true;
+  }
+
   /**
    * Closes this stream. The source stream is closed and any resources associated with it are
    * released.
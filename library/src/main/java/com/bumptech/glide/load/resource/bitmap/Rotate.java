@@ -22,6 +22,10 @@ public class Rotate extends BitmapTransformation {
     this.degreesToRotate = degreesToRotate;
   }
 
+  int getDegreesToRotate() {
+    return degreesToRotate;
+  }
+
   @Override
   protected Bitmap transform(
       @NonNull BitmapPool pool, @NonNull Bitmap toTransform, int outWidth, int outHeight) {
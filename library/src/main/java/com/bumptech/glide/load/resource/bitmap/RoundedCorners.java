@@ -24,6 +24,10 @@ public final class RoundedCorners extends BitmapTransformation {
     this.roundingRadius = roundingRadius;
   }
 
+  int getRoundingRadius() {
+    return roundingRadius;
+  }
+
   @Override
   protected Bitmap transform(
       @NonNull BitmapPool pool, @NonNull Bitmap toTransform, int outWidth, int outHeight) {
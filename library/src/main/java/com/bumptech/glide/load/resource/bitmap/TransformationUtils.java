@@ -420,7 +420,7 @@ public final class TransformationUtils {
   }
 
   @NonNull
-  private static Config getAlphaSafeConfig(@NonNull Bitmap inBitmap) {
+  static Config getAlphaSafeConfig(@NonNull Bitmap inBitmap) {
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
       // Avoid short circuiting the sdk check.
       if (Bitmap.Config.RGBA_F16.equals(inBitmap.getConfig())) { // NOPMD
@@ -568,7 +568,7 @@ public final class TransformationUtils {
   }
 
   @NonNull
-  private static Bitmap.Config getNonNullConfig(@NonNull Bitmap bitmap) {
+  static Bitmap.Config getNonNullConfig(@NonNull Bitmap bitmap) {
     return bitmap.getConfig() != null ? bitmap.getConfig() : Bitmap.Config.ARGB_8888;
   }
 
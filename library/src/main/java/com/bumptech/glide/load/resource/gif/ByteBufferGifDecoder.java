@@ -12,6 +12,7 @@ import com.bumptech.glide.gifdecoder.GifHeader;
 import com.bumptech.glide.gifdecoder.GifHeaderParser;
 import com.bumptech.glide.gifdecoder.StandardGifDecoder;
 import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.ImageHeaderCache;
 import com.bumptech.glide.load.ImageHeaderParser;
 import com.bumptech.glide.load.ImageHeaderParser.ImageType;
 import com.bumptech.glide.load.ImageHeaderParserUtils;
@@ -42,6 +43,7 @@ public class ByteBufferGifDecoder implements ResourceDecoder<ByteBuffer, GifDraw
   private final GifHeaderParserPool parserPool;
   private final GifDecoderFactory gifDecoderFactory;
   private final GifBitmapProvider provider;
+  private final ArrayPool arrayPool;
 
   // Public API.
   @SuppressWarnings("unused")
@@ -73,13 +75,16 @@ public class ByteBufferGifDecoder implements ResourceDecoder<ByteBuffer, GifDraw
     this.parsers = parsers;
     this.gifDecoderFactory = gifDecoderFactory;
     this.provider = new GifBitmapProvider(bitmapPool, arrayPool);
+    this.arrayPool = arrayPool;
     this.parserPool = parserPool;
   }
 
   @Override
   public boolean handles(@NonNull ByteBuffer source, @NonNull Options options) throws IOException {
     return !options.get(GifOptions.DISABLE_ANIMATION)
-        && ImageHeaderParserUtils.getType(parsers, source) == ImageType.GIF;
+        && ImageHeaderParserUtils.getType(
+                parsers, source, arrayPool, options.get(ImageHeaderCache.OPTION))
+            == ImageType.GIF;
   }
 
   @Override
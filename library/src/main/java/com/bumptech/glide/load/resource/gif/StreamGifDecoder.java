@@ -2,6 +2,7 @@ package com.bumptech.glide.load.resource.gif;
 
 import android.util.Log;
 import androidx.annotation.NonNull;
+import com.bumptech.glide.load.ImageHeaderCache;
 import com.bumptech.glide.load.ImageHeaderParser;
 import com.bumptech.glide.load.ImageHeaderParser.ImageType;
 import com.bumptech.glide.load.ImageHeaderParserUtils;
@@ -39,7 +40,9 @@ public class StreamGifDecoder implements ResourceDecoder<InputStream, GifDrawabl
   @Override
   public boolean handles(@NonNull InputStream source, @NonNull Options options) throws IOException {
     return !options.get(GifOptions.DISABLE_ANIMATION)
-        && ImageHeaderParserUtils.getType(parsers, source, byteArrayPool) == ImageType.GIF;
+        && ImageHeaderParserUtils.getType(
+                parsers, source, byteArrayPool, options.get(ImageHeaderCache.OPTION))
+            == ImageType.GIF;
   }
 
   @Override
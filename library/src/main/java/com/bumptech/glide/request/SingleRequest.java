@@ -2,6 +2,8 @@ package com.bumptech.glide.request;
 
 import android.content.Context;
 import android.content.res.Resources.Theme;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.util.Log;
 import androidx.annotation.DrawableRes;
@@ -12,12 +14,14 @@ import com.bumptech.glide.GlideBuilder.LogRequestOrigins;
 import com.bumptech.glide.GlideContext;
 import com.bumptech.glide.Priority;
 import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.PreviewCallback;
 import com.bumptech.glide.load.engine.Engine;
 import com.bumptech.glide.load.engine.GlideException;
 import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.load.resource.drawable.DrawableDecoderCompat;
 import com.bumptech.glide.request.target.SizeReadyCallback;
 import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.request.transition.NoTransition;
 import com.bumptech.glide.request.transition.Transition;
 import com.bumptech.glide.request.transition.TransitionFactory;
 import com.bumptech.glide.util.LogTime;
@@ -33,7 +37,8 @@ import java.util.concurrent.Executor;
  *
  * @param <R> The type of the resource that will be transcoded from the loaded resource.
  */
-public final class SingleRequest<R> implements Request, SizeReadyCallback, ResourceCallback {
+public final class SingleRequest<R>
+    implements Request, SizeReadyCallback, ResourceCallback, PreviewCallback {
   /** Tag for logging internal events, not generally suitable for public use. */
   private static final String TAG = "GlideRequest";
   /** Tag for logging externally useful events (request completion, timing etc). */
@@ -673,6 +678,42 @@ public final class SingleRequest<R> implements Request, SizeReadyCallback, Resou
     GlideTrace.endSectionAsync(TAG, cookie);
   }
 
+  /**
+   * A callback method that should never be invoked directly.
+   *
+   * <p>Shows the preview in the {@link Target} if it can hold a {@link Bitmap} or {@link
+   * BitmapDrawable} and the request is still waiting for its resource. Previews aren't
+   * transformed, so they're only shown if the request has no transformations other than scaling,
+   * and {@link RequestListener}s aren't notified of them.
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public void onPreview(@NonNull Bitmap preview) {
+    stateVerifier.throwIfRecycled();
+    synchronized (requestLock) {
+      if (status != Status.RUNNING
+          || !canSetResource()
+          || !requestOptions.isScaleOnlyOrNoTransform()) {
+        return;
+      }
+      final R result;
+      if (transcodeClass.isAssignableFrom(Bitmap.class)) {
+        result = (R) preview;
+      } else if (transcodeClass.isAssignableFrom(BitmapDrawable.class)) {
+        result = (R) new BitmapDrawable(context.getResources(), preview);
+      } else {
+        return;
+      }
+
+      isCallingCallbacks = true;
+      try {
+        target.onResourceReady(result, NoTransition.<R>get());
+      } finally {
+        isCallingCallbacks = false;
+      }
+    }
+  }
+
   /** A callback method that should never be invoked directly. */
   @Override
   public void onLoadFailed(GlideException e) {
@@ -0,0 +1,180 @@
+package com.bumptech.glide.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An immutable snapshot of the hit, miss, put and eviction counts and the size of one of Glide's
+ * caches or pools, for example to report hit ratios from production.
+ *
+ * <p>Counts start at zero when the cache is created and are never reset. To measure a period of
+ * time, take a snapshot at the start and at the end and compare them. Counts are read one at a time
+ * without blocking the cache, so a snapshot taken during concurrent loads may be off by the
+ * operations that were in flight.
+ *
+ * <p>Sizes are in the units of the cache, bytes for all of Glide's default caches and pools.
+ *
+ * @see com.bumptech.glide.Glide#getStats()
+ */
+public final class CacheStats {
+  private final long hitCount;
+  private final long missCount;
+  private final long putCount;
+  private final long[] evictionCounts;
+  private final long currentSize;
+  private final long maxSize;
+
+  CacheStats(
+      long hitCount,
+      long missCount,
+      long putCount,
+      @NonNull long[] evictionCounts,
+      long currentSize,
+      long maxSize) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.putCount = putCount;
+    this.evictionCounts = evictionCounts;
+    this.currentSize = currentSize;
+    this.maxSize = maxSize;
+  }
+
+  /** Returns the number of lookups that found an item. */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /** Returns the number of lookups that didn't find an item. */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /** Returns the number of lookups. */
+  public long getLookupCount() {
+    return hitCount + missCount;
+  }
+
+  /** Returns the fraction of lookups that found an item, or 0 if there were none. */
+  public double getHitRate() {
+    long lookupCount = getLookupCount();
+    return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+  }
+
+  /**
+   * Returns the number of items that were added, including those rejected on arrival.
+   *
+   * <p>Rejected items are also counted as {@link EvictionCause#REJECTED} evictions, so subtract
+   * those to get the number of items that were accepted. The put counts that {@link
+   * com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool} kept before this class existed
+   * left out rejected bitmaps.
+   */
+  public long getPutCount() {
+    return putCount;
+  }
+
+  /** Returns the number of items that were evicted or rejected, for any cause. */
+  public long getEvictionCount() {
+    long result = 0;
+    for (long count : evictionCounts) {
+      result += count;
+    }
+    return result;
+  }
+
+  /** Returns the number of items that were evicted or rejected for the given cause. */
+  public long getEvictionCount(@NonNull EvictionCause cause) {
+    return evictionCounts[cause.ordinal()];
+  }
+
+  /** Returns the current size of the cache. */
+  public long getCurrentSize() {
+    return currentSize;
+  }
+
+  /** Returns the current maximum size of the cache. */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns a copy of these stats with the given lookups added, for caches that satisfy some
+   * lookups themselves before passing the rest on to the cache these stats are for.
+   */
+  @NonNull
+  public CacheStats plusLookups(long additionalHitCount, long additionalMissCount) {
+    return new CacheStats(
+        hitCount + additionalHitCount,
+        missCount + additionalMissCount,
+        putCount,
+        evictionCounts,
+        currentSize,
+        maxSize);
+  }
+
+  /**
+   * Returns a copy of these stats with the given sizes, for caches that hold some items themselves
+   * in front of the cache these stats are for.
+   */
+  @NonNull
+  public CacheStats withSizes(long currentSize, long maxSize) {
+    return new CacheStats(hitCount, missCount, putCount, evictionCounts, currentSize, maxSize);
+  }
+
+  /**
+   * Returns a copy of these stats with the given number of evictions added, for caches that evict
+   * items on their own rather than through the code that records these stats.
+   */
+  @NonNull
+  public CacheStats plusEvictions(@NonNull EvictionCause cause, long additionalEvictionCount) {
+    long[] evictions = evictionCounts.clone();
+    evictions[cause.ordinal()] += additionalEvictionCount;
+    return new CacheStats(hitCount, missCount, putCount, evictions, currentSize, maxSize);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    StringBuilder result =
+        new StringBuilder("CacheStats{")
+            .append("hits=")
+            .append(hitCount)
+            .append(", misses=")
+            .append(missCount)
+            .append(", puts=")
+            .append(putCount);
+    for (EvictionCause cause : EvictionCause.values()) {
+      result.append(", evictions[").append(cause).append("]=").append(getEvictionCount(cause));
+    }
+    return result
+        .append(", currentSize=")
+        .append(currentSize)
+        .append(", maxSize=")
+        .append(maxSize)
+        .append('}')
+        .toString();
+  }
+
+  /** The reasons an item may leave a cache other than being looked up and removed. */
+  public enum EvictionCause {
+    /** The item was evicted to keep the cache below its maximum size. */
+    SIZE,
+    /** The item was evicted because memory was cleared or trimmed. */
+    TRIM,
+    /** The item was evicted because it hadn't been used for longer than the cache allows. */
+    EXPIRED,
+    /** The item was replaced by a different item with the same key. */
+    REPLACED,
+    /**
+     * The item was never added, for example because it was too large, was in an unsupported format
+     * or wasn't admitted by the cache's policy.
+     */
+    REJECTED
+  }
+
+  /** Implemented by caches and pools that keep {@link CacheStats}. */
+  public interface Provider {
+
+    /** Returns a snapshot of the current stats. */
+    @NonNull
+    CacheStats getStats();
+  }
+}
@@ -0,0 +1,73 @@
+package com.bumptech.glide.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Records the counts reported in {@link CacheStats} with {@link StripedCounter}s, so that recording
+ * is cheap enough to leave on in production and never takes a lock of its own.
+ */
+public final class CacheStatsRecorder {
+  private final StripedCounter hitCount = new StripedCounter();
+  private final StripedCounter missCount = new StripedCounter();
+  private final StripedCounter putCount = new StripedCounter();
+  private final StripedCounter[] evictionCounts =
+      new StripedCounter[CacheStats.EvictionCause.values().length];
+
+  public CacheStatsRecorder() {
+    for (int i = 0; i < evictionCounts.length; i++) {
+      evictionCounts[i] = new StripedCounter();
+    }
+  }
+
+  /** Records a lookup that found an item if {@code isHit} is true, or one that didn't otherwise. */
+  public void recordLookup(boolean isHit) {
+    if (isHit) {
+      hitCount.increment();
+    } else {
+      missCount.increment();
+    }
+  }
+
+  public void recordPut() {
+    putCount.increment();
+  }
+
+  public void recordEviction(@NonNull CacheStats.EvictionCause cause) {
+    evictionCounts[cause.ordinal()].increment();
+  }
+
+  public void recordEvictions(@NonNull CacheStats.EvictionCause cause, long count) {
+    evictionCounts[cause.ordinal()].add(count);
+  }
+
+  /** Returns the number of lookups that found an item. */
+  public long hitCount() {
+    return hitCount.sum();
+  }
+
+  /** Returns the number of lookups that didn't find an item. */
+  public long missCount() {
+    return missCount.sum();
+  }
+
+  /** Returns the number of items removed for the given cause. */
+  public long evictionCount(@NonNull CacheStats.EvictionCause cause) {
+    return evictionCounts[cause.ordinal()].sum();
+  }
+
+  /**
+   * Returns a snapshot of the recorded counts.
+   *
+   * @param currentSize The current size of the cache.
+   * @param maxSize The current maximum size of the cache.
+   */
+  @NonNull
+  public CacheStats snapshot(long currentSize, long maxSize) {
+    long[] evictions = new long[evictionCounts.length];
+    for (int i = 0; i < evictions.length; i++) {
+      evictions[i] = evictionCounts[i].sum();
+    }
+    return new CacheStats(
+        hitCount.sum(), missCount.sum(), putCount.sum(), evictions, currentSize, maxSize);
+  }
+}
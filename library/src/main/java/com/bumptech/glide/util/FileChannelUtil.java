@@ -0,0 +1,65 @@
+package com.bumptech.glide.util;
+
+import android.os.ParcelFileDescriptor;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+
+/** Utilities for copying data between files without reading it into a Java buffer. */
+public final class FileChannelUtil {
+
+  private FileChannelUtil() {
+    // Utility class.
+  }
+
+  /**
+   * Returns the {@link FileChannel} backing the given stream if the stream reads from a regular
+   * file that has data left to read at the stream's current position, or {@code null} otherwise.
+   *
+   * <p>Streams over pipes and sockets, which are common for content {@link android.net.Uri}s,
+   * return {@code null} because their size can't be determined up front. Subclasses of {@link
+   * FileInputStream} also return {@code null} because they may only expose part of the file, as
+   * {@link android.content.res.AssetFileDescriptor}'s streams do.
+   */
+  @Nullable
+  public static FileChannel getReadableFileChannel(@NonNull InputStream is) {
+    Class<?> streamClass = is.getClass();
+    if (streamClass != FileInputStream.class
+        && streamClass != ParcelFileDescriptor.AutoCloseInputStream.class) {
+      return null;
+    }
+    FileChannel channel = ((FileInputStream) is).getChannel();
+    try {
+      // Pipes throw when seeking and report a size of 0.
+      long position = channel.position();
+      long size = channel.size();
+      return size > 0 && position <= size ? channel : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes all data from {@code source}'s current position to its end to {@code target}.
+   *
+   * <p>Uses {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+   * which lets the OS copy the data without passing it through user space where supported. The
+   * position of {@code source} is not changed.
+   */
+  public static void transferRemaining(@NonNull FileChannel source, @NonNull FileChannel target)
+      throws IOException {
+    long position = source.position();
+    long size = source.size();
+    while (position < size) {
+      long transferred = source.transferTo(position, size - position, target);
+      if (transferred <= 0) {
+        throw new IOException(
+            "Failed to transfer file, position: " + position + ", size: " + size);
+      }
+      position += transferred;
+    }
+  }
+}
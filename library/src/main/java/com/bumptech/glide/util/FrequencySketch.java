@@ -0,0 +1,113 @@
+package com.bumptech.glide.util;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A probabilistic estimate of how often items have been seen recently, implemented as a count-min
+ * sketch with 4-bit counters.
+ *
+ * <p>Each item increments four counters picked by independent hashes and its frequency is the
+ * minimum of those counters, so estimates may be too high because of collisions, but are never too
+ * low. Once the number of increments reaches ten times the width of the sketch, every counter is
+ * halved so that items that were popular a long time ago gradually lose their weight.
+ *
+ * <p>This class is not thread safe, callers must synchronize access.
+ *
+ * @param <T> The type of the items to count.
+ */
+public final class FrequencySketch<T> {
+  private static final long[] SEEDS =
+      new long[] {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+      };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MIN_WIDTH = 16;
+  private static final int MAX_COUNT = 15;
+  private static final int SAMPLE_SIZE_MULTIPLIER = 10;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  /**
+   * Constructor for FrequencySketch.
+   *
+   * @param expectedItems The expected number of distinct items that will be tracked at once,
+   *     usually the maximum number of entries in the cache this sketch is guarding.
+   */
+  public FrequencySketch(int expectedItems) {
+    int width = Math.max(MIN_WIDTH, expectedItems);
+    width = Integer.highestOneBit(width - 1) << 1;
+    table = new long[width];
+    tableMask = width - 1;
+    sampleSize = SAMPLE_SIZE_MULTIPLIER * width;
+  }
+
+  /** Returns the estimated number of times the given item has been seen, at most 15. */
+  public int frequency(@NonNull T item) {
+    int hash = spread(item.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int offset = (start + i) << 2;
+      int count = (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Records an occurrence of the given item, aging all items periodically. */
+  public void increment(@NonNull T item) {
+    int hash = spread(item.hashCode());
+    int start = (hash & 3) << 2;
+    boolean isAdded = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      isAdded |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (isAdded && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  /** Forgets all recorded occurrences. */
+  public void clear() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = 0;
+    }
+    size = 0;
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** Halves every counter, discarding the remainders that were lost from the sample size. */
+  private void reset() {
+    int oddCount = 0;
+    for (int i = 0; i < table.length; i++) {
+      oddCount += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (oddCount >>> 2);
+  }
+
+  private int indexOf(int hash, int depth) {
+    long result = (hash + SEEDS[depth]) * SEEDS[depth];
+    result += result >>> 32;
+    return ((int) result) & tableMask;
+  }
+
+  private static int spread(int hash) {
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    return (hash >>> 16) ^ hash;
+  }
+}
@@ -11,14 +11,17 @@ import java.util.Map;
  * item is assumed to have a size of one. Subclasses can override {@link #getSize(Object)}} to
  * change the size on a per item basis.
  *
+ * <p>Lookups via {@link #get(Object)}, puts and evictions are counted, see {@link #getStats()}.
+ *
  * @param <T> The type of the keys.
  * @param <Y> The type of the values.
  */
-public class LruCache<T, Y> {
+public class LruCache<T, Y> implements CacheStats.Provider {
   private final Map<T, Entry<Y>> cache = new LinkedHashMap<>(100, 0.75f, true);
   private final long initialMaxSize;
   private long maxSize;
   private long currentSize;
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
 
   /**
    * Constructor for LruCache.
@@ -46,6 +49,18 @@ public class LruCache<T, Y> {
     evict();
   }
 
+  @NonNull
+  @Override
+  public synchronized CacheStats getStats() {
+    return stats.snapshot(currentSize, maxSize);
+  }
+
+  /** Returns the recorder for this cache's stats, for subclasses that count their own lookups. */
+  @NonNull
+  protected final CacheStatsRecorder getStatsRecorder() {
+    return stats;
+  }
+
   /**
    * Returns the size of a given item, defaulting to one. The units must match those used in the
    * size passed in to the constructor. Subclasses can override this method to return sizes in
@@ -91,6 +106,17 @@ public class LruCache<T, Y> {
     return cache.containsKey(key);
   }
 
+  /**
+   * Returns the key of the item that will be evicted next, or null if the cache is empty.
+   *
+   * <p>Does not count as an access of that item.
+   */
+  @Nullable
+  protected synchronized T getLeastRecentlyUsedKey() {
+    Iterator<T> iterator = cache.keySet().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
   /**
    * Returns the item in the cache for the given key or null if no such item exists.
    *
@@ -99,6 +125,7 @@ public class LruCache<T, Y> {
   @Nullable
   public synchronized Y get(@NonNull T key) {
     Entry<Y> entry = cache.get(key);
+    stats.recordLookup(entry != null);
     return entry != null ? entry.value : null;
   }
 
@@ -128,8 +155,10 @@ public class LruCache<T, Y> {
    */
   @Nullable
   public synchronized Y put(@NonNull T key, @Nullable Y item) {
+    stats.recordPut();
     final int itemSize = getSize(item);
     if (itemSize >= maxSize) {
+      stats.recordEviction(CacheStats.EvictionCause.REJECTED);
       onItemEvicted(key, item);
       return null;
     }
@@ -142,6 +171,7 @@ public class LruCache<T, Y> {
       currentSize -= old.size;
 
       if (!old.value.equals(item)) {
+        stats.recordEviction(CacheStats.EvictionCause.REPLACED);
         onItemEvicted(key, old.value);
       }
     }
@@ -177,6 +207,10 @@ public class LruCache<T, Y> {
    * @param size The size the cache should be less than.
    */
   protected synchronized void trimToSize(long size) {
+    trimToSize(size, CacheStats.EvictionCause.TRIM);
+  }
+
+  private void trimToSize(long size, CacheStats.EvictionCause cause) {
     Map.Entry<T, Entry<Y>> last;
     Iterator<Map.Entry<T, Entry<Y>>> cacheIterator;
     while (currentSize > size) {
@@ -186,12 +220,13 @@ public class LruCache<T, Y> {
       currentSize -= toRemove.size;
       final T key = last.getKey();
       cacheIterator.remove();
+      stats.recordEviction(cause);
       onItemEvicted(key, toRemove.value);
     }
   }
 
   private void evict() {
-    trimToSize(maxSize);
+    trimToSize(maxSize, CacheStats.EvictionCause.SIZE);
   }
 
   @Synthetic
@@ -0,0 +1,55 @@
+package com.bumptech.glide.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads its increments across a few cells so that threads updating it at the
+ * same time rarely contend, similar to {@code java.util.concurrent.atomic.LongAdder}, which isn't
+ * available on all of the API levels Glide supports.
+ *
+ * <p>Each thread always updates the same cell, picked from its id. Cells are spaced a cache line
+ * apart so that threads updating different cells don't invalidate each other's caches. {@link
+ * #sum()} adds up all of the cells without blocking updates, so it's not an atomic snapshot if the
+ * counter is updated concurrently.
+ */
+public final class StripedCounter {
+  /** Longs per 64 byte cache line. */
+  private static final int CELL_SPACING = 8;
+
+  private static final int MAX_CELL_COUNT = 8;
+
+  private final AtomicLongArray cells;
+  private final int cellMask;
+
+  public StripedCounter() {
+    int cellCount =
+        Integer.highestOneBit(
+            Math.min(MAX_CELL_COUNT, Runtime.getRuntime().availableProcessors() * 2 - 1));
+    cellMask = cellCount - 1;
+    cells = new AtomicLongArray(cellCount * CELL_SPACING);
+  }
+
+  /** Adds one to the counter. */
+  public void increment() {
+    add(1);
+  }
+
+  /** Adds the given value, which may be negative, to the counter. */
+  public void add(long delta) {
+    cells.getAndAdd(((int) Thread.currentThread().getId() & cellMask) * CELL_SPACING, delta);
+  }
+
+  /** Returns the sum of all values added to the counter. */
+  public long sum() {
+    long result = 0;
+    for (int i = 0; i < cells.length(); i += CELL_SPACING) {
+      result += cells.get(i);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return Long.toString(sum());
+  }
+}
@@ -0,0 +1,353 @@
+package com.bumptech.glide.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size limited cache that evicts items using an LRU algorithm, like {@link LruCache}, but that
+ * splits its entries across a number of independently locked segments so that concurrent reads
+ * and writes for different keys rarely contend with each other.
+ *
+ * <p>Each segment keeps its entries in access order and every access stamps the entry with a value
+ * from a shared counter. The least recently used entry in the cache is therefore always the eldest
+ * entry in one of the segments. Evictions compare the eldest entries of each segment and remove the
+ * oldest, so the eviction order matches {@link LruCache} except when accesses race with evictions.
+ *
+ * <p>Unlike {@link LruCache}, {@link #put(Object, Object)} with a {@code null} item is equivalent
+ * to {@link #remove(Object)}, except that {@link #onItemEvicted(Object, Object)} is called for any
+ * existing item.
+ *
+ * <p>Lookups via {@link #get(Object)}, puts and evictions are counted, see {@link #getStats()}.
+ *
+ * @param <T> The type of the keys.
+ * @param <Y> The type of the values.
+ */
+public class StripedLruCache<T, Y> implements CacheStats.Provider {
+  /** The default number of segments, enough to avoid most contention on current devices. */
+  public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+  private final Segment<T, Y>[] segments;
+  private final int segmentMask;
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong currentSize = new AtomicLong();
+  private final Object evictionLock = new Object();
+  private final CacheStatsRecorder stats = new CacheStatsRecorder();
+  private final long initialMaxSize;
+  private volatile long maxSize;
+
+  /**
+   * Constructor for StripedLruCache that uses {@link #DEFAULT_CONCURRENCY_LEVEL} segments.
+   *
+   * @param size The maximum size of the cache, the units must match the units used in {@link
+   *     #getSize(Object)}.
+   */
+  public StripedLruCache(long size) {
+    this(size, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Constructor for StripedLruCache.
+   *
+   * @param size The maximum size of the cache, the units must match the units used in {@link
+   *     #getSize(Object)}.
+   * @param concurrencyLevel The expected number of threads accessing the cache concurrently,
+   *     rounded up to the next power of two to determine the number of segments.
+   */
+  @SuppressWarnings("unchecked")
+  public StripedLruCache(long size, int concurrencyLevel) {
+    if (concurrencyLevel <= 0) {
+      throw new IllegalArgumentException("Concurrency level must be > 0");
+    }
+    this.initialMaxSize = size;
+    this.maxSize = size;
+    int segmentCount = Integer.highestOneBit(concurrencyLevel);
+    if (segmentCount < concurrencyLevel) {
+      segmentCount <<= 1;
+    }
+    segmentMask = segmentCount - 1;
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(currentSize);
+    }
+  }
+
+  /**
+   * Sets a size multiplier that will be applied to the size provided in the constructor to put the
+   * new size of the cache. If the new size is less than the current size, entries will be evicted
+   * until the current size is less than or equal to the new size.
+   *
+   * @param multiplier The multiplier to apply.
+   */
+  public void setSizeMultiplier(float multiplier) {
+    if (multiplier < 0) {
+      throw new IllegalArgumentException("Multiplier must be >= 0");
+    }
+    synchronized (evictionLock) {
+      maxSize = Math.round(initialMaxSize * multiplier);
+      evict();
+    }
+  }
+
+  @NonNull
+  @Override
+  public CacheStats getStats() {
+    return stats.snapshot(currentSize.get(), maxSize);
+  }
+
+  /** Returns the recorder for this cache's stats, for subclasses that count their own lookups. */
+  @NonNull
+  protected final CacheStatsRecorder getStatsRecorder() {
+    return stats;
+  }
+
+  /**
+   * Returns the size of a given item, defaulting to one. The units must match those used in the
+   * size passed in to the constructor. Subclasses can override this method to return sizes in
+   * various units, usually bytes.
+   *
+   * <p>This method may be called concurrently from multiple threads.
+   *
+   * @param item The item to get the size of.
+   */
+  protected int getSize(@Nullable Y item) {
+    return 1;
+  }
+
+  /** Returns the number of entries stored in cache. */
+  protected int getCount() {
+    int count = 0;
+    for (Segment<T, Y> segment : segments) {
+      count += segment.size();
+    }
+    return count;
+  }
+
+  /**
+   * A callback called whenever an item is evicted from the cache. Subclasses can override.
+   *
+   * <p>This method is never called while a segment lock is held, but evictions are serialized so
+   * that at most one thread calls this method at a time for items evicted due to size.
+   *
+   * @param key The key of the evicted item.
+   * @param item The evicted item.
+   */
+  protected void onItemEvicted(@NonNull T key, @Nullable Y item) {
+    // optional override
+  }
+
+  /** Returns the current maximum size of the cache in bytes. */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  /** Returns the sum of the sizes of all items in the cache. */
+  public long getCurrentSize() {
+    return currentSize.get();
+  }
+
+  /**
+   * Returns true if there is a value for the given key in the cache.
+   *
+   * @param key The key to check.
+   */
+  public boolean contains(@NonNull T key) {
+    return segmentFor(key).contains(key);
+  }
+
+  /**
+   * Returns the item in the cache for the given key or null if no such item exists.
+   *
+   * @param key The key to check.
+   */
+  @Nullable
+  public Y get(@NonNull T key) {
+    Y result = segmentFor(key).get(key, clock);
+    stats.recordLookup(result != null);
+    return result;
+  }
+
+  /**
+   * Adds the given item to the cache with the given key and returns any previous entry for the
+   * given key that may have already been in the cache.
+   *
+   * <p>If the size of the item is larger than the total cache size, the item will not be added to
+   * the cache and instead {@link #onItemEvicted(Object, Object)} will be called synchronously with
+   * the given key and item.
+   *
+   * <p>The size of the item is determined by the {@link #getSize(Object)} method and is retained
+   * until the item is evicted, replaced or removed.
+   *
+   * @param key The key to add the item at.
+   * @param item The item to add.
+   */
+  @Nullable
+  public Y put(@NonNull T key, @Nullable Y item) {
+    stats.recordPut();
+    final int itemSize = getSize(item);
+    if (itemSize >= maxSize) {
+      stats.recordEviction(CacheStats.EvictionCause.REJECTED);
+      onItemEvicted(key, item);
+      return null;
+    }
+
+    @Nullable Entry<Y> old = segmentFor(key).put(key, item, itemSize, clock);
+    if (old != null && !old.value.equals(item)) {
+      stats.recordEviction(CacheStats.EvictionCause.REPLACED);
+      onItemEvicted(key, old.value);
+    }
+    if (currentSize.get() > maxSize) {
+      evict();
+    }
+
+    return old != null ? old.value : null;
+  }
+
+  /**
+   * Removes the item at the given key and returns the removed item if present, and null otherwise.
+   *
+   * @param key The key to remove the item at.
+   */
+  @Nullable
+  public Y remove(@NonNull T key) {
+    Entry<Y> entry = segmentFor(key).remove(key);
+    return entry != null ? entry.value : null;
+  }
+
+  /** Clears all items in the cache. */
+  public void clearMemory() {
+    trimToSize(0);
+  }
+
+  /**
+   * Removes the least recently used items from the cache until the current size is less than the
+   * given size.
+   *
+   * @param size The size the cache should be less than.
+   */
+  protected void trimToSize(long size) {
+    trimToSize(size, CacheStats.EvictionCause.TRIM);
+  }
+
+  private void trimToSize(long size, CacheStats.EvictionCause cause) {
+    synchronized (evictionLock) {
+      while (currentSize.get() > size) {
+        Segment<T, Y> victim = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Segment<T, Y> segment : segments) {
+          long eldestAccess = segment.getEldestAccess();
+          if (eldestAccess < oldestAccess) {
+            oldestAccess = eldestAccess;
+            victim = segment;
+          }
+        }
+        if (victim == null) {
+          break;
+        }
+        Map.Entry<T, Entry<Y>> removed = victim.removeEldest();
+        if (removed != null) {
+          stats.recordEviction(cause);
+          onItemEvicted(removed.getKey(), removed.getValue().value);
+        }
+      }
+    }
+  }
+
+  private void evict() {
+    trimToSize(maxSize, CacheStats.EvictionCause.SIZE);
+  }
+
+  private Segment<T, Y> segmentFor(@NonNull T key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & segmentMask];
+  }
+
+  /** A single access ordered map and the lock that guards it. */
+  private static final class Segment<T, Y> {
+    private final Map<T, Entry<Y>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong currentSize;
+
+    @Synthetic
+    Segment(AtomicLong currentSize) {
+      this.currentSize = currentSize;
+    }
+
+    synchronized int size() {
+      return map.size();
+    }
+
+    synchronized boolean contains(T key) {
+      return map.containsKey(key);
+    }
+
+    @Nullable
+    synchronized Y get(T key, AtomicLong clock) {
+      Entry<Y> entry = map.get(key);
+      if (entry == null) {
+        return null;
+      }
+      entry.lastAccess = clock.incrementAndGet();
+      return entry.value;
+    }
+
+    @Nullable
+    synchronized Entry<Y> put(T key, @Nullable Y item, int itemSize, AtomicLong clock) {
+      Entry<Y> old;
+      if (item == null) {
+        old = map.remove(key);
+      } else {
+        old = map.put(key, new Entry<>(item, itemSize, clock.incrementAndGet()));
+        currentSize.addAndGet(itemSize);
+      }
+      if (old != null) {
+        currentSize.addAndGet(-old.size);
+      }
+      return old;
+    }
+
+    @Nullable
+    synchronized Entry<Y> remove(T key) {
+      Entry<Y> entry = map.remove(key);
+      if (entry != null) {
+        currentSize.addAndGet(-entry.size);
+      }
+      return entry;
+    }
+
+    synchronized long getEldestAccess() {
+      if (map.isEmpty()) {
+        return Long.MAX_VALUE;
+      }
+      return map.values().iterator().next().lastAccess;
+    }
+
+    @Nullable
+    synchronized Map.Entry<T, Entry<Y>> removeEldest() {
+      Iterator<Map.Entry<T, Entry<Y>>> iterator = map.entrySet().iterator();
+      if (!iterator.hasNext()) {
+        return null;
+      }
+      Map.Entry<T, Entry<Y>> eldest = iterator.next();
+      iterator.remove();
+      currentSize.addAndGet(-eldest.getValue().size);
+      return eldest;
+    }
+  }
+
+  @Synthetic
+  static final class Entry<Y> {
+    final Y value;
+    final int size;
+    long lastAccess;
+
+    @Synthetic
+    Entry(Y value, int size, long lastAccess) {
+      this.value = value;
+      this.size = size;
+      this.lastAccess = lastAccess;
+    }
+  }
+}
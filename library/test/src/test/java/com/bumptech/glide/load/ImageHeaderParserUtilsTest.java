@@ -8,10 +8,14 @@ import android.os.ParcelFileDescriptor;
 import androidx.annotation.NonNull;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.bumptech.glide.load.ImageHeaderParser.ImageType;
 import com.bumptech.glide.load.data.ParcelFileDescriptorRewinder;
 import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
 import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.load.resource.bitmap.DefaultImageHeaderParser;
+import com.bumptech.glide.testutil.TestResourceUtil;
 import com.bumptech.glide.util.ByteBufferUtil;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -114,6 +118,99 @@ public class ImageHeaderParserUtilsTest {
     assertAllParsersReceivedTheSameData();
   }
 
+  @Test
+  public void getType_withCache_andStream_onlyReadsOnce() throws IOException {
+    ImageHeaderCache cache = new ImageHeaderCache();
+    InputStream is = new ByteArrayInputStream(expectedData);
+    ImageHeaderParserUtils.getType(parsers, is, lruArrayPool, cache);
+    assertAllParsersReceivedTheSameData();
+    clearParserData();
+
+    assertThat(ImageHeaderParserUtils.getType(parsers, is, lruArrayPool, cache))
+        .isEqualTo(ImageType.UNKNOWN);
+    assertNoParsersReceivedData();
+  }
+
+  @Test
+  public void getOrientation_withCache_andByteBuffer_onlyReadsOnce() throws IOException {
+    ImageHeaderCache cache = new ImageHeaderCache();
+    ByteBuffer buffer = ByteBuffer.wrap(expectedData);
+    ImageHeaderParserUtils.getOrientation(parsers, buffer, lruArrayPool, cache);
+    assertAllParsersReceivedTheSameData();
+    clearParserData();
+
+    assertThat(ImageHeaderParserUtils.getOrientation(parsers, buffer, lruArrayPool, cache))
+        .isEqualTo(ImageHeaderParser.UNKNOWN_ORIENTATION);
+    assertNoParsersReceivedData();
+  }
+
+  @Test
+  public void getType_withCache_andWrappingStream_usesCachedType() throws IOException {
+    ImageHeaderCache cache = new ImageHeaderCache();
+    InputStream is = new ByteArrayInputStream(expectedData);
+    ImageHeaderParserUtils.getType(parsers, is, lruArrayPool, cache);
+    clearParserData();
+
+    // Decoders often wrap the stream they're given, the cache still describes the same data.
+    assertThat(
+            ImageHeaderParserUtils.getType(
+                parsers, new BufferedInputStream(is), lruArrayPool, cache))
+        .isEqualTo(ImageType.UNKNOWN);
+    assertNoParsersReceivedData();
+  }
+
+  @Test
+  public void getType_withNewCache_readsAgain() throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(expectedData);
+    ImageHeaderParserUtils.getType(parsers, buffer, lruArrayPool, new ImageHeaderCache());
+    clearParserData();
+
+    ImageHeaderParserUtils.getType(parsers, buffer, lruArrayPool, new ImageHeaderCache());
+    assertAllParsersReceivedTheSameData();
+  }
+
+  @Test
+  public void getOrientation_withCache_andDefaultParser_cachesTypeFromTheSamePass()
+      throws IOException {
+    parsers.add(0, new DefaultImageHeaderParser());
+    ImageHeaderCache cache = new ImageHeaderCache();
+    ByteBuffer buffer =
+        ByteBufferUtil.fromStream(
+            TestResourceUtil.openResource(getClass(), "issue387_rotated_jpeg.jpg"));
+
+    assertThat(ImageHeaderParserUtils.getOrientation(parsers, buffer, lruArrayPool, cache))
+        .isEqualTo(6);
+    assertThat(ImageHeaderParserUtils.getType(parsers, buffer, lruArrayPool, cache))
+        .isEqualTo(ImageType.JPEG);
+    assertNoParsersReceivedData();
+  }
+
+  @Test
+  public void getType_withCache_andDefaultParser_cachesOrientationFromTheSamePass()
+      throws IOException {
+    parsers.add(0, new DefaultImageHeaderParser());
+    ImageHeaderCache cache = new ImageHeaderCache();
+    InputStream is = TestResourceUtil.openResource(getClass(), "issue387_rotated_jpeg.jpg");
+
+    assertThat(ImageHeaderParserUtils.getType(parsers, is, lruArrayPool, cache))
+        .isEqualTo(ImageType.JPEG);
+    assertThat(ImageHeaderParserUtils.getOrientation(parsers, is, lruArrayPool, cache))
+        .isEqualTo(6);
+    assertNoParsersReceivedData();
+  }
+
+  private void clearParserData() {
+    for (FakeImageHeaderParser parser : fakeParsers) {
+      parser.data = null;
+    }
+  }
+
+  private void assertNoParsersReceivedData() {
+    for (FakeImageHeaderParser parser : fakeParsers) {
+      assertThat(parser.data).isNull();
+    }
+  }
+
   private void assertAllParsersReceivedTheSameData() {
     for (FakeImageHeaderParser parser : fakeParsers) {
       assertThat(parser.data).isNotNull();
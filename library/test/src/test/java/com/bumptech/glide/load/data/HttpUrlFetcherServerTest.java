@@ -254,6 +254,95 @@ public class HttpUrlFetcherServerTest {
     assertThat(mockWebServer.takeRequest().getHeader(headerField)).isEqualTo(headerValue);
   }
 
+  @Test
+  public void testResumesWithRangeValidatedByIfRange() throws Exception {
+    mockWebServer.enqueue(
+        new MockResponse()
+            .setResponseCode(206)
+            .setHeader("Content-Range", "bytes 4-7/8")
+            .setHeader("ETag", "\"etag\"")
+            .setBody("data"));
+    HttpUrlFetcher fetcher = getFetcher();
+    fetcher.setResumePosition(4, "\"etag\"");
+
+    fetcher.loadData(Priority.HIGH, callback);
+
+    verify(callback).onDataReady(streamCaptor.capture());
+    TestUtil.assertStreamOf("data", streamCaptor.getValue());
+    assertThat(fetcher.getResumedPosition()).isEqualTo(4L);
+    assertThat(fetcher.getValidator()).isEqualTo("\"etag\"");
+    RecordedRequest request = mockWebServer.takeRequest();
+    assertThat(request.getHeader(HttpUrlFetcher.RANGE_HEADER_FIELD)).isEqualTo("bytes=4-");
+    assertThat(request.getHeader(HttpUrlFetcher.IF_RANGE_HEADER_FIELD)).isEqualTo("\"etag\"");
+  }
+
+  @Test
+  public void testResume_withChangedData_returnsAllData() throws Exception {
+    mockWebServer.enqueue(
+        new MockResponse().setResponseCode(200).setHeader("ETag", "\"new\"").setBody("fakedata"));
+    HttpUrlFetcher fetcher = getFetcher();
+    fetcher.setResumePosition(4, "\"old\"");
+
+    fetcher.loadData(Priority.HIGH, callback);
+
+    verify(callback).onDataReady(streamCaptor.capture());
+    TestUtil.assertStreamOf("fakedata", streamCaptor.getValue());
+    assertThat(fetcher.getResumedPosition()).isEqualTo(0L);
+    assertThat(fetcher.getValidator()).isEqualTo("\"new\"");
+  }
+
+  @Test
+  public void testResume_withUnexpectedRange_fetchesAllDataWithoutRange() throws Exception {
+    mockWebServer.enqueue(
+        new MockResponse()
+            .setResponseCode(206)
+            .setHeader("Content-Range", "bytes 2-7/8")
+            .setBody("kedata"));
+    mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("fakedata"));
+    HttpUrlFetcher fetcher = getFetcher();
+    fetcher.setResumePosition(4, "\"etag\"");
+
+    fetcher.loadData(Priority.HIGH, callback);
+
+    verify(callback).onDataReady(streamCaptor.capture());
+    TestUtil.assertStreamOf("fakedata", streamCaptor.getValue());
+    assertThat(fetcher.getResumedPosition()).isEqualTo(0L);
+    mockWebServer.takeRequest();
+    assertThat(mockWebServer.takeRequest().getHeader(HttpUrlFetcher.RANGE_HEADER_FIELD)).isNull();
+  }
+
+  @Test
+  public void testResume_withRangeNotSatisfiable_fetchesAllDataWithoutRange() throws Exception {
+    mockWebServer.enqueue(new MockResponse().setResponseCode(416));
+    mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("fakedata"));
+    HttpUrlFetcher fetcher = getFetcher();
+    fetcher.setResumePosition(8, "\"etag\"");
+
+    fetcher.loadData(Priority.HIGH, callback);
+
+    verify(callback).onDataReady(streamCaptor.capture());
+    TestUtil.assertStreamOf("fakedata", streamCaptor.getValue());
+    mockWebServer.takeRequest();
+    assertThat(mockWebServer.takeRequest().getHeader(HttpUrlFetcher.RANGE_HEADER_FIELD)).isNull();
+  }
+
+  @Test
+  public void testGetValidator_withWeakETag_returnsLastModified() throws Exception {
+    String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+    mockWebServer.enqueue(
+        new MockResponse()
+            .setResponseCode(200)
+            .setHeader("ETag", "W/\"etag\"")
+            .setHeader("Last-Modified", lastModified)
+            .setBody("fakedata"));
+    HttpUrlFetcher fetcher = getFetcher();
+
+    fetcher.loadData(Priority.HIGH, callback);
+
+    assertThat(fetcher.getValidator()).isEqualTo(lastModified);
+    assertThat(mockWebServer.takeRequest().getHeader(HttpUrlFetcher.RANGE_HEADER_FIELD)).isNull();
+  }
+
   private HttpUrlFetcher getFetcher() {
     return getFetcher(Headers.DEFAULT);
   }
@@ -3,6 +3,7 @@ package com.bumptech.glide.load.engine;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -363,6 +364,83 @@ public class ActiveResourcesTest {
     verify(listener, never()).onResourceReleased(any(Key.class), any(EngineResource.class));
   }
 
+  @Test
+  public void inlinePolling_activateAfterReferenceQueued_notifiesListener() {
+    resources =
+        ActiveResources.withInlineReferenceQueuePolling(
+            /* isActiveResourceRetentionAllowed= */ true);
+    resources.setListener(listener);
+    EngineResource<Object> engineResource = newCacheableEngineResource();
+    resources.activate(key, engineResource);
+    resources.activeEngineResources.get(key).enqueue();
+
+    resources.activate(mock(Key.class), newCacheableEngineResource());
+
+    ArgumentCaptor<EngineResource<?>> captor = getEngineResourceCaptor();
+    verify(listener).onResourceReleased(eq(key), captor.capture());
+    assertThat(captor.getValue().getResource()).isEqualTo(resource);
+    assertThat(resources.get(key)).isNull();
+  }
+
+  @Test
+  public void inlinePolling_deactivateAfterReferenceQueued_removesResourceFromActive() {
+    resources =
+        ActiveResources.withInlineReferenceQueuePolling(
+            /* isActiveResourceRetentionAllowed= */ true);
+    resources.setListener(listener);
+    resources.activate(key, newNonCacheableEngineResource());
+    resources.activeEngineResources.get(key).enqueue();
+
+    resources.deactivate(mock(Key.class));
+
+    assertThat(resources.activeEngineResources).doesNotContainKey(key);
+    verify(listener, never()).onResourceReleased(any(Key.class), any(EngineResource.class));
+  }
+
+  @Test
+  public void inlinePolling_withQueuedReferenceReactivated_doesNotNotifyListener() {
+    resources =
+        ActiveResources.withInlineReferenceQueuePolling(
+            /* isActiveResourceRetentionAllowed= */ true);
+    resources.setListener(listener);
+    resources.activate(key, newCacheableEngineResource());
+    resources.activeEngineResources.get(key).enqueue();
+
+    EngineResource<Object> second = newCacheableEngineResource();
+    resources.activate(key, second);
+    resources.deactivate(mock(Key.class));
+
+    verify(listener, never()).onResourceReleased(any(Key.class), any(EngineResource.class));
+    assertThat(resources.get(key)).isEqualTo(second);
+  }
+
+  @Test
+  public void getActiveResourceCount_returnsNumberOfActiveResources() {
+    resources.activate(key, newCacheableEngineResource());
+    resources.activate(mock(Key.class), newCacheableEngineResource());
+    resources.deactivate(key);
+
+    assertThat(resources.getActiveResourceCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getReclaimedResourceCount_countsOnlyCollectedResources() {
+    resources =
+        ActiveResources.withInlineReferenceQueuePolling(
+            /* isActiveResourceRetentionAllowed= */ true);
+    resources.setListener(listener);
+    Key deactivatedKey = mock(Key.class);
+    resources.activate(deactivatedKey, newCacheableEngineResource());
+    resources.deactivate(deactivatedKey);
+    resources.activate(key, newCacheableEngineResource());
+    resources.activeEngineResources.get(key).clear();
+
+    resources.get(key);
+
+    assertThat(resources.getReclaimedResourceCount()).isEqualTo(1);
+    assertThat(resources.getActiveResourceCount()).isEqualTo(0);
+  }
+
   private void enqueueAndWaitForRef(ResourceWeakReference ref) {
     CountDownLatch latch = getLatchForClearedRef();
     ref.enqueue();
@@ -0,0 +1,164 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.model.ByteBufferFileLoader;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoader.LoadData;
+import com.bumptech.glide.signature.ObjectKey;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class DataCacheGeneratorTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Key sourceKey = new ObjectKey("source");
+  private final DecodeHelper<?> helper = mock(DecodeHelper.class);
+  private final DiskCache diskCache = mock(DiskCache.class);
+  private final DataFetcherGenerator.FetcherReadyCallback cb =
+      mock(DataFetcherGenerator.FetcherReadyCallback.class);
+
+  @SuppressWarnings("unchecked")
+  private final ModelLoader<File, InputStream> registeredLoader = mock(ModelLoader.class);
+
+  @SuppressWarnings("unchecked")
+  private final DataFetcher<InputStream> registeredFetcher = mock(DataFetcher.class);
+
+  private DataCacheGenerator generator;
+  private File cacheFile;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheFile = temporaryFolder.newFile();
+    Files.write(cacheFile.toPath(), new byte[] {1, 2, 3});
+
+    when(helper.getSignature()).thenReturn(new ObjectKey("signature"));
+    when(helper.getDiskCache()).thenReturn(diskCache);
+    when(helper.getOptions()).thenReturn(new Options());
+    when(helper.getPriority()).thenReturn(Priority.NORMAL);
+    when(helper.hasLoadPath(ByteBuffer.class)).thenReturn(true);
+    when(helper.hasLoadPath(InputStream.class)).thenReturn(true);
+    when(diskCache.get(any(Key.class))).thenReturn(cacheFile);
+
+    when(registeredFetcher.getDataClass()).thenReturn(InputStream.class);
+    when(registeredLoader.buildLoadData(any(File.class), anyInt(), anyInt(), any(Options.class)))
+        .thenReturn(new LoadData<>(sourceKey, registeredFetcher));
+    List<ModelLoader<File, ?>> registeredLoaders =
+        Arrays.<ModelLoader<File, ?>>asList(new ByteBufferFileLoader(), registeredLoader);
+    when(helper.getModelLoaders(any(File.class))).thenReturn(registeredLoaders);
+
+    generator = new DataCacheGenerator(Collections.singletonList(sourceKey), helper, cb);
+  }
+
+  @Test
+  public void startNext_withMemoryMappedDataCache_loadsMappedByteBuffer() {
+    when(helper.isDataCacheMemoryMapped()).thenReturn(true);
+
+    assertThat(generator.startNext()).isTrue();
+
+    ArgumentCaptor<Object> data = ArgumentCaptor.forClass(Object.class);
+    verify(cb)
+        .onDataFetcherReady(
+            eq(sourceKey),
+            data.capture(),
+            any(DataFetcher.class),
+            eq(DataSource.DATA_DISK_CACHE),
+            eq(sourceKey));
+    assertThat(data.getValue()).isInstanceOf(ByteBuffer.class);
+    assertThat(((ByteBuffer) data.getValue()).remaining()).isEqualTo(3);
+    verify(helper, never()).getModelLoaders(any(File.class));
+  }
+
+  @Test
+  public void startNext_afterMappingFails_fallsBackToRegisteredLoadersExceptMapped()
+      throws IOException {
+    when(helper.isDataCacheMemoryMapped()).thenReturn(true);
+    // Empty files can't be mapped.
+    File emptyFile = temporaryFolder.newFile();
+    when(diskCache.get(any(Key.class))).thenReturn(emptyFile);
+
+    assertThat(generator.startNext()).isTrue();
+    verify(cb)
+        .onDataFetcherFailed(
+            eq(sourceKey),
+            any(Exception.class),
+            any(DataFetcher.class),
+            eq(DataSource.DATA_DISK_CACHE));
+
+    // Called again by DecodeJob after the failure.
+    assertThat(generator.startNext()).isTrue();
+
+    verify(registeredFetcher).loadData(eq(Priority.NORMAL), isA(DataCacheGenerator.class));
+    verify(cb, never())
+        .onDataFetcherReady(
+            any(Key.class), any(), any(DataFetcher.class), any(DataSource.class), any(Key.class));
+  }
+
+  @Test
+  public void startNext_withoutLoadPathForMappedByteBuffer_usesRegisteredLoaders() {
+    when(helper.isDataCacheMemoryMapped()).thenReturn(true);
+    when(helper.hasLoadPath(ByteBuffer.class)).thenReturn(false);
+
+    assertThat(generator.startNext()).isTrue();
+
+    verify(registeredFetcher).loadData(eq(Priority.NORMAL), isA(DataCacheGenerator.class));
+  }
+
+  @Test
+  public void startNext_withoutMemoryMappedDataCache_usesRegisteredLoadersInOrder() {
+    when(helper.isDataCacheMemoryMapped()).thenReturn(false);
+
+    assertThat(generator.startNext()).isTrue();
+
+    // The registered ByteBufferFileLoader comes first and succeeds.
+    verify(cb)
+        .onDataFetcherReady(
+            eq(sourceKey),
+            isA(ByteBuffer.class),
+            any(DataFetcher.class),
+            eq(DataSource.DATA_DISK_CACHE),
+            eq(sourceKey));
+    verify(helper).getModelLoaders(cacheFile);
+    verify(registeredFetcher, never())
+        .loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+  }
+
+  @Test
+  public void startNext_withoutCacheFile_returnsFalse() {
+    when(helper.isDataCacheMemoryMapped()).thenReturn(true);
+    when(diskCache.get(any(Key.class))).thenReturn(null);
+
+    assertThat(generator.startNext()).isFalse();
+  }
+}
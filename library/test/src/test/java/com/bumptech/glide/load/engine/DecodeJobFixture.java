@@ -0,0 +1,190 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.tests.Util.mockResource;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.Pools;
+import com.bumptech.glide.GlideBuilder.SkipUncachedDiskCacheStages;
+import com.bumptech.glide.GlideContext;
+import com.bumptech.glide.GlideExperiments;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.data.DataRewinder;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoader.LoadData;
+import com.bumptech.glide.signature.EmptySignature;
+import com.bumptech.glide.signature.ObjectKey;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Loads a single model through a mock {@link Registry} and disk cache, for tests of {@link
+ * DecodeJob}s and of the {@link Engine} running them.
+ *
+ * <p>By default nothing is in the disk cache, the model loads {@link #data} from source, and no
+ * resource is decoded from the data until {@link #decodeTo(Resource)} is called.
+ */
+@SuppressWarnings("unchecked")
+final class DecodeJobFixture {
+  final Object model = "model";
+  final Object data = new Object();
+  final Resource<Object> resource = mockResource();
+  final File cacheFile = new File("cache");
+  final Key sourceKey = new ObjectKey("source");
+  final Options options = new Options();
+  final Map<Class<?>, Transformation<?>> transformations = Collections.emptyMap();
+  final GlideContext glideContext = mock(GlideContext.class);
+  final GlideExperiments experiments = mock(GlideExperiments.class);
+  final Registry registry = mock(Registry.class);
+  final ModelLoader<Object, Object> modelLoader = mock(ModelLoader.class);
+  final DataFetcher<Object> fetcher = mock(DataFetcher.class);
+  final LoadPath<Object, Object, Object> loadPath = mock(LoadPath.class);
+  final DataRewinder<Object> rewinder = mock(DataRewinder.class);
+  final DiskCache diskCache =
+      mock(DiskCache.class, withSettings().extraInterfaces(DiskCache.PresenceIndex.class));
+  final DecodeJob.DiskCacheProvider diskCacheProvider = mock(DecodeJob.DiskCacheProvider.class);
+  final DecodeJob.Callback<Object> callback = mock(DecodeJob.Callback.class);
+  final Pools.Pool<DecodeJob<?>> pool = mock(Pools.Pool.class);
+  final List<EngineEventListener.Event> events = new ArrayList<>();
+  final EngineEventListener eventListener =
+      new EngineEventListener() {
+        @Override
+        public void onEvent(@NonNull Key key, @NonNull Event event, long timeNanos) {
+          events.add(event);
+        }
+      };
+  final EngineKey loadKey =
+      new EngineKeyFactory()
+          .buildKey(
+              model,
+              EmptySignature.obtain(),
+              100,
+              100,
+              transformations,
+              Object.class,
+              Object.class,
+              options);
+  DiskCacheStrategy diskCacheStrategy = DiskCacheStrategy.AUTOMATIC;
+  boolean isSkipUncachedDiskCacheStagesEnabled;
+
+  DecodeJobFixture() {
+    when(glideContext.getRegistry()).thenReturn(registry);
+    when(glideContext.getExperiments()).thenReturn(experiments);
+    when(glideContext.getArrayPool()).thenReturn(mock(ArrayPool.class));
+    when(diskCacheProvider.getDiskCache()).thenReturn(diskCache);
+
+    when(fetcher.getDataClass()).thenReturn(Object.class);
+    // Not cached by DiskCacheStrategy.AUTOMATIC, so the data is decoded as it's fetched.
+    when(fetcher.getDataSource()).thenReturn(DataSource.LOCAL);
+    when(modelLoader.buildLoadData(model, 100, 100, options))
+        .thenReturn(new LoadData<>(sourceKey, fetcher));
+    when(registry.getModelLoaders(model))
+        .thenReturn(Collections.<ModelLoader<Object, ?>>singletonList(modelLoader));
+    when(registry.getRegisteredResourceClasses(Object.class, Object.class, Object.class))
+        .thenReturn(Collections.<Class<?>>singletonList(Object.class));
+    when(registry.getLoadPath(Object.class, Object.class, Object.class)).thenReturn(loadPath);
+    when(registry.getRewinder(any())).thenReturn(rewinder);
+  }
+
+  /** Adds a model loader after the default one and returns the fetcher it loads data with. */
+  DataFetcher<Object> addModelLoader() {
+    ModelLoader<Object, Object> otherModelLoader = mock(ModelLoader.class);
+    DataFetcher<Object> otherFetcher = mock(DataFetcher.class);
+    when(otherFetcher.getDataClass()).thenReturn(Object.class);
+    when(otherFetcher.getDataSource()).thenReturn(DataSource.LOCAL);
+    when(otherModelLoader.buildLoadData(model, 100, 100, options))
+        .thenReturn(new LoadData<>(new ObjectKey("other"), otherFetcher));
+    when(registry.getModelLoaders(model))
+        .thenReturn(Arrays.<ModelLoader<Object, ?>>asList(modelLoader, otherModelLoader));
+    return otherFetcher;
+  }
+
+  /** Puts a file in the disk cache for keys of the given type that's loaded as {@link #data}. */
+  void cacheOnDisk(Class<? extends Key> keyClass) {
+    ModelLoader<File, Object> fileLoader = mock(ModelLoader.class);
+    DataFetcher<Object> fileFetcher = mock(DataFetcher.class);
+    when(fileFetcher.getDataClass()).thenReturn(Object.class);
+    when(fileLoader.buildLoadData(cacheFile, 100, 100, options))
+        .thenReturn(new LoadData<>(new ObjectKey(cacheFile), fileFetcher));
+    returnData(fileFetcher, data);
+    when(diskCache.get(isA(keyClass))).thenReturn(cacheFile);
+    when(registry.getModelLoaders(cacheFile))
+        .thenReturn(Collections.<ModelLoader<File, ?>>singletonList(fileLoader));
+  }
+
+  void decodeTo(Resource<Object> result) throws GlideException {
+    when(loadPath.load(
+            any(), any(Options.class), anyInt(), anyInt(), any(DecodePath.DecodeCallback.class)))
+        .thenReturn(result);
+  }
+
+  void failDecodes() throws GlideException {
+    when(loadPath.load(
+            any(), any(Options.class), anyInt(), anyInt(), any(DecodePath.DecodeCallback.class)))
+        .thenThrow(new GlideException("test"));
+  }
+
+  /** Makes the given fetcher call back with the given data as soon as it's started. */
+  void returnData(DataFetcher<Object> fetcher, final Object data) {
+    doAnswer(
+            new Answer<Void>() {
+              @Override
+              public Void answer(InvocationOnMock invocationOnMock) {
+                DataFetcher.DataCallback<Object> callback = invocationOnMock.getArgument(1);
+                callback.onDataReady(data);
+                return null;
+              }
+            })
+        .when(fetcher)
+        .loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+  }
+
+  DiskCache.PresenceIndex presenceIndex() {
+    return (DiskCache.PresenceIndex) diskCache;
+  }
+
+  DecodeJob<Object> newJob() {
+    when(experiments.isEnabled(SkipUncachedDiskCacheStages.class))
+        .thenReturn(isSkipUncachedDiskCacheStagesEnabled);
+    DecodeJob<Object> job =
+        new DecodeJob<>(diskCacheProvider, /* resourceEncodeQueue= */ null, eventListener, pool);
+    return job.init(
+        glideContext,
+        model,
+        loadKey,
+        EmptySignature.obtain(),
+        100,
+        100,
+        Object.class,
+        Object.class,
+        Priority.NORMAL,
+        diskCacheStrategy,
+        transformations,
+        /* isTransformationRequired= */ false,
+        /* isScaleOnlyOrNoTransform= */ true,
+        /* onlyRetrieveFromCache= */ false,
+        options,
+        callback,
+        /* order= */ 0);
+  }
+}
@@ -0,0 +1,288 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DECODE_FINISHED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DECODE_STARTED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DISK_CACHE_READ_FINISHED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DISK_CACHE_READ_STARTED;
+import static com.bumptech.glide.tests.Util.anyResource;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.PreviewCallback;
+import com.bumptech.glide.load.data.DataFetcher;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class DecodeJobTest {
+  private DecodeJobFixture fixture;
+
+  @Before
+  public void setUp() {
+    fixture = new DecodeJobFixture();
+  }
+
+  @Test
+  public void willDecodeFromCache_withCacheReadingStrategy_doesNotTouchDiskCacheOrRegistry() {
+    DecodeJob<Object> job = fixture.newJob();
+
+    assertThat(job.willDecodeFromCache()).isTrue();
+    verifyNoInteractions(fixture.diskCacheProvider, fixture.registry);
+  }
+
+  @Test
+  public void willDecodeFromCache_withStrategyNotReadingCache_returnsFalse() {
+    fixture.diskCacheStrategy = DiskCacheStrategy.NONE;
+
+    assertThat(fixture.newJob().willDecodeFromCache()).isFalse();
+  }
+
+  @Test
+  public void getExecutionKey_forJobsWithSameModelAndSignature_isEqual() {
+    Object key = fixture.newJob().getExecutionKey();
+    Object other = fixture.newJob().getExecutionKey();
+
+    assertThat(key).isEqualTo(other);
+    assertThat(key.hashCode()).isEqualTo(other.hashCode());
+  }
+
+  @Test
+  public void getExecutionKey_calledAgain_returnsSameKey() {
+    DecodeJob<Object> job = fixture.newJob();
+
+    assertThat(job.getExecutionKey()).isSameInstanceAs(job.getExecutionKey());
+  }
+
+  @Test
+  public void run_withSkipUncachedStagesDisabled_readsBothDiskCacheStages() {
+    DecodeJob<Object> job = fixture.newJob();
+
+    job.run();
+
+    verify(fixture.diskCache).get(isA(ResourceCacheKey.class));
+    verify(fixture.diskCache).get(isA(DataCacheKey.class));
+    verify(fixture.presenceIndex(), never()).mightContain(any(Key.class));
+    verify(fixture.callback).reschedule(job);
+  }
+
+  @Test
+  public void run_withNothingCached_skipsDiskCacheStagesAndReschedulesToSource() {
+    fixture.isSkipUncachedDiskCacheStagesEnabled = true;
+    DecodeJob<Object> job = fixture.newJob();
+
+    job.run();
+
+    verify(fixture.diskCache, never()).get(any(Key.class));
+    verify(fixture.callback).reschedule(job);
+    verify(fixture.fetcher, never())
+        .loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+    assertThat(fixture.events).doesNotContain(DISK_CACHE_READ_STARTED);
+
+    // Run again by EngineJob on the source executor.
+    job.run();
+
+    verify(fixture.fetcher).loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+  }
+
+  @Test
+  public void run_withOnlyDataCacheMightContainingLoad_skipsResourceCacheStage() {
+    fixture.isSkipUncachedDiskCacheStagesEnabled = true;
+    when(fixture.presenceIndex().mightContain(isA(DataCacheKey.class))).thenReturn(true);
+    DecodeJob<Object> job = fixture.newJob();
+
+    job.run();
+
+    verify(fixture.diskCache, never()).get(isA(ResourceCacheKey.class));
+    verify(fixture.diskCache).get(isA(DataCacheKey.class));
+  }
+
+  @Test
+  public void run_withPresenceIndexFalsePositive_fallsThroughToSource() {
+    fixture.isSkipUncachedDiskCacheStagesEnabled = true;
+    when(fixture.presenceIndex().mightContain(any(Key.class))).thenReturn(true);
+    // The disk cache mock doesn't contain the entries the presence index thinks it might.
+    DecodeJob<Object> job = fixture.newJob();
+
+    job.run();
+
+    verify(fixture.diskCache).get(isA(ResourceCacheKey.class));
+    verify(fixture.diskCache).get(isA(DataCacheKey.class));
+    verify(fixture.callback).reschedule(job);
+
+    job.run();
+
+    verify(fixture.fetcher).loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+  }
+
+  @Test
+  public void onDataFetcherReady_fromSource_handsOffDecodeToDecodeExecutor()
+      throws GlideException {
+    fixture.diskCacheStrategy = DiskCacheStrategy.NONE;
+    fixture.returnData(fixture.fetcher, fixture.data);
+    DecodeJob<Object> job = fixture.newJob();
+    when(fixture.callback.rescheduleDecode(job)).thenReturn(true);
+
+    job.run();
+
+    verify(fixture.callback).rescheduleDecode(job);
+    verify(fixture.callback, never())
+        .onResourceReady(anyResource(), any(DataSource.class), anyBoolean());
+
+    // Run by EngineJob on the decode executor, which decodes the data that was already fetched.
+    fixture.decodeTo(fixture.resource);
+    job.run();
+
+    verify(fixture.fetcher).loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+    verify(fixture.callback)
+        .onResourceReady(
+            fixture.resource, DataSource.LOCAL, /* isLoadedFromAlternateCacheKey= */ false);
+    verify(fixture.callback, never()).reschedule(job);
+  }
+
+  @Test
+  public void onDataFetcherReady_fromSourceWithoutDecodeExecutor_decodesOnCurrentThread()
+      throws GlideException {
+    fixture.diskCacheStrategy = DiskCacheStrategy.NONE;
+    fixture.returnData(fixture.fetcher, fixture.data);
+    fixture.decodeTo(fixture.resource);
+    DecodeJob<Object> job = fixture.newJob();
+
+    job.run();
+
+    verify(fixture.callback).rescheduleDecode(job);
+    verify(fixture.callback)
+        .onResourceReady(
+            fixture.resource, DataSource.LOCAL, /* isLoadedFromAlternateCacheKey= */ false);
+  }
+
+  @Test
+  public void decode_failingOnDecodeExecutor_reschedulesToSourceExecutorBeforeNextFetch()
+      throws GlideException {
+    fixture.diskCacheStrategy = DiskCacheStrategy.NONE;
+    DataFetcher<Object> otherFetcher = fixture.addModelLoader();
+    fixture.returnData(fixture.fetcher, fixture.data);
+    fixture.failDecodes();
+    DecodeJob<Object> job = fixture.newJob();
+    when(fixture.callback.rescheduleDecode(job)).thenReturn(true);
+
+    job.run();
+    // The failed decode on the decode executor.
+    job.run();
+
+    InOrder inOrder = inOrder(fixture.callback);
+    inOrder.verify(fixture.callback).rescheduleDecode(job);
+    inOrder.verify(fixture.callback).reschedule(job);
+    verify(otherFetcher, never())
+        .loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+
+    // Run by EngineJob on the source executor.
+    job.run();
+
+    verify(otherFetcher).loadData(any(Priority.class), any(DataFetcher.DataCallback.class));
+  }
+
+  @Test
+  public void onDataFetcherReady_fromResourceCache_decodesWithoutHandingOff()
+      throws GlideException {
+    fixture.cacheOnDisk(ResourceCacheKey.class);
+    fixture.decodeTo(fixture.resource);
+    DecodeJob<Object> job = fixture.newJob();
+    when(fixture.callback.rescheduleDecode(job)).thenReturn(true);
+
+    job.run();
+
+    verify(fixture.callback, never()).rescheduleDecode(job);
+    verify(fixture.callback)
+        .onResourceReady(
+            fixture.resource,
+            DataSource.RESOURCE_DISK_CACHE,
+            /* isLoadedFromAlternateCacheKey= */ false);
+  }
+
+  @Test
+  public void onDataFetcherReady_fromDataCache_decodesWithoutHandingOff() throws GlideException {
+    fixture.cacheOnDisk(DataCacheKey.class);
+    fixture.decodeTo(fixture.resource);
+    DecodeJob<Object> job = fixture.newJob();
+    when(fixture.callback.rescheduleDecode(job)).thenReturn(true);
+
+    job.run();
+
+    verify(fixture.callback, never()).rescheduleDecode(job);
+    verify(fixture.callback)
+        .onResourceReady(
+            fixture.resource,
+            DataSource.DATA_DISK_CACHE,
+            /* isLoadedFromAlternateCacheKey= */ false);
+  }
+
+  @Test
+  public void decode_ofRemoteDataDecodedWithoutDataCache_setsPreviewCallback()
+      throws GlideException {
+    fixture.diskCacheStrategy = DiskCacheStrategy.NONE;
+    when(fixture.fetcher.getDataSource()).thenReturn(DataSource.REMOTE);
+    fixture.returnData(fixture.fetcher, fixture.data);
+    fixture.decodeTo(fixture.resource);
+
+    fixture.newJob().run();
+
+    assertThat(captureDecodeOptions().get(PreviewCallback.OPTION)).isNotNull();
+  }
+
+  @Test
+  public void decode_ofLocalData_doesNotSetPreviewCallback() throws GlideException {
+    fixture.diskCacheStrategy = DiskCacheStrategy.NONE;
+    fixture.returnData(fixture.fetcher, fixture.data);
+    fixture.decodeTo(fixture.resource);
+
+    fixture.newJob().run();
+
+    assertThat(captureDecodeOptions().get(PreviewCallback.OPTION)).isNull();
+  }
+
+  @Test
+  public void run_withDataCacheHitThatFailsToDecode_finishesEachDiskCacheReadOnce() {
+    fixture.cacheOnDisk(DataCacheKey.class);
+    DecodeJob<Object> job = fixture.newJob();
+
+    job.run();
+
+    // The data cache read finished when the data was found, not again when moving on to source.
+    assertThat(fixture.events)
+        .containsExactly(
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            DECODE_STARTED,
+            DECODE_FINISHED)
+        .inOrder();
+    verify(fixture.callback).reschedule(job);
+  }
+
+  private Options captureDecodeOptions() throws GlideException {
+    ArgumentCaptor<Options> options = ArgumentCaptor.forClass(Options.class);
+    verify(fixture.loadPath)
+        .load(any(), options.capture(), anyInt(), anyInt(), any(DecodePath.DecodeCallback.class));
+    return options.getValue();
+  }
+}
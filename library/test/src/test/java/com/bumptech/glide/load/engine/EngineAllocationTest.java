@@ -0,0 +1,84 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import com.bumptech.glide.util.CachedHashCodeArrayMap;
+import java.lang.management.ManagementFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/** Verifies how much {@link Engine#load} allocates when the resource is already in memory. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class EngineAllocationTest {
+  private static final int MODEL_COUNT = 16;
+  private static final int LOAD_COUNT = 10_000;
+  // Each memory cache hit moves the resource to the active resources and each release moves it
+  // back, which allocates a stored key, a weak reference and the map entries of both.
+  private static final long MAX_BYTES_PER_MEMORY_CACHE_HIT = 512;
+
+  private final Object[] models = new Object[MODEL_COUNT];
+  private com.sun.management.ThreadMXBean threadMXBean;
+  private EngineLoadFixture fixture;
+
+  @Before
+  public void setUp() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    threadMXBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+    // Matches the map type requests use, which caches its hash code.
+    fixture =
+        new EngineLoadFixture(new CachedHashCodeArrayMap<>(), mock(Engine.DecodeJobFactory.class));
+    for (int i = 0; i < MODEL_COUNT; i++) {
+      models[i] = "model" + i;
+    }
+  }
+
+  @Test
+  public void load_fromActiveResources_doesNotAllocate() {
+    for (Object model : models) {
+      fixture.activate(model);
+    }
+
+    long allocated = measureLoads();
+
+    // One allocation per load would be at least 16 bytes each, allow for some measurement noise.
+    assertThat(allocated).isLessThan((long) LOAD_COUNT);
+  }
+
+  @Test
+  public void load_fromMemoryCache_allocatesOnlyToMoveResourceToActiveResources() {
+    for (Object model : models) {
+      fixture.cache(model);
+    }
+
+    long allocated = measureLoads();
+
+    assertThat(allocated).isLessThan(LOAD_COUNT * MAX_BYTES_PER_MEMORY_CACHE_HIT);
+  }
+
+  private long measureLoads() {
+    // Warm up so that class loading and lazy initialization aren't counted.
+    loadAll();
+
+    long threadId = Thread.currentThread().getId();
+    long before = threadMXBean.getThreadAllocatedBytes(threadId);
+    loadAll();
+    return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+  }
+
+  private void loadAll() {
+    for (int i = 0; i < LOAD_COUNT; i++) {
+      assertThat(fixture.load(models[i % MODEL_COUNT])).isNull();
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.tests.ContentionBenchmark;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/** Exercises {@link Engine#load} from many threads at once. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class EngineConcurrencyTest {
+  private static final int THREAD_COUNT = 8;
+  private static final int MODEL_COUNT = 64;
+
+  private final AtomicInteger decodeJobCount = new AtomicInteger();
+  private EngineLoadFixture fixture;
+
+  @Before
+  public void setUp() {
+    final DecodeJob<?> decodeJob = mock(DecodeJob.class);
+    Engine.DecodeJobFactory decodeJobFactory =
+        mock(
+            Engine.DecodeJobFactory.class,
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                decodeJobCount.incrementAndGet();
+                return decodeJob;
+              }
+            });
+    fixture = new EngineLoadFixture(new HashMap<Class<?>, Transformation<?>>(), decodeJobFactory);
+  }
+
+  @Test
+  public void load_concurrentlyForSameModels_startsOneJobPerKey() throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      final int offset = i;
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                    for (int j = 0; j < MODEL_COUNT; j++) {
+                      fixture.load((j + offset) % MODEL_COUNT);
+                    }
+                  } catch (Throwable t) {
+                    failures.add(t);
+                  }
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failures).isEmpty();
+    assertThat(decodeJobCount.get()).isEqualTo(MODEL_COUNT);
+  }
+
+  @Test
+  public void load_concurrentlyFromActiveResources_returnsWithoutStartingJobs()
+      throws InterruptedException {
+    for (int i = 0; i < MODEL_COUNT; i++) {
+      fixture.activate(i);
+    }
+    final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    for (int j = 0; j < MODEL_COUNT; j++) {
+                      assertThat(fixture.load(j)).isNull();
+                    }
+                  } catch (Throwable t) {
+                    failures.add(t);
+                  }
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failures).isEmpty();
+    assertThat(decodeJobCount.get()).isEqualTo(0);
+  }
+
+  /**
+   * Prints the throughput of memory cache hits in {@link Engine#load} as the number of threads
+   * increases.
+   */
+  @Ignore("Benchmark, run manually")
+  @Test
+  public void benchmark_loadFromActiveResources() throws InterruptedException {
+    for (int i = 0; i < MODEL_COUNT; i++) {
+      fixture.activate(i);
+    }
+    for (int threadCount : new int[] {1, 2, 4, 8, 16}) {
+      ContentionBenchmark.run(
+          "Engine.load from active resources",
+          threadCount,
+          new ContentionBenchmark.Operation() {
+            @Override
+            public void run(int threadIndex, long iteration) {
+              fixture.load((int) ((iteration + threadIndex) % MODEL_COUNT));
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DECODE_FINISHED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DECODE_STARTED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DISK_CACHE_READ_FINISHED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.DISK_CACHE_READ_STARTED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.FETCH_DATA_READY;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.FETCH_FINISHED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.FETCH_STARTED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.JOB_STARTED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.MEMORY_CACHE_HIT;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.MEMORY_CACHE_LOOKUP_STARTED;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.MEMORY_CACHE_MISS;
+import static com.bumptech.glide.load.engine.EngineEventListener.Event.RESOURCE_DELIVERED;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.executor.MockGlideExecutor;
+import com.bumptech.glide.signature.EmptySignature;
+import com.bumptech.glide.util.Executors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Verifies the order of the events the {@link Engine} and the jobs it starts send for loads that
+ * end in each of the caches and at the source.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class EngineEventsTest {
+  private final DecodeJobFixture fixture = new DecodeJobFixture();
+  private Engine engine;
+
+  @Before
+  public void setUp() throws GlideException {
+    DiskCache.Factory diskCacheFactory = mock(DiskCache.Factory.class);
+    when(diskCacheFactory.build()).thenReturn(fixture.diskCache);
+    fixture.decodeTo(fixture.resource);
+    engine =
+        new Engine(
+            new LruResourceCache(Long.MAX_VALUE),
+            diskCacheFactory,
+            MockGlideExecutor.newMainThreadExecutor(),
+            MockGlideExecutor.newMainThreadExecutor(),
+            MockGlideExecutor.newMainThreadExecutor(),
+            MockGlideExecutor.newMainThreadExecutor(),
+            /* decodeExecutor= */ null,
+            /* resourceEncodeQueue= */ null,
+            fixture.eventListener,
+            /* isActiveResourceRetentionAllowed= */ false,
+            /* isActiveResourceQueuePolledInline= */ true);
+  }
+
+  @Test
+  public void load_fromMemoryCache_sendsMemoryCacheEvents() {
+    fixture.returnData(fixture.fetcher, fixture.data);
+    load();
+    fixture.events.clear();
+
+    load();
+
+    assertThat(fixture.events)
+        .containsExactly(MEMORY_CACHE_LOOKUP_STARTED, MEMORY_CACHE_HIT, RESOURCE_DELIVERED)
+        .inOrder();
+  }
+
+  @Test
+  public void load_fromResourceDiskCache_sendsOneDiskCacheRead() {
+    fixture.cacheOnDisk(ResourceCacheKey.class);
+
+    load();
+
+    assertThat(fixture.events)
+        .containsExactly(
+            MEMORY_CACHE_LOOKUP_STARTED,
+            MEMORY_CACHE_MISS,
+            JOB_STARTED,
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            DECODE_STARTED,
+            DECODE_FINISHED,
+            RESOURCE_DELIVERED)
+        .inOrder();
+  }
+
+  @Test
+  public void load_fromDataDiskCache_sendsDiskCacheReadsForResourceAndData() {
+    fixture.cacheOnDisk(DataCacheKey.class);
+
+    load();
+
+    assertThat(fixture.events)
+        .containsExactly(
+            MEMORY_CACHE_LOOKUP_STARTED,
+            MEMORY_CACHE_MISS,
+            JOB_STARTED,
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            DECODE_STARTED,
+            DECODE_FINISHED,
+            RESOURCE_DELIVERED)
+        .inOrder();
+  }
+
+  @Test
+  public void load_fromSource_sendsDiskCacheReadsThenFetchEvents() {
+    fixture.returnData(fixture.fetcher, fixture.data);
+
+    load();
+
+    assertThat(fixture.events)
+        .containsExactly(
+            MEMORY_CACHE_LOOKUP_STARTED,
+            MEMORY_CACHE_MISS,
+            JOB_STARTED,
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            DISK_CACHE_READ_STARTED,
+            DISK_CACHE_READ_FINISHED,
+            FETCH_STARTED,
+            FETCH_DATA_READY,
+            DECODE_STARTED,
+            FETCH_FINISHED,
+            DECODE_FINISHED,
+            RESOURCE_DELIVERED)
+        .inOrder();
+  }
+
+  private void load() {
+    engine.load(
+        fixture.glideContext,
+        fixture.model,
+        EmptySignature.obtain(),
+        100,
+        100,
+        Object.class,
+        Object.class,
+        Priority.NORMAL,
+        DiskCacheStrategy.AUTOMATIC,
+        fixture.transformations,
+        /* isTransformationRequired= */ false,
+        /* isScaleOnlyOrNoTransform= */ true,
+        fixture.options,
+        /* isMemoryCacheable= */ true,
+        /* useUnlimitedSourceExecutorPool= */ false,
+        /* useAnimationPool= */ false,
+        /* onlyRetrieveFromCache= */ false,
+        new EngineLoadFixture.ReleasingResourceCallback(),
+        Executors.directExecutor());
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
@@ -16,12 +17,15 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import android.graphics.Bitmap;
 import android.os.Handler;
 import android.os.Looper;
 import androidx.core.util.Pools;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.PreviewCallback;
 import com.bumptech.glide.load.engine.EngineResource.ResourceListener;
 import com.bumptech.glide.load.engine.executor.GlideExecutor;
 import com.bumptech.glide.load.engine.executor.MockGlideExecutor;
@@ -29,6 +33,7 @@ import com.bumptech.glide.request.ResourceCallback;
 import com.bumptech.glide.util.Executors;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -475,6 +480,150 @@ public class EngineJobTest {
     verify(harness.decodeJob).run();
   }
 
+  @Test
+  public void rescheduleDecode_withoutDecodeExecutor_returnsFalse() {
+    EngineJob<Object> job = harness.getJob();
+
+    assertFalse(job.rescheduleDecode(harness.decodeJob));
+    verify(harness.decodeJob, never()).run();
+  }
+
+  @Test
+  public void rescheduleDecode_withDecodeExecutor_runsJobOnDecodeExecutor() {
+    harness.decodeService = MockGlideExecutor.newMainThreadExecutor();
+    EngineJob<Object> job = harness.getJob();
+    harness.sourceService.shutdownNow();
+
+    assertTrue(job.rescheduleDecode(harness.decodeJob));
+    verify(harness.decodeJob).run();
+  }
+
+  @Test
+  public void rescheduleDecode_withDecodeExecutorAndAnimationPool_returnsFalse() {
+    harness.decodeService = MockGlideExecutor.newMainThreadExecutor();
+    harness.useAnimationPool = true;
+    EngineJob<Object> job = harness.getJob();
+
+    assertFalse(job.rescheduleDecode(harness.decodeJob));
+    verify(harness.decodeJob, never()).run();
+  }
+
+  @Test
+  public void onResourceReady_withEventListener_notifiesResourceDeliveredAfterCallback() {
+    harness.eventListener = mock(EngineEventListener.class);
+    EngineJob<Object> job = harness.getJob();
+    job.start(harness.decodeJob);
+    job.onResourceReady(
+        harness.resource, harness.dataSource, harness.isLoadedFromAlternateCacheKey);
+
+    ShadowLooper.runUiThreadTasks();
+
+    InOrder order = inOrder(harness.cb, harness.eventListener);
+    order
+        .verify(harness.cb)
+        .onResourceReady(
+            harness.engineResource, harness.dataSource, harness.isLoadedFromAlternateCacheKey);
+    order
+        .verify(harness.eventListener)
+        .onEvent(eq(harness.key), eq(EngineEventListener.Event.RESOURCE_DELIVERED), anyLong());
+  }
+
+  @Test
+  public void onLoadFailed_withEventListener_notifiesLoadFailed() {
+    harness.eventListener = mock(EngineEventListener.class);
+    EngineJob<Object> job = harness.getJob();
+    job.start(harness.decodeJob);
+    job.onLoadFailed(new GlideException("test"));
+
+    ShadowLooper.runUiThreadTasks();
+
+    verify(harness.eventListener)
+        .onEvent(eq(harness.key), eq(EngineEventListener.Event.LOAD_FAILED), anyLong());
+    verify(harness.eventListener, never())
+        .onEvent(any(Key.class), eq(EngineEventListener.Event.RESOURCE_DELIVERED), anyLong());
+  }
+
+  @Test
+  public void onPreview_withPreviewCallback_deliversPreviewAndNotifiesPreviewDelivered() {
+    harness.eventListener = mock(EngineEventListener.class);
+    EngineJob<Object> job = harness.getJob();
+    ResourceCallback previewCb = mockPreviewCallback();
+    job.addCallback(previewCb, Executors.directExecutor());
+    job.start(harness.decodeJob);
+    Bitmap preview = Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565);
+
+    job.onPreview(preview);
+
+    InOrder order = inOrder(previewCb, harness.eventListener);
+    order.verify((PreviewCallback) previewCb).onPreview(preview);
+    order
+        .verify(harness.eventListener)
+        .onEvent(eq(harness.key), eq(EngineEventListener.Event.PREVIEW_DELIVERED), anyLong());
+  }
+
+  @Test
+  public void onPreview_withOnlyCallbacksThatAreNotPreviewCallbacks_deliversNothing() {
+    harness.eventListener = mock(EngineEventListener.class);
+    EngineJob<Object> job = harness.getJob();
+    job.start(harness.decodeJob);
+
+    job.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify(harness.eventListener, never())
+        .onEvent(any(Key.class), eq(EngineEventListener.Event.PREVIEW_DELIVERED), anyLong());
+  }
+
+  @Test
+  public void onPreview_afterResourceReady_doesNotDeliverPreview() {
+    EngineJob<Object> job = harness.getJob();
+    ResourceCallback previewCb = mockPreviewCallback();
+    job.addCallback(previewCb, Executors.directExecutor());
+    job.start(harness.decodeJob);
+    job.onResourceReady(
+        harness.resource, harness.dataSource, harness.isLoadedFromAlternateCacheKey);
+
+    job.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify((PreviewCallback) previewCb, never()).onPreview(any(Bitmap.class));
+  }
+
+  @Test
+  public void onPreview_afterCancel_doesNotDeliverPreview() {
+    EngineJob<Object> job = harness.getJob();
+    ResourceCallback previewCb = mockPreviewCallback();
+    job.addCallback(previewCb, Executors.directExecutor());
+    job.start(harness.decodeJob);
+    job.cancel();
+
+    job.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify((PreviewCallback) previewCb, never()).onPreview(any(Bitmap.class));
+  }
+
+  @Test
+  public void onPreview_postedBeforeResourceReady_isDroppedIfRunAfterResourceReady() {
+    EngineJob<Object> job = harness.getJob();
+    ResourceCallback previewCb = mockPreviewCallback();
+    final List<Runnable> posted = new ArrayList<>();
+    job.addCallback(
+        previewCb,
+        new Executor() {
+          @Override
+          public void execute(Runnable command) {
+            posted.add(command);
+          }
+        });
+    job.start(harness.decodeJob);
+
+    job.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+    job.onResourceReady(
+        harness.resource, harness.dataSource, harness.isLoadedFromAlternateCacheKey);
+    // Run the preview after the resource, as a slow callback executor might.
+    posted.get(0).run();
+
+    verify((PreviewCallback) previewCb, never()).onPreview(any(Bitmap.class));
+  }
+
   @Test
   public void testSubmitsDecodeJobToDiskCacheServiceWhenDecodingFromCacheOnStart() {
     EngineJob<Object> job = harness.getJob();
@@ -513,6 +662,13 @@ public class EngineJobTest {
     return result;
   }
 
+  private static ResourceCallback mockPreviewCallback() {
+    ResourceCallback result =
+        mock(ResourceCallback.class, withSettings().extraInterfaces(PreviewCallback.class));
+    when(result.getLock()).thenReturn(result);
+    return result;
+  }
+
   @SuppressWarnings("unchecked")
   private static class MultiCbHarness {
     final Key key = mock(Key.class);
@@ -545,6 +701,8 @@ public class EngineJobTest {
               sourceService,
               sourceUnlimitedService,
               animationService,
+              /* decodeExecutor= */ null,
+              /* eventListener= */ null,
               engineJobListener,
               resourceListener,
               pool,
@@ -578,9 +736,11 @@ public class EngineJobTest {
     final GlideExecutor sourceService = MockGlideExecutor.newMainThreadExecutor();
     final GlideExecutor sourceUnlimitedService = MockGlideExecutor.newMainThreadExecutor();
     final GlideExecutor animationService = MockGlideExecutor.newMainThreadExecutor();
+    GlideExecutor decodeService;
+    EngineEventListener eventListener;
     boolean isCacheable = true;
     boolean useUnlimitedSourceGeneratorPool = false;
-    final boolean useAnimationPool = false;
+    boolean useAnimationPool = false;
     final boolean onlyRetrieveFromCache = false;
     final DecodeJob<Object> decodeJob = mock(DecodeJob.class);
     final Pools.Pool<EngineJob<?>> pool = new Pools.SynchronizedPool<>(1);
@@ -595,6 +755,8 @@ public class EngineJobTest {
               sourceService,
               sourceUnlimitedService,
               animationService,
+              decodeService,
+              eventListener,
               engineJobListener,
               resourceListener,
               pool,
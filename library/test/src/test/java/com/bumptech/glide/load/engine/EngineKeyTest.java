@@ -1,6 +1,7 @@
 package com.bumptech.glide.load.engine;
 
 import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
 import androidx.annotation.NonNull;
@@ -189,4 +190,62 @@ public class EngineKeyTest {
                 diskOptions))
         .testEquals();
   }
+
+  @Test
+  public void buildProbeKey_onSameThread_reusesKey() {
+    EngineKeyFactory factory = new EngineKeyFactory();
+
+    EngineKey first = buildProbeKey(factory, "first");
+    EngineKey second = buildProbeKey(factory, "second");
+
+    assertThat(second).isSameInstanceAs(first);
+  }
+
+  @Test
+  public void buildKey_withProbeKey_returnsEqualKeyThatIsNotOverwritten() {
+    EngineKeyFactory factory = new EngineKeyFactory();
+    EngineKey probeKey = buildProbeKey(factory, "first");
+
+    EngineKey key = factory.buildKey(probeKey);
+    buildProbeKey(factory, "second");
+
+    assertThat(key).isNotSameInstanceAs(probeKey);
+    assertThat(key).isEqualTo(buildKey(factory, "first"));
+    assertThat(key.hashCode()).isEqualTo(buildKey(factory, "first").hashCode());
+  }
+
+  @Test
+  public void buildProbeKey_afterReuse_isEqualToKeyForNewArguments() {
+    EngineKeyFactory factory = new EngineKeyFactory();
+    buildProbeKey(factory, "first").hashCode();
+
+    EngineKey probeKey = buildProbeKey(factory, "second");
+
+    assertThat(probeKey).isEqualTo(buildKey(factory, "second"));
+    assertThat(probeKey.hashCode()).isEqualTo(buildKey(factory, "second").hashCode());
+  }
+
+  private static EngineKey buildProbeKey(EngineKeyFactory factory, String model) {
+    return factory.buildProbeKey(
+        model,
+        new ObjectKey("signature"),
+        100,
+        100,
+        Collections.<Class<?>, Transformation<?>>emptyMap(),
+        Object.class,
+        Object.class,
+        new Options());
+  }
+
+  private static EngineKey buildKey(EngineKeyFactory factory, String model) {
+    return factory.buildKey(
+        model,
+        new ObjectKey("signature"),
+        100,
+        100,
+        Collections.<Class<?>, Transformation<?>>emptyMap(),
+        Object.class,
+        Object.class,
+        new Options());
+  }
 }
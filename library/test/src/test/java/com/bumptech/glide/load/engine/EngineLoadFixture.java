@@ -0,0 +1,131 @@
+package com.bumptech.glide.load.engine;
+
+import static org.mockito.Mockito.mock;
+
+import com.bumptech.glide.GlideContext;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.executor.MockGlideExecutor;
+import com.bumptech.glide.request.ResourceCallback;
+import com.bumptech.glide.signature.EmptySignature;
+import com.bumptech.glide.tests.Util;
+import com.bumptech.glide.util.Executors;
+import java.util.Map;
+
+/**
+ * Loads models through a real {@link Engine} with a mock {@link Engine.DecodeJobFactory}, for tests
+ * of the memory lookups in {@link Engine#load}.
+ *
+ * <p>Every load uses the same arguments apart from the model, and resources returned by loads are
+ * released immediately.
+ */
+final class EngineLoadFixture {
+  private final Map<Class<?>, Transformation<?>> transformations;
+  private final Options options = new Options();
+  private final GlideContext glideContext = mock(GlideContext.class);
+  private final ResourceCallback cb = new ReleasingResourceCallback();
+  private final Engine engine;
+
+  EngineLoadFixture(
+      Map<Class<?>, Transformation<?>> transformations, Engine.DecodeJobFactory decodeJobFactory) {
+    this.transformations = transformations;
+    engine =
+        new Engine(
+            new LruResourceCache(Long.MAX_VALUE),
+            mock(DiskCache.Factory.class),
+            MockGlideExecutor.newMainThreadExecutor(),
+            MockGlideExecutor.newMainThreadExecutor(),
+            MockGlideExecutor.newMainThreadExecutor(),
+            MockGlideExecutor.newMainThreadExecutor(),
+            /* jobs= */ null,
+            /* keyFactory= */ null,
+            ActiveResources.withInlineReferenceQueuePolling(
+                /* isActiveResourceRetentionAllowed= */ false),
+            /* engineJobFactory= */ null,
+            decodeJobFactory,
+            /* resourceRecycler= */ null,
+            /* isActiveResourceRetentionAllowed= */ false);
+  }
+
+  /** Adds a resource for the given model to the active resources that's never released. */
+  void activate(Object model) {
+    EngineResource<Object> resource = completeJob(model);
+    // Never released, so the resource stays active no matter how many loads release it.
+    resource.acquire();
+  }
+
+  /** Adds a resource for the given model to the memory cache. */
+  void cache(Object model) {
+    EngineResource<Object> resource = completeJob(model);
+    resource.acquire();
+    // Releasing the only acquire moves the resource from the active resources to the cache.
+    resource.release();
+  }
+
+  private EngineResource<Object> completeJob(Object model) {
+    EngineKey key =
+        new EngineKeyFactory()
+            .buildKey(
+                model,
+                EmptySignature.obtain(),
+                100,
+                100,
+                transformations,
+                Object.class,
+                Object.class,
+                options);
+    EngineResource<Object> resource =
+        new EngineResource<>(
+            Util.<Object>mockResource(),
+            /* isMemoryCacheable= */ true,
+            /* isRecyclable= */ false,
+            key,
+            engine);
+    engine.onEngineJobComplete(mock(EngineJob.class), key, resource);
+    return resource;
+  }
+
+  Engine.LoadStatus load(Object model) {
+    return engine.load(
+        glideContext,
+        model,
+        EmptySignature.obtain(),
+        100,
+        100,
+        Object.class,
+        Object.class,
+        Priority.NORMAL,
+        DiskCacheStrategy.ALL,
+        transformations,
+        /* isTransformationRequired= */ false,
+        /* isScaleOnlyOrNoTransform= */ true,
+        options,
+        /* isMemoryCacheable= */ true,
+        /* useUnlimitedSourceExecutorPool= */ false,
+        /* useAnimationPool= */ false,
+        /* onlyRetrieveFromCache= */ false,
+        cb,
+        Executors.directExecutor());
+  }
+
+  /** Releases resources as soon as they're delivered, so that they move to the memory cache. */
+  static final class ReleasingResourceCallback implements ResourceCallback {
+    @Override
+    public void onResourceReady(
+        Resource<?> resource, DataSource dataSource, boolean isLoadedFromAlternateCacheKey) {
+      ((EngineResource<?>) resource).release();
+    }
+
+    @Override
+    public void onLoadFailed(GlideException e) {}
+
+    @Override
+    public Object getLock() {
+      return this;
+    }
+  }
+}
@@ -13,6 +13,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -39,6 +40,7 @@ import java.util.concurrent.Executor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
@@ -126,6 +128,24 @@ public class EngineTest {
         .onResourceReady(eq(harness.resource), eq(DataSource.MEMORY_CACHE), eq(false));
   }
 
+  @Test
+  public void load_withActiveResource_releasesProbeKey() {
+    harness.activeResources.activate(harness.cacheKey, harness.resource);
+
+    harness.doLoad();
+
+    verify(harness.keyFactory).releaseProbeKey(harness.cacheKey);
+  }
+
+  @Test
+  public void load_startingNewJob_releasesProbeKeyAfterCopyingIt() {
+    harness.doLoad();
+
+    InOrder inOrder = inOrder(harness.keyFactory);
+    inOrder.verify(harness.keyFactory).buildKey(harness.cacheKey);
+    inOrder.verify(harness.keyFactory).releaseProbeKey(harness.cacheKey);
+  }
+
   @Test
   public void testResourceIsAcquiredIfReturnedFromActiveResources() {
     harness.activeResources.activate(harness.cacheKey, harness.resource);
@@ -365,6 +385,18 @@ public class EngineTest {
     assertThat(harness.activeResources.get(harness.cacheKey)).isNull();
   }
 
+  @Test
+  public void getActiveResourceCount_countsResourcesUntilReleased() {
+    harness.activeResources.activate(harness.cacheKey, harness.resource);
+
+    assertThat(harness.getEngine().getActiveResourceCount()).isEqualTo(1);
+
+    harness.getEngine().onResourceReleased(harness.cacheKey, harness.resource);
+
+    assertThat(harness.getEngine().getActiveResourceCount()).isEqualTo(0);
+    assertThat(harness.getEngine().getReclaimedResourceCount()).isEqualTo(0);
+  }
+
   @Test
   public void testEngineAddedAsListenerToMemoryCache() {
     harness.getEngine();
@@ -389,7 +421,7 @@ public class EngineTest {
     harness.doLoad();
 
     verify(harness.keyFactory)
-        .buildKey(
+        .buildProbeKey(
             eq(harness.model),
             eq(harness.signature),
             eq(harness.width),
@@ -678,7 +710,7 @@ public class EngineTest {
     final boolean isScaleOnlyOrNoTransform = true;
 
     EngineTestHarness() {
-      when(keyFactory.buildKey(
+      when(keyFactory.buildProbeKey(
               eq(model),
               eq(signature),
               anyInt(),
@@ -688,6 +720,7 @@ public class EngineTest {
               eq(Object.class),
               eq(options)))
           .thenReturn(cacheKey);
+      when(keyFactory.buildKey(cacheKey)).thenReturn(cacheKey);
       when(resource.getResource()).thenReturn(mock(Resource.class));
 
       job = mock(EngineJob.class);
@@ -0,0 +1,259 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.engine.executor.GlideExecutor;
+import com.bumptech.glide.load.engine.executor.MockGlideExecutor;
+import com.bumptech.glide.signature.ObjectKey;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class ResourceEncodeQueueTest {
+  private static final int MAX_PENDING_ENCODES = 2;
+
+  private final ManualExecutorService manualExecutor = new ManualExecutorService();
+  private GlideExecutor executor;
+
+  @Before
+  public void setUp() {
+    executor = MockGlideExecutor.newTestExecutor(manualExecutor);
+  }
+
+  @Test
+  public void enqueue_doesNotWriteOnCallingThread() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    ResourceEncodeQueue.Encode encode = mockEncode("key");
+
+    queue.enqueue(encode);
+
+    verify(encode, never()).write();
+    assertThat(queue.getPendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void enqueue_writesOnExecutor() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    ResourceEncodeQueue.Encode encode = mockEncode("key");
+
+    queue.enqueue(encode);
+    manualExecutor.runAll();
+
+    verify(encode).write();
+    verify(encode, never()).cancel();
+    assertThat(queue.getWrittenCount()).isEqualTo(1);
+    assertThat(queue.getPendingCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void enqueue_writesInOrder() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    final StringBuilder order = new StringBuilder();
+    ResourceEncodeQueue.Encode first = new OrderedEncode("first", order);
+    ResourceEncodeQueue.Encode second = new OrderedEncode("second", order);
+
+    queue.enqueue(first);
+    queue.enqueue(second);
+    manualExecutor.runAll();
+
+    assertThat(order.toString()).isEqualTo("first,second,");
+  }
+
+  @Test
+  public void enqueue_withPendingEncodeForSameKey_cancelsNewEncode() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    ResourceEncodeQueue.Encode pending = mockEncode("key");
+    ResourceEncodeQueue.Encode duplicate = mockEncode("key");
+
+    queue.enqueue(pending);
+    queue.enqueue(duplicate);
+    manualExecutor.runAll();
+
+    verify(pending).write();
+    verify(duplicate).cancel();
+    verify(duplicate, never()).write();
+    assertThat(queue.getCoalescedCount()).isEqualTo(1);
+    assertThat(queue.getWrittenCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void enqueue_afterPreviousEncodeForSameKeyIsWritten_writesNewEncode() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    ResourceEncodeQueue.Encode first = mockEncode("key");
+    ResourceEncodeQueue.Encode second = mockEncode("key");
+
+    queue.enqueue(first);
+    manualExecutor.runAll();
+    queue.enqueue(second);
+    manualExecutor.runAll();
+
+    verify(second).write();
+    assertThat(queue.getCoalescedCount()).isEqualTo(0);
+    assertThat(queue.getWrittenCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void enqueue_whenFull_withDropOnOverflow_cancelsNewEncode() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    fill(queue);
+    ResourceEncodeQueue.Encode overflow = mockEncode("overflow");
+
+    queue.enqueue(overflow);
+
+    verify(overflow).cancel();
+    verify(overflow, never()).write();
+    assertThat(queue.getDroppedCount()).isEqualTo(1);
+    assertThat(queue.getPendingCount()).isEqualTo(MAX_PENDING_ENCODES);
+  }
+
+  @Test
+  public void enqueue_whenFull_withoutDropOnOverflow_writesOnCallingThread() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ false);
+    fill(queue);
+    ResourceEncodeQueue.Encode overflow = mockEncode("overflow");
+
+    queue.enqueue(overflow);
+
+    verify(overflow).write();
+    verify(overflow, never()).cancel();
+    assertThat(queue.getWrittenOnCallerCount()).isEqualTo(1);
+    assertThat(queue.getDroppedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void shutdown_cancelsPendingEncodes() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    ResourceEncodeQueue.Encode encode = mockEncode("key");
+    queue.enqueue(encode);
+
+    queue.shutdown();
+    manualExecutor.runAll();
+
+    verify(encode).cancel();
+    verify(encode, never()).write();
+    assertThat(queue.getDroppedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void enqueue_afterShutdown_cancelsEncode() {
+    ResourceEncodeQueue queue = newQueue(/* isDroppedOnOverflow= */ true);
+    queue.shutdown();
+    ResourceEncodeQueue.Encode encode = mockEncode("key");
+
+    queue.enqueue(encode);
+
+    verify(encode).cancel();
+    assertThat(queue.getDroppedCount()).isEqualTo(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_withZeroMaxPendingEncodes_throws() {
+    new ResourceEncodeQueue(executor, /* maxPendingEncodes= */ 0, /* isDroppedOnOverflow= */ true);
+  }
+
+  private ResourceEncodeQueue newQueue(boolean isDroppedOnOverflow) {
+    return new ResourceEncodeQueue(executor, MAX_PENDING_ENCODES, isDroppedOnOverflow);
+  }
+
+  private static void fill(ResourceEncodeQueue queue) {
+    for (int i = 0; i < MAX_PENDING_ENCODES; i++) {
+      queue.enqueue(mockEncode("pending" + i));
+    }
+  }
+
+  private static ResourceEncodeQueue.Encode mockEncode(String key) {
+    ResourceEncodeQueue.Encode result = mock(ResourceEncodeQueue.Encode.class);
+    when(result.getKey()).thenReturn(new ObjectKey(key));
+    return result;
+  }
+
+  private static final class OrderedEncode implements ResourceEncodeQueue.Encode {
+    private final String name;
+    private final StringBuilder order;
+
+    OrderedEncode(String name, StringBuilder order) {
+      this.name = name;
+      this.order = order;
+    }
+
+    @NonNull
+    @Override
+    public ObjectKey getKey() {
+      return new ObjectKey(name);
+    }
+
+    @Override
+    public void write() {
+      order.append(name).append(',');
+    }
+
+    @Override
+    public void cancel() {
+      throw new IllegalStateException("Unexpected cancel: " + name);
+    }
+  }
+
+  private static final class ManualExecutorService extends AbstractExecutorService {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private boolean isShutdown;
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+      if (isShutdown) {
+        throw new RejectedExecutionException();
+      }
+      tasks.add(command);
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      isShutdown = true;
+    }
+
+    @NonNull
+    @Override
+    public List<Runnable> shutdownNow() {
+      isShutdown = true;
+      return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return isShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return isShutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) {
+      return true;
+    }
+  }
+}
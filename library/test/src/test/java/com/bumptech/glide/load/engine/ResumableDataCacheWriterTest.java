@@ -0,0 +1,239 @@
+package com.bumptech.glide.load.engine;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.ResumableDataCacheWriter.PartialData;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.signature.ObjectKey;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class ResumableDataCacheWriterTest {
+  private static final String VALIDATOR = "\"etag\"";
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final byte[] data = new byte[10_000];
+  private final Key dataKey = new ObjectKey("data");
+  private final PartialDataCacheKey partialKey =
+      new PartialDataCacheKey(new ObjectKey("source"), new ObjectKey("signature"));
+  private FakeDiskCache diskCache;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    diskCache = new FakeDiskCache(temporaryFolder.getRoot());
+  }
+
+  @Test
+  public void write_withCompleteData_writesData() throws IOException {
+    put(newWriter(new ByteArrayInputStream(data), /* resumedFrom= */ null));
+
+    assertThat(Files.readAllBytes(diskCache.get(dataKey).toPath())).isEqualTo(data);
+    assertThat(diskCache.get(partialKey)).isNull();
+  }
+
+  @Test
+  public void write_withFailingData_keepsPartialData() throws IOException {
+    put(newWriter(new FailingInputStream(data, 3_000), null));
+
+    assertThat(diskCache.get(dataKey)).isNull();
+    PartialData partialData = PartialData.read(diskCache.get(partialKey));
+    assertThat(partialData.getLength()).isEqualTo(3_000L);
+    assertThat(partialData.getValidator()).isEqualTo(VALIDATOR);
+  }
+
+  @Test
+  public void write_whenCancelled_stopsAndKeepsPartialData() {
+    final ResumableDataCacheWriter[] writer = new ResumableDataCacheWriter[1];
+    InputStream cancellingStream =
+        new ByteArrayInputStream(data) {
+          @Override
+          public synchronized int read(byte[] buffer, int offset, int length) {
+            writer[0].cancel();
+            return super.read(buffer, offset, Math.min(length, 1_000));
+          }
+        };
+    writer[0] = newWriter(cancellingStream, null);
+
+    put(writer[0]);
+
+    assertThat(writer[0].isCancelled()).isTrue();
+    assertThat(diskCache.get(dataKey)).isNull();
+    assertThat(PartialData.read(diskCache.get(partialKey)).getLength()).isEqualTo(1_000L);
+  }
+
+  @Test
+  public void write_resumed_writesPartialDataFollowedByRemainingData() throws IOException {
+    put(newWriter(new FailingInputStream(data, 3_000), null));
+    PartialData partialData = PartialData.read(diskCache.get(partialKey));
+
+    put(newWriter(new ByteArrayInputStream(data, 3_000, data.length - 3_000), partialData));
+
+    assertThat(Files.readAllBytes(diskCache.get(dataKey).toPath())).isEqualTo(data);
+    assertThat(diskCache.get(partialKey)).isNull();
+  }
+
+  @Test
+  public void write_resumedAndFailingAgain_keepsAllPartialData() {
+    put(newWriter(new FailingInputStream(data, 3_000), null));
+    PartialData partialData = PartialData.read(diskCache.get(partialKey));
+    byte[] remaining = Arrays.copyOfRange(data, 3_000, data.length);
+
+    put(newWriter(new FailingInputStream(remaining, 2_000), partialData));
+
+    assertThat(diskCache.get(dataKey)).isNull();
+    assertThat(PartialData.read(diskCache.get(partialKey)).getLength()).isEqualTo(5_000L);
+  }
+
+  @Test
+  public void write_withCompleteData_deletesStalePartialData() throws IOException {
+    put(newWriter(new FailingInputStream(data, 3_000), null));
+    assertThat(diskCache.get(partialKey)).isNotNull();
+
+    // Not resumed from the partial data, for example because the server didn't support it.
+    put(newWriter(new ByteArrayInputStream(data), /* resumedFrom= */ null));
+
+    assertThat(Files.readAllBytes(diskCache.get(dataKey).toPath())).isEqualTo(data);
+    assertThat(diskCache.get(partialKey)).isNull();
+  }
+
+  @Test
+  public void write_withFailingData_leavesNoFilesOutsideTheDiskCache() {
+    put(newWriter(new FailingInputStream(data, 3_000), null));
+
+    assertThat(temporaryFolder.getRoot().listFiles())
+        .asList()
+        .containsExactly(diskCache.get(partialKey));
+  }
+
+  @Test
+  public void updatePartialData_withoutWrite_doesNothing() {
+    newWriter(new ByteArrayInputStream(data), null).updatePartialData();
+
+    assertThat(diskCache.get(partialKey)).isNull();
+    assertThat(temporaryFolder.getRoot().listFiles()).isEmpty();
+  }
+
+  @Test
+  public void read_withoutPartialData_returnsNull() throws IOException {
+    File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), data);
+
+    assertThat(PartialData.read(file)).isNull();
+    assertThat(PartialData.read(null)).isNull();
+  }
+
+  /** Writes to the data key and then updates the partial data, the same as SourceGenerator. */
+  private void put(ResumableDataCacheWriter writer) {
+    diskCache.put(dataKey, writer);
+    writer.updatePartialData();
+  }
+
+  private ResumableDataCacheWriter newWriter(
+      InputStream stream, @Nullable PartialData resumedFrom) {
+    return new ResumableDataCacheWriter(
+        diskCache, new LruArrayPool(), partialKey, stream, resumedFrom, VALIDATOR);
+  }
+
+  /** Returns the given bytes up to the given limit, then throws. */
+  private static final class FailingInputStream extends FilterInputStream {
+    private int remaining;
+
+    FailingInputStream(byte[] data, int limit) {
+      super(new ByteArrayInputStream(data));
+      remaining = limit;
+    }
+
+    @Override
+    public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+      if (remaining == 0) {
+        throw new IOException("Connection reset");
+      }
+      int read = super.read(buffer, offset, Math.min(length, remaining));
+      remaining -= read;
+      return read;
+    }
+  }
+
+  /**
+   * Commits writes by renaming files, like {@code DiskLruCache}, and fails if it's modified while
+   * it's writing.
+   */
+  private static final class FakeDiskCache implements DiskCache {
+    private final File directory;
+    private final Map<Key, File> files = new HashMap<>();
+    private int edits;
+    private boolean isWriting;
+
+    FakeDiskCache(File directory) {
+      this.directory = directory;
+    }
+
+    @Nullable
+    @Override
+    public File get(Key key) {
+      return files.get(key);
+    }
+
+    @Override
+    public void put(Key key, Writer writer) {
+      assertThat(isWriting).isFalse();
+      if (files.containsKey(key)) {
+        return;
+      }
+      File dirty = new File(directory, "dirty" + edits++);
+      isWriting = true;
+      boolean isWritten;
+      try {
+        isWritten = writer.write(dirty);
+      } finally {
+        isWriting = false;
+      }
+      if (isWritten) {
+        File clean = new File(directory, "clean" + edits++);
+        assertThat(dirty.renameTo(clean)).isTrue();
+        files.put(key, clean);
+      } else {
+        dirty.delete();
+      }
+    }
+
+    @Override
+    public void delete(Key key) {
+      assertThat(isWriting).isFalse();
+      File file = files.remove(key);
+      if (file != null) {
+        file.delete();
+      }
+    }
+
+    @Override
+    public void clear() {
+      files.clear();
+    }
+  }
+}
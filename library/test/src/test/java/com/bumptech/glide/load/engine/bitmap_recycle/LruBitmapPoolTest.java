@@ -15,6 +15,7 @@ import static org.mockito.Mockito.when;
 
 import android.graphics.Bitmap;
 import android.os.Build;
+import com.bumptech.glide.util.CacheStats;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -237,6 +238,24 @@ public class LruBitmapPoolTest {
     assertEquals(1, strategy.numPuts);
   }
 
+  @Test
+  public void getStats_countsRequestsPutsAndEvictions() {
+    fillPool(pool, MAX_SIZE + 2);
+    pool.put(createMutableBitmap(Bitmap.Config.RGB_565));
+    pool.get(100, 100, Bitmap.Config.ARGB_8888);
+    pool.clearMemory();
+    pool.get(100, 100, Bitmap.Config.ARGB_8888);
+
+    CacheStats stats = pool.getStats();
+    assertThat(stats.getHitCount()).isEqualTo(1);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+    assertThat(stats.getPutCount()).isEqualTo(MAX_SIZE + 3);
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.SIZE)).isEqualTo(2);
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.REJECTED)).isEqualTo(1);
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.TRIM)).isEqualTo(MAX_SIZE - 1);
+    assertThat(pool.evictionCount()).isEqualTo(MAX_SIZE + 1);
+  }
+
   private void fillPool(LruBitmapPool pool, int fillCount) {
     for (int i = 0; i < fillCount; i++) {
       pool.put(createMutableBitmap());
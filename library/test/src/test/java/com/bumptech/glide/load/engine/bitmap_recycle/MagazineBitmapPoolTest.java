@@ -0,0 +1,247 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN;
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class MagazineBitmapPoolTest {
+  // Large enough for each magazine to hold a few 10x10 ARGB_8888 Bitmaps.
+  private static final long MAX_SIZE = 16 * 1024;
+  private static final int MAGAZINE_SIZE = 2;
+  private static final int MAGAZINE_COUNT = 4;
+  private static final int BITMAP_BYTE_SIZE = 10 * 10 * 4;
+
+  private final ExecutorService background = Executors.newSingleThreadExecutor();
+  private final ExecutorService otherBackground = Executors.newSingleThreadExecutor();
+  private BitmapPool delegate;
+  private MagazineBitmapPool pool;
+
+  @Before
+  public void setUp() {
+    delegate = mock(BitmapPool.class);
+    when(delegate.getMaxSize()).thenReturn(MAX_SIZE);
+    when(delegate.getDirty(anyInt(), anyInt(), any(Bitmap.Config.class)))
+        .thenReturn(createBitmap());
+    when(delegate.get(anyInt(), anyInt(), any(Bitmap.Config.class))).thenReturn(createBitmap());
+    pool = new MagazineBitmapPool(delegate, MAGAZINE_SIZE, MAGAZINE_COUNT);
+  }
+
+  @After
+  public void tearDown() {
+    background.shutdown();
+    otherBackground.shutdown();
+  }
+
+  @Test
+  public void constructor_shrinksSharedPoolByMagazinesMaxSize() {
+    verify(delegate).setSizeMultiplier(0.75f);
+    assertThat(pool.getMaxSize()).isEqualTo(MAX_SIZE);
+  }
+
+  @Test
+  public void getDirty_onSameThreadAsPut_returnsBitmapWithoutUsingSharedPool() throws Exception {
+    final Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    assertThat(getDirty(background, 10, 10, Bitmap.Config.ARGB_8888)).isSameInstanceAs(bitmap);
+    verify(delegate, never()).put(any(Bitmap.class));
+    verify(delegate, never()).getDirty(anyInt(), anyInt(), any(Bitmap.Config.class));
+    assertThat(pool.magazineHitCount()).isEqualTo(1);
+    assertThat(pool.magazineMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void getDirty_onOtherThread_usesSharedPool() throws Exception {
+    Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    assertThat(getDirty(otherBackground, 10, 10, Bitmap.Config.ARGB_8888))
+        .isNotSameInstanceAs(bitmap);
+    verify(delegate).getDirty(10, 10, Bitmap.Config.ARGB_8888);
+    assertThat(pool.magazineMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getDirty_withDifferentDimensions_usesSharedPool() throws Exception {
+    Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    assertThat(getDirty(background, 10, 20, Bitmap.Config.ARGB_8888)).isNotSameInstanceAs(bitmap);
+    verify(delegate).getDirty(10, 20, Bitmap.Config.ARGB_8888);
+  }
+
+  @Test
+  public void getDirty_withNullConfig_matchesArgb8888() throws Exception {
+    Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    assertThat(getDirty(background, 10, 10, /* config= */ null)).isSameInstanceAs(bitmap);
+  }
+
+  @Test
+  public void get_fromMagazine_erasesBitmap() throws Exception {
+    final Bitmap bitmap = createBitmap();
+    bitmap.eraseColor(0xFFFF0000);
+    put(background, bitmap);
+
+    Bitmap result =
+        background
+            .submit(
+                new Callable<Bitmap>() {
+                  @Override
+                  public Bitmap call() {
+                    return pool.get(10, 10, Bitmap.Config.ARGB_8888);
+                  }
+                })
+            .get();
+
+    assertThat(result).isSameInstanceAs(bitmap);
+    assertThat(result.getPixel(0, 0)).isEqualTo(0);
+  }
+
+  @Test
+  public void put_withFullMagazine_movesOldestBitmapToSharedPool() throws Exception {
+    Bitmap oldest = createBitmap();
+    put(background, oldest);
+    put(background, createBitmap());
+    put(background, createBitmap());
+
+    verify(delegate).put(oldest);
+  }
+
+  @Test
+  public void put_withBitmapTooLargeForMagazine_usesSharedPool() throws Exception {
+    Bitmap large = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+    put(background, large);
+
+    verify(delegate).put(large);
+  }
+
+  @Test
+  public void put_withImmutableBitmap_usesSharedPool() throws Exception {
+    Bitmap immutable = createBitmap().copy(Bitmap.Config.ARGB_8888, /* isMutable= */ false);
+    put(background, immutable);
+
+    verify(delegate).put(immutable);
+  }
+
+  @Test
+  public void put_onMainThread_usesSharedPool() {
+    Bitmap bitmap = createBitmap();
+    pool.put(bitmap);
+
+    verify(delegate).put(bitmap);
+  }
+
+  @Test
+  public void trimMemory_flushesMagazinesToSharedPool() throws Exception {
+    Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    pool.trimMemory(TRIM_MEMORY_UI_HIDDEN);
+
+    verify(delegate).put(bitmap);
+    verify(delegate).trimMemory(TRIM_MEMORY_UI_HIDDEN);
+    assertThat(getDirty(background, 10, 10, Bitmap.Config.ARGB_8888)).isNotSameInstanceAs(bitmap);
+  }
+
+  @Test
+  public void clearMemory_flushesMagazinesToSharedPool() throws Exception {
+    Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    pool.clearMemory();
+
+    verify(delegate).put(bitmap);
+    verify(delegate).clearMemory();
+  }
+
+  @Test
+  public void setSizeMultiplier_flushesMagazinesAndUpdatesSharedPool() throws Exception {
+    Bitmap bitmap = createBitmap();
+    put(background, bitmap);
+
+    pool.setSizeMultiplier(0.5f);
+
+    verify(delegate).put(bitmap);
+    verify(delegate).setSizeMultiplier(0.375f);
+    assertThat(pool.getMaxSize()).isEqualTo(MAX_SIZE / 2);
+  }
+
+  @Test
+  public void put_fromManyShortLivedThreads_retainsAtMostEachMagazinesBitmaps()
+      throws InterruptedException {
+    int threadCount = 100;
+    for (int i = 0; i < threadCount; i++) {
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  pool.put(createBitmap());
+                  pool.put(createBitmap());
+                }
+              });
+      thread.start();
+      thread.join();
+    }
+
+    int retainedCount = MAGAZINE_COUNT * MAGAZINE_SIZE;
+    long retainedSize = (long) retainedCount * BITMAP_BYTE_SIZE;
+    assertThat(pool.getStats().getCurrentSize()).isEqualTo(retainedSize);
+    assertThat(pool.getStats().getCurrentSize()).isAtMost(pool.getMaxSize() / 4);
+    verify(delegate, times(2 * threadCount - retainedCount)).put(any(Bitmap.class));
+  }
+
+  private void put(ExecutorService executor, final Bitmap bitmap)
+      throws ExecutionException, InterruptedException {
+    executor
+        .submit(
+            new Runnable() {
+              @Override
+              public void run() {
+                pool.put(bitmap);
+              }
+            })
+        .get();
+  }
+
+  private Bitmap getDirty(
+      ExecutorService executor, final int width, final int height, final Bitmap.Config config)
+      throws ExecutionException, InterruptedException {
+    return executor
+        .submit(
+            new Callable<Bitmap>() {
+              @Override
+              public Bitmap call() {
+                return pool.getDirty(width, height, config);
+              }
+            })
+        .get();
+  }
+
+  private static Bitmap createBitmap() {
+    return Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+  }
+}
@@ -0,0 +1,238 @@
+package com.bumptech.glide.load.engine.bitmap_recycle;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN;
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.bumptech.glide.tests.ContentionBenchmark;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class SizeClassArrayPoolTest {
+  private static final int MAX_SIZE = 1024;
+  private SizeClassArrayPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new SizeClassArrayPool(MAX_SIZE, /* stripeCount= */ 4);
+  }
+
+  @Test
+  public void getCurrentSize_withNewPool_isZero() {
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void get_withPooledArrayOfSameSize_returnsPooledArray() {
+    byte[] array = new byte[100];
+    pool.put(array);
+
+    assertThat(pool.get(100, byte[].class)).isSameInstanceAs(array);
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void get_withPooledArrayTooSmallInSameSizeClass_allocatesNewArray() {
+    byte[] array = new byte[65];
+    pool.put(array);
+
+    byte[] result = pool.get(100, byte[].class);
+
+    assertThat(result).isNotSameInstanceAs(array);
+    assertThat(result.length).isEqualTo(100);
+  }
+
+  @Test
+  public void get_withPooledArrayInLargerSizeClass_returnsPooledArray() {
+    byte[] array = new byte[256];
+    pool.put(array);
+
+    assertThat(pool.get(100, byte[].class)).isSameInstanceAs(array);
+  }
+
+  @Test
+  public void get_withPooledArrayTooManySizeClassesLarger_allocatesNewArray() {
+    byte[] array = new byte[512];
+    pool.put(array);
+
+    assertThat(pool.get(64, byte[].class)).isNotSameInstanceAs(array);
+    assertThat(pool.getCurrentSize()).isEqualTo(512);
+  }
+
+  @Test
+  public void getExact_withLargerPooledArray_allocatesArrayOfExactSize() {
+    pool.put(new byte[101]);
+
+    byte[] result = pool.getExact(100, byte[].class);
+
+    assertThat(result.length).isEqualTo(100);
+  }
+
+  @Test
+  public void get_withIntArray_returnsPooledIntArray() {
+    int[] array = new int[10];
+    pool.put(array);
+
+    assertThat(pool.get(10, int[].class)).isSameInstanceAs(array);
+    assertThat(pool.get(10, byte[].class)).isNotSameInstanceAs(array);
+  }
+
+  @Test
+  public void put_withIntArray_countsElementSize() {
+    pool.put(new int[10]);
+
+    assertThat(pool.getCurrentSize()).isEqualTo(40);
+  }
+
+  @Test
+  public void put_withArrayLargerThanHalfOfPool_ignoresArray() {
+    pool.put(new byte[MAX_SIZE / 2 + 1]);
+
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void put_whenFull_dropsArray() {
+    pool.put(new byte[MAX_SIZE / 2]);
+    pool.put(new byte[MAX_SIZE / 2]);
+    byte[] dropped = new byte[1];
+    pool.put(dropped);
+
+    assertThat(pool.getCurrentSize()).isEqualTo(MAX_SIZE);
+    assertThat(pool.get(1, byte[].class)).isNotSameInstanceAs(dropped);
+  }
+
+  @Test
+  public void put_fromOtherThread_isAvailableToThisThread() throws InterruptedException {
+    final byte[] array = new byte[100];
+    Thread thread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                pool.put(array);
+              }
+            });
+    thread.start();
+    thread.join();
+
+    assertThat(pool.get(100, byte[].class)).isSameInstanceAs(array);
+  }
+
+  @Test
+  public void trimMemory_withUiHidden_evictsToHalfSize() {
+    pool.put(new byte[MAX_SIZE / 2]);
+    pool.put(new byte[MAX_SIZE / 4]);
+    pool.put(new byte[MAX_SIZE / 4]);
+
+    pool.trimMemory(TRIM_MEMORY_UI_HIDDEN);
+
+    assertThat(pool.getCurrentSize()).isEqualTo(MAX_SIZE / 2);
+  }
+
+  @Test
+  public void trimMemory_withBackground_clearsPool() {
+    pool.put(new byte[10]);
+    pool.put(new int[10]);
+
+    pool.trimMemory(TRIM_MEMORY_BACKGROUND);
+
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void clearMemory_clearsPool() {
+    pool.put(new byte[10]);
+    pool.put(new int[10]);
+
+    pool.clearMemory();
+
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void get_withUnsupportedType_throws() {
+    pool.get(10, long[].class);
+  }
+
+  @Test
+  public void getAndPut_concurrently_keepsSizeConsistent() throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      final int threadIndex = i;
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                    for (int j = 0; j < 10_000; j++) {
+                      int size = 1 + (j + threadIndex) % 64;
+                      pool.put(pool.get(size, byte[].class));
+                    }
+                  } catch (Throwable t) {
+                    failures.add(t);
+                  }
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failures).isEmpty();
+    assertThat(pool.getCurrentSize()).isAtMost(MAX_SIZE);
+    int currentSize = pool.getCurrentSize();
+    pool.clearMemory();
+    assertThat(currentSize).isGreaterThan(0);
+    assertThat(pool.getCurrentSize()).isEqualTo(0);
+  }
+
+  /**
+   * Prints the throughput of {@link LruArrayPool} and {@link SizeClassArrayPool} when decode
+   * threads repeatedly borrow and return standard sized buffers.
+   */
+  @Ignore("Benchmark, run manually")
+  @Test
+  public void benchmark_getAndPut() throws InterruptedException {
+    int maxSize = 4 * 1024 * 1024;
+    for (int threadCount : new int[] {1, 2, 4, 8, 16}) {
+      benchmark("LruArrayPool", new LruArrayPool(maxSize), threadCount);
+      benchmark("SizeClassArrayPool", new SizeClassArrayPool(maxSize), threadCount);
+    }
+  }
+
+  private static void benchmark(String name, final ArrayPool arrayPool, int threadCount)
+      throws InterruptedException {
+    ContentionBenchmark.run(
+        name,
+        threadCount,
+        new ContentionBenchmark.Operation() {
+          @Override
+          public void run(int threadIndex, long iteration) {
+            // Mirrors a decode, which borrows a stream buffer and a smaller temp storage buffer.
+            byte[] buffer = arrayPool.get(ArrayPool.STANDARD_BUFFER_SIZE_BYTES, byte[].class);
+            byte[] temp = arrayPool.get(16 * 1024, byte[].class);
+            arrayPool.put(temp);
+            arrayPool.put(buffer);
+          }
+        });
+  }
+}
@@ -0,0 +1,54 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.bumptech.glide.signature.ObjectKey;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DiskCacheBloomFilterTest {
+  private static final int CAPACITY = 10_000;
+  private final DiskCacheBloomFilter filter = new DiskCacheBloomFilter(CAPACITY);
+  private final SafeKeyGenerator safeKeyGenerator = new SafeKeyGenerator();
+
+  @Test
+  public void mightContain_withEmptyFilter_returnsFalse() {
+    assertThat(filter.mightContain(safeKey(0))).isFalse();
+  }
+
+  @Test
+  public void mightContain_afterPut_returnsTrue() {
+    for (int i = 0; i < CAPACITY; i++) {
+      filter.put(safeKey(i));
+    }
+    for (int i = 0; i < CAPACITY; i++) {
+      assertThat(filter.mightContain(safeKey(i))).isTrue();
+    }
+  }
+
+  @Test
+  public void mightContain_atCapacity_hasFewFalsePositives() {
+    for (int i = 0; i < CAPACITY; i++) {
+      filter.put(safeKey(i));
+    }
+    int falsePositives = 0;
+    for (int i = CAPACITY; i < 2 * CAPACITY; i++) {
+      if (filter.mightContain(safeKey(i))) {
+        falsePositives++;
+      }
+    }
+    // The filter is sized for about 1%.
+    assertThat(falsePositives).isLessThan(CAPACITY * 3 / 100);
+  }
+
+  @Test
+  public void getCapacity_withSmallExpectedSize_usesMinimumCapacity() {
+    assertThat(new DiskCacheBloomFilter(0).getCapacity()).isGreaterThan(0);
+  }
+
+  private String safeKey(int i) {
+    return safeKeyGenerator.getSafeKey(new ObjectKey("key" + i));
+  }
+}
@@ -2,7 +2,10 @@ package com.bumptech.glide.load.engine.cache;
 
 import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.mock;
@@ -12,6 +15,7 @@ import androidx.test.core.app.ApplicationProvider;
 import com.bumptech.glide.load.Key;
 import com.bumptech.glide.signature.ObjectKey;
 import com.bumptech.glide.tests.Util;
+import com.bumptech.glide.util.CacheStats;
 import java.io.File;
 import java.io.IOException;
 import org.junit.After;
@@ -83,6 +87,31 @@ public class DiskLruCacheWrapperTest {
     assertArrayEquals(data, received);
   }
 
+  @Test
+  public void getStats_countsLookupsAndPuts() {
+    cache.get(key);
+    cache.put(
+        key,
+        new DiskCache.Writer() {
+          @Override
+          public boolean write(@NonNull File file) {
+            try {
+              Util.writeFile(file, data);
+            } catch (IOException e) {
+              fail(e.toString());
+            }
+            return true;
+          }
+        });
+    cache.get(key);
+
+    CacheStats stats = ((CacheStats.Provider) cache).getStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(1, stats.getPutCount());
+    assertEquals(data.length, stats.getCurrentSize());
+  }
+
   @Test
   public void testDoesNotCommitIfWriterReturnsFalse() {
     cache.put(
@@ -171,4 +200,90 @@ public class DiskLruCacheWrapperTest {
 
     cache.get(mock(Key.class));
   }
+
+  @Test
+  public void get_withMurmurDigest_returnsPutData() throws IOException {
+    DiskCache murmurCache = createMurmurCache();
+    put(murmurCache);
+
+    assertArrayEquals(data, Util.readFile(murmurCache.get(key), data.length));
+  }
+
+  @Test
+  public void get_afterReopeningWithSameDigest_returnsPutData() throws IOException {
+    put(createMurmurCache());
+
+    DiskCache reopened = createMurmurCache();
+
+    assertArrayEquals(data, Util.readFile(reopened.get(key), data.length));
+  }
+
+  @Test
+  public void get_afterReopeningWithDifferentDigest_clearsPreviousEntries() {
+    put(cache);
+    File previousFile = cache.get(key);
+
+    DiskCache murmurCache = createMurmurCache();
+
+    assertNull(murmurCache.get(key));
+    assertFalse(previousFile.exists());
+  }
+
+  @Test
+  public void mightContain_beforeDiskCacheIsOpened_returnsTrue() {
+    assertTrue(((DiskCache.PresenceIndex) cache).mightContain(key));
+  }
+
+  @Test
+  public void mightContain_withMissingKey_returnsFalse() {
+    assertNull(cache.get(key));
+
+    assertFalse(((DiskCache.PresenceIndex) cache).mightContain(key));
+  }
+
+  @Test
+  public void mightContain_afterPut_returnsTrue() {
+    put(cache);
+
+    assertTrue(((DiskCache.PresenceIndex) cache).mightContain(key));
+  }
+
+  @Test
+  public void mightContain_afterReopening_returnsTrueForPreviousEntries() throws IOException {
+    put(cache);
+
+    DiskCache reopened = DiskLruCacheWrapper.create(dir, 10 * 1024 * 1024);
+    assertArrayEquals(data, Util.readFile(reopened.get(key), data.length));
+    assertTrue(((DiskCache.PresenceIndex) reopened).mightContain(key));
+  }
+
+  @Test
+  public void get_afterDelete_returnsNull() {
+    put(cache);
+
+    cache.delete(key);
+
+    assertNull(cache.get(key));
+  }
+
+  private DiskCache createMurmurCache() {
+    return DiskLruCacheWrapper.create(
+        dir, 1024 * 1024, /* journalFlushDelayMillis= */ 0, SafeKeyDigest.MURMUR3_128);
+  }
+
+  private void put(DiskCache diskCache) {
+    diskCache.put(
+        key,
+        new DiskCache.Writer() {
+          @Override
+          public boolean write(@NonNull File file) {
+            try {
+              Util.writeFile(file, data);
+            } catch (IOException e) {
+              fail(e.toString());
+            }
+            return true;
+          }
+        });
+  }
 }
@@ -16,6 +16,7 @@ import static org.mockito.Mockito.when;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.bumptech.glide.util.CacheStats;
 import com.bumptech.glide.util.LruCache;
 import org.junit.Before;
 import org.junit.Test;
@@ -410,6 +411,41 @@ public class LruCacheTest {
     assertEquals(SIZE / 2, cache.getCurrentSize());
   }
 
+  @Test
+  public void getStats_countsHitsAndMisses() {
+    String key = getKey();
+    cache.put(key, new Object());
+
+    cache.get(key);
+    cache.get(getKey());
+
+    CacheStats stats = cache.getStats();
+    assertThat(stats.getHitCount()).isEqualTo(1);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+    assertThat(stats.getPutCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getStats_countsEvictionsByCause() {
+    for (int i = 0; i < SIZE + 1; i++) {
+      cache.put(getKey(), new Object());
+    }
+    String replacedKey = getKey();
+    cache.put(replacedKey, new Object());
+    cache.put(replacedKey, new Object());
+    when(listener.getSize(any())).thenReturn(SIZE);
+    cache.put(getKey(), new Object());
+    cache.clearMemory();
+
+    CacheStats stats = cache.getStats();
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.SIZE)).isEqualTo(2);
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.REPLACED)).isEqualTo(1);
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.REJECTED)).isEqualTo(1);
+    assertThat(stats.getEvictionCount(CacheStats.EvictionCause.TRIM)).isEqualTo(SIZE);
+    assertThat(stats.getCurrentSize()).isEqualTo(0);
+    assertThat(stats.getMaxSize()).isEqualTo(SIZE);
+  }
+
   private String getKey() {
     currentKey += "1";
     return currentKey;
@@ -0,0 +1,76 @@
+package com.bumptech.glide.load.engine.cache;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.signature.ObjectKey;
+import com.bumptech.glide.tests.ContentionBenchmark;
+
+/**
+ * Compares the throughput of {@link LruResourceCache} and {@link StripedLruResourceCache} with the
+ * remove and put pattern {@link com.bumptech.glide.load.engine.Engine} uses while scrolling.
+ *
+ * <p>Run {@link #main(String[])} manually, it's not part of the unit test suite.
+ */
+public final class MemoryCacheContentionBenchmark {
+  private static final int KEY_COUNT = 4096;
+  private static final int RESOURCE_SIZE = 1024;
+  private static final int[] THREAD_COUNTS = new int[] {1, 2, 4, 8, 16};
+
+  private MemoryCacheContentionBenchmark() {}
+
+  public static void main(String[] args) throws InterruptedException {
+    final Key[] keys = new Key[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys[i] = new ObjectKey(i);
+    }
+    // Fits about three quarters of the keys so that some gets miss and some puts evict.
+    long cacheSize = (long) KEY_COUNT * RESOURCE_SIZE * 3 / 4;
+    for (int threadCount : THREAD_COUNTS) {
+      run("LruResourceCache", threadCount, new LruResourceCache(cacheSize), keys);
+      run("StripedLruResourceCache", threadCount, new StripedLruResourceCache(cacheSize), keys);
+    }
+  }
+
+  private static void run(String name, int threadCount, final MemoryCache cache, final Key[] keys)
+      throws InterruptedException {
+    final Resource<?> resource = new FakeResource();
+    ContentionBenchmark.run(
+        name,
+        threadCount,
+        new ContentionBenchmark.Operation() {
+          @Override
+          public void run(int threadIndex, long iteration) {
+            Key key = keys[(int) ((iteration * 31 + threadIndex * 997) % keys.length)];
+            // Engine removes resources from the memory cache on a hit and puts them back when
+            // they're released.
+            Resource<?> removed = cache.remove(key);
+            cache.put(key, removed != null ? removed : resource);
+          }
+        });
+  }
+
+  private static final class FakeResource implements Resource<Object> {
+    private final Object object = new Object();
+
+    @NonNull
+    @Override
+    public Class<Object> getResourceClass() {
+      return Object.class;
+    }
+
+    @NonNull
+    @Override
+    public Object get() {
+      return object;
+    }
+
+    @Override
+    public int getSize() {
+      return RESOURCE_SIZE;
+    }
+
+    @Override
+    public void recycle() {}
+  }
+}
@@ -0,0 +1,136 @@
+package com.bumptech.glide.load.engine.cache;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.signature.ObjectKey;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Replays a trace of memory cache lookups against {@link LruResourceCache} and {@link
+ * TinyLfuResourceCache} and prints the hit rate of each.
+ *
+ * <p>Run {@link #main(String[])} manually, it's not part of the unit test suite. Arguments are the
+ * cache size in bytes and, optionally, the path to a trace file with one {@code <key> <size>} pair
+ * per line in request order. Without a trace file, a synthetic trace of a feed that repeatedly
+ * shows a small set of avatars among a long list of one-off thumbnails is used.
+ */
+public final class MemoryCacheTraceReplay {
+  private static final long DEFAULT_CACHE_SIZE = 20 * 1024 * 1024;
+
+  private MemoryCacheTraceReplay() {}
+
+  public static void main(String[] args) throws IOException {
+    long cacheSize = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_CACHE_SIZE;
+    List<TraceEntry> trace = args.length > 1 ? readTrace(args[1]) : syntheticFeedTrace();
+
+    replay("LruResourceCache", new LruResourceCache(cacheSize), trace);
+    replay("TinyLfuResourceCache", new TinyLfuResourceCache(cacheSize), trace);
+  }
+
+  private static void replay(String name, MemoryCache cache, List<TraceEntry> trace) {
+    long hits = 0;
+    for (TraceEntry entry : trace) {
+      // Mirrors Engine, which removes a resource from the cache when it's used and puts it back
+      // once it's released.
+      Resource<?> resource = cache.remove(entry.key);
+      if (resource != null) {
+        hits++;
+      } else {
+        resource = new FakeResource(entry.size);
+      }
+      cache.put(entry.key, resource);
+    }
+    System.out.println(
+        String.format(
+            Locale.US,
+            "%-24s requests=%-8d hit rate=%.2f%%",
+            name,
+            trace.size(),
+            100d * hits / trace.size()));
+  }
+
+  private static List<TraceEntry> readTrace(String path) throws IOException {
+    List<TraceEntry> result = new ArrayList<>();
+    BufferedReader reader = new BufferedReader(new FileReader(path));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length == 2) {
+          result.add(new TraceEntry(new ObjectKey(parts[0]), Integer.parseInt(parts[1])));
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return result;
+  }
+
+  private static List<TraceEntry> syntheticFeedTrace() {
+    int avatarSize = 96 * 96 * 4;
+    int thumbnailSize = 512 * 512 * 4;
+    Random random = new Random(0);
+    List<TraceEntry> result = new ArrayList<>();
+    int nextThumbnail = 0;
+    for (int row = 0; row < 20_000; row++) {
+      result.add(new TraceEntry(new ObjectKey("avatar" + random.nextInt(50)), avatarSize));
+      // Flings show many thumbnails in a row, otherwise users scroll back and forth a little.
+      if (random.nextInt(10) == 0) {
+        for (int i = 0; i < 40; i++) {
+          result.add(new TraceEntry(new ObjectKey("thumb" + nextThumbnail++), thumbnailSize));
+        }
+      } else {
+        int thumbnail = Math.max(0, nextThumbnail - random.nextInt(5));
+        result.add(new TraceEntry(new ObjectKey("thumb" + thumbnail), thumbnailSize));
+        nextThumbnail = Math.max(nextThumbnail, thumbnail + 1);
+      }
+    }
+    return result;
+  }
+
+  private static final class TraceEntry {
+    private final Key key;
+    private final int size;
+
+    TraceEntry(Key key, int size) {
+      this.key = key;
+      this.size = size;
+    }
+  }
+
+  private static final class FakeResource implements Resource<Object> {
+    private final Object object = new Object();
+    private final int size;
+
+    FakeResource(int size) {
+      this.size = size;
+    }
+
+    @NonNull
+    @Override
+    public Class<Object> getResourceClass() {
+      return Object.class;
+    }
+
+    @NonNull
+    @Override
+    public Object get() {
+      return object;
+    }
+
+    @Override
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    public void recycle() {}
+  }
+}
@@ -1,11 +1,15 @@
 package com.bumptech.glide.load.engine.cache;
 
 import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import androidx.annotation.NonNull;
 import com.bumptech.glide.load.Key;
+import com.google.common.hash.Hashing;
 import java.security.MessageDigest;
+import java.util.Random;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.junit.Before;
@@ -36,6 +40,46 @@ public class SafeKeyGeneratorTest {
     }
   }
 
+  @Test
+  public void testMurmurKeysAreValidForDiskCache() {
+    keyGenerator = new SafeKeyGenerator(SafeKeyDigest.MURMUR3_128);
+    final Pattern diskCacheRegex = Pattern.compile("[a-z2-7]{26}");
+    for (int i = 0; i < 1000; i++) {
+      String key = getRandomKeyFromGenerator();
+      Matcher matcher = diskCacheRegex.matcher(key);
+      assertTrue(key, matcher.matches());
+    }
+  }
+
+  @Test
+  public void testMurmurKeyMatchesReferenceImplementation() {
+    keyGenerator = new SafeKeyGenerator(SafeKeyDigest.MURMUR3_128);
+
+    assertEquals("akn32qntu7mmwgi5vzegvea6lm", keyGenerator.getSafeKey(new MockKey("hello")));
+  }
+
+  @Test
+  public void testMurmurDigestMatchesReferenceImplementationForPartialUpdates() {
+    MessageDigest digest = SafeKeyDigest.MURMUR3_128.createMessageDigest();
+    Random random = new Random(0);
+    for (int i = 0; i < 1000; i++) {
+      byte[] data = new byte[random.nextInt(100)];
+      random.nextBytes(data);
+      int offset = 0;
+      while (offset < data.length) {
+        int length = random.nextInt(data.length - offset + 1);
+        if (length == 1) {
+          digest.update(data[offset]);
+        } else {
+          digest.update(data, offset, length);
+        }
+        offset += length;
+      }
+
+      assertArrayEquals(Hashing.murmur3_128().hashBytes(data).asBytes(), digest.digest());
+    }
+  }
+
   private String getRandomKeyFromGenerator() {
     return keyGenerator.getSafeKey(new MockKey(getNextId()));
   }
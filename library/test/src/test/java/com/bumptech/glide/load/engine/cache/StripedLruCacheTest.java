@@ -0,0 +1,278 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.util.StripedLruCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StripedLruCacheTest {
+  private static final int SIZE = 10;
+  private StripedLruCache<String, Object> cache;
+  private CacheListener listener;
+  private String currentKey;
+
+  @Before
+  public void setUp() {
+    currentKey = "";
+    listener = mock(CacheListener.class);
+    cache = new TestStripedLruCache(SIZE, listener);
+    when(listener.getSize(any())).thenReturn(1);
+  }
+
+  @Test
+  public void testCanAddAndRetrieveItem() {
+    String key = getKey();
+    Object object = new Object();
+
+    cache.put(key, object);
+
+    assertEquals(object, cache.get(key));
+  }
+
+  @Test
+  public void testItIsSizeLimited() {
+    for (int i = 0; i < SIZE; i++) {
+      cache.put(getKey(), new Object());
+    }
+    verify(listener, never()).onItemRemoved(any());
+    cache.put(getKey(), new Object());
+    verify(listener).onItemRemoved(any());
+  }
+
+  @Test
+  public void testLeastRecentlyAddedKeyEvictedFirstAcrossSegments() {
+    Object first = new Object();
+    cache.put(getKey(), first);
+    for (int i = 0; i < SIZE; i++) {
+      cache.put(getKey(), new Object());
+    }
+
+    verify(listener).onItemRemoved(eq(first));
+    verify(listener, times(1)).onItemRemoved(any(Object.class));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedKeyEvictedFirstAcrossSegments() {
+    String mostRecentlyUsedKey = getKey();
+    Object mostRecentlyUsedObject = new Object();
+    String leastRecentlyUsedKey = getKey();
+    Object leastRecentlyUsedObject = new Object();
+
+    cache.put(mostRecentlyUsedKey, mostRecentlyUsedObject);
+    cache.put(leastRecentlyUsedKey, leastRecentlyUsedObject);
+
+    cache.get(mostRecentlyUsedKey);
+    for (int i = 0; i < SIZE - 1; i++) {
+      cache.put(getKey(), new Object());
+    }
+
+    verify(listener).onItemRemoved(eq(leastRecentlyUsedObject));
+    verify(listener, times(1)).onItemRemoved(any(Object.class));
+  }
+
+  @Test
+  public void testItemLargerThanCacheIsImmediatelyEvicted() {
+    Object tooLarge = new Object();
+    when(listener.getSize(eq(tooLarge))).thenReturn(SIZE + 1);
+    cache.put(getKey(), tooLarge);
+
+    verify(listener).onItemRemoved(eq(tooLarge));
+    assertEquals(0, cache.getCurrentSize());
+  }
+
+  @Test
+  public void put_withSameKeyAndValueTwice_doesNotEvictItems() {
+    String key = getKey();
+    Object value = new Object();
+    cache.put(key, value);
+    cache.put(key, value);
+
+    verify(listener, never()).onItemRemoved(any());
+    assertEquals(1, cache.getCurrentSize());
+  }
+
+  @Test
+  public void put_withNullValue_removesAndNotifiesForExistingItem() {
+    String key = getKey();
+    Object value = new Object();
+    cache.put(key, value);
+    cache.put(key, null);
+
+    verify(listener).onItemRemoved(value);
+    assertFalse(cache.contains(key));
+    assertEquals(0, cache.getCurrentSize());
+  }
+
+  @Test
+  public void testClearMemoryRemovesAllItems() {
+    String first = getKey();
+    String second = getKey();
+    cache.put(first, new Object());
+    cache.put(second, new Object());
+
+    cache.clearMemory();
+
+    assertFalse(cache.contains(first));
+    assertFalse(cache.contains(second));
+    assertEquals(0, cache.getCurrentSize());
+  }
+
+  @Test
+  public void testCanDecreaseSizeDynamically() {
+    for (int i = 0; i < SIZE; i++) {
+      cache.put(getKey(), new Object());
+    }
+    float smallerMultiplier = 0.4f;
+
+    cache.setSizeMultiplier(smallerMultiplier);
+
+    verify(listener, times((int) (SIZE * (1 - smallerMultiplier)))).onItemRemoved(any());
+    assertEquals(SIZE * smallerMultiplier, cache.getCurrentSize(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThrowsIfMultiplierLessThanZero() {
+    cache.setSizeMultiplier(-1);
+  }
+
+  @Test
+  public void testCanRemoveKeys() {
+    String key = getKey();
+    Object value = new Object();
+    cache.put(key, value);
+
+    assertThat(cache.remove(key)).isEqualTo(value);
+    assertNull(cache.get(key));
+    assertFalse(cache.contains(key));
+    assertEquals(0, cache.getCurrentSize());
+    verify(listener, never()).onItemRemoved(any());
+  }
+
+  @Test
+  public void getCurrentSize_afterRemovingItemWhoseSizeChanged_returnsZero() {
+    Object itemWhoseSizeWillChange = new Object();
+    when(listener.getSize(itemWhoseSizeWillChange)).thenReturn(SIZE - 1).thenReturn(SIZE / 2);
+    String key = getKey();
+    cache.put(key, itemWhoseSizeWillChange);
+    cache.remove(key);
+
+    assertThat(cache.getCurrentSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCacheContainsAddedItem() {
+    String key = getKey();
+    cache.put(key, new Object());
+    assertTrue(cache.contains(key));
+  }
+
+  @Test
+  public void concurrentPutsAndRemoves_keepSizeWithinBoundsAndConsistent() throws Exception {
+    final int threadCount = 8;
+    final int iterations = 10_000;
+    final AtomicInteger evictions = new AtomicInteger();
+    final StripedLruCache<Integer, Object> concurrentCache =
+        new StripedLruCache<Integer, Object>(SIZE * 10, /* concurrencyLevel= */ 4) {
+          @Override
+          protected void onItemEvicted(@NonNull Integer key, @Nullable Object item) {
+            evictions.incrementAndGet();
+          }
+        };
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Throwable> failures = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      final int offset = i;
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                    for (int j = 0; j < iterations; j++) {
+                      Integer key = (j * 7 + offset) % (SIZE * 20);
+                      if (j % 3 == 0) {
+                        concurrentCache.remove(key);
+                      } else if (concurrentCache.get(key) == null) {
+                        concurrentCache.put(key, new Object());
+                      }
+                    }
+                  } catch (Throwable t) {
+                    synchronized (failures) {
+                      failures.add(t);
+                    }
+                  }
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failures).isEmpty();
+    assertThat(evictions.get()).isGreaterThan(0);
+    assertThat(concurrentCache.getCurrentSize()).isAtMost(concurrentCache.getMaxSize());
+    int count = 0;
+    for (int key = 0; key < SIZE * 20; key++) {
+      if (concurrentCache.contains(key)) {
+        count++;
+      }
+    }
+    assertThat(concurrentCache.getCurrentSize()).isEqualTo(count);
+  }
+
+  private String getKey() {
+    currentKey += "1";
+    return currentKey;
+  }
+
+  private interface CacheListener {
+    void onItemRemoved(Object item);
+
+    int getSize(Object item);
+  }
+
+  private static class TestStripedLruCache extends StripedLruCache<String, Object> {
+    private final CacheListener listener;
+
+    TestStripedLruCache(int size, CacheListener listener) {
+      super(size);
+      this.listener = listener;
+    }
+
+    @Override
+    protected void onItemEvicted(@NonNull String key, @Nullable Object item) {
+      listener.onItemRemoved(item);
+    }
+
+    @Override
+    protected int getSize(@Nullable Object item) {
+      return listener.getSize(item);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.bumptech.glide.load.engine.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.MemoryCache.ResourceRemovedListener;
+import com.bumptech.glide.signature.ObjectKey;
+import com.bumptech.glide.tests.Util;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TinyLfuResourceCacheTest {
+  private static final int SIZE = 10;
+  private TinyLfuResourceCache cache;
+  private ResourceRemovedListener listener;
+
+  @Before
+  public void setUp() {
+    cache = new TinyLfuResourceCache(SIZE);
+    listener = mock(ResourceRemovedListener.class);
+    cache.setResourceRemovedListener(listener);
+  }
+
+  @Test
+  public void put_withSpaceAvailable_admitsNewResource() {
+    Key key = new ObjectKey("key");
+    Resource<?> resource = mockResource();
+
+    cache.put(key, resource);
+
+    assertThat(cache.get(key)).isEqualTo(resource);
+    assertThat(cache.getRejectedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void put_whenFull_withLessFrequentResource_rejectsResource() {
+    fillWithFrequentlyRequested();
+    Key oneOff = new ObjectKey("oneOff");
+    Resource<?> oneOffResource = mockResource();
+    cache.remove(oneOff);
+
+    cache.put(oneOff, oneOffResource);
+
+    assertThat(cache.remove(oneOff)).isNull();
+    assertThat(cache.getRejectedCount()).isEqualTo(1);
+    verify(listener).onResourceRemoved(oneOffResource);
+  }
+
+  @Test
+  public void put_whenFull_withMoreFrequentResource_evictsLeastRecentlyUsed() {
+    Resource<?> eldest = mockResource();
+    Key eldestKey = new ObjectKey(0);
+    cache.put(eldestKey, eldest);
+    for (int i = 1; i < SIZE; i++) {
+      cache.put(new ObjectKey(i), mockResource());
+    }
+    Key popular = new ObjectKey("popular");
+    for (int i = 0; i < 3; i++) {
+      cache.remove(popular);
+    }
+
+    cache.put(popular, mockResource());
+
+    assertThat(cache.getRejectedCount()).isEqualTo(0);
+    verify(listener).onResourceRemoved(eldest);
+  }
+
+  @Test
+  public void scanOfOneOffResources_doesNotEvictFrequentlyRequestedResources() {
+    fillWithFrequentlyRequested();
+
+    for (int i = 0; i < SIZE * 10; i++) {
+      Key oneOff = new ObjectKey("oneOff" + i);
+      cache.remove(oneOff);
+      cache.put(oneOff, mockResource());
+    }
+
+    for (int i = 0; i < SIZE; i++) {
+      assertThat(cache.get(new ObjectKey(i))).isNotNull();
+    }
+  }
+
+  @Test
+  public void hitAndMissCounts_trackLookups() {
+    Key key = new ObjectKey("key");
+    cache.remove(key);
+    cache.put(key, mockResource());
+    cache.remove(key);
+
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  public void put_withExistingKey_isNotFiltered() {
+    fillWithFrequentlyRequested();
+    Key key = new ObjectKey(0);
+    Resource<?> replacement = mockResource();
+
+    cache.put(key, replacement);
+
+    assertThat(cache.get(key)).isEqualTo(replacement);
+    verify(listener, never()).onResourceRemoved(replacement);
+  }
+
+  private void fillWithFrequentlyRequested() {
+    for (int i = 0; i < SIZE; i++) {
+      Key key = new ObjectKey(i);
+      for (int j = 0; j < 3; j++) {
+        cache.remove(key);
+      }
+      cache.put(key, mockResource());
+    }
+  }
+
+  private static Resource<?> mockResource() {
+    Resource<?> resource = Util.mockResource();
+    when(resource.getSize()).thenReturn(1);
+    return resource;
+  }
+}
@@ -8,7 +8,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
@@ -50,6 +54,183 @@ public class GlideExecutorTest {
     assertThat(resultPriorities).containsExactly(5, 1, 2, 3, 4).inOrder();
   }
 
+  @Test
+  public void execute_withSerialPerKey_runsRunnablesWithSameKeyInOrderOneAtATime()
+      throws InterruptedException {
+    final List<Integer> results = Collections.synchronizedList(new ArrayList<Integer>());
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicBoolean overlapped = new AtomicBoolean();
+    GlideExecutor executor =
+        GlideExecutor.newDiskCacheBuilder().setThreadCount(4).setSerialPerKey(true).build();
+    for (int i = 0; i < 20; i++) {
+      final int index = i;
+      executor.execute(
+          new MockKeyedRunnable(
+              "key",
+              new Runnable() {
+                @Override
+                public void run() {
+                  if (running.incrementAndGet() > 1) {
+                    overlapped.set(true);
+                  }
+                  results.add(index);
+                  running.decrementAndGet();
+                }
+              }));
+    }
+
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(overlapped.get()).isFalse();
+    assertThat(results).hasSize(20);
+    assertThat(results).isInOrder();
+  }
+
+  @Test
+  public void execute_withSerialPerKey_runsRunnablesWithDifferentKeysInParallel()
+      throws InterruptedException {
+    final CountDownLatch otherKeyRan = new CountDownLatch(1);
+    final AtomicBoolean sawOtherKey = new AtomicBoolean();
+    GlideExecutor executor =
+        GlideExecutor.newDiskCacheBuilder().setThreadCount(2).setSerialPerKey(true).build();
+    executor.execute(
+        new MockKeyedRunnable(
+            "first",
+            new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  sawOtherKey.set(otherKeyRan.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }
+            }));
+    // Queued behind the blocked runnable, but mustn't take the second thread.
+    executor.execute(new MockKeyedRunnable("first", new NoOpRunnable()));
+    executor.execute(
+        new MockKeyedRunnable(
+            "second",
+            new Runnable() {
+              @Override
+              public void run() {
+                otherKeyRan.countDown();
+              }
+            }));
+
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(sawOtherKey.get()).isTrue();
+  }
+
+  @Test
+  public void execute_withExecutor_runsLoadsInPriorityOrder() throws InterruptedException {
+    ExecutorService backingExecutor = Executors.newCachedThreadPool();
+    GlideExecutor executor =
+        GlideExecutor.newSourceBuilder().setThreadCount(1).setExecutor(backingExecutor).build();
+
+    assertThat(runInPriorityOrder(executor)).containsExactly(5, 1, 2, 3, 4).inOrder();
+    assertThat(backingExecutor.isShutdown()).isFalse();
+    backingExecutor.shutdown();
+  }
+
+  @Test
+  public void execute_withExecutor_passesThrowablesToStrategy() throws InterruptedException {
+    ExecutorService backingExecutor = Executors.newCachedThreadPool();
+    final List<Throwable> throwables = Collections.synchronizedList(new ArrayList<Throwable>());
+    GlideExecutor executor =
+        GlideExecutor.newSourceBuilder()
+            .setExecutor(backingExecutor)
+            .setUncaughtThrowableStrategy(
+                new GlideExecutor.UncaughtThrowableStrategy() {
+                  @Override
+                  public void handle(Throwable t) {
+                    throwables.add(t);
+                  }
+                })
+            .build();
+    final RuntimeException expected = new RuntimeException("test");
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            throw expected;
+          }
+        });
+
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    backingExecutor.shutdown();
+
+    assertThat(throwables).containsExactly(expected);
+  }
+
+  @Test
+  public void execute_withVirtualThreadsEnabled_runsLoadsInPriorityOrder()
+      throws InterruptedException {
+    // Falls back to platform threads where virtual threads aren't supported.
+    GlideExecutor executor =
+        GlideExecutor.newSourceBuilder().setThreadCount(1).setVirtualThreadsEnabled(true).build();
+
+    assertThat(runInPriorityOrder(executor)).containsExactly(5, 1, 2, 3, 4).inOrder();
+  }
+
+  private static List<Integer> runInPriorityOrder(GlideExecutor executor)
+      throws InterruptedException {
+    final List<Integer> resultPriorities = Collections.synchronizedList(new ArrayList<Integer>());
+    final CountDownLatch latch = new CountDownLatch(1);
+    for (int i = 5; i > 0; i--) {
+      executor.execute(
+          new MockRunnable(
+              i,
+              new MockRunnable.OnRun() {
+                @Override
+                public void onRun(int priority) {
+                  try {
+                    latch.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                  }
+                  resultPriorities.add(priority);
+                }
+              }));
+    }
+    latch.countDown();
+
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    return resultPriorities;
+  }
+
+  private static final class MockKeyedRunnable implements GlideExecutor.KeyedRunnable {
+    private final Object key;
+    private final Runnable runnable;
+
+    MockKeyedRunnable(Object key, Runnable runnable) {
+      this.key = key;
+      this.runnable = runnable;
+    }
+
+    @NonNull
+    @Override
+    public Object getExecutionKey() {
+      return key;
+    }
+
+    @Override
+    public void run() {
+      runnable.run();
+    }
+  }
+
+  private static final class NoOpRunnable implements Runnable {
+    @Override
+    public void run() {}
+  }
+
   private static final class MockRunnable implements Runnable, Comparable<MockRunnable> {
     private final int priority;
     private final OnRun onRun;
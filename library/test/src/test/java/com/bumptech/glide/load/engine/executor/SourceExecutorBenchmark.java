@@ -0,0 +1,158 @@
+package com.bumptech.glide.load.engine.executor;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.data.HttpUrlFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Compares the throughput of {@link HttpUrlFetcher} loads from a local server that adds a fixed
+ * latency to each response on source executors backed by a fixed thread pool, virtual threads and
+ * an application supplied executor.
+ *
+ * <p>Run manually, it's not part of the unit test suite. Virtual threads are only used on JVMs that
+ * support them.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class SourceExecutorBenchmark {
+  private static final int LOAD_COUNT = 500;
+  private static final int RESPONSE_LATENCY_MILLIS = 50;
+  private static final int CONCURRENT_LOADS = 64;
+  private static final byte[] BODY = new byte[16 * 1024];
+
+  private MockWebServer mockWebServer;
+
+  @Before
+  public void setUp() throws IOException {
+    mockWebServer = new MockWebServer();
+    mockWebServer.setDispatcher(
+        new Dispatcher() {
+          @NonNull
+          @Override
+          public MockResponse dispatch(@NonNull RecordedRequest request) {
+            return new MockResponse()
+                .setBody(new Buffer().write(BODY))
+                .setHeadersDelay(RESPONSE_LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+          }
+        });
+    mockWebServer.start();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockWebServer.shutdown();
+  }
+
+  @Ignore("Benchmark, run manually")
+  @Test
+  public void benchmark_httpUrlFetcherLoads() throws InterruptedException {
+    // Warm up the connection handling and JIT.
+    run("warm up", GlideExecutor.newSourceBuilder().build());
+
+    run("fixed pool", GlideExecutor.newSourceBuilder().build());
+    run(
+        "fixed pool, " + CONCURRENT_LOADS + " threads",
+        GlideExecutor.newSourceBuilder().setThreadCount(CONCURRENT_LOADS).build());
+    if (GlideExecutor.isVirtualThreadSupported()) {
+      run(
+          "virtual threads",
+          GlideExecutor.newSourceBuilder()
+              .setThreadCount(CONCURRENT_LOADS)
+              .setVirtualThreadsEnabled(true)
+              .build());
+    }
+    ExecutorService cachedThreadPool = Executors.newCachedThreadPool();
+    run(
+        "cached thread pool",
+        GlideExecutor.newSourceBuilder()
+            .setThreadCount(CONCURRENT_LOADS)
+            .setExecutor(cachedThreadPool)
+            .build());
+    cachedThreadPool.shutdown();
+  }
+
+  private void run(String name, GlideExecutor executor) throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(LOAD_COUNT);
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < LOAD_COUNT; i++) {
+      executor.execute(new LoadRunnable(mockWebServer.url("/image/" + i).toString(), latch));
+    }
+    latch.await();
+    long elapsedNanos = System.nanoTime() - startNanos;
+    executor.shutdown();
+    executor.awaitTermination(5, TimeUnit.SECONDS);
+
+    double loadsPerSecond = LOAD_COUNT * 1e9 / elapsedNanos;
+    System.out.println(String.format(Locale.US, "%-40s %,10.0f loads/s", name, loadsPerSecond));
+  }
+
+  // Comparable like Glide's DecodeJobs so that it can be queued in the fixed pool's priority queue.
+  private static final class LoadRunnable implements Runnable, Comparable<LoadRunnable> {
+    private final String url;
+    private final CountDownLatch latch;
+
+    LoadRunnable(String url, CountDownLatch latch) {
+      this.url = url;
+      this.latch = latch;
+    }
+
+    @Override
+    public void run() {
+      HttpUrlFetcher fetcher = new HttpUrlFetcher(new GlideUrl(url), /* timeout= */ 5000);
+      try {
+        fetcher.loadData(
+            Priority.NORMAL,
+            new DataFetcher.DataCallback<InputStream>() {
+              @Override
+              public void onDataReady(@Nullable InputStream data) {
+                try {
+                  byte[] buffer = new byte[8 * 1024];
+                  while (data != null && data.read(buffer) != -1) {
+                    // Drain the response.
+                  }
+                } catch (IOException e) {
+                  throw new RuntimeException(e);
+                }
+              }
+
+              @Override
+              public void onLoadFailed(@NonNull Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+      } finally {
+        fetcher.cleanup();
+        latch.countDown();
+      }
+    }
+
+    @Override
+    public int compareTo(@NonNull LoadRunnable other) {
+      return 0;
+    }
+  }
+}
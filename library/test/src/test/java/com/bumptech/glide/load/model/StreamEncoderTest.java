@@ -1,15 +1,23 @@
 package com.bumptech.glide.load.model;
 
 import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import androidx.test.core.app.ApplicationProvider;
 import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
 import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.load.resource.bitmap.RecyclableBufferedInputStream;
 import com.bumptech.glide.util.ByteBufferUtil;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -20,13 +28,20 @@ import org.robolectric.annotation.Config;
 @RunWith(RobolectricTestRunner.class)
 @Config(sdk = ROBOLECTRIC_SDK)
 public class StreamEncoderTest {
+  private static final String FAKE_DATA = "SomeRandomFakeData";
+
+  private final ArrayPool arrayPool = new LruArrayPool();
   private StreamEncoder encoder;
   private File file;
+  private File sourceFile;
 
   @Before
-  public void setUp() {
-    encoder = new StreamEncoder(new LruArrayPool());
-    file = new File(ApplicationProvider.getApplicationContext().getCacheDir(), "test");
+  public void setUp() throws IOException {
+    encoder = new StreamEncoder(arrayPool);
+    File cacheDir = ApplicationProvider.getApplicationContext().getCacheDir();
+    file = new File(cacheDir, "test");
+    sourceFile = new File(cacheDir, "source");
+    ByteBufferUtil.toFile(ByteBuffer.wrap(FAKE_DATA.getBytes("UTF-8")), sourceFile);
   }
 
   @After
@@ -36,6 +51,9 @@ public class StreamEncoderTest {
     if (!file.delete()) {
       throw new IllegalStateException("Failed to delete: " + file);
     }
+    if (!sourceFile.delete()) {
+      throw new IllegalStateException("Failed to delete: " + sourceFile);
+    }
   }
 
   @Test
@@ -48,4 +66,76 @@ public class StreamEncoderTest {
 
     assertEquals(fakeData, new String(data, "UTF-8"));
   }
+
+  @Test
+  public void encode_withFileInputStream_writesFile() throws IOException {
+    InputStream is = new FileInputStream(sourceFile);
+    try {
+      assertTrue(encoder.encode(is, file, new Options()));
+    } finally {
+      is.close();
+    }
+
+    assertEquals(FAKE_DATA, readFile());
+  }
+
+  @Test
+  public void encode_withPartiallyReadFileInputStream_writesRemainingData() throws IOException {
+    InputStream is = new FileInputStream(sourceFile);
+    try {
+      assertEquals(4, is.skip(4));
+      assertTrue(encoder.encode(is, file, new Options()));
+    } finally {
+      is.close();
+    }
+
+    assertEquals(FAKE_DATA.substring(4), readFile());
+  }
+
+  @Test
+  public void encode_withBufferedFileInputStream_writesBufferedAndRemainingData()
+      throws IOException {
+    // Larger than the stream's buffer so that some of the file is buffered and the rest is unread.
+    byte[] data = new byte[ArrayPool.STANDARD_BUFFER_SIZE_BYTES * 2 + 17];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    ByteBufferUtil.toFile(ByteBuffer.wrap(data), sourceFile);
+    RecyclableBufferedInputStream is =
+        new RecyclableBufferedInputStream(new FileInputStream(sourceFile), arrayPool);
+    try {
+      is.mark(data.length);
+      assertEquals(data[0], (byte) is.read());
+      assertEquals(data[1], (byte) is.read());
+      assertTrue(encoder.encode(is, file, new Options()));
+
+      assertArrayEquals(
+          Arrays.copyOfRange(data, 2, data.length),
+          ByteBufferUtil.toBytes(ByteBufferUtil.fromFile(file)));
+      // Encoding doesn't consume the stream.
+      assertEquals(data[2], (byte) is.read());
+      is.reset();
+      assertEquals(data[0], (byte) is.read());
+    } finally {
+      is.close();
+    }
+  }
+
+  @Test
+  public void encode_withBufferedNonFileInputStream_copiesData() throws IOException {
+    RecyclableBufferedInputStream is =
+        new RecyclableBufferedInputStream(
+            new ByteArrayInputStream(FAKE_DATA.getBytes("UTF-8")), arrayPool);
+    try {
+      assertTrue(encoder.encode(is, file, new Options()));
+    } finally {
+      is.close();
+    }
+
+    assertEquals(FAKE_DATA, readFile());
+  }
+
+  private String readFile() throws IOException {
+    return new String(ByteBufferUtil.toBytes(ByteBufferUtil.fromFile(file)), "UTF-8");
+  }
 }
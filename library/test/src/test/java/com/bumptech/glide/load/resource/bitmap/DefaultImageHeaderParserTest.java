@@ -924,6 +924,25 @@ public class DefaultImageHeaderParserTest {
     assertThat(parser.getOrientation(new PartialSkipInputStream(is), byteArrayPool)).isEqualTo(6);
   }
 
+  @Test
+  public void getTypeAndOrientation_withJpeg_returnsTypeAndOrientation() throws IOException {
+    InputStream is = TestResourceUtil.openResource(getClass(), "issue387_rotated_jpeg.jpg");
+    DefaultImageHeaderParser.TypeAndOrientation result =
+        new DefaultImageHeaderParser().getTypeAndOrientation(is, byteArrayPool);
+    assertThat(result.getType()).isEqualTo(ImageType.JPEG);
+    assertThat(result.getOrientation()).isEqualTo(6);
+  }
+
+  @Test
+  public void getTypeAndOrientation_withPng_returnsTypeAndUnknownOrientation() throws IOException {
+    ByteBuffer byteBuffer =
+        ByteBuffer.wrap(new byte[] {(byte) 0x89, 0x50, 0x4e, 0x47, 0x0d, 0x0a, 0x1a, 0x0a});
+    DefaultImageHeaderParser.TypeAndOrientation result =
+        new DefaultImageHeaderParser().getTypeAndOrientation(byteBuffer, byteArrayPool);
+    assertThat(result.getType()).isEqualTo(ImageType.PNG);
+    assertThat(result.getOrientation()).isEqualTo(ImageHeaderParser.UNKNOWN_ORIENTATION);
+  }
+
   @Test
   public void testHandlesSometimesZeroSkips() throws IOException {
     InputStream is =
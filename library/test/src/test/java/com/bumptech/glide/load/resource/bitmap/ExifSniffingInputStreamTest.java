@@ -0,0 +1,132 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.bumptech.glide.load.ImageHeaderParser;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.testutil.TestResourceUtil;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.Util;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class ExifSniffingInputStreamTest {
+  private ArrayPool byteArrayPool;
+  private DefaultImageHeaderParser parser;
+
+  @Before
+  public void setUp() {
+    byteArrayPool = new LruArrayPool();
+    parser = new DefaultImageHeaderParser();
+  }
+
+  @Test
+  public void getOrientation_afterReadingOneByteAtATime_returnsOrientation() throws IOException {
+    byte[] data = readResource("issue387_rotated_jpeg.jpg");
+    ExifSniffingInputStream is = newSniffer(data);
+    while (is.read() != -1) {
+      // Read the whole stream.
+    }
+
+    assertThat(is.isJpeg()).isTrue();
+    assertThat(is.getOrientation()).isEqualTo(6);
+  }
+
+  @Test
+  public void getOrientation_afterReadingInChunks_matchesParser() throws IOException {
+    for (int i = 1; i <= 8; i++) {
+      assertOrientationMatchesParserAfterChunkedReads("Landscape_" + i);
+      assertOrientationMatchesParserAfterChunkedReads("Portrait_" + i);
+    }
+  }
+
+  @Test
+  public void getOrientation_afterSkippingThroughStream_returnsOrientation() throws IOException {
+    byte[] data = readResource("issue387_rotated_jpeg.jpg");
+    ExifSniffingInputStream is = newSniffer(data);
+    long totalSkipped = 0;
+    long skipped;
+    while ((skipped = is.skip(1024)) > 0) {
+      totalSkipped += skipped;
+    }
+
+    assertThat(totalSkipped).isEqualTo(data.length);
+    assertThat(is.getOrientation()).isEqualTo(6);
+  }
+
+  @Test
+  public void read_passesThroughBytesUnchanged() throws IOException {
+    byte[] data = readResource("issue387_rotated_jpeg.jpg");
+    byte[] read = Util.readBytes(newSniffer(data));
+
+    assertThat(read).isEqualTo(data);
+  }
+
+  @Test
+  public void getOrientation_withPng_returnsUnknown() throws IOException {
+    byte[] data = new byte[] {(byte) 0x89, 0x50, 0x4e, 0x47, 0x0d, 0x0a, 0x1a, 0x0a};
+    ExifSniffingInputStream is = newSniffer(data);
+    Util.readBytes(is);
+
+    assertThat(is.isJpeg()).isFalse();
+    assertThat(is.getOrientation()).isEqualTo(ImageHeaderParser.UNKNOWN_ORIENTATION);
+  }
+
+  @Test
+  public void getOrientation_withExifSegmentNotFullyRead_returnsUnknown() throws IOException {
+    byte[] data = readResource("issue387_rotated_jpeg.jpg");
+    ExifSniffingInputStream is = newSniffer(data);
+    byte[] buffer = new byte[16];
+    assertThat(is.read(buffer, 0, buffer.length)).isEqualTo(buffer.length);
+    is.release();
+
+    assertThat(is.isJpeg()).isTrue();
+    assertThat(is.getOrientation()).isEqualTo(ImageHeaderParser.UNKNOWN_ORIENTATION);
+  }
+
+  @Test
+  public void getOrientation_withTruncatedStream_returnsUnknown() throws IOException {
+    byte[] data = readResource("issue387_rotated_jpeg.jpg");
+    ExifSniffingInputStream is = newSniffer(Arrays.copyOf(data, 32));
+    Util.readBytes(is);
+
+    assertThat(is.getOrientation()).isEqualTo(ImageHeaderParser.UNKNOWN_ORIENTATION);
+  }
+
+  @Test
+  public void markSupported_returnsFalse() throws IOException {
+    byte[] data = readResource("issue387_rotated_jpeg.jpg");
+
+    assertThat(newSniffer(data).markSupported()).isFalse();
+  }
+
+  private void assertOrientationMatchesParserAfterChunkedReads(String resourceName)
+      throws IOException {
+    byte[] data = readResource(resourceName + ".jpg");
+    ExifSniffingInputStream is = newSniffer(data);
+    byte[] buffer = new byte[7];
+    while (is.read(buffer, 0, buffer.length) != -1) {
+      // Read the whole stream.
+    }
+
+    int expected = parser.getOrientation(new ByteArrayInputStream(data), byteArrayPool);
+    assertThat(is.getOrientation()).isEqualTo(expected);
+  }
+
+  private ExifSniffingInputStream newSniffer(byte[] data) {
+    return new ExifSniffingInputStream(new ByteArrayInputStream(data), byteArrayPool);
+  }
+
+  private byte[] readResource(String name) throws IOException {
+    return Util.readBytes(TestResourceUtil.openResource(getClass(), name));
+  }
+}
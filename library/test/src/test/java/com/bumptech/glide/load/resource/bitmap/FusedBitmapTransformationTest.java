@@ -0,0 +1,213 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import androidx.test.core.app.ApplicationProvider;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.tests.Util;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = ROBOLECTRIC_SDK)
+public class FusedBitmapTransformationTest {
+  private static final int[][] SIZES = {
+    {50, 50},
+    {300, 120},
+    {Target.SIZE_ORIGINAL, Target.SIZE_ORIGINAL},
+    {Target.SIZE_ORIGINAL, 40},
+    {40, Target.SIZE_ORIGINAL},
+  };
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private BitmapPool pool;
+
+  @Before
+  public void setUp() {
+    pool = mock(BitmapPool.class);
+    when(pool.get(anyInt(), anyInt(), any(Bitmap.Config.class)))
+        .thenAnswer(new Util.CreateBitmap());
+    Glide.init(context, new GlideBuilder().setBitmapPool(pool));
+  }
+
+  @After
+  public void tearDown() {
+    Glide.tearDown();
+  }
+
+  @Test
+  public void fuse_withGeometryFollowedByShape_fusesThemAndLeavesTheRest() {
+    CenterCrop centerCrop = new CenterCrop();
+    RoundedCorners roundedCorners = new RoundedCorners(10);
+    FitCenter fitCenter = new FitCenter();
+
+    List<Transformation<Bitmap>> fused =
+        FusedBitmapTransformation.fuse(Arrays.asList(centerCrop, roundedCorners, fitCenter));
+
+    assertThat(fused)
+        .containsExactly(
+            new FusedBitmapTransformation(
+                Arrays.<BitmapTransformation>asList(centerCrop, roundedCorners)),
+            fitCenter)
+        .inOrder();
+  }
+
+  @Test
+  public void fuse_withUnsupportedTransformations_doesNotFuse() {
+    @SuppressWarnings("unchecked")
+    Transformation<Bitmap> custom = mock(Transformation.class);
+    CenterCrop subclass = new CenterCrop() {};
+    List<Transformation<Bitmap>> transformations =
+        Arrays.asList(
+            new CenterCrop(), custom, new Rotate(45), new FitCenter(), subclass, new CircleCrop());
+
+    assertThat(FusedBitmapTransformation.fuse(transformations))
+        .containsExactlyElementsIn(transformations)
+        .inOrder();
+  }
+
+  @Test
+  public void transform_withCenterCropAndRoundedCorners_drawsOnce() {
+    Bitmap toTransform = Bitmap.createBitmap(200, 100, Bitmap.Config.RGB_565);
+    FusedBitmapTransformation transformation =
+        new FusedBitmapTransformation(
+            Arrays.<BitmapTransformation>asList(new CenterCrop(), new RoundedCorners(5)));
+
+    Bitmap result = transformation.transform(pool, toTransform, 50, 50);
+
+    assertThat(result.getWidth()).isEqualTo(50);
+    assertThat(result.getHeight()).isEqualTo(50);
+    assertThat(result.getConfig()).isEqualTo(Bitmap.Config.ARGB_8888);
+    assertThat(result.hasAlpha()).isTrue();
+    verify(pool, times(1)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+  }
+
+  @Test
+  public void transform_withFitCenterAndRotate_swapsDimensions() {
+    Bitmap toTransform = Bitmap.createBitmap(200, 100, Bitmap.Config.RGB_565);
+    FusedBitmapTransformation transformation =
+        new FusedBitmapTransformation(
+            Arrays.<BitmapTransformation>asList(new FitCenter(), new Rotate(90)));
+
+    Bitmap result = transformation.transform(pool, toTransform, 100, 100);
+
+    assertThat(result.getWidth()).isEqualTo(50);
+    assertThat(result.getHeight()).isEqualTo(100);
+    assertThat(result.getConfig()).isEqualTo(Bitmap.Config.RGB_565);
+  }
+
+  @Test
+  public void transform_withCircleCrop_returnsSquare() {
+    Bitmap toTransform = Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888);
+    FusedBitmapTransformation transformation =
+        new FusedBitmapTransformation(
+            Arrays.<BitmapTransformation>asList(new CenterInside(), new CircleCrop()));
+
+    Bitmap result = transformation.transform(pool, toTransform, 80, 60);
+
+    assertThat(result.getWidth()).isEqualTo(60);
+    assertThat(result.getHeight()).isEqualTo(60);
+    assertThat(result.hasAlpha()).isTrue();
+  }
+
+  @Test
+  public void transform_withRotateThenCenterCropAtOriginalSize_matchesSequentialSize() {
+    assertSameSizeAsSequential(
+        Arrays.<BitmapTransformation>asList(new Rotate(90), new CenterCrop()),
+        Target.SIZE_ORIGINAL,
+        Target.SIZE_ORIGINAL);
+  }
+
+  @Test
+  public void transform_withEachPairOfFusableTransformations_matchesSequentialSize() {
+    for (BitmapTransformation first : newGeometries()) {
+      for (BitmapTransformation second : newFusables()) {
+        for (int[] size : SIZES) {
+          assertSameSizeAsSequential(
+              Arrays.asList(first, second), /* outWidth= */ size[0], /* outHeight= */ size[1]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void transform_withEachTripleOfFusableTransformations_matchesSequentialSize() {
+    for (BitmapTransformation first : newGeometries()) {
+      for (BitmapTransformation second : newGeometries()) {
+        for (BitmapTransformation third : newFusables()) {
+          for (int[] size : SIZES) {
+            assertSameSizeAsSequential(
+                Arrays.asList(first, second, third),
+                /* outWidth= */ size[0],
+                /* outHeight= */ size[1]);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void transform_withNoChanges_returnsGivenBitmap() {
+    Bitmap toTransform = Bitmap.createBitmap(50, 50, Bitmap.Config.ARGB_8888);
+    FusedBitmapTransformation transformation =
+        new FusedBitmapTransformation(
+            Arrays.<BitmapTransformation>asList(new CenterInside(), new Rotate(0)));
+
+    assertThat(transformation.transform(pool, toTransform, 100, 100)).isSameInstanceAs(toTransform);
+    verify(pool, times(0)).get(anyInt(), anyInt(), any(Bitmap.Config.class));
+  }
+
+  private void assertSameSizeAsSequential(
+      List<BitmapTransformation> transformations, int outWidth, int outHeight) {
+    Bitmap toTransform = Bitmap.createBitmap(200, 100, Bitmap.Config.ARGB_8888);
+    Resource<Bitmap> expected = BitmapResource.obtain(toTransform, pool);
+    for (BitmapTransformation transformation : transformations) {
+      expected = transformation.transform(context, expected, outWidth, outHeight);
+    }
+
+    Resource<Bitmap> fused =
+        new FusedBitmapTransformation(transformations)
+            .transform(context, BitmapResource.obtain(toTransform, pool), outWidth, outHeight);
+
+    String message = transformations + " at " + outWidth + "x" + outHeight;
+    assertWithMessage(message).that(fused.get().getWidth()).isEqualTo(expected.get().getWidth());
+    assertWithMessage(message).that(fused.get().getHeight()).isEqualTo(expected.get().getHeight());
+  }
+
+  /** Returns a new instance of each transformation that only scales and moves pixels. */
+  private static List<BitmapTransformation> newGeometries() {
+    return Arrays.asList(
+        new CenterCrop(), new FitCenter(), new CenterInside(), new Rotate(90), new Rotate(270));
+  }
+
+  /** Returns a new instance of each transformation that can be fused. */
+  private static List<BitmapTransformation> newFusables() {
+    List<BitmapTransformation> result = new ArrayList<>(newGeometries());
+    result.add(new RoundedCorners(10));
+    result.add(new GranularRoundedCorners(1, 2, 3, 4));
+    result.add(new CircleCrop());
+    return result;
+  }
+}
@@ -0,0 +1,185 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import com.bumptech.glide.load.resource.bitmap.PixelTransformationUtils.Filter;
+import com.bumptech.glide.load.resource.bitmap.PixelTransformationUtils.Pixels;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PixelTransformationUtilsTest {
+  private static final int RED = 0xFFFF0000;
+  private static final int BLUE = 0xFF0000FF;
+  private static final int TRANSPARENT_GREEN = 0x0000FF00;
+
+  private ArrayPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new LruArrayPool();
+  }
+
+  @Test
+  public void resize_withSolidColor_keepsColorForAllFilters() {
+    Pixels source = solid(RED, 37, 23);
+    for (Filter filter : Filter.values()) {
+      assertAllPixels(PixelTransformationUtils.resize(pool, source, 10, 7, filter), RED);
+      assertAllPixels(PixelTransformationUtils.resize(pool, source, 80, 50, filter), RED);
+    }
+  }
+
+  @Test
+  public void resize_withAreaAverage_halvingAveragesPixels() {
+    int[] pixels = new int[16];
+    for (int i = 0; i < pixels.length; i++) {
+      // Alternate black and white in a checkerboard.
+      pixels[i] = ((i / 4) + i) % 2 == 0 ? 0xFF000000 : 0xFFFFFFFF;
+    }
+    Pixels result =
+        PixelTransformationUtils.resize(pool, new Pixels(pixels, 4, 4), 2, 2, Filter.AREA_AVERAGE);
+
+    assertAllPixels(result, 0xFF808080);
+  }
+
+  @Test
+  public void resize_withSameDimensions_returnsSource() {
+    Pixels source = solid(RED, 10, 10);
+
+    assertThat(PixelTransformationUtils.resize(pool, source, 10, 10, Filter.BILINEAR))
+        .isSameInstanceAs(source);
+  }
+
+  @Test
+  public void resize_withTransparentNeighbors_doesNotBleedTheirColor() {
+    int[] pixels = new int[] {RED, TRANSPARENT_GREEN, TRANSPARENT_GREEN, RED};
+    for (Filter filter : Filter.values()) {
+      Pixels result = PixelTransformationUtils.resize(pool, new Pixels(pixels, 4, 1), 7, 1, filter);
+      for (int i = 0; i < result.getWidth(); i++) {
+        int pixel = result.getPixels()[i];
+        if (pixel >>> 24 != 0) {
+          assertThat(pixel & 0xFFFFFF).isEqualTo(RED & 0xFFFFFF);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void centerCrop_withWideImage_cropsSides() {
+    // Red on the left and right quarters, blue in the middle.
+    int[] pixels = new int[8 * 2];
+    for (int i = 0; i < pixels.length; i++) {
+      int x = i % 8;
+      pixels[i] = x < 2 || x >= 6 ? RED : BLUE;
+    }
+    Pixels result =
+        PixelTransformationUtils.centerCrop(
+            pool, new Pixels(pixels, 8, 2), 2, 2, Filter.AREA_AVERAGE);
+
+    assertThat(result.getWidth()).isEqualTo(2);
+    assertThat(result.getHeight()).isEqualTo(2);
+    assertAllPixels(result, BLUE);
+  }
+
+  @Test
+  public void fitCenter_keepsAspectRatio() {
+    Pixels result =
+        PixelTransformationUtils.fitCenter(pool, solid(RED, 200, 100), 50, 50, Filter.BILINEAR);
+
+    assertThat(result.getWidth()).isEqualTo(50);
+    assertThat(result.getHeight()).isEqualTo(25);
+    assertAllPixels(result, RED);
+  }
+
+  @Test
+  public void centerInside_withSmallerImage_returnsSource() {
+    Pixels source = solid(RED, 20, 10);
+
+    assertThat(PixelTransformationUtils.centerInside(pool, source, 50, 50, Filter.BILINEAR))
+        .isSameInstanceAs(source);
+  }
+
+  @Test
+  public void centerInside_withLargerImage_scalesDown() {
+    Pixels result =
+        PixelTransformationUtils.centerInside(pool, solid(RED, 100, 200), 50, 50, Filter.BILINEAR);
+
+    assertThat(result.getWidth()).isEqualTo(25);
+    assertThat(result.getHeight()).isEqualTo(50);
+  }
+
+  @Test
+  public void circleCrop_makesCornersTransparentAndKeepsCenter() {
+    Pixels result =
+        PixelTransformationUtils.circleCrop(pool, solid(RED, 40, 20), 30, 20, Filter.BILINEAR);
+
+    assertThat(result.getWidth()).isEqualTo(20);
+    assertThat(result.getHeight()).isEqualTo(20);
+    int[] pixels = result.getPixels();
+    assertThat(pixels[0]).isEqualTo(0);
+    assertThat(pixels[19]).isEqualTo(0);
+    assertThat(pixels[19 * 20]).isEqualTo(0);
+    assertThat(pixels[20 * 20 - 1]).isEqualTo(0);
+    assertThat(pixels[10 * 20 + 10]).isEqualTo(RED);
+    assertThat(pixels[10 * 20 + 1]).isEqualTo(RED);
+  }
+
+  @Test
+  public void circleCrop_withSameDimensions_doesNotModifySource() {
+    Pixels source = solid(RED, 20, 20);
+    Pixels result = PixelTransformationUtils.circleCrop(pool, source, 20, 20, Filter.BILINEAR);
+
+    assertThat(result).isNotSameInstanceAs(source);
+    assertAllPixels(source, RED);
+  }
+
+  @Test
+  public void roundedCorners_makesCornersTransparentAndKeepsEdges() {
+    Pixels source = solid(RED, 30, 20);
+    Pixels result = PixelTransformationUtils.roundedCorners(pool, source, 5);
+
+    assertThat(result.getWidth()).isEqualTo(30);
+    assertThat(result.getHeight()).isEqualTo(20);
+    int[] pixels = result.getPixels();
+    assertThat(pixels[0]).isEqualTo(0);
+    assertThat(pixels[29]).isEqualTo(0);
+    assertThat(pixels[19 * 30]).isEqualTo(0);
+    assertThat(pixels[20 * 30 - 1]).isEqualTo(0);
+    assertThat(pixels[5]).isEqualTo(RED);
+    assertThat(pixels[5 * 30]).isEqualTo(RED);
+    assertAllPixels(source, RED);
+  }
+
+  @Test
+  public void resize_withPixelsLargerThanImage_ignoresExtraPixels() {
+    int[] pixels = new int[10 * 10 + 7];
+    Arrays.fill(pixels, RED);
+    Arrays.fill(pixels, 10 * 10, pixels.length, BLUE);
+
+    assertAllPixels(
+        PixelTransformationUtils.resize(pool, new Pixels(pixels, 10, 10), 3, 3, Filter.LANCZOS3),
+        RED);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pixels_withTooFewPixels_throws() {
+    new Pixels(new int[3], 2, 2);
+  }
+
+  private static Pixels solid(int color, int width, int height) {
+    int[] pixels = new int[width * height];
+    Arrays.fill(pixels, color);
+    return new Pixels(pixels, width, height);
+  }
+
+  private static void assertAllPixels(Pixels pixels, int color) {
+    for (int i = 0; i < pixels.getWidth() * pixels.getHeight(); i++) {
+      assertThat(Integer.toHexString(pixels.getPixels()[i])).isEqualTo(Integer.toHexString(color));
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.bumptech.glide.load.resource.bitmap;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ProgressiveJpegInputStreamTest {
+  private static final int SOF0 = 0xC0;
+  private static final int SOF2 = 0xC2;
+  private static final int DHT = 0xC4;
+  private static final int SOS = 0xDA;
+  private static final int APP0 = 0xE0;
+
+  private final RecordingListener listener = new RecordingListener();
+
+  @Test
+  public void read_withProgressiveJpeg_reportsScansAsBytesDouble() throws IOException {
+    JpegBuilder builder = new JpegBuilder(SOF2);
+    int firstScanEnd = builder.scan(100);
+    // Less than double the first, not reported.
+    builder.scan(50);
+    int thirdScanEnd = builder.scan(400);
+    builder.scan(100);
+    byte[] jpeg = builder.end();
+
+    readFully(jpeg, 4096);
+
+    assertThat(listener.lengths).containsExactly(firstScanEnd, thirdScanEnd).inOrder();
+    assertThat(listener.prefixes.get(1)).isEqualTo(Arrays.copyOf(jpeg, thirdScanEnd));
+  }
+
+  @Test
+  public void read_withProgressiveJpeg_ignoresStuffedBytesAndRestartMarkers() throws IOException {
+    JpegBuilder builder = new JpegBuilder(SOF2);
+    builder.marker(SOS, 10);
+    builder.bytes(1, 2, 0xFF, 0x00, 3, 0xFF, 0xD0, 4, 0xFF, 0xD7, 5);
+    int scanEnd = builder.size();
+    // Fill bytes before the next marker.
+    builder.bytes(0xFF);
+    builder.marker(DHT, 20);
+    builder.scan(10);
+    byte[] jpeg = builder.end();
+
+    readFully(jpeg, 4096);
+
+    assertThat(listener.lengths).containsExactly(scanEnd);
+  }
+
+  @Test
+  public void read_singleBytes_reportsSameScansAsBulkReads() throws IOException {
+    byte[] jpeg = newProgressiveJpeg();
+    readFully(jpeg, 4096);
+    List<Integer> expected = new ArrayList<>(listener.lengths);
+    listener.lengths.clear();
+
+    readFully(jpeg, 1);
+
+    assertThat(expected).isNotEmpty();
+    assertThat(listener.lengths).isEqualTo(expected);
+  }
+
+  @Test
+  public void skip_copiesSkippedBytes() throws IOException {
+    byte[] jpeg = newProgressiveJpeg();
+    readFully(jpeg, 4096);
+    List<Integer> expected = new ArrayList<>(listener.lengths);
+    listener.lengths.clear();
+    listener.prefixes.clear();
+
+    ProgressiveJpegInputStream is = newStream(jpeg);
+    try {
+      while (is.read() != -1) {
+        assertThat(is.skip(7)).isAtLeast(0L);
+      }
+    } finally {
+      is.release();
+    }
+
+    assertThat(listener.lengths).isEqualTo(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(listener.prefixes.get(i)).isEqualTo(Arrays.copyOf(jpeg, expected.get(i)));
+    }
+  }
+
+  @Test
+  public void read_withBaselineJpeg_doesNotReportScans() throws IOException {
+    JpegBuilder builder = new JpegBuilder(SOF0);
+    builder.scan(100);
+
+    readFully(builder.end(), 4096);
+
+    assertThat(listener.lengths).isEmpty();
+  }
+
+  @Test
+  public void read_withNonJpeg_doesNotReportScans() throws IOException {
+    byte[] png = new byte[1000];
+    png[0] = (byte) 0x89;
+    png[1] = 'P';
+
+    readFully(png, 4096);
+
+    assertThat(listener.lengths).isEmpty();
+  }
+
+  @Test
+  public void read_passesBytesThroughUnchanged() throws IOException {
+    byte[] jpeg = newProgressiveJpeg();
+
+    assertThat(readFully(jpeg, 13)).isEqualTo(jpeg);
+  }
+
+  private static byte[] newProgressiveJpeg() {
+    JpegBuilder builder = new JpegBuilder(SOF2);
+    builder.scan(50);
+    builder.scan(200);
+    builder.scan(1000);
+    return builder.end();
+  }
+
+  private ProgressiveJpegInputStream newStream(byte[] data) {
+    return new ProgressiveJpegInputStream(
+        new ByteArrayInputStream(data), new LruArrayPool(), listener);
+  }
+
+  private byte[] readFully(byte[] data, int bufferSize) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    ProgressiveJpegInputStream is = newStream(data);
+    try {
+      if (bufferSize == 1) {
+        int read;
+        while ((read = is.read()) != -1) {
+          os.write(read);
+        }
+      } else {
+        readAll(is, os, bufferSize);
+      }
+    } finally {
+      is.release();
+    }
+    return os.toByteArray();
+  }
+
+  private static void readAll(InputStream is, ByteArrayOutputStream os, int bufferSize)
+      throws IOException {
+    byte[] buffer = new byte[bufferSize];
+    int read;
+    while ((read = is.read(buffer)) != -1) {
+      os.write(buffer, 0, read);
+    }
+  }
+
+  private static final class RecordingListener
+      implements ProgressiveJpegInputStream.ScanListener {
+    final List<Integer> lengths = new ArrayList<>();
+    final List<byte[]> prefixes = new ArrayList<>();
+
+    @Override
+    public void onScansRead(@NonNull byte[] data, int length) {
+      lengths.add(length);
+      prefixes.add(Arrays.copyOf(data, length));
+    }
+  }
+
+  /** Writes the markers and segments of a JPEG, with arbitrary contents. */
+  private static final class JpegBuilder {
+    private final ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+    JpegBuilder(int startOfFrame) {
+      bytes(0xFF, 0xD8);
+      marker(APP0, 16);
+      marker(startOfFrame, 17);
+      marker(DHT, 30);
+    }
+
+    void bytes(int... values) {
+      for (int value : values) {
+        os.write(value);
+      }
+    }
+
+    void marker(int type, int contentsLength) {
+      bytes(0xFF, type, (contentsLength + 2) >> 8, (contentsLength + 2) & 0xFF);
+      for (int i = 0; i < contentsLength; i++) {
+        // Includes 0xFF, segment contents aren't escaped.
+        os.write(i * 37);
+      }
+    }
+
+    /** Writes a scan header and entropy coded data and returns the size of the image so far. */
+    int scan(int length) {
+      marker(SOS, 10);
+      for (int i = 0; i < length; i++) {
+        // Never 0xFF, which would need to be escaped.
+        os.write(i % 0xFF);
+      }
+      return size();
+    }
+
+    int size() {
+      return os.size();
+    }
+
+    byte[] end() {
+      bytes(0xFF, 0xD9);
+      return os.toByteArray();
+    }
+  }
+}
@@ -2,16 +2,33 @@ package com.bumptech.glide.load.resource.gif;
 
 import static com.bumptech.glide.RobolectricConstants.ROBOLECTRIC_SDK;
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
+import android.graphics.Bitmap;
+import androidx.test.core.app.ApplicationProvider;
+import com.bumptech.glide.load.ImageHeaderCache;
 import com.bumptech.glide.load.ImageHeaderParser;
 import com.bumptech.glide.load.Options;
 import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.data.InputStreamRewinder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.ArrayPool;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPoolAdapter;
 import com.bumptech.glide.load.engine.bitmap_recycle.LruArrayPool;
 import com.bumptech.glide.load.resource.bitmap.DefaultImageHeaderParser;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.bitmap.StreamBitmapDecoder;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.testutil.TestResourceUtil;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -62,4 +79,38 @@ public class StreamGifDecoderTest {
     options.set(GifOptions.DISABLE_ANIMATION, true);
     assertThat(decoder.handles(new ByteArrayInputStream(GIF_HEADER), options)).isFalse();
   }
+
+  @Test
+  public void handles_thenBitmapDecoderDecode_withHeaderCache_readsHeaderOnce()
+      throws IOException {
+    DefaultImageHeaderParser parser = spy(new DefaultImageHeaderParser());
+    List<ImageHeaderParser> parsers = Collections.<ImageHeaderParser>singletonList(parser);
+    ArrayPool arrayPool = new LruArrayPool();
+    decoder = new StreamGifDecoder(parsers, byteBufferDecoder, arrayPool);
+    StreamBitmapDecoder bitmapDecoder =
+        new StreamBitmapDecoder(
+            new Downsampler(
+                parsers,
+                ApplicationProvider.getApplicationContext().getResources().getDisplayMetrics(),
+                new BitmapPoolAdapter(),
+                arrayPool),
+            arrayPool);
+    options.set(ImageHeaderCache.OPTION, new ImageHeaderCache());
+    // Rewound and wrapped between decoders the same way DecodePath does.
+    InputStreamRewinder rewinder =
+        new InputStreamRewinder(
+            TestResourceUtil.openResource(getClass(), "issue387_rotated_jpeg.jpg"), arrayPool);
+
+    assertThat(decoder.handles(rewinder.rewindAndGet(), options)).isFalse();
+    assertThat(bitmapDecoder.handles(rewinder.rewindAndGet(), options)).isTrue();
+    Resource<Bitmap> result =
+        bitmapDecoder.decode(
+            rewinder.rewindAndGet(), Target.SIZE_ORIGINAL, Target.SIZE_ORIGINAL, options);
+    rewinder.cleanup();
+
+    assertThat(result).isNotNull();
+    verify(parser).getTypeAndOrientation(any(InputStream.class), any(ArrayPool.class));
+    verify(parser, never()).getType(any(InputStream.class));
+    verify(parser, never()).getOrientation(any(InputStream.class), any(ArrayPool.class));
+  }
 }
@@ -18,11 +18,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.graphics.Bitmap;
 import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.test.core.app.ApplicationProvider;
 import com.bumptech.glide.GlideContext;
 import com.bumptech.glide.GlideExperiments;
 import com.bumptech.glide.Priority;
@@ -37,6 +40,7 @@ import com.bumptech.glide.load.engine.Resource;
 import com.bumptech.glide.request.target.CustomTarget;
 import com.bumptech.glide.request.target.SizeReadyCallback;
 import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.request.transition.NoTransition;
 import com.bumptech.glide.request.transition.Transition;
 import com.bumptech.glide.request.transition.TransitionFactory;
 import com.bumptech.glide.signature.ObjectKey;
@@ -52,6 +56,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
@@ -1041,6 +1046,116 @@ public class SingleRequestTest {
         .test();
   }
 
+  @Test
+  public void onPreview_withBitmapTranscodeClass_setsPreviewOnTarget() {
+    @SuppressWarnings("unchecked")
+    Target<Bitmap> target = mock(Target.class);
+    SingleRequest<Bitmap> request = beginRequest(Bitmap.class, target);
+    Bitmap preview = Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565);
+
+    request.onPreview(preview);
+
+    verify(target).onResourceReady(preview, NoTransition.<Bitmap>get());
+    assertFalse(request.isComplete());
+  }
+
+  @Test
+  public void onPreview_withDrawableTranscodeClass_setsBitmapDrawableOnTarget() {
+    @SuppressWarnings("unchecked")
+    Target<Drawable> target = mock(Target.class);
+    SingleRequest<Drawable> request = beginRequest(Drawable.class, target);
+    Bitmap preview = Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565);
+
+    request.onPreview(preview);
+
+    ArgumentCaptor<Drawable> captor = ArgumentCaptor.forClass(Drawable.class);
+    verify(target).onResourceReady(captor.capture(), eq(NoTransition.<Drawable>get()));
+    assertThat(((BitmapDrawable) captor.getValue()).getBitmap()).isSameInstanceAs(preview);
+  }
+
+  @Test
+  public void onPreview_withTranscodeClassThatCantHoldBitmap_ignoresPreview() {
+    SingleRequest<List> request = builder.setOverrideWidth(100).setOverrideHeight(100).build();
+    request.begin();
+
+    request.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify(builder.target, never()).onResourceReady(any(List.class), anyTransition());
+  }
+
+  @Test
+  public void onPreview_afterResourceReady_ignoresPreview() {
+    @SuppressWarnings("unchecked")
+    Target<Bitmap> target = mock(Target.class);
+    SingleRequest<Bitmap> request = beginRequest(Bitmap.class, target);
+    Bitmap bitmap = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+    Resource<Bitmap> resource = mockResource();
+    when(resource.get()).thenReturn(bitmap);
+    request.onResourceReady(
+        resource, DataSource.REMOTE, /* isLoadedFromAlternateCacheKey= */ false);
+
+    request.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify(target).onResourceReady(eq(bitmap), anyTransition());
+    verify(target, times(1)).onResourceReady(any(Bitmap.class), anyTransition());
+  }
+
+  @Test
+  public void onPreview_beforeBegin_ignoresPreview() {
+    @SuppressWarnings("unchecked")
+    Target<Bitmap> target = mock(Target.class);
+    SingleRequest<Bitmap> request = newRequest(Bitmap.class, target);
+
+    request.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify(target, never()).onResourceReady(any(Bitmap.class), anyTransition());
+  }
+
+  @Test
+  public void onPreview_withCircleCrop_ignoresPreview() {
+    @SuppressWarnings("unchecked")
+    Target<Bitmap> target = mock(Target.class);
+    SingleRequest<Bitmap> request =
+        newRequest(Bitmap.class, target, new RequestOptions().circleCrop());
+    request.begin();
+
+    request.onPreview(Bitmap.createBitmap(10, 10, Bitmap.Config.RGB_565));
+
+    verify(target, never()).onResourceReady(any(Bitmap.class), anyTransition());
+  }
+
+  /** Returns a request that's waiting for its resource from the {@link Engine}. */
+  private <R> SingleRequest<R> beginRequest(Class<R> transcodeClass, Target<R> target) {
+    SingleRequest<R> request = newRequest(transcodeClass, target);
+    request.begin();
+    return request;
+  }
+
+  private <R> SingleRequest<R> newRequest(Class<R> transcodeClass, Target<R> target) {
+    return newRequest(transcodeClass, target, new RequestOptions());
+  }
+
+  private <R> SingleRequest<R> newRequest(
+      Class<R> transcodeClass, Target<R> target, RequestOptions requestOptions) {
+    return SingleRequest.obtain(
+        /* context= */ ApplicationProvider.getApplicationContext(),
+        /* glideContext= */ builder.glideContext,
+        /* requestLock= */ new Object(),
+        builder.model,
+        transcodeClass,
+        requestOptions,
+        /* overrideWidth= */ 100,
+        /* overrideHeight= */ 100,
+        Priority.NORMAL,
+        target,
+        /* targetListener= */ null,
+        /* requestListeners= */ null,
+        /* requestCoordinator= */ null,
+        builder.engine,
+        NoTransition.<R>getFactory(),
+        Executors.directExecutor());
+  }
+
   static final class SingleRequestBuilder {
     private Engine engine = mock(Engine.class);
     private Number model = 123456;
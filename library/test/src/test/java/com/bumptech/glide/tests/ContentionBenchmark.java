@@ -0,0 +1,84 @@
+package com.bumptech.glide.tests;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A tiny harness for measuring the throughput of an operation run concurrently on a number of
+ * threads on the JVM.
+ *
+ * <p>Benchmarks built on this harness are plain {@code main} methods, or {@code @Ignore}d
+ * Robolectric tests when the code under test needs Android framework classes, so that they don't
+ * slow down or add noise to the unit test run. Run them from an IDE using the unit test classpath.
+ */
+public final class ContentionBenchmark {
+  private static final long WARMUP_MILLIS = 1000;
+  private static final long MEASURE_MILLIS = 3000;
+
+  private ContentionBenchmark() {
+    // Utility class.
+  }
+
+  /** Runs the operation on {@code threadCount} threads and prints the throughput in ops/s. */
+  public static double run(String name, int threadCount, final Operation operation)
+      throws InterruptedException {
+    runFor(threadCount, operation, WARMUP_MILLIS);
+    long ops = runFor(threadCount, operation, MEASURE_MILLIS);
+    double opsPerSecond = ops * 1000d / MEASURE_MILLIS;
+    System.out.println(
+        String.format(
+            Locale.US, "%-40s threads=%-3d %,15.0f ops/s", name, threadCount, opsPerSecond));
+    return opsPerSecond;
+  }
+
+  private static long runFor(int threadCount, final Operation operation, long millis)
+      throws InterruptedException {
+    final AtomicBoolean isRunning = new AtomicBoolean(true);
+    final CountDownLatch start = new CountDownLatch(1);
+    final long[] counts = new long[threadCount];
+    Thread[] threads = new Thread[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      final int threadIndex = i;
+      threads[i] =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                  }
+                  long count = 0;
+                  while (isRunning.get()) {
+                    operation.run(threadIndex, count);
+                    count++;
+                  }
+                  counts[threadIndex] = count;
+                }
+              });
+      threads[i].start();
+    }
+    start.countDown();
+    TimeUnit.MILLISECONDS.sleep(millis);
+    isRunning.set(false);
+    long total = 0;
+    for (int i = 0; i < threadCount; i++) {
+      threads[i].join();
+      total += counts[i];
+    }
+    return total;
+  }
+
+  /** A single benchmarked operation. */
+  public interface Operation {
+    /**
+     * @param threadIndex The index of the calling thread, from 0 to the thread count.
+     * @param iteration The number of times this thread has run the operation so far.
+     */
+    void run(int threadIndex, long iteration);
+  }
+}
@@ -0,0 +1,52 @@
+package com.bumptech.glide.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class FrequencySketchTest {
+  private final FrequencySketch<String> sketch = new FrequencySketch<>(/* expectedItems= */ 64);
+
+  @Test
+  public void frequency_withUnseenItem_returnsZero() {
+    assertThat(sketch.frequency("unseen")).isEqualTo(0);
+  }
+
+  @Test
+  public void frequency_afterIncrements_returnsCount() {
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("item");
+    }
+    assertThat(sketch.frequency("item")).isEqualTo(5);
+  }
+
+  @Test
+  public void frequency_isCappedAtFifteen() {
+    for (int i = 0; i < 20; i++) {
+      sketch.increment("item");
+    }
+    assertThat(sketch.frequency("item")).isEqualTo(15);
+  }
+
+  @Test
+  public void increment_afterSampleSize_halvesFrequencies() {
+    for (int i = 0; i < 15; i++) {
+      sketch.increment("popular");
+    }
+    // The sketch is 64 counters wide, so it ages after 640 additions.
+    for (int i = 0; i < 640; i++) {
+      sketch.increment("other" + i);
+    }
+    assertThat(sketch.frequency("popular")).isLessThan(15);
+  }
+
+  @Test
+  public void clear_resetsFrequencies() {
+    sketch.increment("item");
+    sketch.clear();
+    assertThat(sketch.frequency("item")).isEqualTo(0);
+  }
+}
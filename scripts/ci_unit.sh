@@ -25,6 +25,8 @@ set -e
   :integration:sqljournaldiskcache:assembleDebugUnitTest \
   -x :third_party:gif_decoder:testDebugUnitTest \
   :third_party:gif_decoder:assembleDebugUnitTest \
+  -x :benchmark:jmh:testDebugUnitTest \
+  :benchmark:jmh:assembleDebugUnitTest \
   :samples:flickr:build \
   :samples:giphy:build \
   :samples:contacturi:build \
@@ -34,11 +34,15 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -86,6 +90,14 @@ import java.util.concurrent.TimeUnit;
  * an error occurs while writing a cache value, the edit will fail silently.
  * Callers should handle other problems by catching {@code IOException} and
  * responding appropriately.
+ *
+ * <p>By default the journal is flushed every time an edit starts or completes.
+ * Caches opened with a journal flush delay instead group the journal records of
+ * all edits made within the delay into a single flush. Starting an edit of an
+ * existing entry still flushes immediately. If the process dies before a
+ * delayed flush, the affected edits are lost, but an entry is never reported
+ * as present without its data. Files left behind by lost edits are
+ * deleted the next time the cache is opened.
  */
 public final class DiskLruCache implements Closeable {
   static final String JOURNAL_FILE = "journal";
@@ -146,11 +158,13 @@ public final class DiskLruCache implements Closeable {
   private final int appVersion;
   private long maxSize;
   private final int valueCount;
+  private final long journalFlushDelayMillis;
   private long size = 0;
   private Writer journalWriter;
   private final LinkedHashMap<String, Entry> lruEntries =
       new LinkedHashMap<String, Entry>(0, 0.75f, true);
   private int redundantOpCount;
+  private long evictionCount;
 
   /**
    * To differentiate between old and current snapshots, each entry is given
@@ -163,6 +177,29 @@ public final class DiskLruCache implements Closeable {
   final ThreadPoolExecutor executorService =
       new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
           new DiskLruCacheThreadFactory());
+  /** Flushes the journal after a delay, created on first use if flushes are delayed. */
+  private ScheduledThreadPoolExecutor journalFlushExecutor;
+  private boolean isJournalFlushScheduled;
+  private final Callable<Void> journalFlushCallable = new Callable<Void>() {
+    public Void call() throws Exception {
+      Writer writer;
+      synchronized (DiskLruCache.this) {
+        isJournalFlushScheduled = false;
+        writer = journalWriter;
+      }
+      if (writer == null) {
+        return null; // Closed.
+      }
+      // The writer synchronizes internally, so flush without blocking the whole cache.
+      try {
+        flushWriter(writer);
+      } catch (IOException e) {
+        // The journal was closed or rebuilt concurrently, both of which flush it.
+      }
+      return null;
+    }
+  };
+
   private final Callable<Void> cleanupCallable = new Callable<Void>() {
     public Void call() throws Exception {
       synchronized (DiskLruCache.this) {
@@ -179,7 +216,8 @@ public final class DiskLruCache implements Closeable {
     }
   };
 
-  private DiskLruCache(File directory, int appVersion, int valueCount, long maxSize) {
+  private DiskLruCache(File directory, int appVersion, int valueCount, long maxSize,
+      long journalFlushDelayMillis) {
     this.directory = directory;
     this.appVersion = appVersion;
     this.journalFile = new File(directory, JOURNAL_FILE);
@@ -187,6 +225,7 @@ public final class DiskLruCache implements Closeable {
     this.journalFileBackup = new File(directory, JOURNAL_FILE_BACKUP);
     this.valueCount = valueCount;
     this.maxSize = maxSize;
+    this.journalFlushDelayMillis = journalFlushDelayMillis;
   }
 
   /**
@@ -200,12 +239,33 @@ public final class DiskLruCache implements Closeable {
    */
   public static DiskLruCache open(File directory, int appVersion, int valueCount, long maxSize)
       throws IOException {
+    return open(directory, appVersion, valueCount, maxSize, 0);
+  }
+
+  /**
+   * Opens the cache in {@code directory}, creating a cache if none exists
+   * there, and groups journal writes made within {@code journalFlushDelayMillis}
+   * of each other into a single flush.
+   *
+   * @param directory a writable directory
+   * @param valueCount the number of values per cache entry. Must be positive.
+   * @param maxSize the maximum number of bytes this cache should use to store
+   * @param journalFlushDelayMillis the maximum time journal records may be
+   *     buffered before they're flushed, or {@code 0} to flush them as soon as
+   *     each edit starts or completes.
+   * @throws IOException if reading or writing the cache directory fails
+   */
+  public static DiskLruCache open(File directory, int appVersion, int valueCount, long maxSize,
+      long journalFlushDelayMillis) throws IOException {
     if (maxSize <= 0) {
       throw new IllegalArgumentException("maxSize <= 0");
     }
     if (valueCount <= 0) {
       throw new IllegalArgumentException("valueCount <= 0");
     }
+    if (journalFlushDelayMillis < 0) {
+      throw new IllegalArgumentException("journalFlushDelayMillis < 0");
+    }
 
     // If a bkp file exists, use it instead.
     File backupFile = new File(directory, JOURNAL_FILE_BACKUP);
@@ -220,7 +280,8 @@ public final class DiskLruCache implements Closeable {
     }
 
     // Prefer to pick up where we left off.
-    DiskLruCache cache = new DiskLruCache(directory, appVersion, valueCount, maxSize);
+    DiskLruCache cache =
+        new DiskLruCache(directory, appVersion, valueCount, maxSize, journalFlushDelayMillis);
     if (cache.journalFile.exists()) {
       try {
         cache.readJournal();
@@ -239,7 +300,7 @@ public final class DiskLruCache implements Closeable {
 
     // Create a new empty cache.
     directory.mkdirs();
-    cache = new DiskLruCache(directory, appVersion, valueCount, maxSize);
+    cache = new DiskLruCache(directory, appVersion, valueCount, maxSize, journalFlushDelayMillis);
     cache.rebuildJournal();
     return cache;
   }
@@ -344,6 +405,33 @@ public final class DiskLruCache implements Closeable {
         i.remove();
       }
     }
+    if (journalFlushDelayMillis > 0) {
+      deleteUnreferencedFiles();
+    }
+  }
+
+  /**
+   * Deletes files for edits whose journal records were lost because the
+   * process died before a delayed journal flush.
+   */
+  private void deleteUnreferencedFiles() throws IOException {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    Set<File> referenced = new HashSet<File>();
+    referenced.add(journalFile);
+    referenced.add(journalFileBackup);
+    for (Entry entry : lruEntries.values()) {
+      for (int t = 0; t < valueCount; t++) {
+        referenced.add(entry.getCleanFile(t));
+      }
+    }
+    for (File file : files) {
+      if (file.isFile() && !referenced.contains(file)) {
+        deleteIfExists(file);
+      }
+    }
   }
 
   /**
@@ -464,15 +552,37 @@ public final class DiskLruCache implements Closeable {
     Editor editor = new Editor(entry);
     entry.currentEditor = editor;
 
-    // Flush the journal before creating files to prevent file leaks.
+    // Flush the journal before creating files to prevent file leaks. Delayed
+    // flushes instead rely on unreferenced files being deleted on open. Edits
+    // to readable entries always flush so that a crash can't leave a mix of
+    // old and new values behind the entry's previous CLEAN record.
     journalWriter.append(DIRTY);
     journalWriter.append(' ');
     journalWriter.append(key);
     journalWriter.append('\n');
-    flushWriter(journalWriter);
+    if (entry.readable) {
+      flushWriter(journalWriter);
+    } else {
+      flushJournal();
+    }
     return editor;
   }
 
+  /**
+   * Returns a snapshot of the keys of all entries that {@link #get} may
+   * currently return a value for.
+   */
+  public synchronized List<String> getReadableKeys() {
+    checkNotClosed();
+    List<String> result = new ArrayList<String>(lruEntries.size());
+    for (Entry entry : lruEntries.values()) {
+      if (entry.readable) {
+        result.add(entry.key);
+      }
+    }
+    return result;
+  }
+
   /** Returns the directory where this cache stores its data. */
   public File getDirectory() {
     return directory;
@@ -504,6 +614,14 @@ public final class DiskLruCache implements Closeable {
     return size;
   }
 
+  /**
+   * Returns the number of entries that have been removed to keep the size of
+   * this cache below its max size.
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
   private synchronized void completeEdit(Editor editor, boolean success) throws IOException {
     Entry entry = editor.entry;
     if (entry.currentEditor != editor) {
@@ -560,13 +678,40 @@ public final class DiskLruCache implements Closeable {
       journalWriter.append(entry.key);
       journalWriter.append('\n');
     }
-    flushWriter(journalWriter);
+    flushJournal();
 
     if (size > maxSize || journalRebuildRequired()) {
       executorService.submit(cleanupCallable);
     }
   }
 
+  /**
+   * Flushes the journal now, or schedules a flush if flushes are delayed and
+   * one isn't already pending.
+   */
+  private void flushJournal() throws IOException {
+    if (journalFlushDelayMillis == 0) {
+      flushWriter(journalWriter);
+      return;
+    }
+    if (!isJournalFlushScheduled) {
+      isJournalFlushScheduled = true;
+      getJournalFlushExecutor()
+          .schedule(journalFlushCallable, journalFlushDelayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private ScheduledThreadPoolExecutor getJournalFlushExecutor() {
+    if (journalFlushExecutor == null) {
+      journalFlushExecutor =
+          new ScheduledThreadPoolExecutor(1, new DiskLruCacheThreadFactory());
+      journalFlushExecutor.setKeepAliveTime(60L, TimeUnit.SECONDS);
+      journalFlushExecutor.allowCoreThreadTimeOut(true);
+      journalFlushExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+    return journalFlushExecutor;
+  }
+
   /**
    * We only rebuild the journal when it will halve the size of the journal
    * and eliminate at least 2000 ops.
@@ -645,12 +790,17 @@ public final class DiskLruCache implements Closeable {
     trimToSize();
     closeWriter(journalWriter);
     journalWriter = null;
+    if (journalFlushExecutor != null) {
+      journalFlushExecutor.shutdown();
+    }
   }
 
   private void trimToSize() throws IOException {
     while (size > maxSize) {
       Map.Entry<String, Entry> toEvict = lruEntries.entrySet().iterator().next();
-      remove(toEvict.getKey());
+      if (remove(toEvict.getKey())) {
+        evictionCount++;
+      }
     }
   }
 
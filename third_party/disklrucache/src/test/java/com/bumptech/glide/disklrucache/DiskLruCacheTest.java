@@ -521,6 +521,25 @@ public final class DiskLruCacheTest {
     cache.remove("a");
   }
 
+  @Test public void getReadableKeysExcludesUnpublishedAndRemovedEntries() throws Exception {
+    set("a", "a", "a");
+    set("b", "b", "b");
+    DiskLruCache.Editor creator = cache.edit("c");
+    creator.set(0, "c");
+    cache.remove("b");
+    assertThat(cache.getReadableKeys()).containsExactly("a");
+    creator.set(1, "c");
+    creator.commit();
+    assertThat(cache.getReadableKeys()).containsExactly("a", "c");
+  }
+
+  @Test public void getReadableKeysIncludesEntriesFromJournal() throws Exception {
+    set("a", "a", "a");
+    cache.close();
+    cache = DiskLruCache.open(cacheDir, appVersion, 2, Integer.MAX_VALUE);
+    assertThat(cache.getReadableKeys()).containsExactly("a");
+  }
+
   @Test public void readingTheSameFileMultipleTimes() throws Exception {
     set("a", "a", "b");
     DiskLruCache.Value value = cache.get("a");
@@ -772,6 +791,122 @@ public final class DiskLruCacheTest {
     assertThat(cache.get("a")).isNull();
   }
 
+  @Test public void openWithNegativeJournalFlushDelayThrows() throws Exception {
+    try {
+      DiskLruCache.open(cacheDir, appVersion, 2, Integer.MAX_VALUE, -1);
+      Assert.fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test public void delayedJournalFlushGroupsEdits() throws Exception {
+    reopenWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    set("k1", "A", "B");
+    set("k2", "C", "D");
+    assertJournalEquals();
+
+    cache.flush();
+    assertJournalEquals("DIRTY k1", "CLEAN k1 1 1", "DIRTY k2", "CLEAN k2 1 1");
+  }
+
+  @Test public void delayedJournalFlushFlushesAfterDelay() throws Exception {
+    reopenWithJournalFlushDelay(10);
+    set("k1", "A", "B");
+
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while (readJournalLines().size() < 7 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertJournalEquals("DIRTY k1", "CLEAN k1 1 1");
+  }
+
+  @Test public void delayedJournalFlushFlushesEditOfExistingEntryImmediately() throws Exception {
+    reopenWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    set("k1", "A", "B");
+
+    DiskLruCache.Editor editor = cache.edit("k1");
+    assertJournalEquals("DIRTY k1", "CLEAN k1 1 1", "DIRTY k1");
+    editor.abort();
+  }
+
+  @Test public void crashBeforeDelayedJournalFlushDropsNewEntry() throws Exception {
+    reopenWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    set("k1", "A", "B");
+
+    DiskLruCache crashed = simulateCrashWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    assertAbsent("k1");
+    crashed.close();
+  }
+
+  @Test public void crashBeforeDelayedJournalFlushDropsPartialEdit() throws Exception {
+    reopenWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    cache.edit("k1").set(0, "A");
+
+    DiskLruCache crashed = simulateCrashWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    assertAbsent("k1");
+    crashed.close();
+  }
+
+  @Test public void crashBeforeDelayedJournalFlushDropsUpdatedEntry() throws Exception {
+    reopenWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    set("k1", "A", "B");
+    cache.flush();
+    set("k1", "CC", "DD");
+
+    DiskLruCache crashed = simulateCrashWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    assertAbsent("k1");
+    crashed.close();
+  }
+
+  @Test public void crashBeforeDelayedJournalFlushKeepsFlushedEntries() throws Exception {
+    reopenWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    set("k1", "A", "B");
+    cache.flush();
+    set("k2", "C", "D");
+
+    DiskLruCache crashed = simulateCrashWithJournalFlushDelay(TimeUnit.HOURS.toMillis(1));
+    assertValue("k1", "A", "B");
+    assertAbsent("k2");
+    crashed.close();
+  }
+
+  @Test public void openWithDelayedJournalFlushDeletesUnreferencedFiles() throws Exception {
+    cache.close();
+    createJournal("CLEAN k1 1 1");
+    writeFile(getCleanFile("k1", 0), "A");
+    writeFile(getCleanFile("k1", 1), "B");
+    writeFile(getDirtyFile("k1", 0), "C");
+    writeFile(getCleanFile("k2", 0), "D");
+    writeFile(getCleanFile("k2", 1), "E");
+
+    cache = DiskLruCache.open(
+        cacheDir, appVersion, 2, Integer.MAX_VALUE, TimeUnit.HOURS.toMillis(1));
+    assertValue("k1", "A", "B");
+    FileSubject.assertThat(getDirtyFile("k1", 0)).doesNotExist();
+    assertAbsent("k2");
+  }
+
+  private void reopenWithJournalFlushDelay(long journalFlushDelayMillis) throws Exception {
+    cache.close();
+    cache = DiskLruCache.open(
+        cacheDir, appVersion, 2, Integer.MAX_VALUE, journalFlushDelayMillis);
+  }
+
+  /**
+   * Simulates the process dying by opening the cache directory again without
+   * closing {@code cache}, which loses any journal records it hasn't flushed.
+   *
+   * <p>Returns the abandoned cache, which must only be closed once the test is
+   * done because closing it writes the lost records.
+   */
+  private DiskLruCache simulateCrashWithJournalFlushDelay(long journalFlushDelayMillis)
+      throws Exception {
+    DiskLruCache crashed = cache;
+    cache = DiskLruCache.open(
+        cacheDir, appVersion, 2, Integer.MAX_VALUE, journalFlushDelayMillis);
+    return crashed;
+  }
+
   private void assertJournalEquals(String... expectedBodyLines) throws Exception {
     List<String> expectedLines = new ArrayList<String>();
     expectedLines.add(MAGIC);